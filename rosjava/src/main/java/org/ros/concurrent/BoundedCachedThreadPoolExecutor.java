@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ThreadPoolExecutor} that behaves like
+ * {@link java.util.concurrent.Executors#newCachedThreadPool()} until the
+ * maximum number of threads is reached and queues tasks after that.
+ * <p>
+ * A plain {@link ThreadPoolExecutor} only starts threads beyond the core pool
+ * size once its queue is full. That means it either never grows (unbounded
+ * queue) or rejects tasks (bounded queue) once all threads are busy.
+ */
+public class BoundedCachedThreadPoolExecutor extends ThreadPoolExecutor {
+
+  /**
+   * The number of tasks that have been submitted and have not completed yet.
+   */
+  private final AtomicInteger numberOfPendingTasks;
+  private final ExecutorMetrics metrics;
+
+  private static final class TaskQueue extends LinkedBlockingQueue<Runnable> {
+
+    private BoundedCachedThreadPoolExecutor executor;
+
+    @Override
+    public boolean offer(Runnable task) {
+      int poolSize = executor.getPoolSize();
+      // Queue the task if an idle thread will pick it up.
+      if (executor.numberOfPendingTasks.get() <= poolSize) {
+        return super.offer(task);
+      }
+      // Reject the task so that the executor starts a new thread for it.
+      if (poolSize < executor.getMaximumPoolSize()) {
+        return false;
+      }
+      return super.offer(task);
+    }
+
+    boolean force(Runnable task) {
+      return super.offer(task);
+    }
+  }
+
+  private static final class QueueingPolicy implements RejectedExecutionHandler {
+    @Override
+    public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+      // The executor may have reached its maximum number of threads after the
+      // TaskQueue offered to start a new one.
+      if (executor.isShutdown() || !((TaskQueue) executor.getQueue()).force(task)) {
+        throw new RejectedExecutionException();
+      }
+    }
+  }
+
+  /**
+   * @param corePoolSize
+   *          the number of threads that are kept alive even if they are idle
+   * @param maxPoolSize
+   *          the maximum number of threads
+   * @param keepAlive
+   *          how long threads above the core pool size are kept alive while
+   *          idle
+   * @param unit
+   *          the {@link TimeUnit} of the keep alive time
+   * @param threadFactory
+   *          the {@link ThreadFactory} used to create new threads
+   */
+  public BoundedCachedThreadPoolExecutor(int corePoolSize, int maxPoolSize, long keepAlive,
+      TimeUnit unit, ThreadFactory threadFactory) {
+    super(corePoolSize, maxPoolSize, keepAlive, unit, new TaskQueue(), threadFactory,
+        new QueueingPolicy());
+    ((TaskQueue) getQueue()).executor = this;
+    numberOfPendingTasks = new AtomicInteger();
+    metrics = new ExecutorMetrics();
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Runnable instrumented = metrics.instrument(command);
+    numberOfPendingTasks.incrementAndGet();
+    try {
+      super.execute(instrumented);
+    } catch (RejectedExecutionException e) {
+      numberOfPendingTasks.decrementAndGet();
+      metrics.rejected();
+      throw e;
+    }
+  }
+
+  @Override
+  protected void afterExecute(Runnable task, Throwable throwable) {
+    numberOfPendingTasks.decrementAndGet();
+  }
+
+  public ExecutorMetrics getMetrics() {
+    return metrics;
+  }
+}
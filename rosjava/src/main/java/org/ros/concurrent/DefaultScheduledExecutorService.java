@@ -17,9 +17,12 @@
 package org.ros.concurrent;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -28,29 +31,61 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
- * This wraps a {@link Executors#newCachedThreadPool()} and a
+ * This wraps a {@link BoundedCachedThreadPoolExecutor} and a
  * {@link Executors#newScheduledThreadPool(int)} to provide the functionality of
  * both in a single {@link ScheduledExecutorService}. This is necessary since
  * the {@link ScheduledExecutorService} uses an unbounded queue which makes it
  * impossible to create an unlimited number of threads on demand (as explained
  * in the {@link ThreadPoolExecutor} class javadoc.
+ * <p>
+ * It also provides a fixed size dispatcher pool that is shared by the
+ * {@link EventDispatcher}s of all {@link ListenerGroup}s that use it, and an
+ * {@link InstrumentedExecutor} for each {@link Subsystem}. The pool sizes are
+ * configured with {@link ExecutorOptions}. See
+ * {@link ExecutorOptions#dispatcherPoolSize(int)} for how blocking listeners
+ * affect the dispatcher pool.
+ * <p>
+ * A {@link BoundedCachedThreadPoolExecutor} only runs tasks that finish. Tasks
+ * that never do, i.e. {@link CancellableLoop}s and the network I/O threads of
+ * the {@link Subsystem#TRANSPORT}, would otherwise hold on to its threads
+ * forever and starve everything else. They run on an unbounded pool of their
+ * own instead.
  * 
  * @author damonkohler@google.com (Damon Kohler)
  */
-public class DefaultScheduledExecutorService implements ScheduledExecutorService {
-
-  private static final int CORE_POOL_SIZE = 11;
+public class DefaultScheduledExecutorService implements ScheduledExecutorService,
+    DispatcherPoolProvider, SubsystemExecutorProvider {
 
   private final ExecutorService executorService;
   private final ScheduledExecutorService scheduledExecutorService;
+  /**
+   * {@code null} if the dispatcher pool is disabled.
+   */
+  private final ExecutorService dispatcherPool;
+
+  /**
+   * Runs tasks that do not finish until they are cancelled, {@code null} if
+   * they run on the {@link #executorService}.
+   */
+  private final ExecutorService loopExecutorService;
+  private final Map<Subsystem, InstrumentedExecutor> subsystemExecutors;
 
   public DefaultScheduledExecutorService() {
-    this(Executors.newCachedThreadPool());
+    this(new ExecutorOptions());
+  }
+
+  public DefaultScheduledExecutorService(ExecutorOptions options) {
+    this(new BoundedCachedThreadPoolExecutor(options.getCorePoolSize(), options.getMaxPoolSize(),
+        options.getKeepAliveNanos(), TimeUnit.NANOSECONDS, newThreadFactory("executor")),
+        Executors.newScheduledThreadPool(options.getSchedulerPoolSize(),
+            newThreadFactory("scheduler")), options.getDispatcherPoolSize(),
+        Executors.newCachedThreadPool(newThreadFactory("loop")));
   }
 
   /**
@@ -59,7 +94,8 @@ public class DefaultScheduledExecutorService implements ScheduledExecutorService
    * @param executorService
    */
   public DefaultScheduledExecutorService(ExecutorService executorService) {
-    this(executorService, Executors.newScheduledThreadPool(CORE_POOL_SIZE));
+    this(executorService, Executors.newScheduledThreadPool(
+        ExecutorOptions.DEFAULT_SCHEDULER_POOL_SIZE, newThreadFactory("scheduler")));
   }
 
   /**
@@ -70,14 +106,131 @@ public class DefaultScheduledExecutorService implements ScheduledExecutorService
    */
   public DefaultScheduledExecutorService(ExecutorService executorService,
       ScheduledExecutorService scheduledExecutorService) {
+    this(executorService, scheduledExecutorService, ExecutorOptions.DEFAULT_DISPATCHER_POOL_SIZE);
+  }
+
+  /**
+   * This instance will take over the lifecycle of the services.
+   * 
+   * @param dispatcherPoolSize
+   *          the number of threads that dispatch events to listeners, or 0 to
+   *          run each {@link EventDispatcher} on the {@link ExecutorService}
+   */
+  protected DefaultScheduledExecutorService(ExecutorService executorService,
+      ScheduledExecutorService scheduledExecutorService, int dispatcherPoolSize) {
+    this(executorService, scheduledExecutorService, dispatcherPoolSize, null);
+  }
+
+  private DefaultScheduledExecutorService(ExecutorService executorService,
+      ScheduledExecutorService scheduledExecutorService, int dispatcherPoolSize,
+      ExecutorService loopExecutorService) {
     this.executorService = executorService;
     this.scheduledExecutorService = scheduledExecutorService;
+    this.loopExecutorService = loopExecutorService;
+    if (dispatcherPoolSize > 0) {
+      dispatcherPool =
+          Executors.newFixedThreadPool(dispatcherPoolSize, newThreadFactory("dispatcher"));
+    } else {
+      dispatcherPool = null;
+    }
+    subsystemExecutors = Maps.newEnumMap(Subsystem.class);
+    for (Subsystem subsystem : Subsystem.values()) {
+      Executor executor = executorService;
+      if (subsystem == Subsystem.DISPATCH && dispatcherPool != null) {
+        executor = dispatcherPool;
+      } else if (subsystem == Subsystem.TRANSPORT && loopExecutorService != null) {
+        executor = loopExecutorService;
+      }
+      subsystemExecutors.put(subsystem, new InstrumentedExecutor(executor, subsystem));
+    }
+  }
+
+  private static ThreadFactory newThreadFactory(String name) {
+    return new ThreadFactoryBuilder().setNameFormat("rosjava-" + name + "-%d").build();
+  }
+
+  /**
+   * @return the dispatcher pool, or {@code null} if it was disabled with
+   *         {@link ExecutorOptions#dispatcherPoolSize(int)}
+   */
+  @Override
+  public Executor getDispatcherPool() {
+    if (dispatcherPool == null) {
+      return null;
+    }
+    return subsystemExecutors.get(Subsystem.DISPATCH);
+  }
+
+  @Override
+  public InstrumentedExecutor getExecutor(Subsystem subsystem) {
+    return subsystemExecutors.get(subsystem);
+  }
+
+  /**
+   * @return the {@link ExecutorMetrics} of all tasks executed immediately, or
+   *         {@code null} if the wrapped {@link ExecutorService} is not a
+   *         {@link BoundedCachedThreadPoolExecutor}
+   */
+  public ExecutorMetrics getMetrics() {
+    if (executorService instanceof BoundedCachedThreadPoolExecutor) {
+      return ((BoundedCachedThreadPoolExecutor) executorService).getMetrics();
+    }
+    return null;
+  }
+
+  /**
+   * @param subsystem
+   *          a {@link Subsystem}
+   * @return the {@link ExecutorMetrics} of the tasks the {@link Subsystem}
+   *         executed
+   */
+  public ExecutorMetrics getMetrics(Subsystem subsystem) {
+    return subsystemExecutors.get(subsystem).getMetrics();
+  }
+
+  /**
+   * @return the number of tasks waiting for a thread, or 0 if the wrapped
+   *         {@link ExecutorService} is not a {@link ThreadPoolExecutor}
+   */
+  public int getQueueDepth() {
+    if (executorService instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) executorService).getQueue().size();
+    }
+    return 0;
+  }
+
+  /**
+   * @return the number of threads that are executing tasks, or 0 if the
+   *         wrapped {@link ExecutorService} is not a {@link ThreadPoolExecutor}
+   */
+  public int getNumberOfActiveThreads() {
+    if (executorService instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) executorService).getActiveCount();
+    }
+    return 0;
+  }
+
+  /**
+   * @return the number of threads in the pool, or 0 if the wrapped
+   *         {@link ExecutorService} is not a {@link ThreadPoolExecutor}
+   */
+  public int getNumberOfThreads() {
+    if (executorService instanceof ThreadPoolExecutor) {
+      return ((ThreadPoolExecutor) executorService).getPoolSize();
+    }
+    return 0;
   }
 
   @Override
   public void shutdown() {
     executorService.shutdown();
     scheduledExecutorService.shutdown();
+    if (dispatcherPool != null) {
+      dispatcherPool.shutdown();
+    }
+    if (loopExecutorService != null) {
+      loopExecutorService.shutdown();
+    }
   }
 
   @Override
@@ -85,25 +238,36 @@ public class DefaultScheduledExecutorService implements ScheduledExecutorService
     List<Runnable> combined = Lists.newArrayList();
     combined.addAll(executorService.shutdownNow());
     combined.addAll(scheduledExecutorService.shutdownNow());
+    if (dispatcherPool != null) {
+      combined.addAll(dispatcherPool.shutdownNow());
+    }
+    if (loopExecutorService != null) {
+      combined.addAll(loopExecutorService.shutdownNow());
+    }
     return combined;
   }
 
   @Override
   public boolean isShutdown() {
-    return executorService.isShutdown() && scheduledExecutorService.isShutdown();
+    return executorService.isShutdown() && scheduledExecutorService.isShutdown()
+        && (dispatcherPool == null || dispatcherPool.isShutdown())
+        && (loopExecutorService == null || loopExecutorService.isShutdown());
   }
 
   @Override
   public boolean isTerminated() {
-    return executorService.isTerminated() && scheduledExecutorService.isTerminated();
+    return executorService.isTerminated() && scheduledExecutorService.isTerminated()
+        && (dispatcherPool == null || dispatcherPool.isTerminated())
+        && (loopExecutorService == null || loopExecutorService.isTerminated());
   }
 
   /**
    * First calls {@link #awaitTermination(long, TimeUnit)} on the wrapped
-   * {@link ExecutorService} and then {@link #awaitTermination(long, TimeUnit)}
-   * on the wrapped {@link ScheduledExecutorService}.
+   * {@link ExecutorService}, then {@link #awaitTermination(long, TimeUnit)} on
+   * the wrapped {@link ScheduledExecutorService} and finally on the dispatcher
+   * and loop pools.
    * 
-   * @return {@code true} if both {@link Executor}s terminated, {@code false}
+   * @return {@code true} if all {@link Executor}s terminated, {@code false}
    *         otherwise
    */
   @Override
@@ -111,7 +275,12 @@ public class DefaultScheduledExecutorService implements ScheduledExecutorService
     boolean executorServiceResult = executorService.awaitTermination(timeout, unit);
     boolean scheduledExecutorServiceResult =
         scheduledExecutorService.awaitTermination(timeout, unit);
-    return executorServiceResult && scheduledExecutorServiceResult;
+    boolean dispatcherPoolResult =
+        dispatcherPool == null || dispatcherPool.awaitTermination(timeout, unit);
+    boolean loopExecutorServiceResult =
+        loopExecutorService == null || loopExecutorService.awaitTermination(timeout, unit);
+    return executorServiceResult && scheduledExecutorServiceResult && dispatcherPoolResult
+        && loopExecutorServiceResult;
   }
 
   @Override
@@ -153,9 +322,17 @@ public class DefaultScheduledExecutorService implements ScheduledExecutorService
     return executorService.invokeAny(tasks, timeout, unit);
   }
 
+  /**
+   * {@link CancellableLoop}s run on the loop pool so that they do not count
+   * towards the maximum number of threads.
+   */
   @Override
   public void execute(Runnable command) {
-    executorService.execute(command);
+    if (command instanceof CancellableLoop && loopExecutorService != null) {
+      loopExecutorService.execute(command);
+    } else {
+      executorService.execute(command);
+    }
   }
 
   @Override
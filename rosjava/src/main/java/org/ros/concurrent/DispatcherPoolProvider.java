@@ -0,0 +1,39 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Provides a bounded pool of threads that {@link EventDispatcher}s share
+ * instead of each occupying a thread of their own.
+ * <p>
+ * Listeners that block occupy a thread of the pool for as long as they block.
+ * If all of its threads are blocked, no other listener of any node sharing the
+ * pool receives events until one of them returns.
+ * <p>
+ * {@link ListenerGroup}s use the pool if their {@link Executor} implements this
+ * interface.
+ */
+public interface DispatcherPoolProvider {
+
+  /**
+   * @return the {@link Executor} to dispatch events on, or {@code null} if
+   *         each {@link EventDispatcher} should run in its own thread
+   */
+  Executor getDispatcherPool();
+}
@@ -16,8 +16,21 @@
 
 package org.ros.concurrent;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Calls a listener with queued events in the order they were signaled.
+ * <p>
+ * An {@link EventDispatcher} either runs as a {@link CancellableLoop} in a
+ * thread of its own or, if it is created with a dispatcher pool, schedules
+ * itself on the pool whenever events are queued. In both cases, at most one
+ * event is dispatched to the listener at a time.
+ * 
  * @author damonkohler@google.com (Damon Kohler)
  * 
  * @param <T>
@@ -25,16 +38,87 @@ package org.ros.concurrent;
  */
 public class EventDispatcher<T> extends CancellableLoop {
 
+  private static final Log log = LogFactory.getLog(EventDispatcher.class);
+
+  /**
+   * The maximum number of events dispatched on a pool thread before giving
+   * other {@link EventDispatcher}s a turn.
+   */
+  private static final int MAX_EVENTS_PER_TURN = 16;
+
   private final T listener;
-  private final CircularBlockingDeque<SignalRunnable<T>> events;
+  private final RingBuffer<SignalRunnable<T>> events;
+  private final Executor dispatcherPool;
+  private final AtomicBoolean scheduled;
+  private final Runnable turn;
 
+  private volatile boolean cancelled;
+
+  /**
+   * Creates an {@link EventDispatcher} that must be run in a thread of its own.
+   */
   public EventDispatcher(T listener, int queueCapacity) {
+    this(listener, queueCapacity, null);
+  }
+
+  /**
+   * Creates an {@link EventDispatcher} that dispatches events on a shared pool.
+   * It must not be run.
+   * 
+   * @param dispatcherPool
+   *          the {@link Executor} to dispatch events on, or {@code null} if
+   *          this {@link EventDispatcher} will run in a thread of its own
+   */
+  public EventDispatcher(T listener, int queueCapacity, Executor dispatcherPool) {
     this.listener = listener;
-    events = new CircularBlockingDeque<SignalRunnable<T>>(queueCapacity);
+    this.dispatcherPool = dispatcherPool;
+    events = new RingBuffer<SignalRunnable<T>>(queueCapacity);
+    scheduled = new AtomicBoolean(false);
+    turn = new Runnable() {
+      @Override
+      public void run() {
+        dispatchTurn();
+      }
+    };
+    cancelled = false;
   }
 
   public void signal(final SignalRunnable<T> signalRunnable) {
     events.addLast(signalRunnable);
+    if (dispatcherPool != null) {
+      schedule();
+    }
+  }
+
+  private void schedule() {
+    if (!cancelled && scheduled.compareAndSet(false, true)) {
+      try {
+        dispatcherPool.execute(turn);
+      } catch (RejectedExecutionException e) {
+        // The pool has been shut down along with the node.
+        scheduled.set(false);
+      }
+    }
+  }
+
+  private void dispatchTurn() {
+    for (int i = 0; i < MAX_EVENTS_PER_TURN && !cancelled; i++) {
+      SignalRunnable<T> signalRunnable = events.pollFirst();
+      if (signalRunnable == null) {
+        break;
+      }
+      try {
+        signalRunnable.run(listener);
+      } catch (RuntimeException e) {
+        log.error("Listener failed to handle event.", e);
+      }
+    }
+    scheduled.set(false);
+    // Events signaled after the last poll above were not able to schedule
+    // another turn while this one was still running.
+    if (!events.isEmpty()) {
+      schedule();
+    }
   }
 
   @Override
@@ -43,8 +127,14 @@ public class EventDispatcher<T> extends CancellableLoop {
     signalRunnable.run(listener);
   }
 
+  @Override
+  public void cancel() {
+    cancelled = true;
+    super.cancel();
+  }
+
   public T getListener()
   {
     return listener;
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the tasks of an {@link java.util.concurrent.Executor} and how long
+ * they waited before they started running.
+ */
+public class ExecutorMetrics {
+
+  private final AtomicLong numberOfSubmittedTasks;
+  private final AtomicLong numberOfCompletedTasks;
+  private final AtomicInteger numberOfActiveTasks;
+  private final AtomicLong totalLatencyNanos;
+  private final AtomicLong maxLatencyNanos;
+
+  public ExecutorMetrics() {
+    numberOfSubmittedTasks = new AtomicLong();
+    numberOfCompletedTasks = new AtomicLong();
+    numberOfActiveTasks = new AtomicInteger();
+    totalLatencyNanos = new AtomicLong();
+    maxLatencyNanos = new AtomicLong();
+  }
+
+  /**
+   * Wraps the task to record when it starts and completes.
+   * 
+   * @param task
+   *          the task that is about to be submitted
+   * @return the {@link Runnable} to submit instead
+   */
+  public Runnable instrument(final Runnable task) {
+    final long submitTime = System.nanoTime();
+    numberOfSubmittedTasks.incrementAndGet();
+    return new Runnable() {
+      @Override
+      public void run() {
+        recordLatency(System.nanoTime() - submitTime);
+        numberOfActiveTasks.incrementAndGet();
+        try {
+          task.run();
+        } finally {
+          numberOfActiveTasks.decrementAndGet();
+          numberOfCompletedTasks.incrementAndGet();
+        }
+      }
+    };
+  }
+
+  /**
+   * Must be called if a task returned by {@link #instrument(Runnable)} was
+   * rejected.
+   */
+  public void rejected() {
+    numberOfSubmittedTasks.decrementAndGet();
+  }
+
+  private void recordLatency(long latencyNanos) {
+    totalLatencyNanos.addAndGet(latencyNanos);
+    long max = maxLatencyNanos.get();
+    while (latencyNanos > max && !maxLatencyNanos.compareAndSet(max, latencyNanos)) {
+      max = maxLatencyNanos.get();
+    }
+  }
+
+  public long getNumberOfSubmittedTasks() {
+    return numberOfSubmittedTasks.get();
+  }
+
+  public long getNumberOfCompletedTasks() {
+    return numberOfCompletedTasks.get();
+  }
+
+  /**
+   * @return the number of tasks that are currently running
+   */
+  public int getNumberOfActiveTasks() {
+    return numberOfActiveTasks.get();
+  }
+
+  /**
+   * @return the number of tasks that were submitted but have not started yet
+   */
+  public long getNumberOfQueuedTasks() {
+    return Math.max(0, numberOfSubmittedTasks.get() - numberOfCompletedTasks.get()
+        - numberOfActiveTasks.get());
+  }
+
+  /**
+   * @return the average time in nanoseconds that started tasks waited before
+   *         they started running
+   */
+  public long getAverageLatencyNanos() {
+    long started = numberOfCompletedTasks.get() + numberOfActiveTasks.get();
+    return started == 0 ? 0 : totalLatencyNanos.get() / started;
+  }
+
+  /**
+   * @return the longest time in nanoseconds that a task waited before it
+   *         started running
+   */
+  public long getMaxLatencyNanos() {
+    return maxLatencyNanos.get();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a way of specifying the thread pool sizes of a
+ * {@link DefaultScheduledExecutorService}.
+ */
+public class ExecutorOptions {
+
+  public static final int DEFAULT_CORE_POOL_SIZE = 0;
+  public static final int DEFAULT_MAX_POOL_SIZE = Integer.MAX_VALUE;
+  public static final long DEFAULT_KEEP_ALIVE_NANOS = TimeUnit.SECONDS.toNanos(60);
+  public static final int DEFAULT_SCHEDULER_POOL_SIZE = 11;
+  public static final int DEFAULT_DISPATCHER_POOL_SIZE = Math.max(4, Runtime.getRuntime()
+      .availableProcessors());
+
+  private int corePoolSize;
+  private int maxPoolSize;
+  private long keepAliveNanos;
+  private int schedulerPoolSize;
+  private int dispatcherPoolSize;
+
+  public ExecutorOptions() {
+    corePoolSize = DEFAULT_CORE_POOL_SIZE;
+    maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+    keepAliveNanos = DEFAULT_KEEP_ALIVE_NANOS;
+    schedulerPoolSize = DEFAULT_SCHEDULER_POOL_SIZE;
+    dispatcherPoolSize = DEFAULT_DISPATCHER_POOL_SIZE;
+  }
+
+  /**
+   * Configures the pool that executes tasks immediately. Once all threads are
+   * busy and the maximum has been reached, tasks are queued until a thread
+   * becomes available.
+   * <p>
+   * Tasks that run until they are cancelled (e.g. {@link CancellableLoop}s such
+   * as message dispatchers and queue writers) and network I/O threads run on a
+   * separate unbounded pool. They do not count towards the maximum. So, even a
+   * small maximum cannot starve them.
+   * 
+   * @param core
+   *          the number of threads that are kept alive even if they are idle
+   * @param max
+   *          the maximum number of threads
+   * @return this {@link ExecutorOptions} instance
+   */
+  public ExecutorOptions poolSize(int core, int max) {
+    Preconditions.checkArgument(core >= 0, "Core pool size must be non-negative.");
+    Preconditions.checkArgument(max > 0 && max >= core,
+        "Max pool size must be positive and at least the core pool size.");
+    corePoolSize = core;
+    maxPoolSize = max;
+    return this;
+  }
+
+  public int getCorePoolSize() {
+    return corePoolSize;
+  }
+
+  public int getMaxPoolSize() {
+    return maxPoolSize;
+  }
+
+  /**
+   * @param keepAlive
+   *          how long threads above the core pool size are kept alive while
+   *          idle
+   * @param unit
+   *          the {@link TimeUnit} of the keep alive time
+   * @return this {@link ExecutorOptions} instance
+   */
+  public ExecutorOptions keepAlive(long keepAlive, TimeUnit unit) {
+    Preconditions.checkArgument(keepAlive >= 0, "Keep alive time must be non-negative.");
+    keepAliveNanos = unit.toNanos(keepAlive);
+    return this;
+  }
+
+  /**
+   * @return the keep alive time in nanoseconds
+   */
+  public long getKeepAliveNanos() {
+    return keepAliveNanos;
+  }
+
+  /**
+   * @param size
+   *          the number of threads that run scheduled tasks
+   * @return this {@link ExecutorOptions} instance
+   */
+  public ExecutorOptions schedulerPoolSize(int size) {
+    Preconditions.checkArgument(size > 0, "Scheduler pool size must be positive.");
+    schedulerPoolSize = size;
+    return this;
+  }
+
+  public int getSchedulerPoolSize() {
+    return schedulerPoolSize;
+  }
+
+  /**
+   * Configures the pool that dispatches events to listeners, e.g.
+   * {@link org.ros.node.NodeListener}s and
+   * {@link org.ros.message.MessageListener}s.
+   * <p>
+   * The pool is shared by every node that runs on the same
+   * {@link DefaultScheduledExecutorService}. A listener that blocks holds on to
+   * one of its threads, so as many blocking listeners as there are threads
+   * stall event delivery for all of those nodes. Applications with listeners
+   * that block should use a larger pool, a separate
+   * {@link DefaultScheduledExecutorService} per node, or a size of 0 to give
+   * each listener a thread of its own as before.
+   * 
+   * @param size
+   *          the number of threads that dispatch events to listeners, or 0 to
+   *          not use a pool
+   * @return this {@link ExecutorOptions} instance
+   */
+  public ExecutorOptions dispatcherPoolSize(int size) {
+    Preconditions.checkArgument(size >= 0, "Dispatcher pool size must be non-negative.");
+    dispatcherPoolSize = size;
+    return this;
+  }
+
+  public int getDispatcherPoolSize() {
+    return dispatcherPoolSize;
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Executes the tasks of one {@link Subsystem} on a shared {@link Executor}.
+ * Threads are renamed after the {@link Subsystem} while they execute its
+ * tasks and {@link ExecutorMetrics} are kept for the {@link Subsystem}.
+ */
+public class InstrumentedExecutor implements Executor {
+
+  private final Executor executor;
+  private final Subsystem subsystem;
+  private final ExecutorMetrics metrics;
+
+  public InstrumentedExecutor(Executor executor, Subsystem subsystem) {
+    this.executor = executor;
+    this.subsystem = subsystem;
+    metrics = new ExecutorMetrics();
+  }
+
+  @Override
+  public void execute(final Runnable command) {
+    final Runnable instrumented = metrics.instrument(command);
+    try {
+      executor.execute(new Runnable() {
+        @Override
+        public void run() {
+          Thread thread = Thread.currentThread();
+          String name = thread.getName();
+          thread.setName(String.format("rosjava-%s-%d", subsystem.getName(), thread.getId()));
+          try {
+            instrumented.run();
+          } finally {
+            thread.setName(name);
+          }
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      metrics.rejected();
+      throw e;
+    }
+  }
+
+  public Subsystem getSubsystem() {
+    return subsystem;
+  }
+
+  public ExecutorMetrics getMetrics() {
+    return metrics;
+  }
+}
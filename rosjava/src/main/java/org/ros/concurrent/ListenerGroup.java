@@ -21,11 +21,16 @@ import com.google.common.collect.Lists;
 
 import java.util.Collection;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 /**
  * A group of listeners.
+ * <p>
+ * If the {@link ExecutorService} is a {@link DispatcherPoolProvider}, events
+ * are dispatched on its bounded pool. Otherwise, each listener is called from a
+ * thread of its own.
  * 
  * @author damonkohler@google.com (Damon Kohler)
  */
@@ -34,10 +39,16 @@ public class ListenerGroup<T> {
   private final static int DEFAULT_QUEUE_CAPACITY = 128;
 
   private final ExecutorService executorService;
+  private final Executor dispatcherPool;
   private final Collection<EventDispatcher<T>> eventDispatchers;
 
   public ListenerGroup(ExecutorService executorService) {
     this.executorService = executorService;
+    if (executorService instanceof DispatcherPoolProvider) {
+      dispatcherPool = ((DispatcherPoolProvider) executorService).getDispatcherPool();
+    } else {
+      dispatcherPool = null;
+    }
     eventDispatchers = Lists.newCopyOnWriteArrayList();
   }
 
@@ -52,9 +63,12 @@ public class ListenerGroup<T> {
    *         listener
    */
   public EventDispatcher<T> add(T listener, int queueCapacity) {
-    EventDispatcher<T> eventDispatcher = new EventDispatcher<T>(listener, queueCapacity);
+    EventDispatcher<T> eventDispatcher =
+        new EventDispatcher<T>(listener, queueCapacity, dispatcherPool);
     eventDispatchers.add(eventDispatcher);
-    executorService.execute(eventDispatcher);
+    if (dispatcherPool == null) {
+      executorService.execute(eventDispatcher);
+    }
     return eventDispatcher;
   }
 
@@ -130,7 +144,8 @@ public class ListenerGroup<T> {
   /**
    * Signals all listeners.
    * <p>
-   * Each {@link SignalRunnable} is executed in a separate thread.
+   * Each {@link SignalRunnable} is executed in a separate thread or on the
+   * dispatcher pool.
    */
   public void signal(SignalRunnable<T> signalRunnable) {
     for (EventDispatcher<T> eventDispatcher : eventDispatchers) {
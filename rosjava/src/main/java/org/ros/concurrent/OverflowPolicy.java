@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+/**
+ * Determines what a {@link RingBuffer} does when an entry is added while it is
+ * full.
+ */
+public enum OverflowPolicy {
+
+  /**
+   * Overwrite the oldest entry.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Discard the new entry.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Wait until an entry is removed. The new entry is discarded if none is
+   * removed before the timeout expires.
+   * <p>
+   * Only use this where the adding thread may wait, e.g. for a
+   * {@link org.ros.node.topic.Publisher}'s queue.
+   */
+  BLOCK
+}
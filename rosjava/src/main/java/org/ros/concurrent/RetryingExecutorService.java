@@ -27,6 +27,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.CompletionService;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -98,11 +99,22 @@ public class RetryingExecutorService {
    *          the {@link ExecutorService} to wrap
    */
   public RetryingExecutorService(ScheduledExecutorService scheduledExecutorService) {
+    this(scheduledExecutorService, scheduledExecutorService);
+  }
+
+  /**
+   * @param scheduledExecutorService
+   *          the {@link ExecutorService} to wrap
+   * @param executor
+   *          the {@link Executor} that executes the submitted {@link Callable}s
+   */
+  public RetryingExecutorService(ScheduledExecutorService scheduledExecutorService,
+      Executor executor) {
     this.scheduledExecutorService = scheduledExecutorService;
     retryLoop = new RetryLoop();
     latches = Maps.newConcurrentMap();
     callables = Maps.newConcurrentMap();
-    completionService = new ExecutorCompletionService<Boolean>(scheduledExecutorService);
+    completionService = new ExecutorCompletionService<Boolean>(executor);
     mutex = new Object();
     retryDelay = DEFAULT_RETRY_DELAY;
     retryTimeUnit = DEFAULT_RETRY_TIME_UNIT;
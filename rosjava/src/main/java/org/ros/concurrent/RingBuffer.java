@@ -0,0 +1,316 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import com.google.common.base.Preconditions;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A lock-free bounded queue for any number of producers and consumers with the
+ * same semantics as {@link CircularBlockingDeque#addLast(Object)} and
+ * {@link CircularBlockingDeque#takeFirst()}.
+ * <p>
+ * Each slot carries a sequence number that tells producers and consumers
+ * whether it may be written or read at a given position. Positions are
+ * claimed by a compare-and-set on the head or tail counter. A producer that
+ * finds the buffer full under {@link OverflowPolicy#DROP_OLDEST} removes the
+ * oldest entry itself and tries again.
+ * <p>
+ * Waiting threads spin first, then yield and finally park. Consumers parked in
+ * {@link #takeFirst()} are unparked by the next producer. Producers only wait
+ * with {@link OverflowPolicy#BLOCK}, which must not be used where entries are
+ * added by I/O threads.
+ * 
+ * @param <T>
+ *          the entry type
+ */
+public class RingBuffer<T> {
+
+  private static final int SPIN_TRIES = 100;
+  private static final int YIELD_TRIES = 100;
+
+  /**
+   * How long a producer blocked by {@link OverflowPolicy#BLOCK} parks before
+   * checking for space again.
+   */
+  private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final int capacity;
+  private final AtomicReferenceArray<T> entries;
+  private final AtomicLongArray sequences;
+
+  /**
+   * The position of the next entry to remove.
+   */
+  private final AtomicLong head;
+
+  /**
+   * The position of the next entry to add.
+   */
+  private final AtomicLong tail;
+
+  private final OverflowPolicy overflowPolicy;
+  private final long blockTimeoutNanos;
+  private final Queue<Thread> parkedConsumers;
+
+  /**
+   * @param capacity
+   *          the maximum number of entries in the buffer
+   */
+  public RingBuffer(int capacity) {
+    this(capacity, OverflowPolicy.DROP_OLDEST, 0, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @param capacity
+   *          the maximum number of entries in the buffer
+   * @param overflowPolicy
+   *          the {@link OverflowPolicy} for adding to a full buffer
+   * @param blockTimeout
+   *          how long to wait for space with {@link OverflowPolicy#BLOCK}
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   */
+  public RingBuffer(int capacity, OverflowPolicy overflowPolicy, long blockTimeout, TimeUnit unit) {
+    Preconditions.checkArgument(capacity > 0, "Capacity must be positive.");
+    Preconditions.checkNotNull(overflowPolicy);
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    blockTimeoutNanos = unit.toNanos(blockTimeout);
+    entries = new AtomicReferenceArray<T>(capacity);
+    sequences = new AtomicLongArray(capacity);
+    for (int i = 0; i < capacity; i++) {
+      sequences.set(i, i);
+    }
+    head = new AtomicLong();
+    tail = new AtomicLong();
+    parkedConsumers = new ConcurrentLinkedQueue<Thread>();
+  }
+
+  private int index(long position) {
+    return (int) (position % capacity);
+  }
+
+  /**
+   * @return {@code true} if the entry was added, {@code false} if the buffer
+   *         is full
+   */
+  private boolean offer(T entry) {
+    while (true) {
+      long position = tail.get();
+      int index = index(position);
+      long difference = sequences.get(index) - position;
+      if (difference == 0) {
+        if (tail.compareAndSet(position, position + 1)) {
+          entries.set(index, entry);
+          sequences.set(index, position + 1);
+          return true;
+        }
+      } else if (difference < 0) {
+        return false;
+      }
+      // Another producer claimed this position first.
+    }
+  }
+
+  /**
+   * Adds the specified entry to the tail of the buffer. If the buffer is full,
+   * the {@link OverflowPolicy} decides whether the oldest entry is removed, the
+   * entry is discarded, or the caller waits for space.
+   * 
+   * @param entry
+   *          the entry to add
+   * @return {@code true} if the entry was added, {@code false} if it was
+   *         discarded
+   */
+  public boolean addLast(T entry) {
+    Preconditions.checkNotNull(entry);
+    if (!offer(entry)) {
+      switch (overflowPolicy) {
+        case DROP_OLDEST:
+          do {
+            pollFirst();
+          } while (!offer(entry));
+          break;
+        case DROP_NEWEST:
+          return false;
+        case BLOCK:
+          if (!offerBlocking(entry)) {
+            return false;
+          }
+          break;
+        default:
+          throw new IllegalStateException("Unknown overflow policy: " + overflowPolicy);
+      }
+    }
+    if (!parkedConsumers.isEmpty()) {
+      for (Thread thread : parkedConsumers) {
+        LockSupport.unpark(thread);
+      }
+    }
+    return true;
+  }
+
+  private boolean offerBlocking(T entry) {
+    long deadline = System.nanoTime() + blockTimeoutNanos;
+    int tries = 0;
+    while (!offer(entry)) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+        return false;
+      }
+      if (tries < SPIN_TRIES) {
+        tries++;
+      } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+        tries++;
+        Thread.yield();
+      } else {
+        LockSupport.parkNanos(this, Math.min(remaining, PRODUCER_PARK_NANOS));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Retrieves and removes the head of the buffer, returning {@code null} if the
+   * buffer is empty.
+   * 
+   * @return the head of the buffer, or {@code null} if the buffer is empty
+   */
+  public T pollFirst() {
+    while (true) {
+      long position = head.get();
+      int index = index(position);
+      long difference = sequences.get(index) - (position + 1);
+      if (difference == 0) {
+        if (head.compareAndSet(position, position + 1)) {
+          T entry = entries.get(index);
+          entries.set(index, null);
+          sequences.set(index, position + capacity);
+          return entry;
+        }
+      } else if (difference < 0) {
+        return null;
+      }
+      // Another consumer removed this entry first.
+    }
+  }
+
+  /**
+   * Retrieves and removes the head of the buffer, waiting if necessary until
+   * an entry is available.
+   * 
+   * @return the head of the buffer
+   * @throws InterruptedException
+   */
+  public T takeFirst() throws InterruptedException {
+    return pollFirst(0);
+  }
+
+  /**
+   * Retrieves and removes the head of the buffer, waiting up to the specified
+   * time if necessary until an entry is available.
+   * 
+   * @param timeout
+   *          how long to wait before giving up
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   * @return the head of the buffer, or {@code null} if the timeout elapsed
+   *         before an entry was available
+   * @throws InterruptedException
+   */
+  public T pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+    long timeoutNanos = unit.toNanos(timeout);
+    if (timeoutNanos <= 0) {
+      return pollFirst();
+    }
+    return pollFirst(System.nanoTime() + timeoutNanos);
+  }
+
+  /**
+   * @param deadline
+   *          the {@link System#nanoTime()} at which to give up, or 0 to wait
+   *          indefinitely
+   */
+  private T pollFirst(long deadline) throws InterruptedException {
+    int tries = 0;
+    while (true) {
+      T entry = pollFirst();
+      if (entry != null) {
+        return entry;
+      }
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      long remaining = 0;
+      if (deadline != 0) {
+        remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return null;
+        }
+      }
+      if (tries < SPIN_TRIES) {
+        tries++;
+      } else if (tries < SPIN_TRIES + YIELD_TRIES) {
+        tries++;
+        Thread.yield();
+      } else {
+        park(remaining);
+      }
+    }
+  }
+
+  private void park(long nanos) {
+    Thread thread = Thread.currentThread();
+    parkedConsumers.add(thread);
+    try {
+      // Producers only unpark consumers that were registered before the entry
+      // was published. So, check again after registering.
+      if (isEmpty()) {
+        if (nanos > 0) {
+          LockSupport.parkNanos(this, nanos);
+        } else {
+          LockSupport.park(this);
+        }
+      }
+    } finally {
+      parkedConsumers.remove(thread);
+    }
+  }
+
+  /**
+   * @return {@code true} if there is no entry available to remove
+   */
+  public boolean isEmpty() {
+    long position = head.get();
+    return sequences.get(index(position)) != position + 1;
+  }
+
+  /**
+   * @return the maximum number of entries in the buffer
+   */
+  public int getCapacity() {
+    return capacity;
+  }
+}
@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
@@ -18,7 +19,8 @@ import java.util.concurrent.TimeoutException;
  * 
  * @author khughes@google.com (Keith M. Hughes)
  */
-public class SharedScheduledExecutorService implements ScheduledExecutorService {
+public class SharedScheduledExecutorService implements ScheduledExecutorService,
+    DispatcherPoolProvider, SubsystemExecutorProvider {
 
   /**
    * The scheduledExecutorService {@link ScheduledExecutorService}.
@@ -85,6 +87,33 @@ public class SharedScheduledExecutorService implements ScheduledExecutorService
     return scheduledExecutorService.invokeAny(tasks);
   }
 
+  /**
+   * @return the dispatcher pool of the wrapped {@link ScheduledExecutorService}
+   *         if it has one, {@code null} otherwise
+   * @see DispatcherPoolProvider#getDispatcherPool()
+   */
+  @Override
+  public Executor getDispatcherPool() {
+    if (scheduledExecutorService instanceof DispatcherPoolProvider) {
+      return ((DispatcherPoolProvider) scheduledExecutorService).getDispatcherPool();
+    }
+    return null;
+  }
+
+  /**
+   * @return the {@link Executor} for the {@link Subsystem} of the wrapped
+   *         {@link ScheduledExecutorService} if it has one, {@code null}
+   *         otherwise
+   * @see SubsystemExecutorProvider#getExecutor(Subsystem)
+   */
+  @Override
+  public Executor getExecutor(Subsystem subsystem) {
+    if (scheduledExecutorService instanceof SubsystemExecutorProvider) {
+      return ((SubsystemExecutorProvider) scheduledExecutorService).getExecutor(subsystem);
+    }
+    return null;
+  }
+
   /**
    * @see java.util.concurrent.ExecutorService#isShutdown()
    */
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import java.util.concurrent.Executor;
+
+/**
+ * The parts of a node that execute tasks on a shared
+ * {@link java.util.concurrent.ScheduledExecutorService}.
+ */
+public enum Subsystem {
+
+  /**
+   * TCPROS connections.
+   */
+  TRANSPORT("transport"),
+
+  /**
+   * Delivery of events to listeners.
+   */
+  DISPATCH("dispatch"),
+
+  /**
+   * Registration with the master.
+   */
+  REGISTRATION("registration"),
+
+  /**
+   * XML-RPC calls to other nodes (e.g. topic requests to publishers).
+   */
+  XML_RPC("xmlrpc");
+
+  private final String name;
+
+  private Subsystem(String name) {
+    this.name = name;
+  }
+
+  /**
+   * @return the name used for threads while they execute tasks of this
+   *         subsystem
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @param executor
+   *          the {@link Executor} shared by all subsystems
+   * @return the {@link Executor} for this subsystem if the supplied
+   *         {@link Executor} is a {@link SubsystemExecutorProvider}, the
+   *         supplied {@link Executor} otherwise
+   */
+  public Executor getExecutor(Executor executor) {
+    if (executor instanceof SubsystemExecutorProvider) {
+      Executor subsystemExecutor = ((SubsystemExecutorProvider) executor).getExecutor(this);
+      if (subsystemExecutor != null) {
+        return subsystemExecutor;
+      }
+    }
+    return executor;
+  }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Provides a separately named and instrumented {@link Executor} for each
+ * {@link Subsystem}.
+ */
+public interface SubsystemExecutorProvider {
+
+  /**
+   * @param subsystem
+   *          the {@link Subsystem} that will submit tasks
+   * @return the {@link Executor} for the {@link Subsystem}, or {@code null}
+   *         if there is none
+   */
+  Executor getExecutor(Subsystem subsystem);
+}
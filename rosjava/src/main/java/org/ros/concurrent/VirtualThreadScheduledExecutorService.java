@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A {@link DefaultScheduledExecutorService} that runs each task submitted for
+ * immediate execution on its own virtual thread. Scheduled tasks still run on
+ * a small pool of platform threads and should hand off any blocking work.
+ * <p>
+ * Most of what a node executes (e.g. {@link CancellableLoop}s, message
+ * dispatchers and service request handlers) spends its time blocked waiting
+ * for work, which makes virtual threads a much cheaper fit than one platform
+ * thread each. For the same reason, each {@link EventDispatcher} runs on a
+ * virtual thread of its own instead of sharing the dispatcher pool. Virtual
+ * threads are looked up at runtime so that rosjava still runs on older JVMs.
+ * If they are not available, a cached thread pool and the dispatcher pool are
+ * used instead.
+ */
+public class VirtualThreadScheduledExecutorService extends DefaultScheduledExecutorService {
+
+  private static final Log log = LogFactory.getLog(VirtualThreadScheduledExecutorService.class);
+
+  /**
+   * The number of platform threads that run scheduled tasks.
+   */
+  private static final int SCHEDULER_POOL_SIZE = 2;
+
+  public VirtualThreadScheduledExecutorService() {
+    this(newVirtualThreadPerTaskExecutor());
+  }
+
+  private VirtualThreadScheduledExecutorService(ExecutorService virtualThreadExecutorService) {
+    super(virtualThreadExecutorService != null ? virtualThreadExecutorService
+        : newFallbackExecutorService(), Executors.newScheduledThreadPool(SCHEDULER_POOL_SIZE),
+        virtualThreadExecutorService != null ? 0 : ExecutorOptions.DEFAULT_DISPATCHER_POOL_SIZE);
+  }
+
+  /**
+   * @return {@code true} if the running JVM supports virtual threads
+   */
+  public static boolean isSupported() {
+    // JDK 19 and 20 have the factory method but throw from it unless preview
+    // features are enabled. So, the only reliable check is to call it.
+    ExecutorService executorService = newVirtualThreadPerTaskExecutor();
+    if (executorService == null) {
+      return false;
+    }
+    executorService.shutdown();
+    return true;
+  }
+
+  /**
+   * @return a new {@link ExecutorService} that starts a virtual thread for each
+   *         task, or {@code null} if virtual threads are not available
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    Method method;
+    try {
+      method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+    try {
+      return (ExecutorService) method.invoke(null);
+    } catch (IllegalAccessException e) {
+      return null;
+    } catch (InvocationTargetException e) {
+      // Thrown without preview features on JDK 19 and 20.
+      return null;
+    }
+  }
+
+  private static ExecutorService newFallbackExecutorService() {
+    log.warn("Virtual threads are not supported by this JVM. Using a cached thread pool.");
+    return Executors.newCachedThreadPool();
+  }
+}
@@ -17,12 +17,16 @@
 package org.ros.internal.node;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 
 import org.apache.commons.logging.Log;
+import org.jboss.netty.channel.ChannelFactory;
 import org.ros.Parameters;
 import org.ros.concurrent.CancellableLoop;
 import org.ros.concurrent.ListenerGroup;
 import org.ros.concurrent.SignalRunnable;
+import org.ros.concurrent.Subsystem;
 import org.ros.exception.RemoteException;
 import org.ros.exception.ServiceNotFoundException;
 import org.ros.internal.message.service.ServiceDescription;
@@ -35,15 +39,21 @@ import org.ros.internal.node.response.Response;
 import org.ros.internal.node.response.StatusCode;
 import org.ros.internal.node.server.NodeIdentifier;
 import org.ros.internal.node.server.SlaveServer;
+import org.ros.internal.node.service.ServiceConnectionCache;
 import org.ros.internal.node.service.ServiceDeclaration;
 import org.ros.internal.node.service.ServiceFactory;
 import org.ros.internal.node.service.ServiceIdentifier;
 import org.ros.internal.node.service.ServiceManager;
+import org.ros.internal.node.topic.DefaultPublisher;
+import org.ros.internal.node.topic.DefaultSubscriber;
 import org.ros.internal.node.topic.PublisherFactory;
+import org.ros.internal.node.topic.SerializedMessageDeserializer;
+import org.ros.internal.node.topic.SerializedMessageSerializer;
 import org.ros.internal.node.topic.SubscriberFactory;
 import org.ros.internal.node.topic.TopicDeclaration;
 import org.ros.internal.node.topic.TopicParticipantManager;
 import org.ros.internal.node.xmlrpc.XmlRpcTimeoutException;
+import org.ros.internal.transport.tcp.ClientChannelFactories;
 import org.ros.message.MessageDeserializer;
 import org.ros.message.MessageFactory;
 import org.ros.message.MessageSerializationFactory;
@@ -61,10 +71,14 @@ import org.ros.node.parameter.ParameterTree;
 import org.ros.node.service.ServiceClient;
 import org.ros.node.service.ServiceResponseBuilder;
 import org.ros.node.service.ServiceServer;
+import org.ros.node.service.ServiceServerOptions;
 import org.ros.node.topic.DefaultPublisherListener;
 import org.ros.node.topic.DefaultSubscriberListener;
 import org.ros.node.topic.Publisher;
+import org.ros.node.topic.PublisherOptions;
+import org.ros.node.topic.SerializedMessage;
 import org.ros.node.topic.Subscriber;
+import org.ros.node.topic.SubscriberOptions;
 import org.ros.node.topic.TransportHints;
 import org.ros.time.ClockTopicTimeProvider;
 import org.ros.time.TimeProvider;
@@ -72,6 +86,7 @@ import org.ros.time.TimeProvider;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -104,6 +119,12 @@ public class DefaultNode implements ConnectedNode {
   private final TopicParticipantManager topicParticipantManager;
   private final ServiceManager serviceManager;
   private final ParameterManager parameterManager;
+
+  /**
+   * Shared by all outgoing TCPROS connections of this {@link Node} and released
+   * on {@link #shutdown()}.
+   */
+  private final ChannelFactory clientChannelFactory;
   private final GraphName nodeName;
   private final NodeNameResolver resolver;
   private final SlaveServer slaveServer;
@@ -137,6 +158,9 @@ public class DefaultNode implements ConnectedNode {
     topicParticipantManager = new TopicParticipantManager();
     serviceManager = new ServiceManager();
     parameterManager = new ParameterManager(scheduledExecutorService);
+    clientChannelFactory =
+        ClientChannelFactories.newDefault(Subsystem.TRANSPORT
+            .getExecutor(scheduledExecutorService));
 
     GraphName basename = nodeConfiguration.getNodeName();
     NameResolver parentResolver = nodeConfiguration.getParentResolver();
@@ -148,6 +172,8 @@ public class DefaultNode implements ConnectedNode {
             nodeConfiguration.getXmlRpcBindAddress(),
             nodeConfiguration.getXmlRpcAdvertiseAddress(), masterClient, topicParticipantManager,
             serviceManager, parameterManager, scheduledExecutorService);
+    slaveServer.setDirectBuffers(nodeConfiguration.getDirectBuffers());
+    slaveServer.setMaxFrameSize(nodeConfiguration.getMaxFrameSize());
     slaveServer.start();
 
     NodeIdentifier nodeIdentifier = slaveServer.toNodeIdentifier();
@@ -158,11 +184,16 @@ public class DefaultNode implements ConnectedNode {
 
     publisherFactory =
         new PublisherFactory(nodeIdentifier, topicParticipantManager,
-            nodeConfiguration.getTopicMessageFactory(), scheduledExecutorService);
+            nodeConfiguration.getTopicMessageFactory(), scheduledExecutorService,
+            nodeConfiguration.getDirectBuffers());
     subscriberFactory =
-        new SubscriberFactory(nodeIdentifier, topicParticipantManager, scheduledExecutorService);
+        new SubscriberFactory(nodeIdentifier, topicParticipantManager, scheduledExecutorService,
+            clientChannelFactory, nodeConfiguration.getDirectBuffers(),
+            nodeConfiguration.getMaxFrameSize(), nodeConfiguration.getCompressors());
     serviceFactory =
-        new ServiceFactory(nodeName, slaveServer, serviceManager, scheduledExecutorService);
+        new ServiceFactory(nodeName, slaveServer, serviceManager, scheduledExecutorService,
+            clientChannelFactory, new ServiceConnectionCache(scheduledExecutorService,
+                nodeConfiguration.getServiceConnectionIdleTimeoutNanos(), TimeUnit.NANOSECONDS));
 
     registrar = new Registrar(masterClient, scheduledExecutorService);
     topicParticipantManager.setListener(registrar);
@@ -280,13 +311,23 @@ public class DefaultNode implements ConnectedNode {
 
   @Override
   public <T> Publisher<T> newPublisher(GraphName topicName, String messageType) {
+    return newPublisher(topicName, messageType, new PublisherOptions());
+  }
+
+  @Override
+  public <T> Publisher<T> newPublisher(GraphName topicName, String messageType,
+      PublisherOptions publisherOptions) {
     GraphName resolvedTopicName = resolveName(topicName);
     TopicDescription topicDescription =
         nodeConfiguration.getTopicDescriptionFactory().newFromType(messageType);
     TopicDeclaration topicDeclaration =
         TopicDeclaration.newFromTopicName(resolvedTopicName, topicDescription, null);
     org.ros.message.MessageSerializer<T> serializer = newMessageSerializer(messageType);
-    return publisherFactory.newOrExisting(topicDeclaration, serializer);
+    Publisher<T> publisher =
+        publisherFactory.newOrExisting(topicDeclaration, serializer, publisherOptions);
+    Preconditions.checkState(!((DefaultPublisher<?>) publisher).isRaw(),
+        "A raw publisher already exists for topic: " + resolvedTopicName);
+    return publisher;
   }
 
   @Override
@@ -294,6 +335,12 @@ public class DefaultNode implements ConnectedNode {
     return newPublisher(GraphName.of(topicName), messageType);
   }
 
+  @Override
+  public <T> Publisher<T> newPublisher(String topicName, String messageType,
+      PublisherOptions publisherOptions) {
+    return newPublisher(GraphName.of(topicName), messageType, publisherOptions);
+  }
+
   @Override
   public <T> Subscriber<T> newSubscriber(GraphName topicName, String messageType) {
     return newSubscriber(topicName, messageType, null);
@@ -301,13 +348,22 @@ public class DefaultNode implements ConnectedNode {
 
   @Override
   public <T> Subscriber<T> newSubscriber(GraphName topicName, String messageType, TransportHints transportHints) {
+    return newSubscriber(topicName, messageType, transportHints, new SubscriberOptions());
+  }
+
+  @Override
+  public <T> Subscriber<T> newSubscriber(GraphName topicName, String messageType,
+      TransportHints transportHints, SubscriberOptions subscriberOptions) {
     GraphName resolvedTopicName = resolveName(topicName);
     TopicDescription topicDescription =
         nodeConfiguration.getTopicDescriptionFactory().newFromType(messageType);
     TopicDeclaration topicDeclaration =
         TopicDeclaration.newFromTopicName(resolvedTopicName, topicDescription, transportHints);
     MessageDeserializer<T> deserializer = newMessageDeserializer(messageType);
-    Subscriber<T> subscriber = subscriberFactory.newOrExisting(topicDeclaration, deserializer);
+    Subscriber<T> subscriber =
+        subscriberFactory.newOrExisting(topicDeclaration, deserializer, subscriberOptions);
+    Preconditions.checkState(!((DefaultSubscriber<?>) subscriber).isRaw(),
+        "A raw subscriber already exists for topic: " + resolvedTopicName);
     return subscriber;
   }
 
@@ -321,9 +377,84 @@ public class DefaultNode implements ConnectedNode {
     return newSubscriber(GraphName.of(topicName), messageType, transportHints);
   }
 
+  @Override
+  public <T> Subscriber<T> newSubscriber(String topicName, String messageType,
+      TransportHints transportHints, SubscriberOptions subscriberOptions) {
+    return newSubscriber(GraphName.of(topicName), messageType, transportHints, subscriberOptions);
+  }
+
+  @Override
+  public Publisher<SerializedMessage> newRawPublisher(GraphName topicName, String messageType,
+      String md5Checksum, String messageDefinition, PublisherOptions publisherOptions) {
+    GraphName resolvedTopicName = resolveName(topicName);
+    TopicDescription topicDescription =
+        new TopicDescription(messageType, messageDefinition, md5Checksum);
+    TopicDeclaration topicDeclaration =
+        TopicDeclaration.newFromTopicName(resolvedTopicName, topicDescription, null);
+    Publisher<SerializedMessage> publisher =
+        publisherFactory.newOrExisting(topicDeclaration, new SerializedMessageSerializer(),
+            publisherOptions);
+    Preconditions.checkState(((DefaultPublisher<?>) publisher).isRaw(),
+        "A typed publisher already exists for topic: " + resolvedTopicName);
+    return publisher;
+  }
+
+  @Override
+  public Publisher<SerializedMessage> newRawPublisher(String topicName, String messageType,
+      String md5Checksum, String messageDefinition, PublisherOptions publisherOptions) {
+    return newRawPublisher(GraphName.of(topicName), messageType, md5Checksum, messageDefinition,
+        publisherOptions);
+  }
+
+  @Override
+  public Publisher<SerializedMessage> newRawPublisher(GraphName topicName, String messageType,
+      String md5Checksum, String messageDefinition) {
+    return newRawPublisher(topicName, messageType, md5Checksum, messageDefinition,
+        new PublisherOptions());
+  }
+
+  @Override
+  public Publisher<SerializedMessage> newRawPublisher(String topicName, String messageType,
+      String md5Checksum, String messageDefinition) {
+    return newRawPublisher(GraphName.of(topicName), messageType, md5Checksum, messageDefinition);
+  }
+
+  @Override
+  public Subscriber<SerializedMessage> newRawSubscriber(GraphName topicName,
+      TransportHints transportHints, SubscriberOptions subscriberOptions) {
+    GraphName resolvedTopicName = resolveName(topicName);
+    TopicDescription topicDescription =
+        new TopicDescription(Subscriber.TOPIC_MESSAGE_TYPE_WILDCARD,
+            Subscriber.TOPIC_MESSAGE_TYPE_WILDCARD, Subscriber.TOPIC_MESSAGE_TYPE_WILDCARD);
+    TopicDeclaration topicDeclaration =
+        TopicDeclaration.newFromTopicName(resolvedTopicName, topicDescription, transportHints);
+    Subscriber<SerializedMessage> subscriber =
+        subscriberFactory.newOrExisting(topicDeclaration, new SerializedMessageDeserializer(),
+            subscriberOptions);
+    Preconditions.checkState(((DefaultSubscriber<?>) subscriber).isRaw(),
+        "A typed subscriber already exists for topic: " + resolvedTopicName);
+    return subscriber;
+  }
+
+  @Override
+  public Subscriber<SerializedMessage> newRawSubscriber(GraphName topicName) {
+    return newRawSubscriber(topicName, null, new SubscriberOptions());
+  }
+
+  @Override
+  public Subscriber<SerializedMessage> newRawSubscriber(String topicName) {
+    return newRawSubscriber(GraphName.of(topicName));
+  }
+
   @Override
   public <T, S> ServiceServer<T, S> newServiceServer(GraphName serviceName, String serviceType,
       ServiceResponseBuilder<T, S> responseBuilder) {
+    return newServiceServer(serviceName, serviceType, responseBuilder, new ServiceServerOptions());
+  }
+
+  @Override
+  public <T, S> ServiceServer<T, S> newServiceServer(GraphName serviceName, String serviceType,
+      ServiceResponseBuilder<T, S> responseBuilder, ServiceServerOptions serviceServerOptions) {
     GraphName resolvedServiceName = resolveName(serviceName);
     // TODO(damonkohler): It's rather non-obvious that the URI will be
     // created later on the fly.
@@ -334,7 +465,8 @@ public class DefaultNode implements ConnectedNode {
     MessageDeserializer<T> requestDeserializer = newServiceRequestDeserializer(serviceType);
     MessageSerializer<S> responseSerializer = newServiceResponseSerializer(serviceType);
     return serviceFactory.newServer(definition, responseBuilder, requestDeserializer,
-        responseSerializer, nodeConfiguration.getServiceResponseMessageFactory());
+        responseSerializer, nodeConfiguration.getServiceResponseMessageFactory(),
+        serviceServerOptions);
   }
 
   @Override
@@ -343,6 +475,13 @@ public class DefaultNode implements ConnectedNode {
     return newServiceServer(GraphName.of(serviceName), serviceType, responseBuilder);
   }
 
+  @Override
+  public <T, S> ServiceServer<T, S> newServiceServer(String serviceName, String serviceType,
+      ServiceResponseBuilder<T, S> responseBuilder, ServiceServerOptions serviceServerOptions) {
+    return newServiceServer(GraphName.of(serviceName), serviceType, responseBuilder,
+        serviceServerOptions);
+  }
+
   @SuppressWarnings("unchecked")
   @Override
   public <T, S> ServiceServer<T, S> getServiceServer(GraphName serviceName) {
@@ -371,8 +510,11 @@ public class DefaultNode implements ConnectedNode {
     return lookupServiceUri(GraphName.of(serviceName));
   }
 
-  @Override
-  public <T, S> ServiceClient<T, S> newServiceClient(GraphName serviceName, String serviceType)
+  /**
+   * @return a {@link ServiceDeclaration} for the service as currently
+   *         registered with the master
+   */
+  private ServiceDeclaration lookupServiceDeclaration(GraphName serviceName, String serviceType)
       throws ServiceNotFoundException {
     GraphName resolvedServiceName = resolveName(serviceName);
     URI uri = lookupServiceUri(resolvedServiceName);
@@ -383,7 +525,13 @@ public class DefaultNode implements ConnectedNode {
     ServiceDescription serviceDescription =
         nodeConfiguration.getServiceDescriptionFactory().newFromType(serviceType);
     ServiceIdentifier serviceIdentifier = new ServiceIdentifier(resolvedServiceName, uri);
-    ServiceDeclaration definition = new ServiceDeclaration(serviceIdentifier, serviceDescription);
+    return new ServiceDeclaration(serviceIdentifier, serviceDescription);
+  }
+
+  @Override
+  public <T, S> ServiceClient<T, S> newServiceClient(GraphName serviceName, String serviceType)
+      throws ServiceNotFoundException {
+    ServiceDeclaration definition = lookupServiceDeclaration(serviceName, serviceType);
     MessageSerializer<T> requestSerializer = newServiceRequestSerializer(serviceType);
     MessageDeserializer<S> responseDeserializer = newServiceResponseDeserializer(serviceType);
     return serviceFactory.newClient(definition, requestSerializer, responseDeserializer,
@@ -396,6 +544,52 @@ public class DefaultNode implements ConnectedNode {
     return newServiceClient(GraphName.of(serviceName), serviceType);
   }
 
+  @Override
+  public <T, S> ServiceClient<T, S> newServiceClient(GraphName serviceName, String serviceType,
+      boolean persistent) throws ServiceNotFoundException {
+    if (persistent) {
+      return newServiceClient(serviceName, serviceType);
+    }
+    ServiceDeclaration definition = lookupServiceDeclaration(serviceName, serviceType);
+    MessageSerializer<T> requestSerializer = newServiceRequestSerializer(serviceType);
+    MessageDeserializer<S> responseDeserializer = newServiceResponseDeserializer(serviceType);
+    return serviceFactory.newNonPersistentClient(definition, requestSerializer,
+        responseDeserializer, nodeConfiguration.getServiceRequestMessageFactory());
+  }
+
+  @Override
+  public <T, S> ServiceClient<T, S> newServiceClient(String serviceName, String serviceType,
+      boolean persistent) throws ServiceNotFoundException {
+    return newServiceClient(GraphName.of(serviceName), serviceType, persistent);
+  }
+
+  @Override
+  public <T, S> ServiceClient<T, S> newPooledServiceClient(Collection<GraphName> serviceNames,
+      String serviceType, int connectionsPerService) throws ServiceNotFoundException {
+    List<ServiceDeclaration> serviceDeclarations = Lists.newArrayList();
+    for (GraphName serviceName : serviceNames) {
+      serviceDeclarations.add(lookupServiceDeclaration(serviceName, serviceType));
+    }
+    MessageSerializer<T> requestSerializer = newServiceRequestSerializer(serviceType);
+    MessageDeserializer<S> responseDeserializer = newServiceResponseDeserializer(serviceType);
+    return serviceFactory.newPooledClient(serviceDeclarations, connectionsPerService,
+        requestSerializer, responseDeserializer,
+        nodeConfiguration.getServiceRequestMessageFactory());
+  }
+
+  @Override
+  public <T, S> ServiceClient<T, S> newPooledServiceClient(GraphName serviceName,
+      String serviceType, int connectionsPerService) throws ServiceNotFoundException {
+    return newPooledServiceClient(Lists.newArrayList(serviceName), serviceType,
+        connectionsPerService);
+  }
+
+  @Override
+  public <T, S> ServiceClient<T, S> newPooledServiceClient(String serviceName,
+      String serviceType, int connectionsPerService) throws ServiceNotFoundException {
+    return newPooledServiceClient(GraphName.of(serviceName), serviceType, connectionsPerService);
+  }
+
   @Override
   public Time getCurrentTime() {
     return timeProvider.getCurrentTime();
@@ -445,9 +639,18 @@ public class DefaultNode implements ConnectedNode {
     for (ServiceClient<?, ?> serviceClient : serviceManager.getClients()) {
       serviceClient.shutdown();
     }
+    for (ServiceClient<?, ?> serviceClient : serviceManager.getPooledClients()) {
+      serviceClient.shutdown();
+    }
+    for (ServiceClient<?, ?> serviceClient : serviceManager.getNonPersistentClients()) {
+      serviceClient.shutdown();
+    }
+    serviceFactory.shutdown();
     slaveServer.shutdown();
     topicParticipantManager.shutdown();
     registrar.shutdown();
+    // All clients have closed their connections by now.
+    clientChannelFactory.releaseExternalResources();
     signalOnShutdownComplete();
   }
 
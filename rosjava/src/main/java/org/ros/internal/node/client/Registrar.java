@@ -22,6 +22,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.ros.concurrent.Holder;
 import org.ros.concurrent.RetryingExecutorService;
+import org.ros.concurrent.Subsystem;
 import org.ros.exception.RosRuntimeException;
 import org.ros.internal.node.response.Response;
 import org.ros.internal.node.server.NodeIdentifier;
@@ -73,7 +74,9 @@ public class Registrar implements TopicParticipantManagerListener, ServiceManage
   public Registrar(MasterClient masterClient, ScheduledExecutorService executorService) {
     this.masterClient = masterClient;
     this.executorService = executorService;
-    retryingExecutorService = new RetryingExecutorService(executorService);
+    retryingExecutorService =
+        new RetryingExecutorService(executorService,
+            Subsystem.REGISTRATION.getExecutor(executorService));
     nodeIdentifier = null;
     running = false;
     if (DEBUG) {
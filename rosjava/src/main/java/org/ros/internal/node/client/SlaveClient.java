@@ -31,6 +31,7 @@ import org.ros.namespace.GraphName;
 
 import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -123,7 +124,34 @@ public class SlaveClient extends Client<SlaveXmlRpcEndpoint> {
 
   public Response<ProtocolDescription> requestTopic(GraphName topic,
       Collection<String> requestedProtocols) {
+    return requestTopic(topic, requestedProtocols, Collections.<String, List<Object>>emptyMap());
+  }
+
+  /**
+   * @param topic
+   *          the name of the requested topic
+   * @param requestedProtocols
+   *          the names of the protocols supported by the subscriber
+   * @param protocolParameters
+   *          additional parameters for some of the requested protocols,
+   *          excluding the protocol name
+   * @return the {@link ProtocolDescription} selected by the publisher
+   */
+  public Response<ProtocolDescription> requestTopic(GraphName topic,
+      Collection<String> requestedProtocols, Map<String, List<Object>> protocolParameters) {
+    // Each requested protocol is sent as a separate list of the form
+    // [protocol name, protocol parameters...].
+    Object[] protocols = new Object[requestedProtocols.size()];
+    int i = 0;
+    for (String protocol : requestedProtocols) {
+      List<Object> protocolList = Lists.newArrayList();
+      protocolList.add(protocol);
+      if (protocolParameters.containsKey(protocol)) {
+        protocolList.addAll(protocolParameters.get(protocol));
+      }
+      protocols[i++] = protocolList.toArray();
+    }
     return Response.fromListChecked(xmlRpcEndpoint.requestTopic(nodeName.toString(), topic.toString(),
-        new Object[][] { requestedProtocols.toArray() }), new ProtocolDescriptionResultFactory());
+        protocols), new ProtocolDescriptionResultFactory());
   }
 }
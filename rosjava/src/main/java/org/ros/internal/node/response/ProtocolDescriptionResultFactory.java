@@ -22,7 +22,10 @@ import java.util.List;
 import org.ros.address.AdvertiseAddress;
 import org.ros.internal.transport.ProtocolDescription;
 import org.ros.internal.transport.ProtocolNames;
+import org.ros.internal.transport.intraprocess.IntraProcessProtocolDescription;
+import org.ros.internal.transport.shm.SharedMemoryProtocolDescription;
 import org.ros.internal.transport.tcp.TcpRosProtocolDescription;
+import org.ros.internal.transport.udp.UdpRosProtocolDescription;
 
 import com.google.common.base.Preconditions;
 
@@ -34,10 +37,26 @@ public class ProtocolDescriptionResultFactory implements ResultFactory<ProtocolD
   @Override
   public ProtocolDescription newFromValue(Object value) {
     List<Object> protocolParameters = Arrays.asList((Object[]) value);
-    Preconditions.checkState(protocolParameters.size() == 3);
-    Preconditions.checkState(protocolParameters.get(0).equals(ProtocolNames.TCPROS));
+    Preconditions.checkState(protocolParameters.size() >= 3);
+    String name = (String) protocolParameters.get(0);
     AdvertiseAddress address = new AdvertiseAddress((String) protocolParameters.get(1));
     address.setStaticPort((Integer) protocolParameters.get(2));
+    if (name.equals(ProtocolNames.UDPROS)) {
+      Preconditions.checkState(protocolParameters.size() == 6);
+      return new UdpRosProtocolDescription(address, (Integer) protocolParameters.get(3),
+          (Integer) protocolParameters.get(4), (byte[]) protocolParameters.get(5));
+    }
+    if (name.equals(ProtocolNames.SHMROS)) {
+      Preconditions.checkState(protocolParameters.size() == 5);
+      return new SharedMemoryProtocolDescription(address, (String) protocolParameters.get(3),
+          (String) protocolParameters.get(4));
+    }
+    if (name.equals(ProtocolNames.INTRAPROCESS)) {
+      Preconditions.checkState(protocolParameters.size() == 4);
+      return new IntraProcessProtocolDescription(address, (String) protocolParameters.get(3));
+    }
+    Preconditions.checkState(protocolParameters.size() == 3);
+    Preconditions.checkState(name.equals(ProtocolNames.TCPROS));
     return new TcpRosProtocolDescription(address);
   }
 }
@@ -16,8 +16,13 @@
 
 package org.ros.internal.node.server;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.ros.address.AdvertiseAddress;
 import org.ros.address.BindAddress;
 import org.ros.internal.node.client.MasterClient;
@@ -28,25 +33,51 @@ import org.ros.internal.node.topic.DefaultSubscriber;
 import org.ros.internal.node.topic.PublisherIdentifier;
 import org.ros.internal.node.topic.SubscriberIdentifier;
 import org.ros.internal.node.topic.TopicDeclaration;
+import org.ros.internal.node.topic.TopicIdentifier;
 import org.ros.internal.node.topic.TopicParticipantManager;
 import org.ros.internal.node.xmlrpc.SlaveXmlRpcEndpointImpl;
 import org.ros.internal.system.Process;
+import org.ros.internal.transport.ConnectionHeader;
+import org.ros.internal.transport.ConnectionHeaderFields;
 import org.ros.internal.transport.ProtocolDescription;
 import org.ros.internal.transport.ProtocolNames;
+import org.ros.internal.transport.intraprocess.IntraProcessProtocolDescription;
+import org.ros.internal.transport.intraprocess.IntraProcessPublisherRegistry;
+import org.ros.internal.transport.shm.SharedMemoryProtocolDescription;
+import org.ros.internal.transport.shm.SharedMemoryRing;
 import org.ros.internal.transport.tcp.TcpRosProtocolDescription;
 import org.ros.internal.transport.tcp.TcpRosServer;
+import org.ros.internal.transport.udp.UdpRosProtocolDescription;
+import org.ros.internal.transport.udp.UdpRosSender;
 import org.ros.namespace.GraphName;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.URI;
+import java.nio.ByteOrder;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author damonkohler@google.com (Damon Kohler)
  */
 public class SlaveServer extends XmlRpcServer {
 
+  private static final Log log = LogFactory.getLog(SlaveServer.class);
+
+  /**
+   * UDPROS subscribers tell publishers apart by host and connection ID. IDs
+   * are shared by all nodes in the process and start at a random value so
+   * that publishers on the same host are unlikely to use the same ID.
+   */
+  private static final AtomicInteger udpRosConnectionIds = new AtomicInteger(
+      new Random().nextInt(Integer.MAX_VALUE / 2));
+
   private final GraphName nodeName;
   private final MasterClient masterClient;
   private final TopicParticipantManager topicParticipantManager;
@@ -72,6 +103,27 @@ public class SlaveServer extends XmlRpcServer {
     return tcpRosServer.getAdvertiseAddress();
   }
 
+  /**
+   * Must be called before {@link #start()}.
+   * 
+   * @param directBuffers
+   *          {@code true} if the {@link TcpRosServer} should read incoming
+   *          connections into direct (off-heap) buffers
+   */
+  public void setDirectBuffers(boolean directBuffers) {
+    tcpRosServer.setDirectBuffers(directBuffers);
+  }
+
+  /**
+   * Must be called before {@link #start()}.
+   * 
+   * @param maxFrameSize
+   *          incoming TCPROS connections that send a larger frame are closed
+   */
+  public void setMaxFrameSize(int maxFrameSize) {
+    tcpRosServer.setMaxFrameSize(maxFrameSize);
+  }
+
   /**
    * Start the XML-RPC server. This start() routine requires that the
    * {@link TcpRosServer} is initialized first so that the slave server returns
@@ -178,24 +230,135 @@ public class SlaveServer extends XmlRpcServer {
 
   public ProtocolDescription requestTopic(String topicName, Collection<String> protocols)
       throws ServerException {
+    return requestTopic(topicName, protocols, Collections.<String, List<Object>>emptyMap());
+  }
+
+  /**
+   * @param topicName
+   *          the name of the requested topic
+   * @param protocols
+   *          the names of the protocols supported by the subscriber
+   * @param protocolParameters
+   *          the parameters the subscriber supplied for each protocol,
+   *          excluding the protocol name
+   * @return the {@link ProtocolDescription} of the selected protocol
+   * @throws ServerException
+   *           if there is no publisher for the topic or none of the protocols
+   *           is supported
+   */
+  public ProtocolDescription requestTopic(String topicName, Collection<String> protocols,
+      Map<String, List<Object>> protocolParameters) throws ServerException {
     // TODO(damonkohler): Use NameResolver.
     // Canonicalize topic name.
     GraphName graphName = GraphName.of(topicName).toGlobal();
     if (!topicParticipantManager.hasPublisher(graphName)) {
       throw new ServerException("No publishers for topic: " + graphName);
     }
-    for (String protocol : protocols) {
-      if (protocol.equals(ProtocolNames.TCPROS)) {
-        try {
-          return new TcpRosProtocolDescription(tcpRosServer.getAdvertiseAddress());
-        } catch (Exception e) {
-          throw new ServerException(e);
+    // The requested protocols are unordered. So, we always prefer the
+    // intra-process transport since it avoids serialization entirely, followed
+    // by shared memory and UDPROS which subscribers only request when they
+    // explicitly prefer them. Intra-process subscribers share the published
+    // instances. So, the publisher must promise not to modify them. Otherwise,
+    // subscribers receive copies over one of the other protocols.
+    try {
+      if (protocols.contains(ProtocolNames.INTRAPROCESS)
+          && topicParticipantManager.getPublisher(graphName).hasImmutableMessages()
+          && isIntraProcessRequest(protocolParameters.get(ProtocolNames.INTRAPROCESS))) {
+        return new IntraProcessProtocolDescription(tcpRosServer.getAdvertiseAddress(),
+            IntraProcessPublisherRegistry.getProcessId());
+      }
+      if (protocols.contains(ProtocolNames.SHMROS)
+          && isLocalRequest(protocolParameters.get(ProtocolNames.SHMROS))) {
+        ProtocolDescription protocolDescription = newSharedMemoryProtocolDescription(graphName);
+        if (protocolDescription != null) {
+          return protocolDescription;
         }
       }
+      if (protocols.contains(ProtocolNames.UDPROS)
+          && protocolParameters.containsKey(ProtocolNames.UDPROS)) {
+        return newUdpRosConnection(graphName, protocolParameters.get(ProtocolNames.UDPROS));
+      }
+      if (protocols.contains(ProtocolNames.TCPROS)) {
+        return new TcpRosProtocolDescription(tcpRosServer.getAdvertiseAddress());
+      }
+    } catch (Exception e) {
+      throw new ServerException(e);
     }
     throw new ServerException("No supported protocols specified.");
   }
 
+  /**
+   * @param parameters
+   *          the optional process ID supplied by the subscriber
+   * @return {@code true} if the subscriber may be hosted by this process
+   */
+  private boolean isIntraProcessRequest(List<Object> parameters) {
+    // Subscribers that do not supply their process ID will check it and fall
+    // back to TCPROS if necessary.
+    return parameters == null || parameters.isEmpty()
+        || IntraProcessPublisherRegistry.getProcessId().equals(parameters.get(0));
+  }
+
+  /**
+   * @param parameters
+   *          the host ID supplied by the subscriber
+   * @return {@code true} if the subscriber is on this host and can map the
+   *         publisher's {@link SharedMemoryRing}
+   */
+  private boolean isLocalRequest(List<Object> parameters) {
+    // Creating a ring for a remote subscriber would waste a large amount of
+    // shared memory. So, subscribers that do not identify their host are
+    // treated as remote.
+    return parameters != null && !parameters.isEmpty()
+        && SharedMemoryRing.getHostId().equals(parameters.get(0));
+  }
+
+  /**
+   * @return a {@link SharedMemoryProtocolDescription} for the topic's
+   *         publisher or {@code null} if its ring cannot be created
+   */
+  private ProtocolDescription newSharedMemoryProtocolDescription(GraphName topicName) {
+    DefaultPublisher<?> publisher = topicParticipantManager.getPublisher(topicName);
+    SharedMemoryRing ring;
+    try {
+      ring = publisher.getSharedMemoryRing();
+    } catch (IOException e) {
+      log.warn("Failed to create shared memory ring for " + publisher, e);
+      return null;
+    }
+    return new SharedMemoryProtocolDescription(tcpRosServer.getAdvertiseAddress(), ring.getFile()
+        .getAbsolutePath(), ring.getId());
+  }
+
+  /**
+   * Completes the UDPROS handshake with a subscriber and starts sending it
+   * messages.
+   * 
+   * @param parameters
+   *          the subscriber's encoded connection header, host, port and
+   *          maximum datagram size
+   */
+  private ProtocolDescription newUdpRosConnection(GraphName topicName, List<Object> parameters) {
+    Preconditions.checkArgument(parameters.size() == 4, "Invalid UDPROS parameters: "
+        + parameters);
+    ConnectionHeader incomingHeader =
+        ConnectionHeader.decode(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN,
+            (byte[]) parameters.get(0)));
+    InetSocketAddress address =
+        new InetSocketAddress((String) parameters.get(1), (Integer) parameters.get(2));
+    int maxDatagramSize = Math.min((Integer) parameters.get(3), UdpRosSender.MAX_DATAGRAM_SIZE);
+    DefaultPublisher<?> publisher = topicParticipantManager.getPublisher(topicName);
+    ChannelBuffer outgoingBuffer = publisher.finishHandshake(incomingHeader);
+    byte[] outgoingHeader = new byte[outgoingBuffer.readableBytes()];
+    outgoingBuffer.readBytes(outgoingHeader);
+    int connectionId = udpRosConnectionIds.incrementAndGet();
+    String nodeName = incomingHeader.getField(ConnectionHeaderFields.CALLER_ID);
+    publisher.addUdpSubscriber(new SubscriberIdentifier(NodeIdentifier.forName(nodeName),
+        new TopicIdentifier(topicName)), connectionId, address, maxDatagramSize);
+    return new UdpRosProtocolDescription(tcpRosServer.getAdvertiseAddress(), connectionId,
+        maxDatagramSize, outgoingHeader);
+  }
+
   /**
    * @return a {@link NodeIdentifier} for this {@link SlaveServer}
    */
@@ -17,9 +17,15 @@
 package org.ros.internal.node.service;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
+import org.ros.exception.RemoteException;
 import org.ros.exception.RosRuntimeException;
 import org.ros.internal.message.MessageBufferPool;
 import org.ros.internal.transport.ClientHandshakeListener;
@@ -37,17 +43,26 @@ import org.ros.node.service.ServiceResponseListener;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Default implementation of a {@link ServiceClient}.
+ * <p>
+ * Calls may be made concurrently from any number of threads. Requests are
+ * pipelined on a single persistent connection and the responses, which the
+ * {@link org.ros.node.service.ServiceServer} sends in the same order, are
+ * matched to them in FIFO order.
  * 
  * @author damonkohler@google.com (Damon Kohler)
  */
 public class DefaultServiceClient<T, S> implements ServiceClient<T, S> {
 
+  private static final Log log = LogFactory.getLog(DefaultServiceClient.class);
+
   private final class HandshakeLatch implements ClientHandshakeListener {
 
     private CountDownLatch latch;
@@ -93,6 +108,14 @@ public class DefaultServiceClient<T, S> implements ServiceClient<T, S> {
   private final ConnectionHeader connectionHeader;
   private final TcpClientManager tcpClientManager;
   private final HandshakeLatch handshakeLatch;
+  private final ScheduledExecutorService executorService;
+  private final AtomicInteger numberOfPendingCalls;
+
+  /**
+   * Ensures that response listeners are queued in the same order as their
+   * requests are written.
+   */
+  private final Object mutex;
 
   private TcpClient tcpClient;
 
@@ -101,24 +124,41 @@ public class DefaultServiceClient<T, S> implements ServiceClient<T, S> {
       final MessageDeserializer<T> deserializer, final MessageFactory messageFactory,
       final ScheduledExecutorService executorService) {
     return new DefaultServiceClient<S, T>(nodeName, serviceDeclaration, serializer, deserializer,
-        messageFactory, executorService);
+        messageFactory, executorService, new TcpClientManager(executorService));
+  }
+
+  /**
+   * @param channelFactory
+   *          the node's {@link ChannelFactory} to connect to the service with,
+   *          it is not released by the {@link DefaultServiceClient}
+   */
+  public static <S, T> DefaultServiceClient<S, T> newDefault(final GraphName nodeName,
+      final ServiceDeclaration serviceDeclaration, final MessageSerializer<S> serializer,
+      final MessageDeserializer<T> deserializer, final MessageFactory messageFactory,
+      final ScheduledExecutorService executorService, final ChannelFactory channelFactory) {
+    return new DefaultServiceClient<S, T>(nodeName, serviceDeclaration, serializer, deserializer,
+        messageFactory, executorService, new TcpClientManager(channelFactory));
   }
 
   private DefaultServiceClient(final GraphName nodeName,
       final ServiceDeclaration serviceDeclaration, final MessageSerializer<T> serializer,
       final MessageDeserializer<S> deserializer, final MessageFactory messageFactory,
-      final ScheduledExecutorService executorService) {
+      final ScheduledExecutorService executorService, final TcpClientManager tcpClientManager) {
     this.serviceDeclaration = serviceDeclaration;
     this.serializer = serializer;
     this.messageFactory = messageFactory;
+    this.executorService = executorService;
+    numberOfPendingCalls = new AtomicInteger();
     messageBufferPool = new MessageBufferPool();
-    responseListeners = Lists.newLinkedList();
+    responseListeners = new ConcurrentLinkedQueue<ServiceResponseListener<S>>();
+    mutex = new Object();
     connectionHeader = new ConnectionHeader();
     connectionHeader.addField(ConnectionHeaderFields.CALLER_ID, nodeName.toString());
-    // TODO(damonkohler): Support non-persistent connections.
+    // Non-persistent clients reuse connections through the
+    // ServiceConnectionCache. So, the server must keep every connection open.
     connectionHeader.addField(ConnectionHeaderFields.PERSISTENT, "1");
     connectionHeader.merge(serviceDeclaration.toConnectionHeader());
-    tcpClientManager = new TcpClientManager(executorService);
+    this.tcpClientManager = tcpClientManager;
     final ServiceClientHandshakeHandler<T, S> serviceClientHandshakeHandler =
         new ServiceClientHandshakeHandler<T, S>(connectionHeader, responseListeners, deserializer,
             executorService);
@@ -131,16 +171,18 @@ public class DefaultServiceClient<T, S> implements ServiceClient<T, S> {
   public void connect(final URI uri) {
     Preconditions.checkNotNull(uri, "URI must be specified.");
     Preconditions.checkArgument(uri.getScheme().equals("rosrpc"), "Invalid service URI.");
-    Preconditions.checkState(tcpClient == null, "Already connected.");
     final InetSocketAddress address = new InetSocketAddress(uri.getHost(), uri.getPort());
-    handshakeLatch.reset();
-    tcpClient = tcpClientManager.connect(toString(), address);
-    try {
-      if (!handshakeLatch.await(1, TimeUnit.SECONDS)) {
-        throw new RosRuntimeException(handshakeLatch.getErrorMessage());
+    synchronized (mutex) {
+      Preconditions.checkState(tcpClient == null, "Already connected.");
+      handshakeLatch.reset();
+      tcpClient = tcpClientManager.connect(toString(), address);
+      try {
+        if (!handshakeLatch.await(1, TimeUnit.SECONDS)) {
+          throw new RosRuntimeException(handshakeLatch.getErrorMessage());
+        }
+      } catch (final InterruptedException e) {
+        throw new RosRuntimeException("Handshake timed out.");
       }
-    } catch (final InterruptedException e) {
-      throw new RosRuntimeException("Handshake timed out.");
     }
   }
 
@@ -151,11 +193,63 @@ public class DefaultServiceClient<T, S> implements ServiceClient<T, S> {
 
   @Override
   public void call(final T request, final ServiceResponseListener<S> listener) {
+    synchronized (mutex) {
+      Preconditions.checkState(tcpClient != null, "Not connected.");
+    }
+    // The request is serialized before returning so that the caller is free
+    // to reuse it.
     final ChannelBuffer buffer = messageBufferPool.acquire();
     serializer.serialize(request, buffer);
-    responseListeners.add(listener);
-    tcpClient.write(buffer).awaitUninterruptibly();
-    messageBufferPool.release(buffer);
+    ChannelFuture future;
+    synchronized (mutex) {
+      numberOfPendingCalls.incrementAndGet();
+      responseListeners.add(new ServiceResponseListener<S>() {
+        @Override
+        public void onSuccess(S response) {
+          numberOfPendingCalls.decrementAndGet();
+          listener.onSuccess(response);
+        }
+
+        @Override
+        public void onFailure(RemoteException e) {
+          numberOfPendingCalls.decrementAndGet();
+          listener.onFailure(e);
+        }
+      });
+      future = tcpClient.write(buffer);
+    }
+    future.addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) throws Exception {
+        messageBufferPool.release(buffer);
+        if (!future.isSuccess()) {
+          // Responses can no longer be matched to requests reliably.
+          log.error("Failed to write service request.", future.getCause());
+          future.getChannel().close();
+          // The connection may have been closed before the request was
+          // queued. In that case, nothing else will fail it.
+          ServiceResponseHandler.failAll(responseListeners, "Service connection closed.",
+              executorService);
+        }
+      }
+    });
+  }
+
+  @Override
+  public ListenableFuture<S> call(T request) {
+    return ServiceFutures.call(this, request);
+  }
+
+  @Override
+  public ListenableFuture<S> call(T request, long timeout, TimeUnit unit) {
+    return ServiceFutures.call(this, request, timeout, unit, executorService);
+  }
+
+  /**
+   * @return the number of calls that are waiting for a response
+   */
+  public int getNumberOfPendingCalls() {
+    return numberOfPendingCalls.get();
   }
 
   @Override
@@ -175,6 +269,8 @@ public class DefaultServiceClient<T, S> implements ServiceClient<T, S> {
 
   @Override
   public boolean isConnected() {
-    return tcpClient.getChannel().isConnected();
+    synchronized (mutex) {
+      return tcpClient != null && tcpClient.getChannel().isConnected();
+    }
   }
 }
@@ -37,8 +37,10 @@ import org.ros.node.service.DefaultServiceServerListener;
 import org.ros.node.service.ServiceResponseBuilder;
 import org.ros.node.service.ServiceServer;
 import org.ros.node.service.ServiceServerListener;
+import org.ros.node.service.ServiceServerOptions;
 
 import java.net.URI;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -57,20 +59,28 @@ public class DefaultServiceServer<T, S> implements ServiceServer<T, S> {
   private final MessageDeserializer<T> messageDeserializer;
   private final MessageSerializer<S> messageSerializer;
   private final MessageFactory messageFactory;
-  private final ScheduledExecutorService scheduledExecutorService;
+  private final ServiceRequestScheduler requestScheduler;
   private final ListenerGroup<ServiceServerListener<T, S>> listenerGroup;
 
   public DefaultServiceServer(ServiceDeclaration serviceDeclaration,
       ServiceResponseBuilder<T, S> serviceResponseBuilder, AdvertiseAddress advertiseAddress,
       MessageDeserializer<T> messageDeserializer, MessageSerializer<S> messageSerializer,
-      MessageFactory messageFactory, ScheduledExecutorService scheduledExecutorService) {
+      MessageFactory messageFactory, ScheduledExecutorService scheduledExecutorService,
+      ServiceServerOptions serviceServerOptions) {
     this.serviceDeclaration = serviceDeclaration;
     this.serviceResponseBuilder = serviceResponseBuilder;
     this.advertiseAddress = advertiseAddress;
     this.messageDeserializer = messageDeserializer;
     this.messageSerializer = messageSerializer;
     this.messageFactory = messageFactory;
-    this.scheduledExecutorService = scheduledExecutorService;
+    Executor requestExecutor = serviceServerOptions.getExecutorService();
+    if (requestExecutor == null) {
+      requestExecutor = scheduledExecutorService;
+    }
+    requestScheduler =
+        new ServiceRequestScheduler(requestExecutor,
+            serviceServerOptions.getMaxConcurrentRequests(),
+            serviceServerOptions.getQueueCapacity());
     listenerGroup = new ListenerGroup<ServiceServerListener<T, S>>(scheduledExecutorService);
     listenerGroup.add(new DefaultServiceServerListener<T, S>() {
       @Override
@@ -134,7 +144,7 @@ public class DefaultServiceServer<T, S> implements ServiceServer<T, S> {
 
   public ChannelHandler newRequestHandler() {
     return new ServiceRequestHandler<T, S>(serviceDeclaration, serviceResponseBuilder,
-        messageDeserializer, messageSerializer, messageFactory, scheduledExecutorService);
+        messageDeserializer, messageSerializer, messageFactory, requestScheduler);
   }
 
   /**
@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.internal.node.service;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import org.jboss.netty.channel.ChannelFactory;
+import org.ros.exception.RemoteException;
+import org.ros.message.MessageDeserializer;
+import org.ros.message.MessageFactory;
+import org.ros.message.MessageSerializer;
+import org.ros.namespace.GraphName;
+import org.ros.node.service.ServiceClient;
+import org.ros.node.service.ServiceResponseListener;
+
+import java.net.URI;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ServiceClient} that does not hold a connection of its own.
+ * <p>
+ * Each call takes an idle connection to the service from the node's
+ * {@link ServiceConnectionCache} or opens a new one, and hands the connection
+ * back to the cache once the response has arrived. Concurrent calls use
+ * separate connections. Connections of calls that time out or are still
+ * pending on shutdown are closed rather than returned to the cache.
+ * 
+ * @param <T>
+ *          the {@link org.ros.node.service.ServiceServer} responds to requests
+ *          of this type
+ * @param <S>
+ *          the {@link org.ros.node.service.ServiceServer} returns responses of
+ *          this type
+ */
+public class NonPersistentServiceClient<T, S> implements ServiceClient<T, S> {
+
+  private final GraphName nodeName;
+  private final ServiceDeclaration serviceDeclaration;
+  private final MessageSerializer<T> serializer;
+  private final MessageDeserializer<S> deserializer;
+  private final MessageFactory messageFactory;
+  private final ScheduledExecutorService executorService;
+  private final ChannelFactory channelFactory;
+  private final ServiceConnectionCache connectionCache;
+  private final ServiceManager serviceManager;
+  private final Set<InFlightCall> inFlightCalls;
+
+  private volatile boolean shutdown;
+
+  /**
+   * A call that is waiting for its response. Calls are tracked individually
+   * because a connection may be reused by a later call as soon as it has
+   * been returned to the cache.
+   */
+  private final class InFlightCall {
+
+    private final DefaultServiceClient<T, S> serviceClient;
+
+    public InFlightCall(DefaultServiceClient<T, S> serviceClient) {
+      this.serviceClient = serviceClient;
+    }
+
+    /**
+     * Returns the connection to the cache unless the call was closed.
+     */
+    public void complete() {
+      if (inFlightCalls.remove(this)) {
+        connectionCache.release(serviceDeclaration, serviceClient);
+      }
+    }
+
+    /**
+     * Closes the connection unless the call has already completed. Pending
+     * response listeners fail.
+     */
+    public void close() {
+      if (inFlightCalls.remove(this)) {
+        serviceClient.shutdown();
+      }
+    }
+  }
+
+  public NonPersistentServiceClient(GraphName nodeName, ServiceDeclaration serviceDeclaration,
+      MessageSerializer<T> serializer, MessageDeserializer<S> deserializer,
+      MessageFactory messageFactory, ScheduledExecutorService executorService,
+      ChannelFactory channelFactory, ServiceConnectionCache connectionCache,
+      ServiceManager serviceManager) {
+    Preconditions.checkNotNull(serviceDeclaration.getUri());
+    this.nodeName = nodeName;
+    this.serviceDeclaration = serviceDeclaration;
+    this.serializer = serializer;
+    this.deserializer = deserializer;
+    this.messageFactory = messageFactory;
+    this.executorService = executorService;
+    this.channelFactory = channelFactory;
+    this.connectionCache = connectionCache;
+    this.serviceManager = serviceManager;
+    inFlightCalls = Sets.newSetFromMap(Maps.<InFlightCall, Boolean>newConcurrentMap());
+    shutdown = false;
+  }
+
+  private DefaultServiceClient<T, S> acquireConnection() {
+    DefaultServiceClient<T, S> serviceClient = connectionCache.acquire(serviceDeclaration);
+    if (serviceClient != null) {
+      return serviceClient;
+    }
+    serviceClient =
+        DefaultServiceClient.newDefault(nodeName, serviceDeclaration, serializer, deserializer,
+            messageFactory, executorService, channelFactory);
+    try {
+      serviceClient.connect(serviceDeclaration.getUri());
+    } catch (RuntimeException e) {
+      serviceClient.shutdown();
+      throw e;
+    }
+    return serviceClient;
+  }
+
+  /**
+   * {@link NonPersistentServiceClient}s connect for each call.
+   * 
+   * @throws IllegalStateException
+   *           always
+   */
+  @Override
+  public void connect(URI uri) {
+    throw new IllegalStateException("Non-persistent service clients connect for each call.");
+  }
+
+  /**
+   * @return {@code true} until the {@link NonPersistentServiceClient} is shut
+   *         down
+   */
+  @Override
+  public boolean isConnected() {
+    return !shutdown;
+  }
+
+  /**
+   * Opens a new connection if no idle connection is cached. In that case, this
+   * method blocks until the handshake with the
+   * {@link org.ros.node.service.ServiceServer} has completed.
+   */
+  @Override
+  public void call(T request, ServiceResponseListener<S> listener) {
+    startCall(request, listener);
+  }
+
+  private InFlightCall startCall(T request, final ServiceResponseListener<S> listener) {
+    Preconditions.checkState(!shutdown, "Service client has been shut down.");
+    final InFlightCall call = new InFlightCall(acquireConnection());
+    inFlightCalls.add(call);
+    // Calls added after shutdown() took its snapshot would otherwise be missed.
+    if (shutdown) {
+      call.close();
+      throw new IllegalStateException("Service client has been shut down.");
+    }
+    try {
+      call.serviceClient.call(request, new ServiceResponseListener<S>() {
+        @Override
+        public void onSuccess(S response) {
+          call.complete();
+          listener.onSuccess(response);
+        }
+
+        @Override
+        public void onFailure(RemoteException e) {
+          call.complete();
+          listener.onFailure(e);
+        }
+      });
+    } catch (RuntimeException e) {
+      call.close();
+      throw e;
+    }
+    return call;
+  }
+
+  @Override
+  public ListenableFuture<S> call(T request) {
+    return ServiceFutures.call(this, request);
+  }
+
+  /**
+   * Closes the connection if the call times out or is cancelled. Otherwise, a
+   * response that never arrives would hold on to the connection.
+   */
+  @Override
+  public ListenableFuture<S> call(T request, long timeout, TimeUnit unit) {
+    SettableFuture<S> future = SettableFuture.create();
+    final InFlightCall call = startCall(request, ServiceFutures.newResponseListener(future));
+    ServiceFutures.addTimeout(future, getName(), timeout, unit, executorService);
+    future.addListener(new Runnable() {
+      @Override
+      public void run() {
+        // Has no effect if the response completed the future.
+        call.close();
+      }
+    }, MoreExecutors.sameThreadExecutor());
+    return future;
+  }
+
+  @Override
+  public GraphName getName() {
+    return serviceDeclaration.getName();
+  }
+
+  /**
+   * Closes the connections of calls that are still waiting for a response.
+   * Those calls fail.
+   */
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    serviceManager.removeNonPersistentClient(this);
+    for (InFlightCall call : ImmutableList.copyOf(inFlightCalls)) {
+      call.close();
+    }
+  }
+
+  @Override
+  public T newMessage() {
+    return messageFactory.newFromType(serviceDeclaration.getType());
+  }
+
+  @Override
+  public String toString() {
+    return "NonPersistentServiceClient<" + serviceDeclaration + ">";
+  }
+}
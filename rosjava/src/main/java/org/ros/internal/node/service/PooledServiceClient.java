@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.internal.node.service;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.ros.namespace.GraphName;
+import org.ros.node.service.ServiceClient;
+import org.ros.node.service.ServiceResponseListener;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ServiceClient} that spreads calls across several connections to
+ * one or more {@link org.ros.node.service.ServiceServer}s of the same type.
+ * <p>
+ * Each call is made on the connected {@link DefaultServiceClient} with the
+ * fewest calls waiting for a response. Disconnected clients are skipped.
+ * 
+ * @param <T>
+ *          the {@link org.ros.node.service.ServiceServer}s respond to requests
+ *          of this type
+ * @param <S>
+ *          the {@link org.ros.node.service.ServiceServer}s return responses of
+ *          this type
+ */
+public class PooledServiceClient<T, S> implements ServiceClient<T, S> {
+
+  private final List<DefaultServiceClient<T, S>> serviceClients;
+  private final ServiceManager serviceManager;
+
+  /**
+   * @param serviceClients
+   *          the connected {@link DefaultServiceClient}s to spread calls across
+   * @param serviceManager
+   *          the {@link ServiceManager} to remove this client from on shutdown
+   */
+  public PooledServiceClient(List<DefaultServiceClient<T, S>> serviceClients,
+      ServiceManager serviceManager) {
+    Preconditions.checkArgument(!serviceClients.isEmpty(), "No service clients.");
+    this.serviceClients = ImmutableList.copyOf(serviceClients);
+    this.serviceManager = serviceManager;
+  }
+
+  /**
+   * @return the connected {@link DefaultServiceClient} with the fewest pending
+   *         calls, or any {@link DefaultServiceClient} if none are connected
+   */
+  private DefaultServiceClient<T, S> select() {
+    DefaultServiceClient<T, S> selected = null;
+    int fewestPendingCalls = Integer.MAX_VALUE;
+    for (DefaultServiceClient<T, S> serviceClient : serviceClients) {
+      if (!serviceClient.isConnected()) {
+        continue;
+      }
+      int numberOfPendingCalls = serviceClient.getNumberOfPendingCalls();
+      if (numberOfPendingCalls < fewestPendingCalls) {
+        selected = serviceClient;
+        fewestPendingCalls = numberOfPendingCalls;
+      }
+    }
+    if (selected == null) {
+      // Let the call fail the same way it would on a single connection.
+      return serviceClients.get(0);
+    }
+    return selected;
+  }
+
+  /**
+   * {@link PooledServiceClient}s are connected when they are created.
+   * 
+   * @throws IllegalStateException
+   *           always
+   */
+  @Override
+  public void connect(URI uri) {
+    throw new IllegalStateException("Already connected.");
+  }
+
+  /**
+   * @return {@code true} if at least one connection is still open
+   */
+  @Override
+  public boolean isConnected() {
+    for (DefaultServiceClient<T, S> serviceClient : serviceClients) {
+      if (serviceClient.isConnected()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void call(T request, ServiceResponseListener<S> listener) {
+    select().call(request, listener);
+  }
+
+  @Override
+  public ListenableFuture<S> call(T request) {
+    return select().call(request);
+  }
+
+  @Override
+  public ListenableFuture<S> call(T request, long timeout, TimeUnit unit) {
+    return select().call(request, timeout, unit);
+  }
+
+  /**
+   * @return the name of the first service in the pool
+   */
+  @Override
+  public GraphName getName() {
+    return serviceClients.get(0).getName();
+  }
+
+  @Override
+  public void shutdown() {
+    serviceManager.removePooledClient(this);
+    for (DefaultServiceClient<T, S> serviceClient : serviceClients) {
+      serviceClient.shutdown();
+    }
+  }
+
+  @Override
+  public T newMessage() {
+    return serviceClients.get(0).newMessage();
+  }
+
+  /**
+   * @return the {@link DefaultServiceClient}s in this pool
+   */
+  public List<DefaultServiceClient<T, S>> getServiceClients() {
+    return serviceClients;
+  }
+
+  @Override
+  public String toString() {
+    return "PooledServiceClient<" + serviceClients + ">";
+  }
+}
@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.internal.node.service;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A node-wide cache of idle, connected {@link DefaultServiceClient}s used by
+ * non-persistent {@link org.ros.node.service.ServiceClient}s. Reusing a cached
+ * connection skips connection setup and the handshake for repeated calls to
+ * the same service.
+ * <p>
+ * Connections are keyed by {@link ServiceDeclaration} (i.e. service name,
+ * {@link java.net.URI} and type) because the handshake binds a connection to a
+ * single service. Connections that stay idle for longer than the idle timeout
+ * are closed.
+ */
+public class ServiceConnectionCache {
+
+  private static final boolean DEBUG = false;
+  private static final Log log = LogFactory.getLog(ServiceConnectionCache.class);
+
+  /**
+   * The default time after which idle connections are closed.
+   */
+  public static final long DEFAULT_IDLE_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+  private static final class IdleConnection {
+
+    private final DefaultServiceClient<?, ?> serviceClient;
+    private final long idleSinceNanos;
+
+    public IdleConnection(DefaultServiceClient<?, ?> serviceClient, long idleSinceNanos) {
+      this.serviceClient = serviceClient;
+      this.idleSinceNanos = idleSinceNanos;
+    }
+  }
+
+  private final ScheduledExecutorService executorService;
+  private final long idleTimeoutNanos;
+  private final Map<ServiceDeclaration, Deque<IdleConnection>> idleConnections;
+  private final Object mutex;
+
+  private ScheduledFuture<?> evictionFuture;
+  private boolean shutdown;
+
+  /**
+   * @param executorService
+   *          the {@link ScheduledExecutorService} used to evict idle
+   *          connections
+   * @param idleTimeout
+   *          how long a connection may stay idle before it is closed, zero
+   *          disables caching
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   */
+  public ServiceConnectionCache(ScheduledExecutorService executorService, long idleTimeout,
+      TimeUnit unit) {
+    Preconditions.checkArgument(idleTimeout >= 0, "Idle timeout must be non-negative.");
+    this.executorService = executorService;
+    idleTimeoutNanos = unit.toNanos(idleTimeout);
+    idleConnections = Maps.newHashMap();
+    mutex = new Object();
+    shutdown = false;
+  }
+
+  /**
+   * Removes an idle connection to the service from the cache. The caller
+   * owns the returned {@link DefaultServiceClient} until it is passed back to
+   * {@link #release(ServiceDeclaration, DefaultServiceClient)}.
+   * 
+   * @param serviceDeclaration
+   *          the {@link ServiceDeclaration} of the service
+   * @return a connected {@link DefaultServiceClient}, or {@code null} if no
+   *         idle connection to the service is cached
+   */
+  @SuppressWarnings("unchecked")
+  public <T, S> DefaultServiceClient<T, S> acquire(ServiceDeclaration serviceDeclaration) {
+    List<DefaultServiceClient<?, ?>> closed = Lists.newArrayList();
+    DefaultServiceClient<T, S> acquired = null;
+    synchronized (mutex) {
+      Deque<IdleConnection> connections = idleConnections.get(serviceDeclaration);
+      while (acquired == null && connections != null && !connections.isEmpty()) {
+        // The most recently used connection is the least likely to have been
+        // closed by the server in the meantime.
+        IdleConnection connection = connections.pollLast();
+        if (connection.serviceClient.isConnected()) {
+          acquired = (DefaultServiceClient<T, S>) connection.serviceClient;
+        } else {
+          closed.add(connection.serviceClient);
+        }
+      }
+      if (connections != null && connections.isEmpty()) {
+        idleConnections.remove(serviceDeclaration);
+      }
+      cancelEvictionIfEmpty();
+    }
+    shutdownAll(closed);
+    if (DEBUG && acquired != null) {
+      log.info("Reusing idle connection to " + serviceDeclaration);
+    }
+    return acquired;
+  }
+
+  /**
+   * Returns a connection to the cache. Connections that were closed are shut
+   * down instead.
+   * 
+   * @param serviceDeclaration
+   *          the {@link ServiceDeclaration} the connection was acquired for
+   * @param serviceClient
+   *          the {@link DefaultServiceClient} that no longer has any pending
+   *          calls
+   */
+  public void release(ServiceDeclaration serviceDeclaration,
+      DefaultServiceClient<?, ?> serviceClient) {
+    boolean cached = false;
+    if (idleTimeoutNanos > 0 && serviceClient.isConnected()) {
+      synchronized (mutex) {
+        if (!shutdown) {
+          Deque<IdleConnection> connections = idleConnections.get(serviceDeclaration);
+          if (connections == null) {
+            connections = Lists.newLinkedList();
+            idleConnections.put(serviceDeclaration, connections);
+          }
+          connections.addLast(new IdleConnection(serviceClient, System.nanoTime()));
+          if (evictionFuture == null) {
+            scheduleEviction();
+          }
+          cached = true;
+        }
+      }
+    }
+    if (!cached) {
+      serviceClient.shutdown();
+    }
+  }
+
+  private void scheduleEviction() {
+    evictionFuture = executorService.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        evictIdleConnections(System.nanoTime());
+      }
+    }, idleTimeoutNanos, idleTimeoutNanos / 2 + 1, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Stops the eviction task while there is nothing to evict. The next release
+   * schedules it again.
+   */
+  private void cancelEvictionIfEmpty() {
+    if (evictionFuture != null && idleConnections.isEmpty()) {
+      evictionFuture.cancel(false);
+      evictionFuture = null;
+    }
+  }
+
+  /**
+   * Closes all connections that have been idle for longer than the idle
+   * timeout.
+   * 
+   * @param nowNanos
+   *          the current value of {@link System#nanoTime()}
+   */
+  void evictIdleConnections(long nowNanos) {
+    List<DefaultServiceClient<?, ?>> evicted = Lists.newArrayList();
+    synchronized (mutex) {
+      Iterator<Deque<IdleConnection>> iterator = idleConnections.values().iterator();
+      while (iterator.hasNext()) {
+        Deque<IdleConnection> connections = iterator.next();
+        // Connections are ordered from least to most recently released.
+        while (!connections.isEmpty()
+            && nowNanos - connections.peekFirst().idleSinceNanos >= idleTimeoutNanos) {
+          evicted.add(connections.pollFirst().serviceClient);
+        }
+        if (connections.isEmpty()) {
+          iterator.remove();
+        }
+      }
+      cancelEvictionIfEmpty();
+    }
+    if (DEBUG && !evicted.isEmpty()) {
+      log.info(String.format("Evicting %d idle service connections.", evicted.size()));
+    }
+    shutdownAll(evicted);
+  }
+
+  /**
+   * @return the number of idle connections in the cache
+   */
+  public int getNumberOfIdleConnections() {
+    synchronized (mutex) {
+      int numberOfIdleConnections = 0;
+      for (Deque<IdleConnection> connections : idleConnections.values()) {
+        numberOfIdleConnections += connections.size();
+      }
+      return numberOfIdleConnections;
+    }
+  }
+
+  /**
+   * Closes all idle connections. Connections released afterward are closed
+   * immediately.
+   */
+  public void shutdown() {
+    List<DefaultServiceClient<?, ?>> closed = Lists.newArrayList();
+    synchronized (mutex) {
+      shutdown = true;
+      if (evictionFuture != null) {
+        evictionFuture.cancel(false);
+      }
+      for (Deque<IdleConnection> connections : idleConnections.values()) {
+        for (IdleConnection connection : connections) {
+          closed.add(connection.serviceClient);
+        }
+      }
+      idleConnections.clear();
+    }
+    shutdownAll(closed);
+  }
+
+  private static void shutdownAll(List<DefaultServiceClient<?, ?>> serviceClients) {
+    for (DefaultServiceClient<?, ?> serviceClient : serviceClients) {
+      serviceClient.shutdown();
+    }
+  }
+}
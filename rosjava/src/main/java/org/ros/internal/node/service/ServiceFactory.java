@@ -17,10 +17,14 @@
 package org.ros.internal.node.service;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
 
+import org.jboss.netty.channel.ChannelFactory;
+import org.ros.concurrent.Subsystem;
 import org.ros.exception.DuplicateServiceException;
 import org.ros.internal.message.service.ServiceDescription;
 import org.ros.internal.node.server.SlaveServer;
+import org.ros.internal.transport.tcp.ClientChannelFactories;
 import org.ros.message.MessageDeserializer;
 import org.ros.message.MessageFactory;
 import org.ros.message.MessageSerializer;
@@ -28,8 +32,11 @@ import org.ros.namespace.GraphName;
 import org.ros.node.service.ServiceClient;
 import org.ros.node.service.ServiceResponseBuilder;
 import org.ros.node.service.ServiceServer;
+import org.ros.node.service.ServiceServerOptions;
 
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A factory for {@link ServiceServer}s and {@link ServiceClient}s.
@@ -42,14 +49,44 @@ public class ServiceFactory {
   private final SlaveServer slaveServer;
   private final ServiceManager serviceManager;
   private final ScheduledExecutorService executorService;
+  private final ChannelFactory channelFactory;
+  private final boolean ownsChannelFactory;
+  private final ServiceConnectionCache connectionCache;
   private final Object mutex;
 
   public ServiceFactory(final GraphName nodeName, final SlaveServer slaveServer, final ServiceManager serviceManager,
       final ScheduledExecutorService executorService) {
+    this(nodeName, slaveServer, serviceManager, executorService,
+        ClientChannelFactories.newDefault(Subsystem.TRANSPORT.getExecutor(executorService)),
+        true, new ServiceConnectionCache(executorService,
+            ServiceConnectionCache.DEFAULT_IDLE_TIMEOUT_NANOS, TimeUnit.NANOSECONDS));
+  }
+
+  /**
+   * @param channelFactory
+   *          the node's {@link ChannelFactory} which all {@link ServiceClient}s
+   *          connect with, it is not released by this {@link ServiceFactory}
+   * @param connectionCache
+   *          the cache of idle connections for non-persistent clients
+   */
+  public ServiceFactory(final GraphName nodeName, final SlaveServer slaveServer,
+      final ServiceManager serviceManager, final ScheduledExecutorService executorService,
+      final ChannelFactory channelFactory, final ServiceConnectionCache connectionCache) {
+    this(nodeName, slaveServer, serviceManager, executorService, channelFactory, false,
+        connectionCache);
+  }
+
+  private ServiceFactory(final GraphName nodeName, final SlaveServer slaveServer,
+      final ServiceManager serviceManager, final ScheduledExecutorService executorService,
+      final ChannelFactory channelFactory, final boolean ownsChannelFactory,
+      final ServiceConnectionCache connectionCache) {
     this.nodeName = nodeName;
     this.slaveServer = slaveServer;
     this.serviceManager = serviceManager;
     this.executorService = executorService;
+    this.channelFactory = channelFactory;
+    this.ownsChannelFactory = ownsChannelFactory;
+    this.connectionCache = connectionCache;
     mutex = new Object();
   }
 
@@ -72,6 +109,20 @@ public class ServiceFactory {
   public <T, S> DefaultServiceServer<T, S> newServer(final ServiceDeclaration serviceDeclaration,
       final ServiceResponseBuilder<T, S> responseBuilder, final MessageDeserializer<T> deserializer,
       final MessageSerializer<S> serializer, final MessageFactory messageFactory) {
+    return newServer(serviceDeclaration, responseBuilder, deserializer, serializer,
+        messageFactory, new ServiceServerOptions());
+  }
+
+  /**
+   * @param serviceServerOptions
+   *          limits the resources used to handle requests
+   * @see #newServer(ServiceDeclaration, ServiceResponseBuilder,
+   *      MessageDeserializer, MessageSerializer, MessageFactory)
+   */
+  public <T, S> DefaultServiceServer<T, S> newServer(final ServiceDeclaration serviceDeclaration,
+      final ServiceResponseBuilder<T, S> responseBuilder, final MessageDeserializer<T> deserializer,
+      final MessageSerializer<S> serializer, final MessageFactory messageFactory,
+      final ServiceServerOptions serviceServerOptions) {
     DefaultServiceServer<T, S> serviceServer;
     final GraphName name = serviceDeclaration.getName();
 
@@ -82,7 +133,7 @@ public class ServiceFactory {
         serviceServer =
             new DefaultServiceServer<T, S>(serviceDeclaration, responseBuilder,
                 slaveServer.getTcpRosAdvertiseAddress(), deserializer, serializer, messageFactory,
-                executorService);
+                executorService, serviceServerOptions);
         serviceManager.addServer(serviceServer);
       }
     }
@@ -137,7 +188,7 @@ public class ServiceFactory {
       }
       serviceClient =
           DefaultServiceClient.newDefault(nodeName, serviceDeclaration, serializer, deserializer,
-              messageFactory, executorService);
+              messageFactory, executorService, channelFactory);
       serviceManager.addClient(serviceClient);
       createdNewClient = true;
     }
@@ -147,4 +198,89 @@ public class ServiceFactory {
     }
     return serviceClient;
   }
+
+  /**
+   * Creates a {@link NonPersistentServiceClient} that shares idle connections
+   * with all other non-persistent clients of this factory.
+   * 
+   * @param serviceDeclaration
+   *          the {@link ServiceDescription} that is being served
+   * @param deserializer
+   *          a {@link MessageDeserializer} to be used for incoming messages
+   * @param serializer
+   *          a {@link MessageSerializer} to be used for outgoing messages
+   * @param messageFactory
+   *          a {@link MessageFactory} to be used for creating requests
+   * @return a {@link NonPersistentServiceClient} instance
+   */
+  public <T, S> NonPersistentServiceClient<T, S> newNonPersistentClient(
+      final ServiceDeclaration serviceDeclaration, final MessageSerializer<T> serializer,
+      final MessageDeserializer<S> deserializer, final MessageFactory messageFactory) {
+    NonPersistentServiceClient<T, S> serviceClient =
+        new NonPersistentServiceClient<T, S>(nodeName, serviceDeclaration, serializer,
+            deserializer, messageFactory, executorService, channelFactory, connectionCache,
+            serviceManager);
+    serviceManager.addNonPersistentClient(serviceClient);
+    return serviceClient;
+  }
+
+  /**
+   * Closes all idle connections of non-persistent clients.
+   */
+  public void shutdown() {
+    connectionCache.shutdown();
+    if (ownsChannelFactory) {
+      channelFactory.releaseExternalResources();
+    }
+  }
+
+  /**
+   * Creates a {@link PooledServiceClient} with the specified number of
+   * connections to each of the {@link DefaultServiceServer}s. Unlike
+   * {@link #newClient(ServiceDeclaration, MessageSerializer, MessageDeserializer, MessageFactory)}
+   * , a new {@link PooledServiceClient} is created for every call.
+   * 
+   * @param serviceDeclarations
+   *          the {@link ServiceDeclaration}s of the {@link DefaultServiceServer}s
+   *          to connect to, all of the same type
+   * @param connectionsPerServer
+   *          the number of connections to open to each server
+   * @param deserializer
+   *          a {@link MessageDeserializer} to be used for incoming messages
+   * @param serializer
+   *          a {@link MessageSerializer} to be used for outgoing messages
+   * @param messageFactory
+   *          a {@link MessageFactory} to be used for creating requests
+   * @return a connected {@link PooledServiceClient} instance
+   */
+  public <T, S> PooledServiceClient<T, S> newPooledClient(
+      final List<ServiceDeclaration> serviceDeclarations, final int connectionsPerServer,
+      final MessageSerializer<T> serializer, final MessageDeserializer<S> deserializer,
+      final MessageFactory messageFactory) {
+    Preconditions.checkArgument(!serviceDeclarations.isEmpty(), "No services specified.");
+    Preconditions.checkArgument(connectionsPerServer > 0,
+        "Connections per server must be positive.");
+    List<DefaultServiceClient<T, S>> serviceClients = Lists.newArrayList();
+    try {
+      for (ServiceDeclaration serviceDeclaration : serviceDeclarations) {
+        Preconditions.checkNotNull(serviceDeclaration.getUri());
+        for (int i = 0; i < connectionsPerServer; i++) {
+          DefaultServiceClient<T, S> serviceClient =
+              DefaultServiceClient.newDefault(nodeName, serviceDeclaration, serializer,
+                  deserializer, messageFactory, executorService, channelFactory);
+          serviceClients.add(serviceClient);
+          serviceClient.connect(serviceDeclaration.getUri());
+        }
+      }
+    } catch (RuntimeException e) {
+      for (DefaultServiceClient<T, S> serviceClient : serviceClients) {
+        serviceClient.shutdown();
+      }
+      throw e;
+    }
+    PooledServiceClient<T, S> pooledServiceClient =
+        new PooledServiceClient<T, S>(serviceClients, serviceManager);
+    serviceManager.addPooledClient(pooledServiceClient);
+    return pooledServiceClient;
+  }
 }
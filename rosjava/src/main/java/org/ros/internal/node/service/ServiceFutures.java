@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.internal.node.service;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+
+import org.ros.exception.RemoteException;
+import org.ros.namespace.GraphName;
+import org.ros.node.service.ServiceClient;
+import org.ros.node.service.ServiceResponseListener;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Builds {@link ListenableFuture}-based calls on top of
+ * {@link ServiceClient#call(Object, ServiceResponseListener)}.
+ */
+class ServiceFutures {
+
+  private ServiceFutures() {
+    // Utility class.
+  }
+
+  /**
+   * @see ServiceClient#call(Object)
+   */
+  public static <T, S> SettableFuture<S> call(ServiceClient<T, S> serviceClient, T request) {
+    SettableFuture<S> future = SettableFuture.create();
+    serviceClient.call(request, newResponseListener(future));
+    return future;
+  }
+
+  /**
+   * @return a {@link ServiceResponseListener} that completes the future
+   */
+  public static <S> ServiceResponseListener<S> newResponseListener(
+      final SettableFuture<S> future) {
+    return new ServiceResponseListener<S>() {
+      @Override
+      public void onSuccess(S response) {
+        future.set(response);
+      }
+
+      @Override
+      public void onFailure(RemoteException e) {
+        future.setException(e);
+      }
+    };
+  }
+
+  /**
+   * @see ServiceClient#call(Object, long, TimeUnit)
+   */
+  public static <T, S> SettableFuture<S> call(final ServiceClient<T, S> serviceClient,
+      T request, final long timeout, final TimeUnit unit,
+      ScheduledExecutorService executorService) {
+    // The response listener stays queued after a timeout or cancellation so
+    // that later responses are still matched to the right requests. Setting
+    // the future a second time has no effect.
+    SettableFuture<S> future = call(serviceClient, request);
+    addTimeout(future, serviceClient.getName(), timeout, unit, executorService);
+    return future;
+  }
+
+  /**
+   * Fails the future with a {@link TimeoutException} unless it completes
+   * within the timeout.
+   */
+  public static void addTimeout(final SettableFuture<?> future, final GraphName name,
+      final long timeout, final TimeUnit unit, ScheduledExecutorService executorService) {
+    final ScheduledFuture<?> timeoutFuture = executorService.schedule(new Runnable() {
+      @Override
+      public void run() {
+        future.setException(new TimeoutException(String.format(
+            "No response from %s after %d %s.", name, timeout, unit)));
+      }
+    }, timeout, unit);
+    future.addListener(new Runnable() {
+      @Override
+      public void run() {
+        timeoutFuture.cancel(false);
+      }
+    }, MoreExecutors.sameThreadExecutor());
+  }
+}
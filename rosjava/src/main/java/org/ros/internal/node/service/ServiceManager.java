@@ -18,6 +18,7 @@ package org.ros.internal.node.service;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import org.ros.namespace.GraphName;
 import org.ros.node.service.ServiceClient;
@@ -25,6 +26,7 @@ import org.ros.node.service.ServiceServer;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Manages a collection of {@link ServiceServer}s and {@link ServiceClient}s.
@@ -42,6 +44,17 @@ public class ServiceManager {
    * A mapping from service name to a client for the service.
    */
   private final Map<GraphName, DefaultServiceClient<?, ?>> serviceClients;
+
+  /**
+   * {@link PooledServiceClient}s are not shared. So, they are not mapped by
+   * service name.
+   */
+  private final Set<PooledServiceClient<?, ?>> pooledServiceClients;
+
+  /**
+   * {@link NonPersistentServiceClient}s are not shared either.
+   */
+  private final Set<NonPersistentServiceClient<?, ?>> nonPersistentServiceClients;
   
   // TODO(damonkohler): Change to ListenerGroup.
   private ServiceManagerListener listener;
@@ -49,6 +62,10 @@ public class ServiceManager {
   public ServiceManager() {
     serviceServers = Maps.newConcurrentMap();
     serviceClients = Maps.newConcurrentMap();
+    pooledServiceClients =
+        Sets.newSetFromMap(Maps.<PooledServiceClient<?, ?>, Boolean>newConcurrentMap());
+    nonPersistentServiceClients =
+        Sets.newSetFromMap(Maps.<NonPersistentServiceClient<?, ?>, Boolean>newConcurrentMap());
   }
   
   public void setListener(ServiceManagerListener listener) {
@@ -100,4 +117,28 @@ public class ServiceManager {
   public List<DefaultServiceClient<?, ?>> getClients() {
     return ImmutableList.copyOf(serviceClients.values());
   }
+
+  public void addPooledClient(PooledServiceClient<?, ?> pooledServiceClient) {
+    pooledServiceClients.add(pooledServiceClient);
+  }
+
+  public void removePooledClient(PooledServiceClient<?, ?> pooledServiceClient) {
+    pooledServiceClients.remove(pooledServiceClient);
+  }
+
+  public List<PooledServiceClient<?, ?>> getPooledClients() {
+    return ImmutableList.copyOf(pooledServiceClients);
+  }
+
+  public void addNonPersistentClient(NonPersistentServiceClient<?, ?> serviceClient) {
+    nonPersistentServiceClients.add(serviceClient);
+  }
+
+  public void removeNonPersistentClient(NonPersistentServiceClient<?, ?> serviceClient) {
+    nonPersistentServiceClients.remove(serviceClient);
+  }
+
+  public List<NonPersistentServiceClient<?, ?>> getNonPersistentClients() {
+    return ImmutableList.copyOf(nonPersistentServiceClients);
+  }
 }
@@ -16,6 +16,10 @@
 
 package org.ros.internal.node.service;
 
+import com.google.common.collect.Lists;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.ChannelHandlerContext;
@@ -30,32 +34,62 @@ import org.ros.node.service.ServiceResponseBuilder;
 
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
-import java.util.concurrent.ExecutorService;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
+ * Handles the requests received on a single service connection.
+ * <p>
+ * Clients may pipeline requests and match responses to them in FIFO order.
+ * So, requests from the same connection are handled one at a time and in the
+ * order they were received.
+ * <p>
+ * Requests are handled on the {@link DefaultServiceServer}'s
+ * {@link ServiceRequestScheduler}. Requests that the scheduler does not admit
+ * are answered with an error without calling the
+ * {@link ServiceResponseBuilder}.
+ * 
  * @author damonkohler@google.com (Damon Kohler)
  */
 class ServiceRequestHandler<T, S> extends SimpleChannelHandler {
 
+  private static final Log log = LogFactory.getLog(ServiceRequestHandler.class);
+
+  /**
+   * Stands in for a rejected request in {@link #pendingRequests} so that its
+   * error response is sent in order.
+   */
+  private static final ChannelBuffer REJECTED_REQUEST = ChannelBuffers.buffer(0);
+
   private final ServiceDeclaration serviceDeclaration;
   private final ServiceResponseBuilder<T, S> responseBuilder;
   private final MessageDeserializer<T> deserializer;
   private final MessageSerializer<S> serializer;
   private final MessageFactory messageFactory;
-  private final ExecutorService executorService;
+  private final ServiceRequestScheduler scheduler;
   private final MessageBufferPool messageBufferPool;
+  private final Queue<ChannelBuffer> pendingRequests;
+  private final Object mutex;
+
+  /**
+   * {@code true} while a task is handling {@link #pendingRequests}.
+   */
+  private boolean handling;
 
   public ServiceRequestHandler(ServiceDeclaration serviceDeclaration,
       ServiceResponseBuilder<T, S> responseBuilder, MessageDeserializer<T> deserializer,
       MessageSerializer<S> serializer, MessageFactory messageFactory,
-      ExecutorService executorService) {
+      ServiceRequestScheduler scheduler) {
     this.serviceDeclaration = serviceDeclaration;
     this.deserializer = deserializer;
     this.serializer = serializer;
     this.responseBuilder = responseBuilder;
     this.messageFactory = messageFactory;
-    this.executorService = executorService;
+    this.scheduler = scheduler;
     messageBufferPool = new MessageBufferPool();
+    pendingRequests = Lists.newLinkedList();
+    mutex = new Object();
+    handling = false;
   }
 
   private void handleRequest(ChannelBuffer requestBuffer, ChannelBuffer responseBuffer)
@@ -83,31 +117,116 @@ class ServiceRequestHandler<T, S> extends SimpleChannelHandler {
     ctx.getChannel().write(response);
   }
 
+  private void handleRequest(ChannelHandlerContext ctx, ChannelBuffer requestBuffer) {
+    ServiceServerResponse response = new ServiceServerResponse();
+    ChannelBuffer responseBuffer = messageBufferPool.acquire();
+    boolean success;
+    try {
+      handleRequest(requestBuffer, responseBuffer);
+      success = true;
+    } catch (ServiceException ex) {
+      handleError(ctx, response, ex.getMessage());
+      success = false;
+    } catch (RuntimeException ex) {
+      // Every request must get a response. Otherwise, the client would match
+      // all following responses to the wrong requests.
+      log.error("Service request failed.", ex);
+      handleError(ctx, response, ex.toString());
+      success = false;
+    }
+    if (success) {
+      handleSuccess(ctx, response, responseBuffer);
+    }
+    messageBufferPool.release(responseBuffer);
+  }
+
+  private void handleRejection(ChannelHandlerContext ctx) {
+    handleError(ctx, new ServiceServerResponse(), "Service " + serviceDeclaration.getName()
+        + " is overloaded.");
+  }
+
+  /**
+   * Answers all pending requests with an error after the
+   * {@link ServiceRequestScheduler} refused to run the task that would have
+   * handled them, e.g. because its executor was shut down.
+   */
+  private void handleExecutionRejection(ChannelHandlerContext ctx, RejectedExecutionException e) {
+    log.error("Failed to schedule service request handling.", e);
+    Queue<ChannelBuffer> abandonedRequests;
+    synchronized (mutex) {
+      abandonedRequests = Lists.newLinkedList(pendingRequests);
+      pendingRequests.clear();
+      handling = false;
+    }
+    for (ChannelBuffer requestBuffer : abandonedRequests) {
+      if (requestBuffer != REJECTED_REQUEST) {
+        scheduler.release();
+      }
+      handleError(ctx, new ServiceServerResponse(), "Service " + serviceDeclaration.getName()
+          + " is unavailable.");
+    }
+  }
+
+  private void execute(ChannelHandlerContext ctx, Runnable task) {
+    try {
+      scheduler.execute(task);
+    } catch (RejectedExecutionException e) {
+      handleExecutionRejection(ctx, e);
+    }
+  }
+
   @Override
   public void messageReceived(final ChannelHandlerContext ctx, MessageEvent e) throws Exception {
-    // Although the ChannelHandlerContext is explicitly documented as being safe
-    // to keep for later use, the MessageEvent is not. So, we make a defensive
-    // copy of the ChannelBuffer.
-    final ChannelBuffer requestBuffer = ((ChannelBuffer) e.getMessage()).copy();
-    executorService.execute(new Runnable() {
-      @Override
-      public void run() {
-        ServiceServerResponse response = new ServiceServerResponse();
-        ChannelBuffer responseBuffer = messageBufferPool.acquire();
-        boolean success;
-        try {
-          handleRequest(requestBuffer, responseBuffer);
-          success = true;
-        } catch (ServiceException ex) {
-          handleError(ctx, response, ex.getMessage());
-          success = false;
-        }
-        if (success) {
-          handleSuccess(ctx, response, responseBuffer);
-        }
-        messageBufferPool.release(responseBuffer);
+    boolean admitted = scheduler.tryAcquire();
+    boolean rejectNow = false;
+    boolean startHandling = false;
+    synchronized (mutex) {
+      if (!admitted && !handling) {
+        // Nothing is pending on this connection. So, the error response can be
+        // sent right away without reordering responses.
+        rejectNow = true;
+      } else {
+        // Although the ChannelHandlerContext is explicitly documented as being
+        // safe to keep for later use, the MessageEvent is not. So, we make a
+        // defensive copy of the ChannelBuffer.
+        pendingRequests.add(admitted ? ((ChannelBuffer) e.getMessage()).copy()
+            : REJECTED_REQUEST);
+        startHandling = !handling;
+        handling = true;
       }
-    });
+    }
+    if (rejectNow) {
+      handleRejection(ctx);
+    } else if (startHandling) {
+      execute(ctx, new Runnable() {
+        @Override
+        public void run() {
+          // Handle one request per task so that a busy connection does not
+          // keep other connections waiting for the scheduler.
+          ChannelBuffer requestBuffer;
+          synchronized (mutex) {
+            requestBuffer = pendingRequests.poll();
+          }
+          if (requestBuffer == REJECTED_REQUEST) {
+            handleRejection(ctx);
+          } else {
+            try {
+              handleRequest(ctx, requestBuffer);
+            } finally {
+              scheduler.release();
+            }
+          }
+          boolean handleNext;
+          synchronized (mutex) {
+            handleNext = !pendingRequests.isEmpty();
+            handling = handleNext;
+          }
+          if (handleNext) {
+            execute(ctx, this);
+          }
+        }
+      });
+    }
     super.messageReceived(ctx, e);
   }
 }
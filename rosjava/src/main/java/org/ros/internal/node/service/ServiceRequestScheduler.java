@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.node.service;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Limits the resources a single {@link DefaultServiceServer} may use to handle
+ * requests.
+ * <p>
+ * At most {@code maxConcurrentRequests} tasks run at the same time. Further
+ * tasks wait in FIFO order. Requests must be admitted with
+ * {@link #tryAcquire()} before they are queued so that a burst of requests is
+ * rejected instead of piling up without bound.
+ */
+class ServiceRequestScheduler {
+
+  private static final Log log = LogFactory.getLog(ServiceRequestScheduler.class);
+
+  private final Executor executor;
+  private final int maxConcurrentRequests;
+  private final int maxPendingRequests;
+  private final Queue<Runnable> tasks;
+  private final Object mutex;
+
+  /**
+   * The number of admitted requests that have not been handled yet.
+   */
+  private int numberOfPendingRequests;
+  private int numberOfRunningTasks;
+
+  /**
+   * @param executor
+   *          the {@link Executor} that runs the tasks
+   * @param maxConcurrentRequests
+   *          the maximum number of tasks that may run at the same time
+   * @param queueCapacity
+   *          the maximum number of admitted requests waiting for a task to
+   *          handle them
+   */
+  public ServiceRequestScheduler(Executor executor, int maxConcurrentRequests, int queueCapacity) {
+    Preconditions.checkArgument(maxConcurrentRequests > 0,
+        "Max concurrent requests must be positive.");
+    Preconditions.checkArgument(queueCapacity >= 0, "Queue capacity must be non-negative.");
+    this.executor = executor;
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    maxPendingRequests = maxConcurrentRequests + queueCapacity;
+    tasks = Lists.newLinkedList();
+    mutex = new Object();
+    numberOfPendingRequests = 0;
+    numberOfRunningTasks = 0;
+  }
+
+  /**
+   * Admits a request unless the queue is full. Every admitted request must be
+   * followed by exactly one call to {@link #release()} once it is handled.
+   * 
+   * @return {@code true} if the request was admitted, {@code false} if it
+   *         should be rejected
+   */
+  public boolean tryAcquire() {
+    synchronized (mutex) {
+      if (numberOfPendingRequests >= maxPendingRequests) {
+        return false;
+      }
+      numberOfPendingRequests++;
+      return true;
+    }
+  }
+
+  /**
+   * Signals that an admitted request has been handled.
+   */
+  public void release() {
+    synchronized (mutex) {
+      Preconditions.checkState(numberOfPendingRequests > 0);
+      numberOfPendingRequests--;
+    }
+  }
+
+  /**
+   * @return the number of admitted requests that have not been handled yet
+   */
+  public int getNumberOfPendingRequests() {
+    synchronized (mutex) {
+      return numberOfPendingRequests;
+    }
+  }
+
+  /**
+   * Runs the task as soon as fewer than {@code maxConcurrentRequests} tasks are
+   * running.
+   * 
+   * @param task
+   *          the task to run
+   * @throws RejectedExecutionException
+   *           if the {@link Executor} rejects the task, the slot the task
+   *           would have taken is freed again
+   */
+  public void execute(Runnable task) {
+    synchronized (mutex) {
+      if (numberOfRunningTasks >= maxConcurrentRequests) {
+        tasks.add(task);
+        return;
+      }
+      numberOfRunningTasks++;
+    }
+    try {
+      executor.execute(newWorker(task));
+    } catch (RejectedExecutionException e) {
+      synchronized (mutex) {
+        numberOfRunningTasks--;
+      }
+      throw e;
+    }
+  }
+
+  private Runnable newWorker(final Runnable firstTask) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        Runnable task = firstTask;
+        while (task != null) {
+          try {
+            task.run();
+          } catch (RuntimeException e) {
+            log.error("Service request task failed.", e);
+          }
+          synchronized (mutex) {
+            task = tasks.poll();
+            if (task == null) {
+              numberOfRunningTasks--;
+            }
+          }
+        }
+      }
+    };
+  }
+}
@@ -20,6 +20,7 @@ import com.google.common.base.Preconditions;
 
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.MessageEvent;
 import org.jboss.netty.channel.SimpleChannelHandler;
 import org.ros.exception.RemoteException;
@@ -67,4 +68,39 @@ class ServiceResponseHandler<ResponseType> extends SimpleChannelHandler {
       }
     });
   }
+
+  @Override
+  public void channelClosed(ChannelHandlerContext ctx, ChannelStateEvent e) throws Exception {
+    failAll(responseListeners, "Service connection closed.", executorService);
+    super.channelClosed(ctx, e);
+  }
+
+  /**
+   * Fails all {@link ServiceResponseListener}s that are still waiting for a
+   * response.
+   * 
+   * @param responseListeners
+   *          the {@link ServiceResponseListener}s to remove and fail
+   * @param message
+   *          the error message to fail the listeners with
+   * @param executorService
+   *          the {@link ExecutorService} to call the listeners on
+   */
+  static <ResponseType> void failAll(
+      Queue<ServiceResponseListener<ResponseType>> responseListeners, String message,
+      ExecutorService executorService) {
+    final RemoteException exception = new RemoteException(StatusCode.ERROR, message);
+    while (true) {
+      final ServiceResponseListener<ResponseType> listener = responseListeners.poll();
+      if (listener == null) {
+        break;
+      }
+      executorService.execute(new Runnable() {
+        @Override
+        public void run() {
+          listener.onFailure(exception);
+        }
+      });
+    }
+  }
 }
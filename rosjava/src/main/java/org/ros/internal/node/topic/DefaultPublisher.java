@@ -16,25 +16,40 @@
 
 package org.ros.internal.node.topic;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.ros.concurrent.ListenerGroup;
 import org.ros.concurrent.SignalRunnable;
 import org.ros.internal.node.server.NodeIdentifier;
 import org.ros.internal.transport.ConnectionHeader;
 import org.ros.internal.transport.ConnectionHeaderFields;
+import org.ros.internal.transport.compression.Compressor;
+import org.ros.internal.transport.intraprocess.IntraProcessPublisherRegistry;
+import org.ros.internal.transport.queue.IncomingMessageQueue;
 import org.ros.internal.transport.queue.OutgoingMessageQueue;
+import org.ros.internal.transport.shm.SharedMemoryRing;
 import org.ros.message.MessageFactory;
 import org.ros.message.MessageSerializer;
 import org.ros.node.topic.DefaultPublisherListener;
 import org.ros.node.topic.Publisher;
 import org.ros.node.topic.PublisherListener;
+import org.ros.node.topic.PublisherOptions;
 import org.ros.node.topic.Subscriber;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -61,18 +76,51 @@ public class DefaultPublisher<T> extends DefaultTopicParticipant implements Publ
    * Queue of all messages being published by this {@link Publisher}.
    */
   private final OutgoingMessageQueue<T> outgoingMessageQueue;
+  private final ConcurrentMap<Channel, SubscriberIdentifier> subscriberChannels;
+  private final ConcurrentMap<IncomingMessageQueue<T>, DefaultSubscriber<T>>
+      intraProcessSubscribers;
+  private final ConcurrentMap<SubscriberIdentifier, Integer> udpConnectionIds;
   private final ListenerGroup<PublisherListener<T>> listeners;
   private final NodeIdentifier nodeIdentifier;
   private final MessageFactory messageFactory;
+  private final Compressor compressor;
+  private final boolean raw;
+  private final boolean immutableMessages;
   private CountDownLatch shutdownLatch;
 
   public DefaultPublisher(NodeIdentifier nodeIdentifier, TopicDeclaration topicDeclaration,
       MessageSerializer<T> serializer, MessageFactory messageFactory,
       ScheduledExecutorService executorService) {
+    this(nodeIdentifier, topicDeclaration, serializer, messageFactory, executorService,
+        new PublisherOptions());
+  }
+
+  public DefaultPublisher(NodeIdentifier nodeIdentifier, TopicDeclaration topicDeclaration,
+      MessageSerializer<T> serializer, MessageFactory messageFactory,
+      ScheduledExecutorService executorService, PublisherOptions publisherOptions) {
     super(topicDeclaration);
     this.nodeIdentifier = nodeIdentifier;
     this.messageFactory = messageFactory;
-    outgoingMessageQueue = new OutgoingMessageQueue<T>(serializer, executorService);
+    outgoingMessageQueue =
+        new OutgoingMessageQueue<T>(serializer, executorService,
+            publisherOptions.getQueueCapacity(), publisherOptions.getQueueOverflowPolicy(),
+            publisherOptions.getQueueBlockTimeoutNanos(), TimeUnit.NANOSECONDS);
+    outgoingMessageQueue.setSlowSubscriberPolicy(publisherOptions.getSlowSubscriberPolicy());
+    outgoingMessageQueue.setWriteBufferWaterMarks(publisherOptions.getWriteBufferLowWaterMark(),
+        publisherOptions.getWriteBufferHighWaterMark());
+    outgoingMessageQueue.setBatching(publisherOptions.getMaxBatchSize(),
+        publisherOptions.getBatchFlushIntervalNanos());
+    outgoingMessageQueue.setSharedMemoryCapacity(publisherOptions.getSharedMemoryCapacity());
+    compressor = publisherOptions.getCompressor();
+    if (compressor != null) {
+      outgoingMessageQueue.setCompression(compressor,
+          publisherOptions.getCompressionThreshold());
+    }
+    raw = serializer instanceof SerializedMessageSerializer;
+    immutableMessages = publisherOptions.getImmutableMessages();
+    subscriberChannels = Maps.newConcurrentMap();
+    intraProcessSubscribers = Maps.newConcurrentMap();
+    udpConnectionIds = Maps.newConcurrentMap();
     listeners = new ListenerGroup<PublisherListener<T>>(executorService);
     listeners.add(new DefaultPublisherListener<T>() {
       @Override
@@ -107,6 +155,32 @@ public class DefaultPublisher<T> extends DefaultTopicParticipant implements Publ
     return outgoingMessageQueue.getLatchMode();
   }
 
+  /**
+   * @param directBuffers
+   *          {@code true} to serialize outgoing messages into direct
+   *          (off-heap) buffers
+   */
+  public void setDirectBuffers(boolean directBuffers) {
+    outgoingMessageQueue.setDirectBuffers(directBuffers);
+  }
+
+  /**
+   * @return {@code true} if this {@link Publisher} forwards pre-serialized
+   *         {@link org.ros.node.topic.SerializedMessage}s
+   */
+  public boolean isRaw() {
+    return raw;
+  }
+
+  /**
+   * @return {@code true} if published messages are never modified and may be
+   *         shared with intra-process {@link Subscriber}s
+   * @see PublisherOptions#immutableMessages(boolean)
+   */
+  public boolean hasImmutableMessages() {
+    return immutableMessages;
+  }
+
   /**
    * Sends shutdown signals and awaits for them to be received by
    * {@link DefaultPublisher#signalOnMasterUnregistrationSuccess()} or
@@ -114,6 +188,9 @@ public class DefaultPublisher<T> extends DefaultTopicParticipant implements Publ
    */
   @Override
   public void shutdown(long timeout, TimeUnit unit) {
+    // Intra-process subscribers must not find this publisher again while they
+    // reconnect.
+    IntraProcessPublisherRegistry.remove(this);
     shutdownLatch = new CountDownLatch(listeners.size());
     signalOnShutdown(timeout, unit);
     try {
@@ -122,6 +199,13 @@ public class DefaultPublisher<T> extends DefaultTopicParticipant implements Publ
       log.error(e.getMessage(), e);
     }
     outgoingMessageQueue.shutdown();
+    // Unlike TCPROS subscribers, intra-process subscribers have no connection
+    // that is closed by the shutdown. So, they are notified explicitly.
+    List<DefaultSubscriber<T>> subscribers = Lists.newArrayList(intraProcessSubscribers.values());
+    intraProcessSubscribers.clear();
+    for (DefaultSubscriber<T> subscriber : subscribers) {
+      subscriber.onIntraProcessPublisherShutdown(this);
+    }
     listeners.shutdown();
   }
 
@@ -140,12 +224,32 @@ public class DefaultPublisher<T> extends DefaultTopicParticipant implements Publ
 
   @Override
   public boolean hasSubscribers() {
-    return outgoingMessageQueue.getNumberOfChannels() > 0;
+    return getNumberOfSubscribers() > 0;
   }
 
   @Override
   public int getNumberOfSubscribers() {
-    return outgoingMessageQueue.getNumberOfChannels();
+    return outgoingMessageQueue.getNumberOfChannels()
+        + outgoingMessageQueue.getNumberOfIncomingMessageQueues()
+        + outgoingMessageQueue.getNumberOfUdpConnections();
+  }
+
+  /**
+   * @return the number of {@link Subscriber}s that receive messages over
+   *         UDPROS
+   */
+  @VisibleForTesting
+  public int getNumberOfUdpSubscribers() {
+    return outgoingMessageQueue.getNumberOfUdpConnections();
+  }
+
+  /**
+   * @return the number of {@link Subscriber}s that receive messages over
+   *         SHMROS
+   */
+  @VisibleForTesting
+  public int getNumberOfSharedMemorySubscribers() {
+    return outgoingMessageQueue.getNumberOfSharedMemoryChannels();
   }
 
   @Override
@@ -193,9 +297,55 @@ public class DefaultPublisher<T> extends DefaultTopicParticipant implements Publ
     // TODO(damonkohler): Force latch mode to be consistent throughout the life
     // of the publisher.
     outgoingConnectionHeader.addField(ConnectionHeaderFields.LATCHING, getLatchMode() ? "1" : "0");
+    // Confirm the shared memory ring to the subscriber so that it knows to
+    // expect signals rather than messages on this connection.
+    String ringId = incomingHeader.getField(ConnectionHeaderFields.SHM_RING);
+    if (ringId != null && hasSharedMemoryRing(ringId)) {
+      outgoingConnectionHeader.addField(ConnectionHeaderFields.SHM_RING, ringId);
+    }
+    Compressor negotiatedCompressor = negotiateCompression(incomingHeader);
+    if (negotiatedCompressor != null) {
+      outgoingConnectionHeader.addField(ConnectionHeaderFields.COMPRESSION,
+          negotiatedCompressor.getName());
+    }
     return outgoingConnectionHeader.encode();
   }
 
+  /**
+   * @param incomingHeader
+   *          the {@link Subscriber}'s handshake header
+   * @return the {@link Compressor} to use for the {@link Subscriber}, or
+   *         {@code null} if messages are sent uncompressed
+   */
+  private Compressor negotiateCompression(ConnectionHeader incomingHeader) {
+    String ringId = incomingHeader.getField(ConnectionHeaderFields.SHM_RING);
+    if (compressor == null || (ringId != null && hasSharedMemoryRing(ringId))) {
+      return null;
+    }
+    // Subscribers that do not know about compression do not advertise any
+    // compressors.
+    String accepted = incomingHeader.getField(ConnectionHeaderFields.COMPRESSION);
+    if (accepted == null) {
+      return null;
+    }
+    for (String name : accepted.split(",")) {
+      if (name.trim().equals(compressor.getName())) {
+        return compressor;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @param incomingHeader
+   *          the {@link Subscriber}'s handshake header
+   * @return {@code true} if messages are sent compressed to the
+   *         {@link Subscriber}
+   */
+  public boolean negotiatesCompression(ConnectionHeader incomingHeader) {
+    return negotiateCompression(incomingHeader) != null;
+  }
+
   /**
    * Add a {@link Subscriber} connection to this {@link Publisher}.
    * 
@@ -205,14 +355,153 @@ public class DefaultPublisher<T> extends DefaultTopicParticipant implements Publ
    *          the communication {@link Channel} to the {@link Subscriber}
    */
   public void addSubscriber(SubscriberIdentifier subscriberIdentifer, Channel channel) {
+    addSubscriber(subscriberIdentifer, channel, false);
+  }
+
+  /**
+   * Add a {@link Subscriber} connection to this {@link Publisher}.
+   * 
+   * @param subscriberIdentifer
+   *          the {@link SubscriberIdentifier} of the new subscriber
+   * @param channel
+   *          the communication {@link Channel} to the {@link Subscriber}
+   * @param compressed
+   *          {@code true} if the {@link Subscriber} negotiated compression,
+   *          see {@link #negotiatesCompression(ConnectionHeader)}
+   */
+  public void addSubscriber(SubscriberIdentifier subscriberIdentifer, Channel channel,
+      boolean compressed) {
     if (DEBUG) {
       log.info(String.format("Adding subscriber %s channel %s to publisher %s.",
           subscriberIdentifer, channel, this));
     }
-    outgoingMessageQueue.addChannel(channel);
+    subscriberChannels.put(channel, subscriberIdentifer);
+    channel.getCloseFuture().addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) throws Exception {
+        subscriberChannels.remove(future.getChannel());
+      }
+    });
+    outgoingMessageQueue.addChannel(channel, compressed);
+    signalOnNewSubscriber(subscriberIdentifer);
+  }
+
+  /**
+   * @return the number of messages dropped so far for each connected TCPROS
+   *         {@link Subscriber} because it could not keep up
+   */
+  public Map<SubscriberIdentifier, Long> getDroppedMessageCounts() {
+    Map<SubscriberIdentifier, Long> counts = Maps.newHashMap();
+    for (Map.Entry<Channel, SubscriberIdentifier> entry : subscriberChannels.entrySet()) {
+      long count = outgoingMessageQueue.getNumberOfDroppedMessages(entry.getKey());
+      Long previous = counts.get(entry.getValue());
+      counts.put(entry.getValue(), previous == null ? count : previous + count);
+    }
+    return counts;
+  }
+
+  /**
+   * @return the {@link SharedMemoryRing} this {@link Publisher} writes messages
+   *         for shared memory {@link Subscriber}s to
+   * @throws IOException
+   *           if the ring cannot be created
+   */
+  public SharedMemoryRing getSharedMemoryRing() throws IOException {
+    return outgoingMessageQueue.getSharedMemoryRing();
+  }
+
+  /**
+   * @param ringId
+   *          the ID of a {@link SharedMemoryRing}
+   * @return {@code true} if this {@link Publisher} writes messages to the
+   *         {@link SharedMemoryRing} with the given ID
+   */
+  public boolean hasSharedMemoryRing(String ringId) {
+    return outgoingMessageQueue.hasSharedMemoryRing(ringId);
+  }
+
+  /**
+   * Add a {@link Subscriber} which reads messages from this {@link Publisher}'s
+   * {@link SharedMemoryRing}.
+   * 
+   * @param subscriberIdentifer
+   *          the {@link SubscriberIdentifier} of the new subscriber
+   * @param channel
+   *          the {@link Channel} used to signal new messages to the
+   *          {@link Subscriber}
+   */
+  public void addSharedMemorySubscriber(SubscriberIdentifier subscriberIdentifer,
+      Channel channel) {
+    if (DEBUG) {
+      log.info(String.format("Adding shared memory subscriber %s channel %s to publisher %s.",
+          subscriberIdentifer, channel, this));
+    }
+    outgoingMessageQueue.addSharedMemoryChannel(channel);
     signalOnNewSubscriber(subscriberIdentifer);
   }
 
+  /**
+   * Add a {@link Subscriber} in the same process to this {@link Publisher}.
+   * Published messages are delivered to the {@link Subscriber} without being
+   * serialized.
+   * 
+   * @param subscriber
+   *          the new subscriber, it is notified when this {@link Publisher}
+   *          shuts down
+   * @param incomingMessageQueue
+   *          the {@link IncomingMessageQueue} of the new subscriber
+   */
+  public void addIntraProcessSubscriber(DefaultSubscriber<T> subscriber,
+      IncomingMessageQueue<T> incomingMessageQueue) {
+    if (DEBUG) {
+      log.info(String.format("Adding intra-process subscriber %s to publisher %s.", subscriber,
+          this));
+    }
+    intraProcessSubscribers.put(incomingMessageQueue, subscriber);
+    outgoingMessageQueue.addIncomingMessageQueue(incomingMessageQueue);
+    signalOnNewSubscriber(subscriber.toIdentifier());
+  }
+
+  /**
+   * Add a UDPROS {@link Subscriber} to this {@link Publisher}. If the
+   * {@link Subscriber} already has a UDPROS connection (e.g. because it
+   * requested the topic again), that connection is replaced.
+   * 
+   * @param subscriberIdentifier
+   *          the {@link SubscriberIdentifier} of the new subscriber
+   * @param connectionId
+   *          the ID of the UDPROS connection
+   * @param address
+   *          the address the {@link Subscriber} receives datagrams on
+   * @param maxDatagramSize
+   *          the maximum size of datagrams accepted by the {@link Subscriber}
+   */
+  public void addUdpSubscriber(SubscriberIdentifier subscriberIdentifier, int connectionId,
+      InetSocketAddress address, int maxDatagramSize) {
+    if (DEBUG) {
+      log.info(String.format("Adding UDPROS subscriber %s at %s to publisher %s.",
+          subscriberIdentifier, address, this));
+    }
+    Integer previousConnectionId = udpConnectionIds.put(subscriberIdentifier, connectionId);
+    if (previousConnectionId != null) {
+      outgoingMessageQueue.removeUdpConnection(previousConnectionId);
+    }
+    outgoingMessageQueue.addUdpConnection(connectionId, address, maxDatagramSize);
+    if (previousConnectionId == null) {
+      signalOnNewSubscriber(subscriberIdentifier);
+    }
+  }
+
+  /**
+   * @param incomingMessageQueue
+   *          the {@link IncomingMessageQueue} of the intra-process
+   *          {@link Subscriber} to remove
+   */
+  public void removeIntraProcessSubscriber(IncomingMessageQueue<T> incomingMessageQueue) {
+    intraProcessSubscribers.remove(incomingMessageQueue);
+    outgoingMessageQueue.removeIncomingMessageQueue(incomingMessageQueue);
+  }
+
   @Override
   public void addListener(PublisherListener<T> listener) {
     listeners.add(listener);
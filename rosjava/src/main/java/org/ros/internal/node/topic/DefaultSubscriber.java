@@ -17,28 +17,64 @@
 package org.ros.internal.node.topic;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.ros.concurrent.ListenerGroup;
 import org.ros.concurrent.SignalRunnable;
+import org.ros.concurrent.Subsystem;
 import org.ros.internal.node.server.NodeIdentifier;
+import org.ros.internal.transport.ConnectionClosedListener;
+import org.ros.internal.transport.ConnectionHeader;
+import org.ros.internal.transport.ConnectionHeaderFields;
+import org.ros.internal.transport.ProtocolDescription;
 import org.ros.internal.transport.ProtocolNames;
+import org.ros.internal.transport.compression.Compressors;
+import org.ros.internal.transport.intraprocess.IntraProcessProtocolDescription;
+import org.ros.internal.transport.intraprocess.IntraProcessPublisherRegistry;
 import org.ros.internal.transport.queue.IncomingMessageQueue;
+import org.ros.internal.transport.queue.MessageHeaderDecoder;
+import org.ros.internal.transport.shm.SharedMemoryFrameDecoder;
+import org.ros.internal.transport.shm.SharedMemoryProtocolDescription;
+import org.ros.internal.transport.shm.SharedMemoryRing;
+import org.ros.internal.transport.tcp.NamedChannelHandler;
 import org.ros.internal.transport.tcp.TcpClientManager;
+import org.ros.internal.transport.udp.UdpRosProtocolDescription;
+import org.ros.internal.transport.udp.UdpRosReceiver;
 import org.ros.message.MessageDeserializer;
 import org.ros.message.MessageListener;
 import org.ros.node.topic.DefaultSubscriberListener;
+import org.ros.node.topic.MessageHeaderFilter;
 import org.ros.node.topic.Publisher;
 import org.ros.node.topic.Subscriber;
+import org.ros.node.topic.SubscriberOptions;
 import org.ros.node.topic.SubscriberListener;
+import org.ros.node.topic.TransportHints;
 
+import java.io.File;
+import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteOrder;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Default implementation of a {@link Subscriber}.
@@ -47,6 +83,7 @@ import java.util.concurrent.TimeUnit;
  */
 public class DefaultSubscriber<T> extends DefaultTopicParticipant implements Subscriber<T> {
 
+  private static final boolean DEBUG = false;
   private static final Log log = LogFactory.getLog(DefaultSubscriber.class);
 
   /**
@@ -61,9 +98,30 @@ public class DefaultSubscriber<T> extends DefaultTopicParticipant implements Sub
   private final ScheduledExecutorService executorService;
   private final IncomingMessageQueue<T> incomingMessageQueue;
   private final Set<PublisherIdentifier> knownPublishers;
+  private final Collection<DefaultPublisher<T>> intraProcessPublishers;
   private final TcpClientManager tcpClientManager;
+  private final Compressors compressors;
+  private final UdpRosReceiver udpRosReceiver;
+  private final long connectionTimeoutNanos;
+  private final ConcurrentMap<Channel, PublisherIdentifier> publisherChannels;
+  private final Map<PublisherIdentifier, UdpRosProtocolDescription> udpPublishers;
+  private final long initialReconnectDelayNanos;
+  private final long maxReconnectDelayNanos;
+  private final int maxReconnectAttempts;
+  private final AtomicLong numberOfDroppedConnections;
+  private final AtomicLong numberOfReconnectAttempts;
+  private final AtomicLong numberOfReconnects;
+  private final Random random;
   private final Object mutex;
 
+  /**
+   * The number of failed reconnect attempts for each {@link Publisher} that is
+   * being reconnected to.
+   */
+  private final Map<PublisherIdentifier, Integer> reconnectAttempts;
+
+  private volatile boolean shuttingDown;
+
   /**
    * Manages the {@link SubscriberListener}s for this {@link Subscriber}.
    */
@@ -72,22 +130,90 @@ public class DefaultSubscriber<T> extends DefaultTopicParticipant implements Sub
   public static <S> DefaultSubscriber<S> newDefault(NodeIdentifier nodeIdentifier,
       TopicDeclaration description, ScheduledExecutorService executorService,
       MessageDeserializer<S> deserializer) {
-    return new DefaultSubscriber<S>(nodeIdentifier, description, deserializer, executorService);
+    return newDefault(nodeIdentifier, description, executorService, deserializer,
+        new SubscriberOptions(), Compressors.newDefault());
+  }
+
+  /**
+   * @param compressors
+   *          the {@link Compressors} to accept compressed messages from
+   */
+  public static <S> DefaultSubscriber<S> newDefault(NodeIdentifier nodeIdentifier,
+      TopicDeclaration description, ScheduledExecutorService executorService,
+      MessageDeserializer<S> deserializer, SubscriberOptions subscriberOptions,
+      Compressors compressors) {
+    return new DefaultSubscriber<S>(nodeIdentifier, description, deserializer, executorService,
+        new TcpClientManager(executorService), subscriberOptions, compressors);
+  }
+
+  /**
+   * @param channelFactory
+   *          the node's {@link ChannelFactory} to connect to {@link Publisher}s
+   *          with, it is not released by the {@link Subscriber}
+   * @param compressors
+   *          the {@link Compressors} to accept compressed messages from
+   */
+  public static <S> DefaultSubscriber<S> newDefault(NodeIdentifier nodeIdentifier,
+      TopicDeclaration description, ScheduledExecutorService executorService,
+      ChannelFactory channelFactory, MessageDeserializer<S> deserializer,
+      SubscriberOptions subscriberOptions, Compressors compressors) {
+    return new DefaultSubscriber<S>(nodeIdentifier, description, deserializer, executorService,
+        new TcpClientManager(channelFactory), subscriberOptions, compressors);
   }
 
   private DefaultSubscriber(NodeIdentifier nodeIdentifier, TopicDeclaration topicDeclaration,
-      MessageDeserializer<T> deserializer, ScheduledExecutorService executorService) {
+      MessageDeserializer<T> deserializer, ScheduledExecutorService executorService,
+      TcpClientManager tcpClientManager, SubscriberOptions subscriberOptions,
+      Compressors compressors) {
     super(topicDeclaration);
     this.nodeIdentifier = nodeIdentifier;
     this.executorService = executorService;
-    incomingMessageQueue = new IncomingMessageQueue<T>(deserializer, executorService);
+    this.compressors = compressors;
+    incomingMessageQueue =
+        new IncomingMessageQueue<T>(deserializer, executorService,
+            subscriberOptions.getQueueCapacity(), subscriberOptions.getQueueOverflowPolicy());
     knownPublishers = Sets.newHashSet();
-    tcpClientManager = new TcpClientManager(executorService);
+    intraProcessPublishers = Lists.newArrayList();
+    this.tcpClientManager = tcpClientManager;
+    connectionTimeoutNanos = subscriberOptions.getConnectionTimeoutNanos();
+    tcpClientManager.setConnectionTimeout(connectionTimeoutNanos, TimeUnit.NANOSECONDS);
+    tcpClientManager.addConnectionClosedListener(new ConnectionClosedListener() {
+      @Override
+      public void onConnectionClosed(Channel channel) {
+        onPublisherConnectionClosed(channel);
+      }
+    });
+    publisherChannels = Maps.newConcurrentMap();
+    udpPublishers = Maps.newHashMap();
+    initialReconnectDelayNanos = subscriberOptions.getInitialReconnectDelayNanos();
+    maxReconnectDelayNanos = subscriberOptions.getMaxReconnectDelayNanos();
+    maxReconnectAttempts = subscriberOptions.getMaxReconnectAttempts();
+    numberOfDroppedConnections = new AtomicLong();
+    numberOfReconnectAttempts = new AtomicLong();
+    numberOfReconnects = new AtomicLong();
+    random = new Random();
     mutex = new Object();
+    reconnectAttempts = Maps.newHashMap();
+    shuttingDown = false;
+    // Publishers that do not support compression ignore the advertised
+    // compressors.
+    ConnectionHeader connectionHeader = toDeclaration().toConnectionHeader();
+    String compressorNames = compressors.getNames();
+    if (!compressorNames.isEmpty()) {
+      connectionHeader.addField(ConnectionHeaderFields.COMPRESSION, compressorNames);
+    }
     SubscriberHandshakeHandler<T> subscriberHandshakeHandler =
-        new SubscriberHandshakeHandler<T>(toDeclaration().toConnectionHeader(),
-            incomingMessageQueue, executorService);
+        new SubscriberHandshakeHandler<T>(connectionHeader, incomingMessageQueue,
+            executorService, compressors);
     tcpClientManager.addNamedChannelHandler(subscriberHandshakeHandler);
+    TransportHints transportHints = topicDeclaration.getTransportHints();
+    if (transportHints.getUdp()) {
+      udpRosReceiver =
+          new UdpRosReceiver(incomingMessageQueue.getMessageReceiver(),
+              transportHints.getMaxDatagramSize(), executorService);
+    } else {
+      udpRosReceiver = null;
+    }
     subscriberListeners = new ListenerGroup<SubscriberListener<T>>(executorService);
     subscriberListeners.add(new DefaultSubscriberListener<T>() {
       @Override
@@ -120,8 +246,48 @@ public class DefaultSubscriber<T> extends DefaultTopicParticipant implements Sub
     return new SubscriberDeclaration(toIdentifier(), getTopicDeclaration());
   }
 
+  /**
+   * @return the names of the protocols this {@link Subscriber} requests from
+   *         {@link Publisher}s, based on its {@link TransportHints}
+   */
   public Collection<String> getSupportedProtocols() {
-    return ProtocolNames.SUPPORTED;
+    TransportHints transportHints = getTopicDeclaration().getTransportHints();
+    Set<String> protocols = Sets.newHashSet(ProtocolNames.TCPROS);
+    if (transportHints.getIntraProcess()) {
+      protocols.add(ProtocolNames.INTRAPROCESS);
+    }
+    if (transportHints.getSharedMemory()) {
+      protocols.add(ProtocolNames.SHMROS);
+    }
+    if (udpRosReceiver != null) {
+      protocols.add(ProtocolNames.UDPROS);
+    }
+    return protocols;
+  }
+
+  /**
+   * @return the parameters for each of the {@link #getSupportedProtocols()}
+   *         that requires them, excluding the protocol name
+   */
+  public Map<String, List<Object>> getProtocolParameters() {
+    Map<String, List<Object>> protocolParameters = Maps.newHashMap();
+    if (getTopicDeclaration().getTransportHints().getIntraProcess()) {
+      protocolParameters.put(ProtocolNames.INTRAPROCESS,
+          Lists.<Object>newArrayList(IntraProcessPublisherRegistry.getProcessId()));
+    }
+    if (getTopicDeclaration().getTransportHints().getSharedMemory()) {
+      protocolParameters.put(ProtocolNames.SHMROS,
+          Lists.<Object>newArrayList(SharedMemoryRing.getHostId()));
+    }
+    if (udpRosReceiver != null) {
+      ChannelBuffer header = toDeclaration().toConnectionHeader().encode();
+      byte[] headerBytes = new byte[header.readableBytes()];
+      header.readBytes(headerBytes);
+      protocolParameters.put(ProtocolNames.UDPROS, Lists.<Object>newArrayList(headerBytes,
+          nodeIdentifier.getUri().getHost(), udpRosReceiver.getPort(), getTopicDeclaration()
+              .getTransportHints().getMaxDatagramSize()));
+    }
+    return protocolParameters;
   }
 
   @Override
@@ -149,18 +315,435 @@ public class DefaultSubscriber<T> extends DefaultTopicParticipant implements Sub
     incomingMessageQueue.removeAllListeners();
   }
 
+  @Override
+  public void setMessageHeaderFilter(MessageHeaderFilter messageHeaderFilter) {
+    if (messageHeaderFilter != null
+        && !MessageHeaderDecoder.startsWithHeader(getTopicDeclaration().getMessageDefinition())) {
+      throw new IllegalArgumentException(String.format(
+          "Messages of type %s do not start with a std_msgs/Header.", getTopicMessageType()));
+    }
+    incomingMessageQueue.setMessageHeaderFilter(messageHeaderFilter);
+  }
+
+  /**
+   * Starts connecting to a {@link Publisher} using TCPROS.
+   * 
+   * @return a {@link ChannelFuture} that completes once the TCP connection is
+   *         established or has failed, or {@code null} if the
+   *         {@link Publisher} is already known
+   */
   @VisibleForTesting
-  public void addPublisher(PublisherIdentifier publisherIdentifier, InetSocketAddress address) {
+  public ChannelFuture addPublisher(PublisherIdentifier publisherIdentifier,
+      InetSocketAddress address) {
+    return connect(publisherIdentifier, address, null);
+  }
+
+  /**
+   * Starts connecting to a {@link Publisher} without holding the mutex while
+   * the connection is established. This allows connections to all
+   * {@link Publisher}s of a topic to be set up concurrently.
+   * <p>
+   * The {@link Publisher} is added to the known {@link Publisher}s right away
+   * so that it is not connected to twice, and removed again if the connection
+   * fails. A connection that does not complete its handshake within the
+   * connection timeout is closed.
+   * 
+   * @param namedChannelHandlers
+   *          the {@link NamedChannelHandler}s for the connection, or
+   *          {@code null} to use the default TCPROS handshake
+   */
+  private ChannelFuture connect(final PublisherIdentifier publisherIdentifier,
+      final SocketAddress address, List<NamedChannelHandler> namedChannelHandlers) {
     synchronized (mutex) {
-      // TODO(damonkohler): If the connection is dropped, knownPublishers should
-      // be updated.
       if (knownPublishers.contains(publisherIdentifier)) {
-        return;
+        return null;
       }
-      tcpClientManager.connect(toString(), address);
       // TODO(damonkohler): knownPublishers is duplicate information that is
       // already available to the TopicParticipantManager.
       knownPublishers.add(publisherIdentifier);
+    }
+    ChannelFuture future;
+    if (namedChannelHandlers == null) {
+      future = tcpClientManager.connectAsync(toString(), address);
+    } else {
+      future = tcpClientManager.connectAsync(toString(), address, namedChannelHandlers);
+    }
+    future.addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) {
+        if (future.isSuccess()) {
+          publisherChannels.put(future.getChannel(), publisherIdentifier);
+          scheduleHandshakeTimeout(future.getChannel());
+          synchronized (mutex) {
+            if (reconnectAttempts.remove(publisherIdentifier) != null) {
+              numberOfReconnects.incrementAndGet();
+              log.info("Reconnected to publisher: " + publisherIdentifier);
+            }
+          }
+          signalOnNewPublisher(publisherIdentifier);
+        } else {
+          log.error(String.format("Failed to connect to publisher %s at %s: %s",
+              publisherIdentifier, address, future.getCause()));
+          Integer attempt;
+          synchronized (mutex) {
+            knownPublishers.remove(publisherIdentifier);
+            attempt = reconnectAttempts.get(publisherIdentifier);
+          }
+          if (attempt != null) {
+            onReconnectFailed(publisherIdentifier, attempt);
+          }
+        }
+      }
+    });
+    return future;
+  }
+
+  private void scheduleHandshakeTimeout(final Channel channel) {
+    executorService.schedule(new Runnable() {
+      @Override
+      public void run() {
+        // The handshake handler removes itself from the pipeline once the
+        // handshake succeeds.
+        boolean handshaking = channel.getPipeline().get(SubscriberHandshakeHandler.NAME) != null;
+        if (channel.isOpen() && handshaking) {
+          log.error("Handshake timed out: " + channel);
+          channel.close();
+        }
+      }
+    }, connectionTimeoutNanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Connects to a {@link Publisher} using the protocol it selected.
+   * <p>
+   * If the {@link Publisher} selected the intra-process transport but is not
+   * hosted by this process, the connection falls back to TCPROS.
+   * 
+   * @param publisherIdentifier
+   *          the {@link PublisherIdentifier} of the {@link Publisher}
+   * @param protocolDescription
+   *          the {@link ProtocolDescription} selected by the {@link Publisher}
+   */
+  public void addPublisher(PublisherIdentifier publisherIdentifier,
+      ProtocolDescription protocolDescription) {
+    if (protocolDescription instanceof IntraProcessProtocolDescription
+        && addIntraProcessPublisher(publisherIdentifier,
+            (IntraProcessProtocolDescription) protocolDescription)) {
+      return;
+    }
+    if (protocolDescription instanceof SharedMemoryProtocolDescription) {
+      addSharedMemoryPublisher(publisherIdentifier,
+          (SharedMemoryProtocolDescription) protocolDescription);
+      return;
+    }
+    if (protocolDescription instanceof UdpRosProtocolDescription && udpRosReceiver != null) {
+      addUdpPublisher(publisherIdentifier, (UdpRosProtocolDescription) protocolDescription);
+      return;
+    }
+    addPublisher(publisherIdentifier, protocolDescription.getAddress());
+  }
+
+  /**
+   * @return {@code true} if the {@link Publisher} is hosted by this process and
+   *         messages will be delivered to this {@link Subscriber} directly
+   */
+  private boolean addIntraProcessPublisher(PublisherIdentifier publisherIdentifier,
+      IntraProcessProtocolDescription protocolDescription) {
+    if (!protocolDescription.getProcessId().equals(IntraProcessPublisherRegistry.getProcessId())) {
+      return false;
+    }
+    DefaultPublisher<?> publisher = IntraProcessPublisherRegistry.get(publisherIdentifier);
+    if (publisher == null || !publisher.getTopicMessageType().equals(getTopicMessageType())) {
+      return false;
+    }
+    // Raw publishers only hold serialized messages, so typed subscribers
+    // still have to deserialize them from a TCPROS connection.
+    if (publisher.isRaw()) {
+      return false;
+    }
+    @SuppressWarnings("unchecked")
+    DefaultPublisher<T> typedPublisher = (DefaultPublisher<T>) publisher;
+    synchronized (mutex) {
+      if (knownPublishers.contains(publisherIdentifier)) {
+        return true;
+      }
+      incomingMessageQueue.setLatchMode(typedPublisher.getLatchMode());
+      typedPublisher.addIntraProcessSubscriber(this, incomingMessageQueue);
+      intraProcessPublishers.add(typedPublisher);
+      knownPublishers.add(publisherIdentifier);
+      if (reconnectAttempts.remove(publisherIdentifier) != null) {
+        numberOfReconnects.incrementAndGet();
+        log.info("Reconnected to publisher: " + publisherIdentifier);
+      }
+      signalOnNewPublisher(publisherIdentifier);
+    }
+    return true;
+  }
+
+  private void addSharedMemoryPublisher(PublisherIdentifier publisherIdentifier,
+      SharedMemoryProtocolDescription protocolDescription) {
+    synchronized (mutex) {
+      // Avoid mapping the ring again for a publisher we are already connected
+      // to.
+      if (knownPublishers.contains(publisherIdentifier)) {
+        return;
+      }
+    }
+    final SharedMemoryRing ring;
+    try {
+      ring =
+          SharedMemoryRing.open(new File(protocolDescription.getRingPath()),
+              protocolDescription.getRingId());
+    } catch (IOException e) {
+      // The publisher is most likely on a different host.
+      if (DEBUG) {
+        log.info("Falling back to TCPROS: " + e.getMessage());
+      }
+      addPublisher(publisherIdentifier, protocolDescription.getAddress());
+      return;
+    }
+    ConnectionHeader header = toDeclaration().toConnectionHeader();
+    header.addField(ConnectionHeaderFields.SHM_RING, ring.getId());
+    SubscriberHandshakeHandler<T> subscriberHandshakeHandler =
+        new SubscriberHandshakeHandler<T>(header, incomingMessageQueue, executorService,
+            compressors, ring);
+    ChannelFuture future =
+        connect(publisherIdentifier, protocolDescription.getAddress(),
+            Lists.<NamedChannelHandler>newArrayList(subscriberHandshakeHandler));
+    if (future == null) {
+      ring.close();
+      return;
+    }
+    // The ring is unmapped once the connection is closed, either because it
+    // was dropped or because this subscriber shut down.
+    future.addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) {
+        if (future.isSuccess()) {
+          future.getChannel().getCloseFuture().addListener(new ChannelFutureListener() {
+            @Override
+            public void operationComplete(ChannelFuture future) {
+              ring.close();
+            }
+          });
+        } else {
+          ring.close();
+        }
+      }
+    });
+  }
+
+  /**
+   * Forgets the {@link Publisher} of a dropped connection and starts
+   * reconnecting to it.
+   */
+  private void onPublisherConnectionClosed(Channel channel) {
+    // Connections that failed or have not been established yet are not
+    // tracked.
+    PublisherIdentifier publisherIdentifier = publisherChannels.remove(channel);
+    if (publisherIdentifier != null) {
+      onPublisherDisconnected(publisherIdentifier);
+    }
+  }
+
+  /**
+   * Forgets an intra-process {@link Publisher} that has shut down and starts
+   * reconnecting to it, just like for a dropped TCPROS connection. This allows
+   * the {@link Subscriber} to pick up a replacement {@link Publisher} on the
+   * same node, in this process or elsewhere.
+   * 
+   * @param publisher
+   *          the {@link DefaultPublisher} that has shut down
+   */
+  void onIntraProcessPublisherShutdown(DefaultPublisher<T> publisher) {
+    synchronized (mutex) {
+      if (!intraProcessPublishers.remove(publisher)) {
+        return;
+      }
+    }
+    onPublisherDisconnected(publisher.getIdentifier());
+  }
+
+  private void onPublisherDisconnected(PublisherIdentifier publisherIdentifier) {
+    if (shuttingDown) {
+      return;
+    }
+    numberOfDroppedConnections.incrementAndGet();
+    synchronized (mutex) {
+      knownPublishers.remove(publisherIdentifier);
+      if (maxReconnectAttempts == 0) {
+        return;
+      }
+      reconnectAttempts.put(publisherIdentifier, 0);
+    }
+    log.info("Lost connection to publisher: " + publisherIdentifier);
+    scheduleReconnect(publisherIdentifier, 0);
+  }
+
+  private void scheduleReconnect(final PublisherIdentifier publisherIdentifier, int attempt) {
+    long delay = initialReconnectDelayNanos;
+    for (int i = 0; i < attempt && delay < maxReconnectDelayNanos; i++) {
+      delay *= 2;
+    }
+    delay = Math.min(delay, maxReconnectDelayNanos);
+    // Wait between half and all of the delay so that subscribers which lost
+    // their connections at the same time do not reconnect at the same time.
+    delay = delay / 2 + (long) (random.nextDouble() * (delay / 2));
+    executorService.schedule(new Runnable() {
+      @Override
+      public void run() {
+        // Reconnecting involves XML-RPC calls which must not block the
+        // scheduler.
+        Subsystem.XML_RPC.getExecutor(executorService).execute(new Runnable() {
+          @Override
+          public void run() {
+            reconnect(publisherIdentifier);
+          }
+        });
+      }
+    }, delay, TimeUnit.NANOSECONDS);
+  }
+
+  private void reconnect(PublisherIdentifier publisherIdentifier) {
+    Integer attempt;
+    synchronized (mutex) {
+      attempt = reconnectAttempts.get(publisherIdentifier);
+      if (shuttingDown || attempt == null || knownPublishers.contains(publisherIdentifier)) {
+        return;
+      }
+    }
+    numberOfReconnectAttempts.incrementAndGet();
+    // The publisher may have moved to a different port or protocol, so the
+    // topic is requested again.
+    new UpdatePublisherRunnable<T>(this, nodeIdentifier, publisherIdentifier).run();
+    boolean connecting;
+    synchronized (mutex) {
+      connecting = knownPublishers.contains(publisherIdentifier);
+    }
+    if (!connecting) {
+      onReconnectFailed(publisherIdentifier, attempt);
+    }
+  }
+
+  /**
+   * Schedules the next reconnect attempt unless the maximum number of attempts
+   * has been reached.
+   * 
+   * @param attempt
+   *          the attempt that failed, this is ignored if the attempt has
+   *          already been accounted for
+   */
+  private void onReconnectFailed(PublisherIdentifier publisherIdentifier, int attempt) {
+    synchronized (mutex) {
+      Integer currentAttempt = reconnectAttempts.get(publisherIdentifier);
+      if (currentAttempt == null || currentAttempt != attempt) {
+        return;
+      }
+      if (attempt + 1 >= maxReconnectAttempts) {
+        reconnectAttempts.remove(publisherIdentifier);
+        log.warn(String.format("Giving up reconnecting to publisher %s after %d attempts "
+            + "until the master announces it again.", publisherIdentifier, attempt + 1));
+        return;
+      }
+      reconnectAttempts.put(publisherIdentifier, attempt + 1);
+    }
+    scheduleReconnect(publisherIdentifier, attempt + 1);
+  }
+
+  /**
+   * Only affects {@link Publisher} connections that are made afterwards.
+   * 
+   * @param directBuffers
+   *          {@code true} to read incoming messages into direct (off-heap)
+   *          buffers
+   */
+  public void setDirectBuffers(boolean directBuffers) {
+    tcpClientManager.setDirectBuffers(directBuffers);
+  }
+
+  /**
+   * Only affects {@link Publisher} connections that are made afterwards.
+   * 
+   * @param maxFrameSize
+   *          {@link Publisher} connections that send a larger message are
+   *          closed
+   */
+  public void setMaxFrameSize(int maxFrameSize) {
+    tcpClientManager.setMaxFrameSize(maxFrameSize);
+  }
+
+  /**
+   * @return {@code true} if this {@link Subscriber} receives
+   *         {@link org.ros.node.topic.SerializedMessage}s instead of
+   *         deserializing them
+   */
+  public boolean isRaw() {
+    return incomingMessageQueue.getDeserializer() instanceof SerializedMessageDeserializer;
+  }
+
+  /**
+   * @return the number of established {@link Publisher} connections that were
+   *         closed unexpectedly
+   */
+  public long getNumberOfDroppedConnections() {
+    return numberOfDroppedConnections.get();
+  }
+
+  /**
+   * @return the number of attempts to reconnect to {@link Publisher}s after a
+   *         dropped connection
+   */
+  public long getNumberOfReconnectAttempts() {
+    return numberOfReconnectAttempts.get();
+  }
+
+  /**
+   * @return the number of dropped connections that were successfully
+   *         reestablished
+   */
+  public long getNumberOfReconnects() {
+    return numberOfReconnects.get();
+  }
+
+  /**
+   * @return the number of messages that were overwritten in the shared memory
+   *         rings of currently connected {@link Publisher}s before they could
+   *         be read
+   */
+  public long getNumberOfDroppedSharedMemoryMessages() {
+    long numberOfDroppedMessages = 0;
+    for (Channel channel : publisherChannels.keySet()) {
+      SharedMemoryFrameDecoder decoder =
+          channel.getPipeline().get(SharedMemoryFrameDecoder.class);
+      if (decoder != null) {
+        numberOfDroppedMessages += decoder.getNumberOfDroppedMessages();
+      }
+    }
+    return numberOfDroppedMessages;
+  }
+
+  /**
+   * @return the {@link Channel}s of the established TCPROS and shared memory
+   *         connections to {@link Publisher}s
+   */
+  @VisibleForTesting
+  public Collection<Channel> getPublisherChannels() {
+    return publisherChannels.keySet();
+  }
+
+  private void addUdpPublisher(PublisherIdentifier publisherIdentifier,
+      UdpRosProtocolDescription protocolDescription) {
+    ConnectionHeader header =
+        ConnectionHeader.decode(ChannelBuffers.wrappedBuffer(ByteOrder.LITTLE_ENDIAN,
+            protocolDescription.getConnectionHeader()));
+    synchronized (mutex) {
+      if (knownPublishers.contains(publisherIdentifier)) {
+        return;
+      }
+      String latching = header.getField(ConnectionHeaderFields.LATCHING);
+      incomingMessageQueue.setLatchMode("1".equals(latching));
+      knownPublishers.add(publisherIdentifier);
+      udpPublishers.put(publisherIdentifier, protocolDescription);
       signalOnNewPublisher(publisherIdentifier);
     }
   }
@@ -174,17 +757,50 @@ public class DefaultSubscriber<T> extends DefaultTopicParticipant implements Sub
    *          subscribed topic
    */
   public void updatePublishers(Collection<PublisherIdentifier> publisherIdentifiers) {
+    List<UdpRosProtocolDescription> closedUdpConnections = Lists.newArrayList();
+    synchronized (mutex) {
+      // Stop reconnecting to publishers that are no longer registered.
+      reconnectAttempts.keySet().retainAll(publisherIdentifiers);
+      // UDPROS has no connection that is closed when a publisher goes away.
+      Iterator<Map.Entry<PublisherIdentifier, UdpRosProtocolDescription>> iterator =
+          udpPublishers.entrySet().iterator();
+      while (iterator.hasNext()) {
+        Map.Entry<PublisherIdentifier, UdpRosProtocolDescription> entry = iterator.next();
+        if (!publisherIdentifiers.contains(entry.getKey())) {
+          knownPublishers.remove(entry.getKey());
+          closedUdpConnections.add(entry.getValue());
+          iterator.remove();
+        }
+      }
+    }
+    for (UdpRosProtocolDescription connection : closedUdpConnections) {
+      udpRosReceiver.closeConnection(connection.getConnectionId(), connection
+          .getAdverstiseAddress().toInetAddress());
+    }
     for (final PublisherIdentifier publisherIdentifier : publisherIdentifiers) {
-      executorService.execute(new UpdatePublisherRunnable<T>(this, nodeIdentifier,
-          publisherIdentifier));
+      Subsystem.XML_RPC.getExecutor(executorService).execute(
+          new UpdatePublisherRunnable<T>(this, nodeIdentifier, publisherIdentifier));
     }
   }
 
   @Override
   public void shutdown(long timeout, TimeUnit unit) {
     signalOnShutdown(timeout, unit);
+    synchronized (mutex) {
+      for (DefaultPublisher<T> publisher : intraProcessPublishers) {
+        publisher.removeIntraProcessSubscriber(incomingMessageQueue);
+      }
+      intraProcessPublishers.clear();
+    }
+    shuttingDown = true;
+    synchronized (mutex) {
+      reconnectAttempts.clear();
+    }
     incomingMessageQueue.shutdown();
     tcpClientManager.shutdown();
+    if (udpRosReceiver != null) {
+      udpRosReceiver.shutdown();
+    }
     subscriberListeners.shutdown();
   }
 
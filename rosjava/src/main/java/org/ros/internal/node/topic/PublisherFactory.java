@@ -17,11 +17,13 @@
 package org.ros.internal.node.topic;
 
 import org.ros.internal.node.server.NodeIdentifier;
+import org.ros.internal.transport.intraprocess.IntraProcessPublisherRegistry;
 import org.ros.message.MessageFactory;
 import org.ros.message.MessageSerializer;
 import org.ros.namespace.GraphName;
 import org.ros.node.topic.DefaultPublisherListener;
 import org.ros.node.topic.Publisher;
+import org.ros.node.topic.PublisherOptions;
 
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -36,15 +38,28 @@ public class PublisherFactory {
   private final MessageFactory messageFactory;
   private final ScheduledExecutorService executorService;
   private final NodeIdentifier nodeIdentifier;
+  private final boolean directBuffers;
   private final Object mutex;
 
   public PublisherFactory(NodeIdentifier nodeIdentifier,
       TopicParticipantManager topicParticipantManager, MessageFactory messageFactory,
       ScheduledExecutorService executorService) {
+    this(nodeIdentifier, topicParticipantManager, messageFactory, executorService, false);
+  }
+
+  /**
+   * @param directBuffers
+   *          {@code true} if new {@link Publisher}s should serialize outgoing
+   *          messages into direct (off-heap) buffers
+   */
+  public PublisherFactory(NodeIdentifier nodeIdentifier,
+      TopicParticipantManager topicParticipantManager, MessageFactory messageFactory,
+      ScheduledExecutorService executorService, boolean directBuffers) {
     this.nodeIdentifier = nodeIdentifier;
     this.topicParticipantManager = topicParticipantManager;
     this.messageFactory = messageFactory;
     this.executorService = executorService;
+    this.directBuffers = directBuffers;
     mutex = new Object();
   }
 
@@ -61,9 +76,30 @@ public class PublisherFactory {
    *          the {@link MessageSerializer} used for published messages
    * @return a new or cached {@link Publisher} instance
    */
-  @SuppressWarnings("unchecked")
   public <T> Publisher<T> newOrExisting(TopicDeclaration topicDeclaration,
       MessageSerializer<T> messageSerializer) {
+    return newOrExisting(topicDeclaration, messageSerializer, new PublisherOptions());
+  }
+
+  /**
+   * Gets or creates a {@link Publisher} instance. {@link Publisher}s are cached
+   * and reused per topic. When a new {@link Publisher} is generated, it is
+   * registered with the master.
+   * 
+   * @param <T>
+   *          the message type associated with the {@link Publisher}
+   * @param topicDeclaration
+   *          {@link TopicDeclaration} that is being published
+   * @param messageSerializer
+   *          the {@link MessageSerializer} used for published messages
+   * @param publisherOptions
+   *          the {@link PublisherOptions} used if a new {@link Publisher} is
+   *          created
+   * @return a new or cached {@link Publisher} instance
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Publisher<T> newOrExisting(TopicDeclaration topicDeclaration,
+      MessageSerializer<T> messageSerializer, PublisherOptions publisherOptions) {
     GraphName topicName = topicDeclaration.getName();
     synchronized (mutex) {
       if (topicParticipantManager.hasPublisher(topicName)) {
@@ -71,7 +107,8 @@ public class PublisherFactory {
       } else {
         DefaultPublisher<T> publisher =
             new DefaultPublisher<T>(nodeIdentifier, topicDeclaration, messageSerializer,
-                messageFactory, executorService);
+                messageFactory, executorService, publisherOptions);
+        publisher.setDirectBuffers(directBuffers);
         publisher.addListener(new DefaultPublisherListener<T>() {
           @Override
           public void onNewSubscriber(Publisher<T> publisher,
@@ -86,6 +123,7 @@ public class PublisherFactory {
           }
         });
         topicParticipantManager.addPublisher(publisher);
+        IntraProcessPublisherRegistry.add(publisher);
         return publisher;
       }
     }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.node.topic;
+
+import com.google.common.collect.ImmutableMap;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.ros.internal.transport.ConnectionHeader;
+import org.ros.internal.transport.ConnectionHeaderFields;
+import org.ros.message.MessageDeserializer;
+import org.ros.node.topic.SerializedMessage;
+
+import java.util.Map;
+
+/**
+ * Wraps received messages in {@link SerializedMessage}s instead of
+ * deserializing them.
+ */
+public class SerializedMessageDeserializer implements MessageDeserializer<SerializedMessage> {
+
+  private final String type;
+  private final String md5Checksum;
+  private final String definition;
+  private final Map<String, String> connectionHeader;
+
+  public SerializedMessageDeserializer() {
+    type = null;
+    md5Checksum = null;
+    definition = null;
+    connectionHeader = ImmutableMap.of();
+  }
+
+  private SerializedMessageDeserializer(ConnectionHeader connectionHeader) {
+    type = connectionHeader.getField(ConnectionHeaderFields.TYPE);
+    md5Checksum = connectionHeader.getField(ConnectionHeaderFields.MD5_CHECKSUM);
+    definition = connectionHeader.getField(ConnectionHeaderFields.MESSAGE_DEFINITION);
+    this.connectionHeader = ImmutableMap.copyOf(connectionHeader.getFields());
+  }
+
+  /**
+   * @param connectionHeader
+   *          the {@link ConnectionHeader} received from the publisher
+   * @return a {@link SerializedMessageDeserializer} for messages received on
+   *         the connection
+   */
+  public SerializedMessageDeserializer forConnection(ConnectionHeader connectionHeader) {
+    return new SerializedMessageDeserializer(connectionHeader);
+  }
+
+  @Override
+  public SerializedMessage deserialize(ChannelBuffer buffer) {
+    // Received buffers are never reused. So, no copy is necessary.
+    return new SerializedMessage(buffer, type, md5Checksum, definition, connectionHeader);
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.node.topic;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.ros.message.MessageSerializer;
+import org.ros.node.topic.SerializedMessage;
+
+/**
+ * Writes {@link SerializedMessage}s as they are.
+ */
+public class SerializedMessageSerializer implements MessageSerializer<SerializedMessage> {
+
+  @Override
+  public void serialize(SerializedMessage message, ChannelBuffer buffer) {
+    ChannelBuffer messageBuffer = message.getBuffer();
+    buffer.writeBytes(messageBuffer, messageBuffer.readerIndex(), messageBuffer.readableBytes());
+  }
+}
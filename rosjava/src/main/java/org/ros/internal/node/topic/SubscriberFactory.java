@@ -16,11 +16,15 @@
 
 package org.ros.internal.node.topic;
 
+import org.jboss.netty.channel.ChannelFactory;
 import org.ros.internal.node.server.NodeIdentifier;
+import org.ros.internal.transport.compression.Compressors;
+import org.ros.internal.transport.tcp.BoundedFrameDecoder;
 import org.ros.message.MessageDeserializer;
 import org.ros.namespace.GraphName;
 import org.ros.node.topic.DefaultSubscriberListener;
 import org.ros.node.topic.Subscriber;
+import org.ros.node.topic.SubscriberOptions;
 
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -34,13 +38,44 @@ public class SubscriberFactory {
   private final NodeIdentifier nodeIdentifier;
   private final TopicParticipantManager topicParticipantManager;
   private final ScheduledExecutorService executorService;
+  private final ChannelFactory channelFactory;
+  private final boolean directBuffers;
+  private final int maxFrameSize;
+  private final Compressors compressors;
   private final Object mutex;
 
   public SubscriberFactory(NodeIdentifier nodeIdentifier,
       TopicParticipantManager topicParticipantManager, ScheduledExecutorService executorService) {
+    this(nodeIdentifier, topicParticipantManager, executorService, null, false,
+        BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE, Compressors.newDefault());
+  }
+
+  /**
+   * @param channelFactory
+   *          the node's {@link ChannelFactory} which new {@link Subscriber}s
+   *          connect with, or {@code null} if each {@link Subscriber} should
+   *          create and release its own
+   * @param directBuffers
+   *          {@code true} if new {@link Subscriber}s should read incoming
+   *          messages into direct (off-heap) buffers
+   * @param maxFrameSize
+   *          new {@link Subscriber}s close connections that send a larger
+   *          frame
+   * @param compressors
+   *          the {@link Compressors} that new {@link Subscriber}s accept
+   *          compressed messages from
+   */
+  public SubscriberFactory(NodeIdentifier nodeIdentifier,
+      TopicParticipantManager topicParticipantManager, ScheduledExecutorService executorService,
+      ChannelFactory channelFactory, boolean directBuffers, int maxFrameSize,
+      Compressors compressors) {
     this.nodeIdentifier = nodeIdentifier;
     this.topicParticipantManager = topicParticipantManager;
     this.executorService = executorService;
+    this.channelFactory = channelFactory;
+    this.directBuffers = directBuffers;
+    this.maxFrameSize = maxFrameSize;
+    this.compressors = compressors;
     mutex = new Object();
   }
 
@@ -57,17 +92,47 @@ public class SubscriberFactory {
    *          the {@link MessageDeserializer} to use for incoming messages
    * @return a new or cached {@link Subscriber} instance
    */
-  @SuppressWarnings("unchecked")
   public <T> Subscriber<T> newOrExisting(TopicDeclaration topicDeclaration,
       MessageDeserializer<T> messageDeserializer) {
+    return newOrExisting(topicDeclaration, messageDeserializer, new SubscriberOptions());
+  }
+
+  /**
+   * Gets or creates a {@link Subscriber} instance. {@link Subscriber}s are
+   * cached and reused per topic. When a new {@link Subscriber} is generated, it
+   * is registered with the master.
+   * 
+   * @param <T>
+   *          the message type associated with the new {@link Subscriber}
+   * @param topicDeclaration
+   *          {@link TopicDeclaration} that is subscribed to
+   * @param messageDeserializer
+   *          the {@link MessageDeserializer} to use for incoming messages
+   * @param subscriberOptions
+   *          the {@link SubscriberOptions} used if a new {@link Subscriber} is
+   *          created
+   * @return a new or cached {@link Subscriber} instance
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Subscriber<T> newOrExisting(TopicDeclaration topicDeclaration,
+      MessageDeserializer<T> messageDeserializer, SubscriberOptions subscriberOptions) {
     synchronized (mutex) {
       GraphName topicName = topicDeclaration.getName();
       if (topicParticipantManager.hasSubscriber(topicName)) {
         return (DefaultSubscriber<T>) topicParticipantManager.getSubscriber(topicName);
       } else {
-        DefaultSubscriber<T> subscriber =
-            DefaultSubscriber.newDefault(nodeIdentifier, topicDeclaration, executorService,
-                messageDeserializer);
+        DefaultSubscriber<T> subscriber;
+        if (channelFactory != null) {
+          subscriber =
+              DefaultSubscriber.newDefault(nodeIdentifier, topicDeclaration, executorService,
+                  channelFactory, messageDeserializer, subscriberOptions, compressors);
+        } else {
+          subscriber =
+              DefaultSubscriber.newDefault(nodeIdentifier, topicDeclaration, executorService,
+                  messageDeserializer, subscriberOptions, compressors);
+        }
+        subscriber.setDirectBuffers(directBuffers);
+        subscriber.setMaxFrameSize(maxFrameSize);
         subscriber.addSubscriberListener(new DefaultSubscriberListener<T>() {
           @Override
           public void onNewPublisher(Subscriber<T> subscriber,
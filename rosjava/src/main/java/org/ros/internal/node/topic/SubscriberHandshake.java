@@ -23,6 +23,7 @@ import org.apache.commons.logging.LogFactory;
 import org.ros.internal.node.BaseClientHandshake;
 import org.ros.internal.transport.ConnectionHeader;
 import org.ros.internal.transport.ConnectionHeaderFields;
+import org.ros.node.topic.Subscriber;
 
 /**
  * Handshake logic from the subscriber side of a topic connection.
@@ -51,17 +52,26 @@ public class SubscriberHandshake extends BaseClientHandshake {
     String incomingType = incommingConnectionHeader.getField(ConnectionHeaderFields.TYPE);
     if (incomingType == null) {
       setErrorMessage("Incoming type cannot be null.");
-    } else if (!incomingType.equals(outgoingConnectionHeader.getField(ConnectionHeaderFields.TYPE))) {
+    } else if (!matches(incomingType,
+        outgoingConnectionHeader.getField(ConnectionHeaderFields.TYPE))) {
       setErrorMessage("Message types don't match.");
     }
     String incomingMd5Checksum =
         incommingConnectionHeader.getField(ConnectionHeaderFields.MD5_CHECKSUM);
     if (incomingMd5Checksum == null) {
       setErrorMessage("Incoming MD5 checksum cannot be null.");
-    } else if (!incomingMd5Checksum.equals(outgoingConnectionHeader
-        .getField(ConnectionHeaderFields.MD5_CHECKSUM))) {
+    } else if (!matches(incomingMd5Checksum,
+        outgoingConnectionHeader.getField(ConnectionHeaderFields.MD5_CHECKSUM))) {
       setErrorMessage("Checksums don't match.");
     }
     return getErrorMessage() == null;
   }
+
+  /**
+   * Raw subscribers use {@link Subscriber#TOPIC_MESSAGE_TYPE_WILDCARD} to
+   * accept any message type.
+   */
+  private static boolean matches(String incoming, String expected) {
+    return incoming.equals(expected) || expected.equals(Subscriber.TOPIC_MESSAGE_TYPE_WILDCARD);
+  }
 }
@@ -18,14 +18,23 @@ package org.ros.internal.node.topic;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.channel.ChannelHandler;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.MessageEvent;
 import org.ros.internal.transport.BaseClientHandshakeHandler;
 import org.ros.internal.transport.ConnectionHeader;
 import org.ros.internal.transport.ConnectionHeaderFields;
+import org.ros.internal.transport.compression.CompressionDecoder;
+import org.ros.internal.transport.compression.Compressor;
+import org.ros.internal.transport.compression.Compressors;
 import org.ros.internal.transport.queue.IncomingMessageQueue;
+import org.ros.internal.transport.shm.SharedMemoryFrameDecoder;
+import org.ros.internal.transport.shm.SharedMemoryRing;
+import org.ros.internal.transport.tcp.BoundedFrameDecoder;
 import org.ros.internal.transport.tcp.NamedChannelHandler;
+import org.ros.internal.transport.tcp.TcpClientPipelineFactory;
+import org.ros.message.MessageDeserializer;
 import org.ros.node.topic.Publisher;
 import org.ros.node.topic.Subscriber;
 
@@ -44,12 +53,39 @@ class SubscriberHandshakeHandler<T> extends BaseClientHandshakeHandler {
 
   private static final Log log = LogFactory.getLog(SubscriberHandshakeHandler.class);
 
+  static final String NAME = "SubscriberHandshakeHandler";
+
   private final IncomingMessageQueue<T> incomingMessageQueue;
+  private final SharedMemoryRing sharedMemoryRing;
+  private final Compressors compressors;
+
+  /**
+   * @param compressors
+   *          the {@link Compressors} advertised in the outgoing
+   *          {@link ConnectionHeader}
+   */
+  public SubscriberHandshakeHandler(ConnectionHeader outgoingConnectionHeader,
+      final IncomingMessageQueue<T> incomingMessageQueue, ExecutorService executorService,
+      Compressors compressors) {
+    this(outgoingConnectionHeader, incomingMessageQueue, executorService, compressors, null);
+  }
 
+  /**
+   * @param compressors
+   *          the {@link Compressors} advertised in the outgoing
+   *          {@link ConnectionHeader}
+   * @param sharedMemoryRing
+   *          the {@link SharedMemoryRing} of the {@link Publisher} to read
+   *          messages from if the {@link Publisher} confirms it during the
+   *          handshake, or {@code null}
+   */
   public SubscriberHandshakeHandler(ConnectionHeader outgoingConnectionHeader,
-      final IncomingMessageQueue<T> incomingMessageQueue, ExecutorService executorService) {
+      final IncomingMessageQueue<T> incomingMessageQueue, ExecutorService executorService,
+      Compressors compressors, SharedMemoryRing sharedMemoryRing) {
     super(new SubscriberHandshake(outgoingConnectionHeader), executorService);
     this.incomingMessageQueue = incomingMessageQueue;
+    this.compressors = compressors;
+    this.sharedMemoryRing = sharedMemoryRing;
   }
 
   @Override
@@ -57,14 +93,54 @@ class SubscriberHandshakeHandler<T> extends BaseClientHandshakeHandler {
       MessageEvent e) {
     ChannelPipeline pipeline = e.getChannel().getPipeline();
     pipeline.remove(SubscriberHandshakeHandler.this);
-    NamedChannelHandler namedChannelHandler = incomingMessageQueue.getMessageReceiver();
+    NamedChannelHandler namedChannelHandler = newMessageReceiver(incomingConnectionHeader);
     pipeline.addLast(namedChannelHandler.getName(), namedChannelHandler);
+    String ringId = incomingConnectionHeader.getField(ConnectionHeaderFields.SHM_RING);
+    if (sharedMemoryRing != null && sharedMemoryRing.getId().equals(ringId)) {
+      pipeline.addBefore(namedChannelHandler.getName(), "SharedMemoryFrameDecoder",
+          new SharedMemoryFrameDecoder(sharedMemoryRing));
+    }
+    String compression = incomingConnectionHeader.getField(ConnectionHeaderFields.COMPRESSION);
+    if (compression != null) {
+      Compressor compressor = compressors.get(compression);
+      if (compressor == null) {
+        onFailure("Unknown compressor: " + compression, ctx, e);
+        return;
+      }
+      pipeline.addBefore(namedChannelHandler.getName(), CompressionDecoder.NAME,
+          new CompressionDecoder(compressor, getMaxFrameSize(pipeline)));
+    }
     String latching = incomingConnectionHeader.getField(ConnectionHeaderFields.LATCHING);
     if (latching != null && latching.equals("1")) {
       incomingMessageQueue.setLatchMode(true);
     }
   }
 
+  /**
+   * Raw subscribers receive the publisher's {@link ConnectionHeader} along
+   * with each message. So, each connection gets its own receiver.
+   */
+  private NamedChannelHandler newMessageReceiver(ConnectionHeader incomingConnectionHeader) {
+    MessageDeserializer<T> deserializer = incomingMessageQueue.getDeserializer();
+    if (deserializer instanceof SerializedMessageDeserializer) {
+      @SuppressWarnings("unchecked")
+      MessageDeserializer<T> connectionDeserializer =
+          (MessageDeserializer<T>) ((SerializedMessageDeserializer) deserializer)
+              .forConnection(incomingConnectionHeader);
+      return incomingMessageQueue.newMessageReceiver(connectionDeserializer);
+    }
+    return incomingMessageQueue.getMessageReceiver();
+  }
+
+  private static int getMaxFrameSize(ChannelPipeline pipeline) {
+    ChannelHandler frameDecoder =
+        pipeline.get(TcpClientPipelineFactory.LENGTH_FIELD_BASED_FRAME_DECODER);
+    if (frameDecoder instanceof BoundedFrameDecoder) {
+      return ((BoundedFrameDecoder) frameDecoder).getMaxFrameSize();
+    }
+    return BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE;
+  }
+
   @Override
   protected void onFailure(String errorMessage, ChannelHandlerContext ctx, MessageEvent e) {
     log.error("Subscriber handshake failed: " + errorMessage);
@@ -73,6 +149,6 @@ class SubscriberHandshakeHandler<T> extends BaseClientHandshakeHandler {
 
   @Override
   public String getName() {
-    return "SubscriberHandshakeHandler";
+    return NAME;
   }
 }
@@ -85,6 +85,14 @@ public class TopicDeclaration {
     return topicDescription.getType();
   }
 
+  public String getMessageDefinition() {
+    return topicDescription.getDefinition();
+  }
+
+  public TransportHints getTransportHints() {
+    return transportHints;
+  }
+
   public ConnectionHeader toConnectionHeader() {
     ConnectionHeader connectionHeader = new ConnectionHeader();
     connectionHeader.merge(topicIdentifier.toConnectionHeader());
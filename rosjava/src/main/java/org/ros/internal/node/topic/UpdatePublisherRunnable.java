@@ -25,7 +25,6 @@ import org.ros.internal.node.server.NodeIdentifier;
 import org.ros.internal.node.server.SlaveServer;
 import org.ros.internal.node.xmlrpc.XmlRpcTimeoutException;
 import org.ros.internal.transport.ProtocolDescription;
-import org.ros.internal.transport.ProtocolNames;
 import org.ros.node.topic.Publisher;
 import org.ros.node.topic.Subscriber;
 
@@ -65,12 +64,13 @@ class UpdatePublisherRunnable<MessageType> implements Runnable {
     try {
       slaveClient = new SlaveClient(nodeIdentifier.getName(), publisherIdentifier.getNodeUri());
       Response<ProtocolDescription> response =
-          slaveClient.requestTopic(subscriber.getTopicName(), ProtocolNames.SUPPORTED);
+          slaveClient.requestTopic(subscriber.getTopicName(), subscriber.getSupportedProtocols(),
+              subscriber.getProtocolParameters());
       // TODO(kwc): all of this logic really belongs in a protocol handler
       // registry.
       ProtocolDescription selected = response.getResult();
-      if (ProtocolNames.SUPPORTED.contains(selected.getName())) {
-        subscriber.addPublisher(publisherIdentifier, selected.getAddress());
+      if (subscriber.getSupportedProtocols().contains(selected.getName())) {
+        subscriber.addPublisher(publisherIdentifier, selected);
       } else {
         log.error("Publisher returned unsupported protocol selection: " + response);
       }
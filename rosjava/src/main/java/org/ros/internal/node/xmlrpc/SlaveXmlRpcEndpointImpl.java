@@ -17,6 +17,7 @@
 package org.ros.internal.node.xmlrpc;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 
 import org.apache.commons.logging.Log;
@@ -33,6 +34,7 @@ import org.ros.namespace.GraphName;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -186,12 +188,18 @@ public class SlaveXmlRpcEndpointImpl implements SlaveXmlRpcEndpoint {
   @Override
   public List<Object> requestTopic(String callerId, String topic, Object[] protocols) {
     Set<String> requestedProtocols = Sets.newHashSet();
+    Map<String, List<Object>> protocolParameters = Maps.newHashMap();
     for (int i = 0; i < protocols.length; i++) {
-      requestedProtocols.add((String) ((Object[]) protocols[i])[0]);
+      Object[] requestedProtocol = (Object[]) protocols[i];
+      String protocolName = (String) requestedProtocol[0];
+      requestedProtocols.add(protocolName);
+      List<Object> parameters = Arrays.asList(requestedProtocol);
+      protocolParameters.put(protocolName,
+          Lists.newArrayList(parameters.subList(1, parameters.size())));
     }
     ProtocolDescription protocol;
     try {
-      protocol = slave.requestTopic(topic, requestedProtocols);
+      protocol = slave.requestTopic(topic, requestedProtocols, protocolParameters);
     } catch (ServerException e) {
       return Response.newError(e.getMessage(), null).toList();
     }
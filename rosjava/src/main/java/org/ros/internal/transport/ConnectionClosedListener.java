@@ -0,0 +1,34 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport;
+
+import org.jboss.netty.channel.Channel;
+
+/**
+ * A listener for connections that are closed.
+ */
+public interface ConnectionClosedListener {
+
+  /**
+   * Called on the network thread when a connection is closed, whether it was
+   * closed locally or by the remote end.
+   * 
+   * @param channel
+   *          the {@link Channel} of the closed connection
+   */
+  void onConnectionClosed(Channel channel);
+}
@@ -34,4 +34,6 @@ public interface ConnectionHeaderFields {
   public static final String MESSAGE_DEFINITION = "message_definition";
   public static final String ERROR = "error";
   public static final String PROBE = "probe";
+  public static final String SHM_RING = "shm_ring";
+  public static final String COMPRESSION = "compression";
 }
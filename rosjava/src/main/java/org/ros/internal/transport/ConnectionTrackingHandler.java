@@ -27,6 +27,8 @@ import org.ros.exception.RosRuntimeException;
 
 import java.io.IOException;
 import java.nio.channels.Channels;
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Adds new {@link Channels} to the provided {@link ChannelGroup}.
@@ -42,9 +44,20 @@ public class ConnectionTrackingHandler extends SimpleChannelHandler {
    * The channel group the connection is to be part of.
    */
   private final ChannelGroup channelGroup;
+  private final Collection<ConnectionClosedListener> connectionClosedListeners;
 
   public ConnectionTrackingHandler(ChannelGroup channelGroup) {
     this.channelGroup = channelGroup;
+    connectionClosedListeners = new CopyOnWriteArrayList<ConnectionClosedListener>();
+  }
+
+  /**
+   * @param listener
+   *          the {@link ConnectionClosedListener} to notify when a tracked
+   *          connection is closed
+   */
+  public void addConnectionClosedListener(ConnectionClosedListener listener) {
+    connectionClosedListeners.add(listener);
   }
 
   @Override
@@ -61,6 +74,9 @@ public class ConnectionTrackingHandler extends SimpleChannelHandler {
     if (DEBUG) {
       log.info("Channel closed: " + e.getChannel());
     }
+    for (ConnectionClosedListener listener : connectionClosedListeners) {
+      listener.onConnectionClosed(e.getChannel());
+    }
     super.channelClosed(ctx, e);
   }
 
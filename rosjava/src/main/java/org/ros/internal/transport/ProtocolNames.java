@@ -27,6 +27,22 @@ public interface ProtocolNames {
   
   public static final String TCPROS = "TCPROS";
   public static final String UDPROS = "UDPROS";
-  public static final Collection<String> SUPPORTED = Sets.newHashSet(TCPROS);
+
+  /**
+   * Delivers message objects directly to subscribers in the same JVM. This
+   * protocol is specific to rosjava and is only selected when both sides of
+   * the connection are hosted by the same process.
+   */
+  public static final String INTRAPROCESS = "INTRAPROCESS";
+
+  /**
+   * Exchanges messages through a memory-mapped ring buffer between processes
+   * on the same host. The TCPROS connection is only used for the handshake and
+   * for signalling new messages. This protocol is specific to rosjava.
+   */
+  public static final String SHMROS = "SHMROS";
+
+  public static final Collection<String> SUPPORTED = Sets.newHashSet(TCPROS, UDPROS,
+      INTRAPROCESS, SHMROS);
   
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport;
+
+import org.jboss.netty.channel.ChannelFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Hides an {@link ExecutorService} behind a plain {@link Executor}.
+ * <p>
+ * Releasing a {@link ChannelFactory} terminates its {@link Executor} if that is
+ * an {@link ExecutorService}. Handing the factory an {@link UnownedExecutor}
+ * instead of the node's {@link ExecutorService} means that releasing the
+ * factory only stops its own I/O threads.
+ */
+public class UnownedExecutor implements Executor {
+
+  private final Executor executor;
+
+  public UnownedExecutor(Executor executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    executor.execute(command);
+  }
+}
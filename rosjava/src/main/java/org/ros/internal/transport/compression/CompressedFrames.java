@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.compression;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.ros.exception.RosRuntimeException;
+import org.ros.internal.transport.queue.MessageBatch;
+
+/**
+ * Frames sent over a TCPROS connection that negotiated compression.
+ * <p>
+ * Each frame starts with a 1 byte type. An {@link #UNCOMPRESSED} frame
+ * contains the message itself and is used for messages that are smaller than
+ * the compression threshold or that do not compress. A {@link #COMPRESSED}
+ * frame contains the 4 byte length of the message followed by the compressed
+ * message.
+ * <p>
+ * Publishers encode each message once for all subscribers that negotiated
+ * compression, before the message is written to their
+ * {@link org.jboss.netty.channel.Channel}s.
+ */
+public class CompressedFrames {
+
+  public static final byte UNCOMPRESSED = 0;
+  public static final byte COMPRESSED = 1;
+
+  private CompressedFrames() {
+    // Utility class.
+  }
+
+  /**
+   * @param message
+   *          the serialized message, its reader index is not modified
+   * @param compressor
+   *          the {@link Compressor} to compress the message with
+   * @param threshold
+   *          messages with fewer bytes are not compressed
+   * @return a new frame that shares the contents of uncompressed messages
+   */
+  public static ChannelBuffer encode(ChannelBuffer message, Compressor compressor,
+      int threshold) {
+    int length = message.readableBytes();
+    if (length >= threshold) {
+      ChannelBuffer compressed = compressor.compress(message);
+      if (compressed.readableBytes() + 4 < length) {
+        ChannelBuffer header = ChannelBuffers.buffer(message.order(), 5);
+        header.writeByte(COMPRESSED);
+        header.writeInt(length);
+        return ChannelBuffers.wrappedBuffer(header, compressed);
+      }
+    }
+    ChannelBuffer header = ChannelBuffers.buffer(message.order(), 1);
+    header.writeByte(UNCOMPRESSED);
+    return ChannelBuffers.wrappedBuffer(header, message.slice());
+  }
+
+  /**
+   * @param batch
+   *          the {@link MessageBatch} of serialized messages, its reader index
+   *          is not modified
+   * @param compressor
+   *          the {@link Compressor} to compress the messages with
+   * @param threshold
+   *          messages with fewer bytes are not compressed
+   * @return a new {@link MessageBatch} of frames
+   */
+  public static MessageBatch encode(MessageBatch batch, Compressor compressor, int threshold) {
+    ChannelBuffer buffer = batch.getBuffer();
+    ChannelBuffer encoded = ChannelBuffers.dynamicBuffer(buffer.order(), buffer.readableBytes());
+    int index = buffer.readerIndex();
+    while (index < buffer.writerIndex()) {
+      int length = buffer.getInt(index);
+      ChannelBuffer frame = encode(buffer.slice(index + 4, length), compressor, threshold);
+      encoded.writeInt(frame.readableBytes());
+      encoded.writeBytes(frame);
+      index += 4 + length;
+    }
+    return new MessageBatch(encoded, batch.getNumberOfMessages());
+  }
+
+  /**
+   * @param frame
+   *          the received frame
+   * @param compressor
+   *          the {@link Compressor} to decompress the message with
+   * @param maxLength
+   *          the maximum length of a decompressed message
+   * @return the serialized message
+   * @throws RosRuntimeException
+   *           if the frame is invalid
+   */
+  public static ChannelBuffer decode(ChannelBuffer frame, Compressor compressor, int maxLength) {
+    if (!frame.readable()) {
+      throw new RosRuntimeException("Empty compressed frame.");
+    }
+    byte type = frame.readByte();
+    if (type == UNCOMPRESSED) {
+      return frame;
+    }
+    if (type != COMPRESSED || frame.readableBytes() < 4) {
+      throw new RosRuntimeException("Invalid compressed frame of type: " + type);
+    }
+    int length = frame.readInt();
+    if (length < 0 || length > maxLength) {
+      throw new RosRuntimeException(String.format(
+          "Decompressed message length %d exceeds the maximum of %d bytes.",
+          length & 0xffffffffL, maxLength));
+    }
+    return compressor.decompress(frame, length);
+  }
+}
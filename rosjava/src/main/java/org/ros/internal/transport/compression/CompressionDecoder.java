@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.compression;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.ros.exception.RosRuntimeException;
+
+/**
+ * Turns {@link CompressedFrames} received from a publisher back into
+ * serialized messages.
+ * <p>
+ * The connection is closed if a frame cannot be decompressed.
+ */
+public class CompressionDecoder extends SimpleChannelUpstreamHandler {
+
+  private static final Log log = LogFactory.getLog(CompressionDecoder.class);
+
+  public static final String NAME = "CompressionDecoder";
+
+  private final Compressor compressor;
+  private final int maxLength;
+
+  /**
+   * @param compressor
+   *          the negotiated {@link Compressor}
+   * @param maxLength
+   *          the maximum length of a decompressed message
+   */
+  public CompressionDecoder(Compressor compressor, int maxLength) {
+    this.compressor = compressor;
+    this.maxLength = maxLength;
+  }
+
+  @Override
+  public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+    ChannelBuffer message;
+    try {
+      message = CompressedFrames.decode((ChannelBuffer) e.getMessage(), compressor, maxLength);
+    } catch (RosRuntimeException ex) {
+      log.error(String.format("Closing connection %s: %s", ctx.getChannel(), ex.getMessage()));
+      ctx.getChannel().close();
+      return;
+    }
+    Channels.fireMessageReceived(ctx, message, e.getRemoteAddress());
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.compression;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+/**
+ * Compresses and decompresses serialized messages.
+ * <p>
+ * Implementations must be thread-safe. Subscribers can only accept compressed
+ * messages from a {@link Compressor} that is registered with their node's
+ * {@link Compressors}.
+ */
+public interface Compressor {
+
+  /**
+   * @return the name that identifies this {@link Compressor} in connection
+   *         headers, it must not contain commas
+   */
+  String getName();
+
+  /**
+   * @param buffer
+   *          the serialized message, its reader index is not modified
+   * @return the compressed message
+   */
+  ChannelBuffer compress(ChannelBuffer buffer);
+
+  /**
+   * @param buffer
+   *          the compressed message
+   * @param uncompressedLength
+   *          the length of the uncompressed message as declared by the peer,
+   *          the caller must have checked it against its maximum message
+   *          size and implementations should not allocate it up front
+   * @return the serialized message
+   * @throws org.ros.exception.RosRuntimeException
+   *           if the compressed message is corrupt
+   */
+  ChannelBuffer decompress(ChannelBuffer buffer, int uncompressedLength);
+}
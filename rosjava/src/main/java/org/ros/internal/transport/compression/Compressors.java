@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.compression;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
+import java.util.Map;
+
+/**
+ * The {@link Compressor}s that a node's subscribers accept compressed messages
+ * from.
+ * <p>
+ * Subscribers advertise the names of all registered {@link Compressor}s
+ * during the handshake. A publisher only compresses messages if the
+ * subscriber advertised its {@link Compressor}.
+ */
+public class Compressors {
+
+  private final Map<String, Compressor> compressors;
+
+  /**
+   * @return a new {@link Compressors} instance with a
+   *         {@link DeflateCompressor} registered
+   */
+  public static Compressors newDefault() {
+    Compressors compressors = new Compressors();
+    compressors.register(new DeflateCompressor());
+    return compressors;
+  }
+
+  /**
+   * Creates an empty {@link Compressors} instance. Subscribers then do not
+   * accept compressed messages at all.
+   */
+  public Compressors() {
+    compressors = Maps.newConcurrentMap();
+  }
+
+  /**
+   * Replaces any {@link Compressor} with the same name.
+   * 
+   * @param compressor
+   *          the {@link Compressor} to accept compressed messages from
+   */
+  public void register(Compressor compressor) {
+    Preconditions.checkArgument(!compressor.getName().contains(","),
+        "Compressor names must not contain commas: " + compressor.getName());
+    compressors.put(compressor.getName(), compressor);
+  }
+
+  /**
+   * @param name
+   *          the name of the {@link Compressor}
+   * @return the registered {@link Compressor} or {@code null} if there is none
+   *         with the given name
+   */
+  public Compressor get(String name) {
+    return compressors.get(name);
+  }
+
+  /**
+   * @return the comma separated names of all registered {@link Compressor}s
+   *         as advertised in connection headers
+   */
+  public String getNames() {
+    return Joiner.on(',').join(compressors.keySet());
+  }
+}
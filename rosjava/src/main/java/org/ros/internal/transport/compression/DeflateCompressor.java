@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.compression;
+
+import com.google.common.base.Preconditions;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.ros.exception.RosRuntimeException;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * A {@link Compressor} that uses the JDK's {@link Deflater} and
+ * {@link Inflater}.
+ */
+public class DeflateCompressor implements Compressor {
+
+  public static final String NAME = "deflate";
+
+  private static final int CHUNK_SIZE = 8192;
+
+  private final ThreadLocal<Deflater> deflaters;
+  private final ThreadLocal<Inflater> inflaters;
+
+  public DeflateCompressor() {
+    this(Deflater.DEFAULT_COMPRESSION);
+  }
+
+  /**
+   * @param level
+   *          the {@link Deflater} compression level, trading off speed against
+   *          size
+   */
+  public DeflateCompressor(final int level) {
+    Preconditions.checkArgument(level == Deflater.DEFAULT_COMPRESSION
+        || (level >= Deflater.NO_COMPRESSION && level <= Deflater.BEST_COMPRESSION),
+        "Invalid compression level: " + level);
+    // Creating a Deflater or Inflater allocates native memory. So, each thread
+    // reuses its own.
+    deflaters = new ThreadLocal<Deflater>() {
+      @Override
+      protected Deflater initialValue() {
+        return new Deflater(level);
+      }
+    };
+    inflaters = new ThreadLocal<Inflater>() {
+      @Override
+      protected Inflater initialValue() {
+        return new Inflater();
+      }
+    };
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public ChannelBuffer compress(ChannelBuffer buffer) {
+    Deflater deflater = deflaters.get();
+    deflater.reset();
+    int length = buffer.readableBytes();
+    if (buffer.hasArray()) {
+      deflater.setInput(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), length);
+    } else {
+      byte[] input = new byte[length];
+      buffer.getBytes(buffer.readerIndex(), input);
+      deflater.setInput(input);
+    }
+    deflater.finish();
+    ChannelBuffer compressed =
+        ChannelBuffers.dynamicBuffer(buffer.order(), Math.min(length + 16, CHUNK_SIZE));
+    while (!deflater.finished()) {
+      compressed.ensureWritableBytes(CHUNK_SIZE);
+      int compressedLength =
+          deflater.deflate(compressed.array(),
+              compressed.arrayOffset() + compressed.writerIndex(), compressed.writableBytes());
+      compressed.writerIndex(compressed.writerIndex() + compressedLength);
+    }
+    return compressed;
+  }
+
+  @Override
+  public ChannelBuffer decompress(ChannelBuffer buffer, int uncompressedLength) {
+    Preconditions.checkArgument(uncompressedLength >= 0);
+    Inflater inflater = inflaters.get();
+    inflater.reset();
+    if (buffer.hasArray()) {
+      inflater.setInput(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(),
+          buffer.readableBytes());
+    } else {
+      byte[] input = new byte[buffer.readableBytes()];
+      buffer.getBytes(buffer.readerIndex(), input);
+      inflater.setInput(input);
+    }
+    // The uncompressed length is declared by the peer. So, the output only
+    // grows as data is actually inflated. Inflating up to one byte more than
+    // declared leaves room for the end of the stream to be processed once all
+    // output has been produced and detects streams that are too long.
+    long limit = (long) uncompressedLength + 1;
+    ChannelBuffer output =
+        ChannelBuffers.dynamicBuffer(buffer.order(), (int) Math.min(limit, CHUNK_SIZE));
+    try {
+      while (!inflater.finished() && output.writerIndex() < limit) {
+        int chunkSize = (int) Math.min(limit - output.writerIndex(), CHUNK_SIZE);
+        output.ensureWritableBytes(chunkSize);
+        int inflated =
+            inflater.inflate(output.array(), output.arrayOffset() + output.writerIndex(),
+                chunkSize);
+        if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          throw new RosRuntimeException("Truncated compressed message.");
+        }
+        output.writerIndex(output.writerIndex() + inflated);
+      }
+    } catch (DataFormatException e) {
+      throw new RosRuntimeException(e);
+    }
+    if (output.readableBytes() != uncompressedLength) {
+      throw new RosRuntimeException(String.format(
+          "Expected %d bytes after decompression but got %d.", uncompressedLength,
+          output.readableBytes()));
+    }
+    return output;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.intraprocess;
+
+import com.google.common.collect.Lists;
+
+import org.ros.address.AdvertiseAddress;
+import org.ros.internal.transport.ProtocolDescription;
+import org.ros.internal.transport.ProtocolNames;
+
+import java.util.List;
+
+/**
+ * Describes an intra-process connection to a publisher.
+ * <p>
+ * In addition to the publisher's TCPROS address, the description carries an
+ * identifier of the publishing process. A subscriber only uses the
+ * intra-process transport if that identifier matches its own process and falls
+ * back to TCPROS at the given address otherwise.
+ */
+public class IntraProcessProtocolDescription extends ProtocolDescription {
+
+  private final String processId;
+
+  public IntraProcessProtocolDescription(AdvertiseAddress address, String processId) {
+    super(ProtocolNames.INTRAPROCESS, address);
+    this.processId = processId;
+  }
+
+  /**
+   * @return the identifier of the process hosting the publisher
+   */
+  public String getProcessId() {
+    return processId;
+  }
+
+  @Override
+  public List<Object> toList() {
+    List<Object> list = Lists.newArrayList(super.toList());
+    list.add(processId);
+    return list;
+  }
+
+  @Override
+  public String toString() {
+    return "Protocol<" + getName() + ", " + getAdverstiseAddress() + ", " + processId + ">";
+  }
+}
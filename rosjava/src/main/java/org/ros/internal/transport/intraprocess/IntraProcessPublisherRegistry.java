@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.intraprocess;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import org.ros.internal.node.topic.DefaultPublisher;
+import org.ros.internal.node.topic.PublisherIdentifier;
+import org.ros.namespace.GraphName;
+
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Keeps track of all {@link DefaultPublisher}s in this JVM so that subscribers
+ * in the same process can be connected to them directly.
+ * <p>
+ * {@link DefaultPublisher}s are identified by the URI of their node and the
+ * name of their topic since that is all the information available to a
+ * subscriber after negotiating a connection.
+ */
+public class IntraProcessPublisherRegistry {
+
+  private static final String PROCESS_ID = UUID.randomUUID().toString();
+
+  private static final Table<URI, GraphName, DefaultPublisher<?>> publishers = HashBasedTable
+      .create();
+
+  private IntraProcessPublisherRegistry() {
+    // Utility class.
+  }
+
+  /**
+   * @return an identifier that is unique to this process
+   */
+  public static String getProcessId() {
+    return PROCESS_ID;
+  }
+
+  /**
+   * @param publisher
+   *          the {@link DefaultPublisher} to make available to intra-process
+   *          subscribers
+   */
+  public static void add(DefaultPublisher<?> publisher) {
+    PublisherIdentifier publisherIdentifier = publisher.getIdentifier();
+    synchronized (publishers) {
+      publishers.put(publisherIdentifier.getNodeUri(), publisherIdentifier.getTopicName(),
+          publisher);
+    }
+  }
+
+  /**
+   * @param publisher
+   *          the {@link DefaultPublisher} to remove
+   */
+  public static void remove(DefaultPublisher<?> publisher) {
+    PublisherIdentifier publisherIdentifier = publisher.getIdentifier();
+    URI nodeUri = publisherIdentifier.getNodeUri();
+    GraphName topicName = publisherIdentifier.getTopicName();
+    synchronized (publishers) {
+      // Only remove the publisher if it hasn't already been replaced.
+      if (publishers.get(nodeUri, topicName) == publisher) {
+        publishers.remove(nodeUri, topicName);
+      }
+    }
+  }
+
+  /**
+   * @param publisherIdentifier
+   *          the {@link PublisherIdentifier} of the requested publisher
+   * @return the matching {@link DefaultPublisher} or {@code null} if the
+   *         publisher is not hosted by this process
+   */
+  public static DefaultPublisher<?> get(PublisherIdentifier publisherIdentifier) {
+    synchronized (publishers) {
+      return publishers.get(publisherIdentifier.getNodeUri(), publisherIdentifier.getTopicName());
+    }
+  }
+}
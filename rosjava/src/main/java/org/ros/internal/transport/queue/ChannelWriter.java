@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.queue;
+
+import com.google.common.base.Preconditions;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.ros.node.topic.SlowSubscriberPolicy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Writes messages to a single subscriber {@link Channel} and applies a
+ * {@link SlowSubscriberPolicy} while the {@link Channel} is not writable.
+ * <p>
+ * A {@link Channel} stops being writable once more bytes than its write buffer
+ * high water mark are waiting to be sent. This handler must be added to the
+ * {@link Channel}'s pipeline so that messages held back by
+ * {@link SlowSubscriberPolicy#DROP_OLDEST} are written once the
+ * {@link Channel} becomes writable again.
+ */
+public class ChannelWriter extends SimpleChannelUpstreamHandler {
+
+  private static final boolean DEBUG = false;
+  private static final Log log = LogFactory.getLog(ChannelWriter.class);
+
+  private final Channel channel;
+  private final SlowSubscriberPolicy policy;
+  private final int pendingCapacity;
+  private final Deque<Object> pending;
+
+  private long droppedMessages;
+
+  /**
+   * @param channel
+   *          the {@link Channel} to write to
+   * @param policy
+   *          the {@link SlowSubscriberPolicy} to apply while the
+   *          {@link Channel} is not writable
+   * @param pendingCapacity
+   *          the maximum number of messages held back by
+   *          {@link SlowSubscriberPolicy#DROP_OLDEST}
+   */
+  public ChannelWriter(Channel channel, SlowSubscriberPolicy policy, int pendingCapacity) {
+    Preconditions.checkArgument(pendingCapacity > 0);
+    this.channel = channel;
+    this.policy = policy;
+    this.pendingCapacity = pendingCapacity;
+    pending = new ArrayDeque<Object>(pendingCapacity);
+    droppedMessages = 0;
+  }
+
+  /**
+   * Writes the message to the {@link Channel} if it is writable. Otherwise, the
+   * {@link SlowSubscriberPolicy} is applied.
+   * 
+   * @param buffer
+   *          the serialized message, its contents must not change until the
+   *          returned {@link ChannelFuture} completes
+   * @return the {@link ChannelFuture} of the write or {@code null} if the
+   *         message was not written and the buffer is not referenced anymore
+   */
+  public synchronized ChannelFuture write(ChannelBuffer buffer) {
+    if (isWritable()) {
+      return channel.write(buffer.duplicate());
+    }
+    if (holdBack(1)) {
+      // The caller reuses the buffer once this method returns.
+      pending.addLast(buffer.copy());
+    }
+    return null;
+  }
+
+  /**
+   * Writes the {@link MessageBatch} to the {@link Channel} if it is writable.
+   * Otherwise, the {@link SlowSubscriberPolicy} is applied.
+   * 
+   * @param batch
+   *          the {@link MessageBatch}, its contents must not change until the
+   *          returned {@link ChannelFuture} completes
+   * @return the {@link ChannelFuture} of the write or {@code null} if the
+   *         batch was not written and its buffer is not referenced anymore
+   */
+  public synchronized ChannelFuture write(MessageBatch batch) {
+    if (isWritable()) {
+      return channel.write(batch.duplicate());
+    }
+    if (holdBack(batch.getNumberOfMessages())) {
+      pending.addLast(batch.copy());
+    }
+    return null;
+  }
+
+  private boolean isWritable() {
+    // Held back messages must be written first to preserve their order.
+    return channel.isWritable() && pending.isEmpty();
+  }
+
+  /**
+   * Applies the {@link SlowSubscriberPolicy} to messages that cannot be
+   * written right away.
+   * 
+   * @param numberOfMessages
+   *          the number of messages that cannot be written
+   * @return {@code true} if the messages should be held back until the
+   *         {@link Channel} is writable again
+   */
+  private boolean holdBack(int numberOfMessages) {
+    boolean holdBack = false;
+    switch (policy) {
+      case DROP_OLDEST:
+        if (pending.size() == pendingCapacity) {
+          droppedMessages += getNumberOfMessages(pending.removeFirst());
+        }
+        holdBack = true;
+        break;
+      case DROP_NEWEST:
+        droppedMessages += numberOfMessages;
+        break;
+      case DISCONNECT:
+        droppedMessages += numberOfMessages;
+        if (channel.isOpen()) {
+          log.warn("Disconnecting slow subscriber: " + channel);
+          channel.close();
+        }
+        break;
+      default:
+        throw new IllegalStateException("Unknown slow subscriber policy: " + policy);
+    }
+    if (DEBUG) {
+      log.info(String.format("Channel %s is not writable, %d messages dropped.", channel,
+          droppedMessages));
+    }
+    return holdBack;
+  }
+
+  private static int getNumberOfMessages(Object message) {
+    if (message instanceof MessageBatch) {
+      return ((MessageBatch) message).getNumberOfMessages();
+    }
+    return 1;
+  }
+
+  /**
+   * Writes held back messages until the {@link Channel} is not writable
+   * anymore.
+   */
+  private synchronized void flush() {
+    while (channel.isWritable() && !pending.isEmpty()) {
+      channel.write(pending.removeFirst());
+    }
+  }
+
+  /**
+   * @return the number of messages that were not written to the
+   *         {@link Channel} because it was not writable
+   */
+  public synchronized long getNumberOfDroppedMessages() {
+    return droppedMessages;
+  }
+
+  public Channel getChannel() {
+    return channel;
+  }
+
+  @Override
+  public void channelInterestChanged(ChannelHandlerContext ctx, ChannelStateEvent e)
+      throws Exception {
+    flush();
+    super.channelInterestChanged(ctx, e);
+  }
+}
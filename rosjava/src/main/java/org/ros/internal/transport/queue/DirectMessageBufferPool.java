@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.queue;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.ros.internal.transport.tcp.ChannelBufferFactories;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of dynamically sized direct (off-heap) {@link ChannelBuffer}s for
+ * serializing outgoing messages.
+ * <p>
+ * Allocating and freeing direct memory is expensive, so buffers are reused
+ * instead. Since buffers grow to fit the largest message serialized into them,
+ * the number of pooled buffers is limited.
+ */
+public class DirectMessageBufferPool {
+
+  private static final int DEFAULT_CAPACITY = 16;
+  private static final int INITIAL_BUFFER_CAPACITY = 256;
+
+  private final int capacity;
+  private final Queue<ChannelBuffer> buffers;
+  private final AtomicInteger size;
+
+  public DirectMessageBufferPool() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * @param capacity
+   *          the maximum number of idle buffers kept in the pool
+   */
+  public DirectMessageBufferPool(int capacity) {
+    this.capacity = capacity;
+    buffers = new ConcurrentLinkedQueue<ChannelBuffer>();
+    size = new AtomicInteger();
+  }
+
+  /**
+   * @return an empty direct {@link ChannelBuffer} that must be returned with
+   *         {@link #release(ChannelBuffer)}
+   */
+  public ChannelBuffer acquire() {
+    ChannelBuffer buffer = buffers.poll();
+    if (buffer == null) {
+      return ChannelBuffers.dynamicBuffer(INITIAL_BUFFER_CAPACITY,
+          ChannelBufferFactories.get(true));
+    }
+    size.decrementAndGet();
+    return buffer;
+  }
+
+  /**
+   * @param buffer
+   *          a {@link ChannelBuffer} previously returned by {@link #acquire()}
+   *          that is no longer in use
+   */
+  public void release(ChannelBuffer buffer) {
+    if (size.incrementAndGet() > capacity) {
+      // The pool is full. Let the garbage collector free the buffer.
+      size.decrementAndGet();
+      return;
+    }
+    buffer.clear();
+    buffers.add(buffer);
+  }
+
+  /**
+   * @return the number of idle buffers in the pool
+   */
+  public int getSize() {
+    return size.get();
+  }
+}
@@ -16,35 +16,56 @@
 
 package org.ros.internal.transport.queue;
 
-import org.ros.concurrent.CircularBlockingDeque;
+import com.google.common.base.Preconditions;
+
+import org.ros.concurrent.OverflowPolicy;
+import org.ros.concurrent.RingBuffer;
 import org.ros.internal.transport.tcp.NamedChannelHandler;
 import org.ros.message.MessageDeserializer;
 import org.ros.message.MessageListener;
+import org.ros.node.topic.MessageHeaderFilter;
+import org.ros.node.topic.Publisher;
+import org.ros.node.topic.SubscriberOptions;
 
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author damonkohler@google.com (Damon Kohler)
  */
 public class IncomingMessageQueue<T> {
 
-  /**
-   * The maximum number of incoming messages that will be queued.
-   * <p>
-   * This limit applies to dispatching {@link LazyMessage}s as they arrive over
-   * the network. It is independent of {@link MessageDispatcher} queue
-   * capacities specified by
-   * {@link IncomingMessageQueue#addListener(MessageListener, int)} which are
-   * consumed by user provided {@link MessageListener}s.
-   */
-  private static final int DEQUE_CAPACITY = 16;
-
+  private final MessageDeserializer<T> deserializer;
+  private final RingBuffer<LazyMessage<T>> lazyMessages;
   private final MessageReceiver<T> messageReceiver;
   private final MessageDispatcher<T> messageDispatcher;
 
   public IncomingMessageQueue(MessageDeserializer<T> deserializer, ExecutorService executorService) {
-    CircularBlockingDeque<LazyMessage<T>> lazyMessages =
-        new CircularBlockingDeque<LazyMessage<T>>(DEQUE_CAPACITY);
+    this(deserializer, executorService, SubscriberOptions.DEFAULT_QUEUE_CAPACITY,
+        SubscriberOptions.DEFAULT_QUEUE_OVERFLOW_POLICY);
+  }
+
+  /**
+   * @param queueCapacity
+   *          the maximum number of incoming messages that will be queued
+   *          <p>
+   *          This limit applies to dispatching {@link LazyMessage}s as they
+   *          arrive over the network. It is independent of
+   *          {@link MessageDispatcher} queue capacities specified by
+   *          {@link IncomingMessageQueue#addListener(MessageListener, int)}
+   *          which are consumed by user provided {@link MessageListener}s.
+   * @param overflowPolicy
+   *          the {@link OverflowPolicy} for messages that arrive while the
+   *          queue is full, {@link OverflowPolicy#BLOCK} is not supported since
+   *          messages are added by I/O and {@link Publisher} threads
+   */
+  public IncomingMessageQueue(MessageDeserializer<T> deserializer,
+      ExecutorService executorService, int queueCapacity, OverflowPolicy overflowPolicy) {
+    Preconditions.checkArgument(overflowPolicy != OverflowPolicy.BLOCK,
+        "Incoming message queues cannot block.");
+    this.deserializer = deserializer;
+    lazyMessages = new RingBuffer<LazyMessage<T>>(queueCapacity, overflowPolicy, 0,
+        TimeUnit.NANOSECONDS);
     messageReceiver = new MessageReceiver<T>(lazyMessages, deserializer);
     messageDispatcher = new MessageDispatcher<T>(lazyMessages, executorService);
     executorService.execute(messageDispatcher);
@@ -64,6 +85,13 @@ public class IncomingMessageQueue<T> {
     return messageDispatcher.getLatchMode();
   }
 
+  /**
+   * @see MessageDispatcher#setMessageHeaderFilter(MessageHeaderFilter)
+   */
+  public void setMessageHeaderFilter(MessageHeaderFilter messageHeaderFilter) {
+    messageDispatcher.setMessageHeaderFilter(messageHeaderFilter);
+  }
+
   /**
    * @see MessageDispatcher#addListener(MessageListener, int)
    */
@@ -85,6 +113,17 @@ public class IncomingMessageQueue<T> {
     messageDispatcher.removeAllListeners();
   }
 
+  /**
+   * Adds a message that has already been deserialized (e.g. one that was
+   * published in the same process) to the queue.
+   * 
+   * @param message
+   *          the message to dispatch
+   */
+  public void add(T message) {
+    lazyMessages.addLast(new LazyMessage<T>(message));
+  }
+
   public void shutdown() {
     messageDispatcher.cancel();
   }
@@ -96,4 +135,21 @@ public class IncomingMessageQueue<T> {
   public NamedChannelHandler getMessageReceiver() {
     return messageReceiver;
   }
+
+  /**
+   * @param deserializer
+   *          the {@link MessageDeserializer} to use instead of the queue's own
+   * @return a new {@link NamedChannelHandler} that will receive messages on a
+   *         single connection and add them to the queue
+   */
+  public NamedChannelHandler newMessageReceiver(MessageDeserializer<T> deserializer) {
+    return new MessageReceiver<T>(lazyMessages, deserializer);
+  }
+
+  /**
+   * @return the {@link MessageDeserializer} used for received messages
+   */
+  public MessageDeserializer<T> getDeserializer() {
+    return deserializer;
+  }
 }
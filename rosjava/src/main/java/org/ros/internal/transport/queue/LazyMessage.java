@@ -16,15 +16,19 @@
 
 package org.ros.internal.transport.queue;
 
-import com.google.common.annotations.VisibleForTesting;
-
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.ros.message.MessageDeserializer;
+import org.ros.node.topic.MessageHeader;
 
 /**
  * Lazily deserializes a message on the first call to {@link #get()} and caches
  * the result.
  * <p>
+ * A {@link LazyMessage} takes ownership of the supplied {@link ChannelBuffer}.
+ * The buffer must not be modified or reused by the caller and is released as
+ * soon as the message has been deserialized. All subsequent calls to
+ * {@link #get()} return the cached message.
+ * <p>
  * This class is thread-safe.
  * 
  * @author damonkohler@google.com (Damon Kohler)
@@ -34,15 +38,17 @@ import org.ros.message.MessageDeserializer;
  */
 public class LazyMessage<T> {
 
-  private final ChannelBuffer buffer;
   private final MessageDeserializer<T> deserializer;
   private final Object mutex;
 
+  private ChannelBuffer buffer;
   private T message;
+  private MessageHeader header;
 
   /**
    * @param buffer
-   *          the {@link ChannelBuffer} to be lazily deserialized
+   *          the {@link ChannelBuffer} to be lazily deserialized, ownership of
+   *          the buffer is transferred to the new {@link LazyMessage}
    * @param deserializer
    *          the {@link MessageDeserializer} to use
    */
@@ -52,12 +58,31 @@ public class LazyMessage<T> {
     mutex = new Object();
   }
 
-  @VisibleForTesting
-  LazyMessage(T message) {
+  /**
+   * @param message
+   *          an already deserialized message
+   */
+  public LazyMessage(T message) {
     this(null, null);
     this.message = message;
   }
 
+  /**
+   * Decodes only the leading {@code std_msgs/Header} of the message. This is
+   * much cheaper than {@link #get()} for messages that may be dropped.
+   * 
+   * @return the {@link MessageHeader}, or {@code null} if the message has
+   *         already been deserialized or is too short to start with a header
+   */
+  public MessageHeader getHeader() {
+    synchronized (mutex) {
+      if (header == null && buffer != null) {
+        header = MessageHeaderDecoder.decode(buffer);
+      }
+      return header;
+    }
+  }
+
   /**
    * @return the deserialized message
    */
@@ -67,6 +92,10 @@ public class LazyMessage<T> {
         return message;
       }
       message = deserializer.deserialize(buffer);
+      // The deserialized message may still share the buffer's backing array
+      // (e.g. for uint8[] fields). So, we only drop our reference rather than
+      // recycling the buffer.
+      buffer = null;
     }
     return message;
   }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.queue;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+/**
+ * Several serialized messages that are written to a subscriber
+ * {@link org.jboss.netty.channel.Channel} at once. Each message in the buffer
+ * is already prefixed with its length as required by TCPROS.
+ * 
+ * @see MessageBatchEncoder
+ */
+public class MessageBatch {
+
+  private final ChannelBuffer buffer;
+  private final int numberOfMessages;
+
+  public MessageBatch(ChannelBuffer buffer, int numberOfMessages) {
+    this.buffer = buffer;
+    this.numberOfMessages = numberOfMessages;
+  }
+
+  /**
+   * @return the length prefixed messages
+   */
+  public ChannelBuffer getBuffer() {
+    return buffer;
+  }
+
+  public int getNumberOfMessages() {
+    return numberOfMessages;
+  }
+
+  /**
+   * @return a {@link MessageBatch} that shares the contents of this batch but
+   *         has independent indexes
+   */
+  public MessageBatch duplicate() {
+    return new MessageBatch(buffer.duplicate(), numberOfMessages);
+  }
+
+  /**
+   * @return a {@link MessageBatch} with a copy of the contents of this batch
+   */
+  public MessageBatch copy() {
+    return new MessageBatch(buffer.copy(), numberOfMessages);
+  }
+}
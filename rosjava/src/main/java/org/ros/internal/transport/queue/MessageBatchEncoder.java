@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.queue;
+
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+
+/**
+ * Writes the contents of {@link MessageBatch}es as they are.
+ * <p>
+ * {@link MessageBatch}es pass through the pipeline's length field prepender
+ * untouched since they are not {@link org.jboss.netty.buffer.ChannelBuffer}s.
+ * This encoder must therefore be the first handler in the pipeline so that it
+ * handles them last.
+ */
+public class MessageBatchEncoder extends OneToOneEncoder {
+
+  @Override
+  protected Object encode(ChannelHandlerContext ctx, Channel channel, Object msg)
+      throws Exception {
+    if (msg instanceof MessageBatch) {
+      return ((MessageBatch) msg).getBuffer();
+    }
+    return msg;
+  }
+}
@@ -19,11 +19,13 @@ package org.ros.internal.transport.queue;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.ros.concurrent.CancellableLoop;
-import org.ros.concurrent.CircularBlockingDeque;
 import org.ros.concurrent.EventDispatcher;
 import org.ros.concurrent.ListenerGroup;
+import org.ros.concurrent.RingBuffer;
 import org.ros.concurrent.SignalRunnable;
 import org.ros.message.MessageListener;
+import org.ros.node.topic.MessageHeader;
+import org.ros.node.topic.MessageHeaderFilter;
 
 import java.util.concurrent.ExecutorService;
 
@@ -38,7 +40,7 @@ public class MessageDispatcher<T> extends CancellableLoop {
   private static final boolean DEBUG = false;
   private static final Log log = LogFactory.getLog(MessageDispatcher.class);
 
-  private final CircularBlockingDeque<LazyMessage<T>> lazyMessages;
+  private final RingBuffer<LazyMessage<T>> lazyMessages;
   private final ListenerGroup<MessageListener<T>> messageListeners;
 
   /**
@@ -49,8 +51,9 @@ public class MessageDispatcher<T> extends CancellableLoop {
 
   private boolean latchMode;
   private LazyMessage<T> latchedMessage;
+  private volatile MessageHeaderFilter messageHeaderFilter;
 
-  public MessageDispatcher(CircularBlockingDeque<LazyMessage<T>> lazyMessages,
+  public MessageDispatcher(RingBuffer<LazyMessage<T>> lazyMessages,
       ExecutorService executorService) {
     this.lazyMessages = lazyMessages;
     messageListeners = new ListenerGroup<MessageListener<T>>(executorService);
@@ -143,9 +146,36 @@ public class MessageDispatcher<T> extends CancellableLoop {
     return latchMode;
   }
 
+  /**
+   * @param messageHeaderFilter
+   *          the {@link MessageHeaderFilter} to apply before messages are
+   *          deserialized, or {@code null} to dispatch all messages
+   */
+  public void setMessageHeaderFilter(MessageHeaderFilter messageHeaderFilter) {
+    this.messageHeaderFilter = messageHeaderFilter;
+  }
+
+  /**
+   * @return {@code true} if the {@link LazyMessage} should be dispatched
+   */
+  private boolean accept(LazyMessage<T> lazyMessage) {
+    MessageHeaderFilter filter = messageHeaderFilter;
+    if (filter == null) {
+      return true;
+    }
+    MessageHeader header = lazyMessage.getHeader();
+    return header == null || filter.accept(header);
+  }
+
   @Override
   public void loop() throws InterruptedException {
     LazyMessage<T> lazyMessage = lazyMessages.takeFirst();
+    if (!accept(lazyMessage)) {
+      if (DEBUG) {
+        log.info("Dropping filtered message: " + lazyMessage.getHeader());
+      }
+      return;
+    }
     synchronized (mutex) {
       latchedMessage = lazyMessage;
       if (DEBUG) {
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.internal.transport.queue;
+
+import com.google.common.base.Charsets;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.ros.message.Time;
+import org.ros.node.topic.MessageHeader;
+
+import java.nio.ByteOrder;
+
+/**
+ * Decodes the leading {@code std_msgs/Header} of a serialized message.
+ */
+public class MessageHeaderDecoder {
+
+  /**
+   * The serialized size of seq, stamp.secs, stamp.nsecs and the length of
+   * frame_id.
+   */
+  private static final int FIXED_SIZE = 16;
+
+  private MessageHeaderDecoder() {
+    // Utility class.
+  }
+
+  /**
+   * @param messageDefinition
+   *          the full definition of a message type
+   * @return {@code true} if the first field of the message type is a
+   *         {@code std_msgs/Header}
+   */
+  public static boolean startsWithHeader(String messageDefinition) {
+    for (String line : messageDefinition.split("\n")) {
+      String field = line.trim();
+      if (field.isEmpty() || field.startsWith("#")) {
+        continue;
+      }
+      String type = field.split("\\s+")[0];
+      return type.equals("Header") || type.equals("std_msgs/Header");
+    }
+    return false;
+  }
+
+  /**
+   * Decodes the header from the readable bytes of the buffer without changing
+   * its reader index.
+   * 
+   * @param buffer
+   *          the serialized message
+   * @return the decoded {@link MessageHeader}, or {@code null} if the buffer
+   *         is too short to start with a {@code std_msgs/Header}
+   */
+  public static MessageHeader decode(ChannelBuffer buffer) {
+    int index = buffer.readerIndex();
+    int readableBytes = buffer.readableBytes();
+    if (readableBytes < FIXED_SIZE) {
+      return null;
+    }
+    int seq = getInt(buffer, index);
+    int secs = getInt(buffer, index + 4);
+    int nsecs = getInt(buffer, index + 8);
+    int frameIdLength = getInt(buffer, index + 12);
+    if (frameIdLength < 0 || frameIdLength > readableBytes - FIXED_SIZE) {
+      return null;
+    }
+    String frameId = buffer.toString(index + FIXED_SIZE, frameIdLength, Charsets.UTF_8);
+    return new MessageHeader(seq, new Time(secs, nsecs), frameId);
+  }
+
+  private static int getInt(ChannelBuffer buffer, int index) {
+    int value = buffer.getInt(index);
+    if (buffer.order() == ByteOrder.LITTLE_ENDIAN) {
+      return value;
+    }
+    return Integer.reverseBytes(value);
+  }
+}
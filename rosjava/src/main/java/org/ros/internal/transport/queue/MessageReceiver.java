@@ -16,13 +16,12 @@
 
 package org.ros.internal.transport.queue;
 
-import org.ros.concurrent.CircularBlockingDeque;
-
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.MessageEvent;
+import org.ros.concurrent.RingBuffer;
 import org.ros.internal.transport.tcp.AbstractNamedChannelHandler;
 import org.ros.message.MessageDeserializer;
 
@@ -37,10 +36,10 @@ public class MessageReceiver<T> extends AbstractNamedChannelHandler {
   private static final boolean DEBUG = false;
   private static final Log log = LogFactory.getLog(MessageReceiver.class);
 
-  private final CircularBlockingDeque<LazyMessage<T>> lazyMessages;
+  private final RingBuffer<LazyMessage<T>> lazyMessages;
   private final MessageDeserializer<T> deserializer;
 
-  public MessageReceiver(CircularBlockingDeque<LazyMessage<T>> lazyMessages,
+  public MessageReceiver(RingBuffer<LazyMessage<T>> lazyMessages,
       MessageDeserializer<T> deserializer) {
     this.lazyMessages = lazyMessages;
     this.deserializer = deserializer;
@@ -57,9 +56,12 @@ public class MessageReceiver<T> extends AbstractNamedChannelHandler {
     if (DEBUG) {
       log.info(String.format("Received %d byte message.", buffer.readableBytes()));
     }
-    // We have to make a defensive copy of the buffer here because Netty does
-    // not guarantee that the returned ChannelBuffer will not be reused.
-    lazyMessages.addLast(new LazyMessage<T>(buffer.copy(), deserializer));
+    // The frame decoder (or datagram reassembler) in front of this handler
+    // extracts each frame into a newly allocated ChannelBuffer that is never
+    // reused by Netty. So, we can hand it off without making a defensive copy.
+    // The LazyMessage takes ownership of the buffer and releases it once the
+    // message has been deserialized.
+    lazyMessages.addLast(new LazyMessage<T>(buffer, deserializer));
     super.messageReceived(ctx, e);
   }
 }
\ No newline at end of file
@@ -17,22 +17,44 @@
 package org.ros.internal.transport.queue;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelConfig;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.channel.group.ChannelGroupFuture;
-import org.jboss.netty.channel.group.ChannelGroupFutureListener;
 import org.jboss.netty.channel.group.DefaultChannelGroup;
 import org.ros.concurrent.CancellableLoop;
-import org.ros.concurrent.CircularBlockingDeque;
+import org.ros.concurrent.OverflowPolicy;
+import org.ros.concurrent.RingBuffer;
 import org.ros.internal.message.MessageBufferPool;
 import org.ros.internal.message.MessageBuffers;
+import org.ros.internal.transport.compression.CompressedFrames;
+import org.ros.internal.transport.compression.Compressor;
+import org.ros.internal.transport.shm.SharedMemoryFrames;
+import org.ros.internal.transport.shm.SharedMemoryRing;
+import org.ros.internal.transport.udp.UdpRosSender;
 import org.ros.message.MessageSerializer;
+import org.ros.node.topic.PublisherOptions;
+import org.ros.node.topic.SlowSubscriberPolicy;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author damonkohler@google.com (Damon Kohler)
@@ -42,51 +64,302 @@ public class OutgoingMessageQueue<T> {
   private static final boolean DEBUG = false;
   private static final Log log = LogFactory.getLog(OutgoingMessageQueue.class);
 
-  private static final int DEQUE_CAPACITY = 16;
-
   private final MessageSerializer<T> serializer;
-  private final CircularBlockingDeque<T> deque;
+  private final RingBuffer<T> deque;
+  private final int queueCapacity;
   private final ChannelGroup channelGroup;
+  private final ConcurrentMap<Channel, ChannelWriter> channelWriters;
+
+  /**
+   * The {@link Channel}s that are sent {@link CompressedFrames} rather than
+   * messages.
+   */
+  private final Set<Channel> compressedChannels;
+  private final ChannelGroup sharedMemoryChannelGroup;
+  private final Collection<IncomingMessageQueue<T>> incomingMessageQueues;
   private final Writer writer;
   private final MessageBufferPool messageBufferPool;
-  private final ChannelBuffer latchedBuffer;
+  private final DirectMessageBufferPool directMessageBufferPool;
+  private final ExecutorService executorService;
   private final Object mutex;
 
-  private boolean latchMode;
+  private volatile boolean latchMode;
   private T latchedMessage;
 
+  /**
+   * The serialized form of {@link #latchedBufferMessage}. This is shared by all
+   * new subscribers and must not be modified.
+   */
+  private ChannelBuffer latchedBuffer;
+  private T latchedBufferMessage;
+  private SlowSubscriberPolicy slowSubscriberPolicy;
+  private int writeBufferHighWaterMark;
+  private int writeBufferLowWaterMark;
+  private volatile int maxBatchSize;
+  private volatile boolean directBuffers;
+  private volatile long batchFlushIntervalNanos;
+  private volatile Compressor compressor;
+  private volatile int compressionThreshold;
+  private int sharedMemoryCapacity;
+
+  /**
+   * Created on demand when the first UDPROS subscriber is added.
+   */
+  private volatile UdpRosSender udpRosSender;
+
+  /**
+   * Created on demand when the first shared memory subscriber requests it.
+   */
+  private volatile SharedMemoryRing sharedMemoryRing;
+
   private final class Writer extends CancellableLoop {
     @Override
     public void loop() throws InterruptedException {
       T message = deque.takeFirst();
-      final ChannelBuffer buffer = messageBufferPool.acquire();
+      UdpRosSender udpRosSender = OutgoingMessageQueue.this.udpRosSender;
+      if (channelGroup.isEmpty() && sharedMemoryChannelGroup.isEmpty() && udpRosSender == null) {
+        // Avoid serializing messages that are only delivered intra-process.
+        return;
+      }
+      final ChannelBuffer buffer = acquireBuffer();
+      if (maxBatchSize > 0) {
+        int numberOfMessages = serializeBatch(message, buffer);
+        // UDPROS and shared memory subscribers still receive one message at a
+        // time.
+        if (udpRosSender != null || !sharedMemoryChannelGroup.isEmpty()) {
+          int index = buffer.readerIndex();
+          while (index < buffer.writerIndex()) {
+            int length = buffer.getInt(index);
+            writeDatagramsAndSharedMemory(buffer.slice(index + 4, length), udpRosSender);
+            index += 4 + length;
+          }
+        }
+        writeChannels(buffer, new MessageBatch(buffer, numberOfMessages));
+      } else {
+        serializer.serialize(message, buffer);
+        cacheLatchedBuffer(message, buffer);
+        writeDatagramsAndSharedMemory(buffer, udpRosSender);
+        writeChannels(buffer, null);
+      }
+    }
+  }
+
+  /**
+   * Serializes the given message and as many of the following queued messages
+   * as fit into a batch. Each message is prefixed with its length.
+   * 
+   * @return the number of messages in the batch
+   */
+  private int serializeBatch(T message, ChannelBuffer buffer) throws InterruptedException {
+    long deadline = System.nanoTime() + batchFlushIntervalNanos;
+    int numberOfMessages = 0;
+    while (message != null) {
+      int lengthIndex = buffer.writerIndex();
+      buffer.writeInt(0);
       serializer.serialize(message, buffer);
-      if (DEBUG) {
-        log.info(String.format("Writing %d bytes to %d channels.", buffer.readableBytes(),
-            channelGroup.size()));
-      }
-      // Note that the buffer is automatically "duplicated" by Netty to avoid
-      // race conditions. However, the duplicated buffer and the original buffer
-      // share the same backing array. So, we have to wait until the write
-      // operation is complete before returning the buffer to the pool.
-      channelGroup.write(buffer).addListener(new ChannelGroupFutureListener() {
-        @Override
-        public void operationComplete(ChannelGroupFuture future) throws Exception {
-          messageBufferPool.release(buffer);
+      int length = buffer.writerIndex() - lengthIndex - 4;
+      buffer.setInt(lengthIndex, length);
+      cacheLatchedBuffer(message, buffer.slice(lengthIndex + 4, length));
+      numberOfMessages++;
+      if (buffer.readableBytes() >= maxBatchSize) {
+        break;
+      }
+      message = deque.pollFirst();
+      if (message == null && batchFlushIntervalNanos > 0) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > 0) {
+          message = deque.pollFirst(remaining, TimeUnit.NANOSECONDS);
+        }
+      }
+    }
+    return numberOfMessages;
+  }
+
+  /**
+   * Keeps a copy of the serialized message if it is the latched message so
+   * that it does not have to be serialized again for each new subscriber.
+   * 
+   * @param message
+   *          the message that was just serialized
+   * @param buffer
+   *          the pooled buffer containing only the serialized message
+   */
+  private void cacheLatchedBuffer(T message, ChannelBuffer buffer) {
+    if (!latchMode) {
+      return;
+    }
+    synchronized (mutex) {
+      if (message == latchedMessage && message != latchedBufferMessage) {
+        latchedBuffer = buffer.copy();
+        latchedBufferMessage = message;
+      }
+    }
+  }
+
+  /**
+   * @return a read-only view of the serialized latched message, the message is
+   *         only serialized here if the writer has not done so already
+   */
+  private ChannelBuffer getLatchedBuffer() {
+    synchronized (mutex) {
+      Preconditions.checkState(latchedMessage != null);
+      if (latchedMessage != latchedBufferMessage) {
+        ChannelBuffer buffer = MessageBuffers.dynamicBuffer();
+        serializer.serialize(latchedMessage, buffer);
+        latchedBuffer = buffer;
+        latchedBufferMessage = latchedMessage;
+      }
+      return ChannelBuffers.unmodifiableBuffer(latchedBuffer);
+    }
+  }
+
+  private void writeDatagramsAndSharedMemory(ChannelBuffer buffer, UdpRosSender udpRosSender) {
+    if (udpRosSender != null) {
+      // Datagrams are copied from the buffer before write() returns.
+      udpRosSender.write(buffer);
+    }
+    if (!sharedMemoryChannelGroup.isEmpty()) {
+      writeSharedMemory(buffer);
+    }
+  }
+
+  private ChannelBuffer acquireBuffer() {
+    if (directBuffers) {
+      return directMessageBufferPool.acquire();
+    }
+    return messageBufferPool.acquire();
+  }
+
+  private void releaseBuffer(ChannelBuffer buffer) {
+    // Buffers go back to the pool they came from even if the mode changed in
+    // the meantime.
+    if (buffer.isDirect()) {
+      directMessageBufferPool.release(buffer);
+    } else {
+      messageBufferPool.release(buffer);
+    }
+  }
+
+  /**
+   * Writes a message or {@link MessageBatch} to all TCPROS channels and returns
+   * the buffer to the pool once all writes are complete.
+   * 
+   * @param buffer
+   *          the pooled buffer containing the serialized message
+   * @param batch
+   *          the {@link MessageBatch} backed by the buffer, or {@code null} if
+   *          the buffer contains a single message
+   */
+  private void writeChannels(final ChannelBuffer buffer, MessageBatch batch) {
+    if (DEBUG) {
+      log.info(String.format("Writing %d bytes to %d channels.", buffer.readableBytes(),
+          channelWriters.size()));
+    }
+    // Each channel is written to separately so that a slow subscriber only
+    // affects its own channel. The duplicated buffers that are written share
+    // the same backing array, as do uncompressed frames. So, we have to wait
+    // until all write operations are complete before returning the buffer to
+    // the pool.
+    final AtomicInteger pendingWrites = new AtomicInteger(1);
+    ChannelFutureListener releaseListener = new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) throws Exception {
+        if (pendingWrites.decrementAndGet() == 0) {
+          releaseBuffer(buffer);
+        }
+      }
+    };
+    // Messages are compressed at most once for all channels that negotiated
+    // compression.
+    ChannelBuffer compressedBuffer = null;
+    MessageBatch compressedBatch = null;
+    for (Map.Entry<Channel, ChannelWriter> entry : channelWriters.entrySet()) {
+      ChannelWriter channelWriter = entry.getValue();
+      boolean compressed = compressedChannels.contains(entry.getKey());
+      ChannelFuture future;
+      if (batch == null) {
+        if (compressed && compressedBuffer == null) {
+          compressedBuffer = CompressedFrames.encode(buffer, compressor, compressionThreshold);
         }
-      });
+        future = channelWriter.write(compressed ? compressedBuffer : buffer);
+      } else {
+        if (compressed && compressedBatch == null) {
+          compressedBatch = CompressedFrames.encode(batch, compressor, compressionThreshold);
+        }
+        future = channelWriter.write(compressed ? compressedBatch : batch);
+      }
+      if (future != null) {
+        pendingWrites.incrementAndGet();
+        future.addListener(releaseListener);
+      }
+    }
+    if (pendingWrites.decrementAndGet() == 0) {
+      releaseBuffer(buffer);
+    }
+  }
+
+  private void writeSharedMemory(ChannelBuffer buffer) {
+    SharedMemoryRing ring = sharedMemoryRing;
+    if (ring.isClosed()) {
+      // The publisher is shutting down.
+      return;
+    }
+    int length = buffer.readableBytes();
+    // Messages that take up a large part of the ring would likely be
+    // overwritten before subscribers get to read them.
+    if (length > ring.getCapacity() / 2) {
+      sharedMemoryChannelGroup.write(SharedMemoryFrames.newInline(buffer));
+    } else {
+      long position = ring.write(buffer);
+      sharedMemoryChannelGroup.write(SharedMemoryFrames.newSignal(position, length));
     }
   }
 
   public OutgoingMessageQueue(MessageSerializer<T> serializer, ExecutorService executorService) {
+    this(serializer, executorService, PublisherOptions.DEFAULT_QUEUE_CAPACITY,
+        PublisherOptions.DEFAULT_QUEUE_OVERFLOW_POLICY,
+        PublisherOptions.DEFAULT_QUEUE_BLOCK_TIMEOUT_NANOS, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * @param queueCapacity
+   *          the maximum number of messages waiting to be written, this is also
+   *          the maximum number of messages held back for each slow
+   *          {@link Channel}
+   * @param overflowPolicy
+   *          the {@link OverflowPolicy} for {@link #add(Object)} while the
+   *          queue is full
+   * @param blockTimeout
+   *          how long {@link #add(Object)} waits for space with
+   *          {@link OverflowPolicy#BLOCK}
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   */
+  public OutgoingMessageQueue(MessageSerializer<T> serializer, ExecutorService executorService,
+      int queueCapacity, OverflowPolicy overflowPolicy, long blockTimeout, TimeUnit unit) {
     this.serializer = serializer;
-    deque = new CircularBlockingDeque<T>(DEQUE_CAPACITY);
+    deque = new RingBuffer<T>(queueCapacity, overflowPolicy, blockTimeout, unit);
+    this.queueCapacity = queueCapacity;
     channelGroup = new DefaultChannelGroup();
+    channelWriters = Maps.newConcurrentMap();
+    compressedChannels = Sets.newSetFromMap(Maps.<Channel, Boolean>newConcurrentMap());
+    sharedMemoryChannelGroup = new DefaultChannelGroup();
+    incomingMessageQueues = new CopyOnWriteArrayList<IncomingMessageQueue<T>>();
     writer = new Writer();
     messageBufferPool = new MessageBufferPool();
-    latchedBuffer = MessageBuffers.dynamicBuffer();
+    directMessageBufferPool = new DirectMessageBufferPool();
+    this.executorService = executorService;
     mutex = new Object();
     latchMode = false;
+    slowSubscriberPolicy = PublisherOptions.DEFAULT_SLOW_SUBSCRIBER_POLICY;
+    writeBufferHighWaterMark = PublisherOptions.DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK;
+    writeBufferLowWaterMark = PublisherOptions.DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
+    maxBatchSize = 0;
+    batchFlushIntervalNanos = 0;
+    directBuffers = false;
+    compressor = null;
+    compressionThreshold = 0;
+    sharedMemoryCapacity = PublisherOptions.DEFAULT_SHARED_MEMORY_CAPACITY;
     executorService.execute(writer);
   }
 
@@ -98,11 +371,98 @@ public class OutgoingMessageQueue<T> {
     return latchMode;
   }
 
+  /**
+   * Only affects {@link Channel}s that are added afterwards.
+   * 
+   * @param policy
+   *          the {@link SlowSubscriberPolicy} to apply to {@link Channel}s
+   *          that are not writable
+   */
+  public void setSlowSubscriberPolicy(SlowSubscriberPolicy policy) {
+    Preconditions.checkNotNull(policy);
+    slowSubscriberPolicy = policy;
+  }
+
+  /**
+   * Only affects {@link Channel}s that are added afterwards.
+   * 
+   * @param low
+   *          the number of buffered bytes below which a {@link Channel}
+   *          becomes writable again
+   * @param high
+   *          the number of buffered bytes above which a {@link Channel} is not
+   *          writable
+   */
+  public void setWriteBufferWaterMarks(int low, int high) {
+    Preconditions.checkArgument(0 <= low && low <= high);
+    writeBufferLowWaterMark = low;
+    writeBufferHighWaterMark = high;
+  }
+
+  /**
+   * Only applies if the {@link SharedMemoryRing} has not been created yet.
+   * 
+   * @param capacity
+   *          the capacity in bytes of the {@link SharedMemoryRing} for shared
+   *          memory subscribers
+   */
+  public void setSharedMemoryCapacity(int capacity) {
+    Preconditions.checkArgument(capacity > 0);
+    synchronized (mutex) {
+      sharedMemoryCapacity = capacity;
+    }
+  }
+
+  /**
+   * Enables writing all queued messages to each {@link Channel} at once.
+   * 
+   * @param maxBatchSize
+   *          once a batch contains at least this many bytes, it is written
+   *          even if more messages are queued, 0 disables batching
+   * @param flushIntervalNanos
+   *          how long to wait for further messages before writing a batch that
+   *          is smaller than the maximum batch size
+   */
+  public void setBatching(int maxBatchSize, long flushIntervalNanos) {
+    Preconditions.checkArgument(maxBatchSize >= 0 && flushIntervalNanos >= 0);
+    this.batchFlushIntervalNanos = flushIntervalNanos;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  /**
+   * @param directBuffers
+   *          {@code true} to serialize messages into pooled direct (off-heap)
+   *          buffers which are written to sockets without an extra copy
+   */
+  public void setDirectBuffers(boolean directBuffers) {
+    this.directBuffers = directBuffers;
+  }
+
+  /**
+   * Must be called before any {@link Channel}s that negotiated compression are
+   * added.
+   * 
+   * @param compressor
+   *          the {@link Compressor} to compress messages with for
+   *          {@link Channel}s that negotiated compression
+   * @param threshold
+   *          messages with fewer bytes are sent uncompressed
+   */
+  public void setCompression(Compressor compressor, int threshold) {
+    Preconditions.checkNotNull(compressor);
+    Preconditions.checkArgument(threshold >= 0);
+    this.compressor = compressor;
+    compressionThreshold = threshold;
+  }
+
   /**
    * @param message
    *          the message to add to the queue
    */
   public void add(T message) {
+    for (IncomingMessageQueue<T> incomingMessageQueue : incomingMessageQueues) {
+      incomingMessageQueue.add(message);
+    }
     deque.addLast(message);
     setLatchedMessage(message);
   }
@@ -110,6 +470,11 @@ public class OutgoingMessageQueue<T> {
   private void setLatchedMessage(T message) {
     synchronized (mutex) {
       latchedMessage = message;
+      // The same instance may have been modified and published again. So, the
+      // cached buffer cannot be trusted even if it was serialized from this
+      // very instance.
+      latchedBuffer = null;
+      latchedBufferMessage = null;
     }
   }
 
@@ -118,7 +483,19 @@ public class OutgoingMessageQueue<T> {
    */
   public void shutdown() {
     writer.cancel();
+    incomingMessageQueues.clear();
+    synchronized (mutex) {
+      if (udpRosSender != null) {
+        udpRosSender.shutdown();
+      }
+    }
     channelGroup.close().awaitUninterruptibly();
+    sharedMemoryChannelGroup.close().awaitUninterruptibly();
+    synchronized (mutex) {
+      if (sharedMemoryRing != null) {
+        sharedMemoryRing.delete();
+      }
+    }
   }
 
   /**
@@ -126,31 +503,224 @@ public class OutgoingMessageQueue<T> {
    *          added to this {@link OutgoingMessageQueue}'s {@link ChannelGroup}
    */
   public void addChannel(Channel channel) {
+    addChannel(channel, false);
+  }
+
+  /**
+   * @param channel
+   *          added to this {@link OutgoingMessageQueue}'s {@link ChannelGroup}
+   * @param compressed
+   *          {@code true} if the {@link Channel} negotiated compression with
+   *          the {@link Compressor} set by
+   *          {@link #setCompression(Compressor, int)}
+   */
+  public void addChannel(Channel channel, boolean compressed) {
+    Preconditions.checkState(!compressed || compressor != null, "Compression is not enabled.");
     if (!writer.isRunning()) {
       log.warn("Failed to add channel. Cannot add channels after shutdown.");
       return;
     }
+    setWriteBufferWaterMarks(channel.getConfig());
+    final ChannelWriter channelWriter =
+        new ChannelWriter(channel, slowSubscriberPolicy, queueCapacity);
+    channel.getPipeline().addLast("ChannelWriter", channelWriter);
+    channel.getPipeline().addFirst("MessageBatchEncoder", new MessageBatchEncoder());
     if (latchMode && latchedMessage != null) {
-      writeLatchedMessage(channel);
+      writeLatchedMessage(channel, compressed);
     }
     channelGroup.add(channel);
+    if (compressed) {
+      compressedChannels.add(channel);
+    }
+    channelWriters.put(channel, channelWriter);
+    channel.getCloseFuture().addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) throws Exception {
+        channelWriters.remove(future.getChannel());
+        compressedChannels.remove(future.getChannel());
+        if (channelWriter.getNumberOfDroppedMessages() > 0) {
+          log.info(String.format("Dropped %d messages for slow channel %s.",
+              channelWriter.getNumberOfDroppedMessages(), future.getChannel()));
+        }
+      }
+    });
+  }
+
+  private void setWriteBufferWaterMarks(ChannelConfig config) {
+    // Netty rejects a low water mark above the current high water mark and
+    // vice versa. Lowering the low water mark first allows any new pair.
+    config.setOption("writeBufferLowWaterMark", 0);
+    config.setOption("writeBufferHighWaterMark", writeBufferHighWaterMark);
+    config.setOption("writeBufferLowWaterMark", writeBufferLowWaterMark);
   }
 
-  // TODO(damonkohler): Avoid re-serializing the latched message if it hasn't
-  // changed.
-  private void writeLatchedMessage(Channel channel) {
+  /**
+   * Delivers all future messages directly to the given
+   * {@link IncomingMessageQueue} without serializing them.
+   * 
+   * @param incomingMessageQueue
+   *          the {@link IncomingMessageQueue} of a subscriber in the same
+   *          process
+   */
+  public void addIncomingMessageQueue(IncomingMessageQueue<T> incomingMessageQueue) {
+    if (!writer.isRunning()) {
+      log.warn("Failed to add intra-process subscriber. Cannot add subscribers after shutdown.");
+      return;
+    }
+    synchronized (mutex) {
+      if (latchMode && latchedMessage != null) {
+        incomingMessageQueue.add(latchedMessage);
+      }
+    }
+    incomingMessageQueues.add(incomingMessageQueue);
+  }
+
+  /**
+   * @return the {@link SharedMemoryRing} that messages for shared memory
+   *         subscribers are written to, creating it if necessary
+   * @throws IOException
+   *           if the ring cannot be created
+   */
+  public SharedMemoryRing getSharedMemoryRing() throws IOException {
     synchronized (mutex) {
-      latchedBuffer.clear();
-      serializer.serialize(latchedMessage, latchedBuffer);
-      channel.write(latchedBuffer);
+      if (sharedMemoryRing == null) {
+        sharedMemoryRing =
+            SharedMemoryRing.create(SharedMemoryRing.getDefaultDirectory(),
+                sharedMemoryCapacity);
+      }
+      return sharedMemoryRing;
     }
   }
 
+  /**
+   * @param ringId
+   *          the ID of a {@link SharedMemoryRing}
+   * @return {@code true} if messages are written to the {@link SharedMemoryRing}
+   *         with the given ID
+   */
+  public boolean hasSharedMemoryRing(String ringId) {
+    SharedMemoryRing ring = sharedMemoryRing;
+    return ring != null && ring.getId().equals(ringId);
+  }
+
+  /**
+   * Sends all future messages to a subscriber that reads them from the
+   * {@link SharedMemoryRing}. Only {@link SharedMemoryFrames} are written to
+   * the {@link Channel}.
+   * 
+   * @param channel
+   *          the {@link Channel} of the subscriber's handshake connection
+   */
+  public void addSharedMemoryChannel(Channel channel) {
+    if (!writer.isRunning()) {
+      log.warn("Failed to add channel. Cannot add channels after shutdown.");
+      return;
+    }
+    synchronized (mutex) {
+      if (latchMode && latchedMessage != null) {
+        channel.write(SharedMemoryFrames.newInline(getLatchedBuffer()));
+      }
+    }
+    sharedMemoryChannelGroup.add(channel);
+  }
+
+  /**
+   * Sends all future messages to a UDPROS subscriber.
+   * 
+   * @param connectionId
+   *          the ID of the UDPROS connection
+   * @param address
+   *          the address the subscriber receives datagrams on
+   * @param maxDatagramSize
+   *          the maximum size of datagrams accepted by the subscriber
+   */
+  public void addUdpConnection(int connectionId, InetSocketAddress address, int maxDatagramSize) {
+    if (!writer.isRunning()) {
+      log.warn("Failed to add UDPROS subscriber. Cannot add subscribers after shutdown.");
+      return;
+    }
+    synchronized (mutex) {
+      if (udpRosSender == null) {
+        udpRosSender = new UdpRosSender(executorService);
+      }
+      udpRosSender.addConnection(connectionId, address, maxDatagramSize);
+      if (latchMode && latchedMessage != null) {
+        udpRosSender.write(connectionId, getLatchedBuffer());
+      }
+    }
+  }
+
+  /**
+   * @param connectionId
+   *          the ID of the UDPROS connection to stop sending messages to
+   */
+  public void removeUdpConnection(int connectionId) {
+    synchronized (mutex) {
+      if (udpRosSender != null) {
+        udpRosSender.removeConnection(connectionId);
+      }
+    }
+  }
+
+  /**
+   * @param incomingMessageQueue
+   *          the {@link IncomingMessageQueue} to stop delivering messages to
+   * @return {@code true} if the {@link IncomingMessageQueue} was removed
+   */
+  public boolean removeIncomingMessageQueue(IncomingMessageQueue<T> incomingMessageQueue) {
+    return incomingMessageQueues.remove(incomingMessageQueue);
+  }
+
+  private void writeLatchedMessage(Channel channel, boolean compressed) {
+    ChannelBuffer buffer = getLatchedBuffer();
+    if (compressed) {
+      buffer = CompressedFrames.encode(buffer, compressor, compressionThreshold);
+    }
+    channel.write(buffer);
+  }
+
   /**
    * @return the number of {@link Channel}s which have been added to this queue
    */
   public int getNumberOfChannels() {
-    return channelGroup.size();
+    return channelGroup.size() + sharedMemoryChannelGroup.size();
+  }
+
+  /**
+   * @param channel
+   *          a {@link Channel} which has been added to this queue
+   * @return the number of messages which were dropped for the {@link Channel}
+   *         because it could not keep up, or 0 if the {@link Channel} has been
+   *         closed
+   */
+  public long getNumberOfDroppedMessages(Channel channel) {
+    ChannelWriter channelWriter = channelWriters.get(channel);
+    return channelWriter == null ? 0 : channelWriter.getNumberOfDroppedMessages();
+  }
+
+  /**
+   * @return the number of intra-process subscribers which have been added to
+   *         this queue
+   */
+  public int getNumberOfIncomingMessageQueues() {
+    return incomingMessageQueues.size();
+  }
+
+  /**
+   * @return the number of UDPROS subscribers which have been added to this
+   *         queue
+   */
+  public int getNumberOfUdpConnections() {
+    UdpRosSender udpRosSender = this.udpRosSender;
+    return udpRosSender == null ? 0 : udpRosSender.getNumberOfConnections();
+  }
+
+  /**
+   * @return the number of SHMROS subscribers which have been added to this
+   *         queue
+   */
+  public int getNumberOfSharedMemoryChannels() {
+    return sharedMemoryChannelGroup.size();
   }
 
   @VisibleForTesting
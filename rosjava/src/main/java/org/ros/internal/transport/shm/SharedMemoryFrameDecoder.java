@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.shm;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Turns {@link SharedMemoryFrames} received from a publisher into message
+ * frames by reading the signalled messages from a {@link SharedMemoryRing}.
+ * <p>
+ * Messages that were overwritten before they could be read are dropped. A slow
+ * subscriber may drop messages continuously. So, drops are counted and only
+ * the first one is logged.
+ */
+public class SharedMemoryFrameDecoder extends SimpleChannelUpstreamHandler {
+
+  private static final Log log = LogFactory.getLog(SharedMemoryFrameDecoder.class);
+
+  private final SharedMemoryRing ring;
+  private final AtomicLong numberOfDroppedMessages;
+
+  public SharedMemoryFrameDecoder(SharedMemoryRing ring) {
+    this.ring = ring;
+    numberOfDroppedMessages = new AtomicLong();
+  }
+
+  /**
+   * @return the number of messages that were overwritten before they could be
+   *         read
+   */
+  public long getNumberOfDroppedMessages() {
+    return numberOfDroppedMessages.get();
+  }
+
+  @Override
+  public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+    ChannelBuffer frame = (ChannelBuffer) e.getMessage();
+    byte type = frame.readByte();
+    if (type == SharedMemoryFrames.INLINE) {
+      Channels.fireMessageReceived(ctx, frame, e.getRemoteAddress());
+    } else if (type == SharedMemoryFrames.SIGNAL) {
+      long position = frame.readLong();
+      int length = frame.readInt();
+      ChannelBuffer message = ring.read(position, length);
+      if (message != null) {
+        Channels.fireMessageReceived(ctx, message, e.getRemoteAddress());
+      } else if (numberOfDroppedMessages.incrementAndGet() == 1) {
+        log.warn("Dropped message that was overwritten in " + ring
+            + ". Further drops are counted but not logged.");
+      }
+    } else {
+      log.error("Unknown shared memory frame type: " + type);
+    }
+  }
+}
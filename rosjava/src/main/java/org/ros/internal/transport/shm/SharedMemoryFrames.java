@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.shm;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+import java.nio.ByteOrder;
+
+/**
+ * Frames sent over the TCP connection of a shared memory subscriber.
+ * <p>
+ * Each frame starts with a 1 byte type. A {@link #SIGNAL} frame contains the
+ * 8 byte position and 4 byte length of a message in the
+ * {@link SharedMemoryRing}. An {@link #INLINE} frame contains the message
+ * itself and is used for messages that do not fit into the ring and for
+ * latched messages.
+ */
+public class SharedMemoryFrames {
+
+  public static final byte SIGNAL = 0;
+  public static final byte INLINE = 1;
+
+  private SharedMemoryFrames() {
+    // Utility class.
+  }
+
+  /**
+   * @param position
+   *          the position of the message in the ring
+   * @param length
+   *          the length of the message
+   * @return a new {@link #SIGNAL} frame
+   */
+  public static ChannelBuffer newSignal(long position, int length) {
+    ChannelBuffer frame = ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, 13);
+    frame.writeByte(SIGNAL);
+    frame.writeLong(position);
+    frame.writeInt(length);
+    return frame;
+  }
+
+  /**
+   * @param message
+   *          the message to copy into the frame, its reader index is not
+   *          modified
+   * @return a new {@link #INLINE} frame
+   */
+  public static ChannelBuffer newInline(ChannelBuffer message) {
+    ChannelBuffer frame =
+        ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, 1 + message.readableBytes());
+    frame.writeByte(INLINE);
+    frame.writeBytes(message, message.readerIndex(), message.readableBytes());
+    return frame;
+  }
+}
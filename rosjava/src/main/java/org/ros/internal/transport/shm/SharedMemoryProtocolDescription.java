@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.shm;
+
+import com.google.common.collect.Lists;
+
+import org.ros.address.AdvertiseAddress;
+import org.ros.internal.transport.ProtocolDescription;
+import org.ros.internal.transport.ProtocolNames;
+
+import java.util.List;
+
+/**
+ * Describes a connection to a publisher through a {@link SharedMemoryRing}.
+ * <p>
+ * The list form is {@code [SHMROS, host, port, ring path, ring ID]}. The host
+ * and port are the publisher's TCPROS address which is used for the handshake
+ * and for signalling new messages. Subscribers that cannot open the ring (e.g.
+ * because they are on a different host) fall back to TCPROS at that address.
+ */
+public class SharedMemoryProtocolDescription extends ProtocolDescription {
+
+  private final String ringPath;
+  private final String ringId;
+
+  public SharedMemoryProtocolDescription(AdvertiseAddress address, String ringPath,
+      String ringId) {
+    super(ProtocolNames.SHMROS, address);
+    this.ringPath = ringPath;
+    this.ringId = ringId;
+  }
+
+  /**
+   * @return the path of the file backing the {@link SharedMemoryRing}
+   */
+  public String getRingPath() {
+    return ringPath;
+  }
+
+  /**
+   * @return the ID of the {@link SharedMemoryRing}
+   */
+  public String getRingId() {
+    return ringId;
+  }
+
+  @Override
+  public List<Object> toList() {
+    List<Object> list = Lists.newArrayList(super.toList());
+    list.add(ringPath);
+    list.add(ringId);
+    return list;
+  }
+
+  @Override
+  public String toString() {
+    return "Protocol<" + getName() + ", " + getAdverstiseAddress() + ", " + ringPath + ">";
+  }
+}
@@ -0,0 +1,373 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.shm;
+
+import com.google.common.base.Charsets;
+import com.google.common.base.Preconditions;
+import com.google.common.io.Files;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.EnumSet;
+import java.util.UUID;
+
+/**
+ * A ring buffer in a memory-mapped file that is written by a single publisher
+ * and read by any number of subscribers on the same host.
+ * <p>
+ * The ring does not contain any framing. The publisher tells subscribers the
+ * position and length of each message over the TCP connection that was used
+ * for the handshake. Before overwriting a region of the ring, the publisher
+ * advances the write limit stored in the header. A subscriber that finds the
+ * write limit more than one capacity ahead of the message it just copied knows
+ * that the message was overwritten while it was being read and drops it.
+ * <p>
+ * The ring is shared with other processes, so the Java memory model alone
+ * does not order accesses to it. The write limit is 8 byte aligned, which
+ * makes its accesses atomic on 64 bit JVMs, and fenced (see {@link #fence()}):
+ * the publisher's payload writes cannot become visible before the write limit
+ * that announces them, and the subscriber's payload reads complete before it
+ * checks the write limit again.
+ * <p>
+ * The backing file is only accessible by its owner. So, publishers and
+ * subscribers must run as the same user.
+ */
+public class SharedMemoryRing {
+
+  private static final boolean DEBUG = false;
+  private static final Log log = LogFactory.getLog(SharedMemoryRing.class);
+
+  private static final int MAGIC = 0x524f5352;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int CAPACITY_OFFSET = 4;
+  private static final int WRITE_LIMIT_OFFSET = 8;
+  private static final int ID_OFFSET = 16;
+  private static final int HEADER_LENGTH = 64;
+
+  /**
+   * Only accessed by {@link #fence()}.
+   */
+  private static volatile int fence;
+
+  /**
+   * Identifies this host, see {@link #getHostId()}.
+   */
+  private static final String HOST_ID = newHostId();
+
+  private final File file;
+  private final String id;
+  private final int capacity;
+  private final boolean owner;
+
+  private MappedByteBuffer mappedBuffer;
+  private long writePosition;
+  private boolean closed;
+
+  /**
+   * Orders all memory accesses before the call against all accesses after it,
+   * including those to the mapped ring.
+   * <p>
+   * Java 7 has no explicit fences. However, JVMs implement a volatile write
+   * followed by a volatile read with a full hardware fence.
+   */
+  private static void fence() {
+    fence = 0;
+    if (fence != 0) {
+      throw new IllegalStateException();
+    }
+  }
+
+  private static String newHostId() {
+    // The boot ID changes whenever the host reboots, which also clears
+    // /dev/shm.
+    File bootId = new File("/proc/sys/kernel/random/boot_id");
+    try {
+      if (bootId.isFile()) {
+        return Files.toString(bootId, Charsets.US_ASCII).trim();
+      }
+      return InetAddress.getLocalHost().getHostName();
+    } catch (IOException e) {
+      log.warn("Failed to determine host ID.", e);
+      return UUID.randomUUID().toString();
+    }
+  }
+
+  /**
+   * Publishers only offer a {@link SharedMemoryRing} to subscribers that send
+   * the same host ID. That way, no ring is created for remote subscribers.
+   * 
+   * @return an identifier that is the same for all processes on this host
+   */
+  public static String getHostId() {
+    return HOST_ID;
+  }
+
+  /**
+   * @return the directory in which new rings are created, preferring the
+   *         memory backed {@code /dev/shm} if it is available
+   */
+  public static File getDefaultDirectory() {
+    File directory = new File("/dev/shm");
+    if (directory.isDirectory() && directory.canWrite()) {
+      return directory;
+    }
+    return new File(System.getProperty("java.io.tmpdir"));
+  }
+
+  /**
+   * Creates a new ring that is owned (i.e. written and eventually deleted) by
+   * the caller.
+   * 
+   * @param directory
+   *          the directory to create the backing file in
+   * @param capacity
+   *          the capacity of the ring in bytes
+   * @return a new {@link SharedMemoryRing}
+   * @throws IOException
+   *           if the backing file cannot be created or mapped
+   */
+  public static SharedMemoryRing create(File directory, int capacity) throws IOException {
+    Preconditions.checkArgument(capacity > 0);
+    UUID uuid = UUID.randomUUID();
+    File file = new File(directory, "rosjava-" + uuid);
+    createPrivateFile(file);
+    file.deleteOnExit();
+    MappedByteBuffer mappedBuffer = map(file, HEADER_LENGTH + capacity, false);
+    mappedBuffer.putLong(ID_OFFSET, uuid.getMostSignificantBits());
+    mappedBuffer.putLong(ID_OFFSET + 8, uuid.getLeastSignificantBits());
+    mappedBuffer.putLong(WRITE_LIMIT_OFFSET, 0);
+    mappedBuffer.putInt(CAPACITY_OFFSET, capacity);
+    // The header must be complete before the magic number marks it as valid.
+    fence();
+    mappedBuffer.putInt(MAGIC_OFFSET, MAGIC);
+    if (DEBUG) {
+      log.info("Created shared memory ring: " + file);
+    }
+    return new SharedMemoryRing(file, uuid.toString(), capacity, mappedBuffer, true);
+  }
+
+  /**
+   * Opens an existing ring for reading.
+   * 
+   * @param file
+   *          the backing file of the ring
+   * @param id
+   *          the expected ID of the ring
+   * @return the opened {@link SharedMemoryRing}
+   * @throws IOException
+   *           if the file cannot be mapped or does not contain the expected
+   *           ring (e.g. because the publisher is on a different host)
+   */
+  public static SharedMemoryRing open(File file, String id) throws IOException {
+    if (!file.isFile()) {
+      throw new IOException("Shared memory ring does not exist: " + file);
+    }
+    MappedByteBuffer mappedBuffer = map(file, (int) file.length(), true);
+    if (mappedBuffer.capacity() < HEADER_LENGTH || mappedBuffer.getInt(MAGIC_OFFSET) != MAGIC) {
+      throw new IOException("Invalid shared memory ring: " + file);
+    }
+    fence();
+    UUID uuid =
+        new UUID(mappedBuffer.getLong(ID_OFFSET), mappedBuffer.getLong(ID_OFFSET + 8));
+    if (!uuid.toString().equals(id)) {
+      throw new IOException("Unexpected shared memory ring ID: " + uuid + " != " + id);
+    }
+    int capacity = mappedBuffer.getInt(CAPACITY_OFFSET);
+    if (capacity <= 0 || HEADER_LENGTH + capacity > mappedBuffer.capacity()) {
+      throw new IOException("Invalid shared memory ring capacity: " + capacity);
+    }
+    return new SharedMemoryRing(file, id, capacity, mappedBuffer, false);
+  }
+
+  /**
+   * Creates a new file that only its owner may read and write. Nothing is
+   * written to the file before its permissions are set.
+   */
+  private static void createPrivateFile(File file) throws IOException {
+    try {
+      java.nio.file.Files.createFile(file.toPath(), PosixFilePermissions
+          .asFileAttribute(EnumSet.of(PosixFilePermission.OWNER_READ,
+              PosixFilePermission.OWNER_WRITE)));
+      return;
+    } catch (UnsupportedOperationException e) {
+      // Not a POSIX file system.
+    }
+    if (!file.createNewFile()) {
+      throw new IOException("Shared memory ring already exists: " + file);
+    }
+    if (!file.setReadable(false, false) || !file.setWritable(false, false)
+        || !file.setReadable(true, true) || !file.setWritable(true, true)) {
+      file.delete();
+      throw new IOException("Failed to restrict access to shared memory ring: " + file);
+    }
+  }
+
+  private static MappedByteBuffer map(File file, int size, boolean readOnly) throws IOException {
+    RandomAccessFile randomAccessFile = new RandomAccessFile(file, readOnly ? "r" : "rw");
+    try {
+      // The mapping remains valid after the channel is closed.
+      MappedByteBuffer mappedBuffer =
+          randomAccessFile.getChannel().map(
+              readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, size);
+      mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+      return mappedBuffer;
+    } finally {
+      randomAccessFile.close();
+    }
+  }
+
+  private SharedMemoryRing(File file, String id, int capacity, MappedByteBuffer mappedBuffer,
+      boolean owner) {
+    this.file = file;
+    this.id = id;
+    this.capacity = capacity;
+    this.mappedBuffer = mappedBuffer;
+    this.owner = owner;
+    closed = false;
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  /**
+   * Copies a message into the ring. Only the owner of the ring may write to
+   * it.
+   * 
+   * @param message
+   *          the message to write, its reader index is not modified
+   * @return the position of the message in the ring
+   */
+  public synchronized long write(ChannelBuffer message) {
+    Preconditions.checkState(owner, "Only the owner of a ring may write to it.");
+    int length = message.readableBytes();
+    Preconditions.checkArgument(length <= capacity, "Message does not fit into ring.");
+    Preconditions.checkState(!closed, "Ring has been closed.");
+    long position = writePosition;
+    // Announce the region we are about to overwrite before touching it. The
+    // fence keeps the payload writes below from being reordered before the
+    // announcement.
+    mappedBuffer.putLong(WRITE_LIMIT_OFFSET, position + length);
+    fence();
+    int offset = (int) (position % capacity);
+    int firstLength = Math.min(length, capacity - offset);
+    ByteBuffer target = mappedBuffer.duplicate();
+    target.position(HEADER_LENGTH + offset);
+    target.put(message.toByteBuffer(message.readerIndex(), firstLength));
+    if (firstLength < length) {
+      target.position(HEADER_LENGTH);
+      target.put(message.toByteBuffer(message.readerIndex() + firstLength, length - firstLength));
+    }
+    writePosition = position + length;
+    return position;
+  }
+
+  /**
+   * Copies a message out of the ring.
+   * 
+   * @param position
+   *          the position of the message as returned by
+   *          {@link #write(ChannelBuffer)}
+   * @param length
+   *          the length of the message
+   * @return a new little endian {@link ChannelBuffer} containing the message,
+   *         or {@code null} if the message has already been overwritten
+   */
+  public synchronized ChannelBuffer read(long position, int length) {
+    if (closed || length < 0 || length > capacity || isOverwritten(position)) {
+      return null;
+    }
+    ChannelBuffer buffer = ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, length);
+    int offset = (int) (position % capacity);
+    int firstLength = Math.min(length, capacity - offset);
+    ByteBuffer source = mappedBuffer.duplicate();
+    source.position(HEADER_LENGTH + offset);
+    source.limit(HEADER_LENGTH + offset + firstLength);
+    buffer.writeBytes(source);
+    if (firstLength < length) {
+      source.limit(HEADER_LENGTH + length - firstLength);
+      source.position(HEADER_LENGTH);
+      buffer.writeBytes(source);
+    }
+    // The publisher may have lapped us while we were copying. The fence makes
+    // sure the copy is complete before the write limit is read again.
+    fence();
+    if (isOverwritten(position)) {
+      return null;
+    }
+    return buffer;
+  }
+
+  private boolean isOverwritten(long position) {
+    boolean overwritten = mappedBuffer.getLong(WRITE_LIMIT_OFFSET) - capacity > position;
+    // Payload reads that follow must not be reordered before the check.
+    fence();
+    return overwritten;
+  }
+
+  /**
+   * Releases the ring. Afterward, reads return {@code null} and writes fail.
+   * The file is unmapped once the garbage collector reclaims the mapping.
+   * <p>
+   * Calling this method more than once has no effect.
+   */
+  public synchronized void close() {
+    closed = true;
+    mappedBuffer = null;
+  }
+
+  /**
+   * Deletes the backing file if this ring is owned by the caller. Subscribers
+   * which have already mapped the ring are not affected.
+   */
+  public void delete() {
+    close();
+    if (owner && !file.delete()) {
+      log.warn("Failed to delete shared memory ring: " + file);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "SharedMemoryRing<" + file + ", " + capacity + ">";
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.tcp;
+
+import com.google.common.base.Preconditions;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+
+import java.nio.ByteOrder;
+
+/**
+ * Splits the received stream into frames that are prefixed with a four byte
+ * length field.
+ * <p>
+ * Unlike a cumulating frame decoder, the buffer for a frame is sized by its
+ * length field. This avoids repeatedly copying the cumulated data while
+ * multi-megabyte messages arrive. The length field is only trusted up to
+ * {@link #INITIAL_FRAME_CAPACITY} though. Beyond that, the buffer doubles as
+ * the data actually arrives so that a peer cannot make us allocate the maximum
+ * frame size by merely announcing it.
+ * <p>
+ * A frame that is longer than the maximum frame size (e.g. because of a
+ * corrupt length field) is never buffered. Instead, the connection is closed.
+ */
+public class BoundedFrameDecoder extends SimpleChannelUpstreamHandler {
+
+  private static final boolean DEBUG = false;
+  private static final Log log = LogFactory.getLog(BoundedFrameDecoder.class);
+
+  /**
+   * The same limit that roscpp applies to incoming messages.
+   */
+  public static final int DEFAULT_MAX_FRAME_SIZE = 1000000000;
+
+  /**
+   * The largest buffer that is allocated for a frame before its data arrives.
+   */
+  public static final int INITIAL_FRAME_CAPACITY = 1024 * 1024;
+
+  private static final int LENGTH_FIELD_SIZE = 4;
+
+  private final int maxFrameSize;
+  private final int initialFrameCapacity;
+
+  /**
+   * Holds the length field while it is split across reads.
+   */
+  private ChannelBuffer lengthField;
+
+  /**
+   * The partially received frame, or {@code null} if the next frame's length
+   * field has not been received yet.
+   */
+  private ChannelBuffer frame;
+
+  /**
+   * The length of the partially received frame.
+   */
+  private int frameLength;
+  private boolean discarding;
+
+  public BoundedFrameDecoder() {
+    this(DEFAULT_MAX_FRAME_SIZE);
+  }
+
+  /**
+   * @param maxFrameSize
+   *          the maximum number of bytes in a frame, excluding the length
+   *          field
+   */
+  public BoundedFrameDecoder(int maxFrameSize) {
+    this(maxFrameSize, INITIAL_FRAME_CAPACITY);
+  }
+
+  BoundedFrameDecoder(int maxFrameSize, int initialFrameCapacity) {
+    Preconditions.checkArgument(maxFrameSize >= 0, "Maximum frame size must be non-negative.");
+    Preconditions.checkArgument(initialFrameCapacity > 0,
+        "Initial frame capacity must be positive.");
+    this.maxFrameSize = maxFrameSize;
+    this.initialFrameCapacity = initialFrameCapacity;
+  }
+
+  @Override
+  public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+    if (!(e.getMessage() instanceof ChannelBuffer)) {
+      ctx.sendUpstream(e);
+      return;
+    }
+    ChannelBuffer input = (ChannelBuffer) e.getMessage();
+    while (!discarding && input.readable()) {
+      if (frame == null) {
+        int length;
+        if ((lengthField == null || !lengthField.readable())
+            && input.readableBytes() >= LENGTH_FIELD_SIZE) {
+          length = input.readInt();
+        } else {
+          if (lengthField == null) {
+            lengthField = ChannelBuffers.buffer(input.order(), LENGTH_FIELD_SIZE);
+          }
+          int available = Math.min(lengthField.writableBytes(), input.readableBytes());
+          input.readBytes(lengthField, available);
+          if (lengthField.writable()) {
+            return;
+          }
+          length = lengthField.readInt();
+          lengthField.clear();
+        }
+        if (length < 0 || length > maxFrameSize) {
+          discard(ctx, length);
+          return;
+        }
+        if (DEBUG) {
+          log.info(String.format("Receiving %d byte frame.", length));
+        }
+        frameLength = length;
+        frame = newFrameBuffer(ctx, input.order(), Math.min(length, initialFrameCapacity));
+      }
+      if (!frame.writable() && frame.writerIndex() < frameLength) {
+        growFrame(ctx);
+      }
+      input.readBytes(frame, Math.min(frame.writableBytes(), input.readableBytes()));
+      if (frame.writerIndex() == frameLength) {
+        ChannelBuffer completeFrame = frame;
+        frame = null;
+        Channels.fireMessageReceived(ctx, completeFrame, e.getRemoteAddress());
+        if (ctx.getPipeline().getContext(this) == null) {
+          // A handshake handler removed this decoder. Pass on what is left
+          // for whatever decodes the rest of the stream.
+          if (input.readable()) {
+            Channels.fireMessageReceived(ctx, input, e.getRemoteAddress());
+          }
+          return;
+        }
+      }
+    }
+  }
+
+  private ChannelBuffer newFrameBuffer(ChannelHandlerContext ctx, ByteOrder order, int capacity) {
+    return ctx.getChannel().getConfig().getBufferFactory().getBuffer(order, capacity);
+  }
+
+  /**
+   * Doubles the capacity of the partially received frame, but not beyond its
+   * length.
+   */
+  private void growFrame(ChannelHandlerContext ctx) {
+    int capacity = (int) Math.min((long) frame.capacity() * 2, frameLength);
+    ChannelBuffer grownFrame = newFrameBuffer(ctx, frame.order(), capacity);
+    grownFrame.writeBytes(frame);
+    frame = grownFrame;
+  }
+
+  private void discard(ChannelHandlerContext ctx, int length) {
+    discarding = true;
+    frame = null;
+    log.error(String.format(
+        "Closing connection %s: frame length %d exceeds the maximum frame size of %d bytes.",
+        ctx.getChannel(), length & 0xffffffffL, maxFrameSize));
+    ctx.getChannel().close();
+  }
+
+  /**
+   * @return the maximum number of bytes in a frame, excluding the length field
+   */
+  public int getMaxFrameSize() {
+    return maxFrameSize;
+  }
+}
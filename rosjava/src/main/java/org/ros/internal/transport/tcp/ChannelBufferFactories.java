@@ -0,0 +1,49 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.tcp;
+
+import org.jboss.netty.buffer.ChannelBufferFactory;
+import org.jboss.netty.buffer.DirectChannelBufferFactory;
+import org.jboss.netty.buffer.HeapChannelBufferFactory;
+
+import java.nio.ByteOrder;
+
+/**
+ * Provides the {@link ChannelBufferFactory}s used for TCPROS connections.
+ * <p>
+ * The direct {@link ChannelBufferFactory} allocates small buffers as slices
+ * of larger preallocated off-heap chunks. This keeps the cost of allocating
+ * direct memory low and avoids copying data between the heap and the socket.
+ */
+public class ChannelBufferFactories {
+
+  private ChannelBufferFactories() {
+    // Utility class.
+  }
+
+  /**
+   * @param direct
+   *          {@code true} to return a factory for direct (off-heap) buffers
+   * @return a little endian {@link ChannelBufferFactory}
+   */
+  public static ChannelBufferFactory get(boolean direct) {
+    if (direct) {
+      return DirectChannelBufferFactory.getInstance(ByteOrder.LITTLE_ENDIAN);
+    }
+    return HeapChannelBufferFactory.getInstance(ByteOrder.LITTLE_ENDIAN);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.tcp;
+
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
+import org.ros.internal.transport.UnownedExecutor;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Creates the {@link ChannelFactory} that a node shares between all of its
+ * {@link TcpClient}s.
+ * <p>
+ * Each {@link NioClientSocketChannelFactory} runs its own boss and worker
+ * selector loops on the {@link Executor}. Sharing one per node keeps the
+ * number of threads constant regardless of how many connections the node
+ * makes. The node owns the factory and must release it on shutdown.
+ */
+public class ClientChannelFactories {
+
+  /**
+   * The number of NIO worker threads per {@link ChannelFactory}.
+   */
+  public static final int DEFAULT_WORKER_COUNT = Runtime.getRuntime().availableProcessors();
+
+  private ClientChannelFactories() {
+    // Utility class.
+  }
+
+  /**
+   * @param executor
+   *          the {@link Executor} to run the selector loops on, it is not
+   *          terminated when the returned {@link ChannelFactory} is released
+   * @return a new {@link ChannelFactory} for client connections
+   */
+  public static ChannelFactory newDefault(Executor executor) {
+    Executor unownedExecutor = new UnownedExecutor(executor);
+    return new NioClientSocketChannelFactory(unownedExecutor, unownedExecutor,
+        DEFAULT_WORKER_COUNT);
+  }
+}
@@ -36,6 +36,10 @@ public class ConnectionTrackingChannelPipelineFactory implements ChannelPipeline
     this.connectionTrackingHandler = new ConnectionTrackingHandler(channelGroup);
   }
 
+  public ConnectionTrackingHandler getConnectionTrackingHandler() {
+    return connectionTrackingHandler;
+  }
+
   @Override
   public ChannelPipeline getPipeline() {
     ChannelPipeline pipeline = pipeline();
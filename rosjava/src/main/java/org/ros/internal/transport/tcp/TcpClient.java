@@ -23,20 +23,17 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.buffer.ChannelBuffer;
-import org.jboss.netty.buffer.ChannelBufferFactory;
-import org.jboss.netty.buffer.HeapChannelBufferFactory;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFactory;
 import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.channel.socket.nio.NioClientSocketChannelFactory;
 import org.ros.exception.RosRuntimeException;
+import org.ros.internal.transport.ConnectionClosedListener;
 
 import java.net.SocketAddress;
-import java.nio.ByteOrder;
 import java.util.List;
-import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -53,21 +50,31 @@ public class TcpClient {
 
   private final ChannelGroup channelGroup;
   private final ChannelFactory channelFactory;
-  private final ChannelBufferFactory channelBufferFactory;
   private final ClientBootstrap bootstrap;
   private final List<NamedChannelHandler> namedChannelHandlers;
-
-  private Channel channel;
-
-  public TcpClient(final ChannelGroup channelGroup, final Executor executor) {
+  private final List<ConnectionClosedListener> connectionClosedListeners;
+
+  private int maxFrameSize;
+  private volatile Channel channel;
+
+  /**
+   * @param channelGroup
+   *          the {@link ChannelGroup} to add the new connection's
+   *          {@link Channel} to
+   * @param channelFactory
+   *          the {@link ChannelFactory} to create the connection with, it is
+   *          not released by this {@link TcpClient}
+   */
+  public TcpClient(final ChannelGroup channelGroup, final ChannelFactory channelFactory) {
     this.channelGroup = channelGroup;
-    channelFactory = new NioClientSocketChannelFactory(executor, executor);
-    channelBufferFactory = new HeapChannelBufferFactory(ByteOrder.LITTLE_ENDIAN);
+    this.channelFactory = channelFactory;
     bootstrap = new ClientBootstrap(channelFactory);
-    bootstrap.setOption("bufferFactory", channelBufferFactory);
+    setDirectBuffers(false);
     setConnectionTimeout(DEFAULT_CONNECTION_TIMEOUT_DURATION, DEFAULT_CONNECTION_TIMEOUT_UNIT);
     setKeepAlive(DEFAULT_KEEP_ALIVE);
+    maxFrameSize = BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE;
     namedChannelHandlers = Lists.newArrayList();
+    connectionClosedListeners = Lists.newArrayList();
   }
 
   public void setConnectionTimeout(final long duration, final TimeUnit unit) {
@@ -78,6 +85,27 @@ public class TcpClient {
     bootstrap.setOption("keepAlive", value);
   }
 
+  /**
+   * Must be called before connecting.
+   * 
+   * @param direct
+   *          {@code true} to read into direct (off-heap) buffers
+   */
+  public void setDirectBuffers(final boolean direct) {
+    bootstrap.setOption("bufferFactory", ChannelBufferFactories.get(direct));
+  }
+
+  /**
+   * Must be called before connecting.
+   * 
+   * @param maxFrameSize
+   *          the connection is closed if a larger frame is received
+   */
+  public void setMaxFrameSize(final int maxFrameSize) {
+    Preconditions.checkArgument(maxFrameSize >= 0);
+    this.maxFrameSize = maxFrameSize;
+  }
+
   public void addNamedChannelHandler(final NamedChannelHandler namedChannelHandler) {
     namedChannelHandlers.add(namedChannelHandler);
   }
@@ -86,8 +114,50 @@ public class TcpClient {
     this.namedChannelHandlers.addAll(namedChannelHandlers);
   }
 
+  /**
+   * Must be called before connecting.
+   * 
+   * @param listener
+   *          the {@link ConnectionClosedListener} to notify when the
+   *          connection is closed
+   */
+  public void addConnectionClosedListener(final ConnectionClosedListener listener) {
+    connectionClosedListeners.add(listener);
+  }
+
+  /**
+   * Connects to a server.
+   * <p>
+   * This call blocks until the connection is established or fails.
+   * 
+   * @param connectionName
+   *          the name of the new connection
+   * @param socketAddress
+   *          the {@link SocketAddress} to connect to
+   */
   public void connect(final String connectionName, final SocketAddress socketAddress) {
-    final TcpClientPipelineFactory tcpClientPipelineFactory = new TcpClientPipelineFactory(channelGroup) {
+    final ChannelFuture future = connectAsync(connectionName, socketAddress).awaitUninterruptibly();
+    if (!future.isSuccess()) {
+      // We expect the first connection to succeed. If not, fail fast.
+      throw new RosRuntimeException("Connection exception: " + socketAddress, future.getCause());
+    }
+  }
+
+  /**
+   * Starts connecting to a server and returns immediately.
+   * 
+   * @param connectionName
+   *          the name of the new connection
+   * @param socketAddress
+   *          the {@link SocketAddress} to connect to
+   * @return a {@link ChannelFuture} that completes once the connection is
+   *         established, or fails if the connection cannot be established
+   *         within the connection timeout
+   */
+  public ChannelFuture connectAsync(final String connectionName,
+      final SocketAddress socketAddress) {
+    final TcpClientPipelineFactory tcpClientPipelineFactory =
+        new TcpClientPipelineFactory(channelGroup, maxFrameSize) {
       @Override
       public ChannelPipeline getPipeline() {
         final ChannelPipeline pipeline = super.getPipeline();
@@ -97,17 +167,23 @@ public class TcpClient {
         return pipeline;
       }
     };
+    for (final ConnectionClosedListener listener : connectionClosedListeners) {
+      tcpClientPipelineFactory.getConnectionTrackingHandler().addConnectionClosedListener(listener);
+    }
     bootstrap.setPipelineFactory(tcpClientPipelineFactory);
-    final ChannelFuture future = bootstrap.connect(socketAddress).awaitUninterruptibly();
-    if (future.isSuccess()) {
-      channel = future.getChannel();
-      if (DEBUG) {
-        log.info("Connected to: " + socketAddress);
-      }
-    } else {
-      // We expect the first connection to succeed. If not, fail fast.
-      throw new RosRuntimeException("Connection exception: " + socketAddress, future.getCause());
+    final ChannelFuture future = bootstrap.connect(socketAddress);
+    channel = future.getChannel();
+    if (DEBUG) {
+      future.addListener(new ChannelFutureListener() {
+        @Override
+        public void operationComplete(ChannelFuture future) {
+          if (future.isSuccess()) {
+            log.info("Connected to: " + socketAddress);
+          }
+        }
+      });
     }
+    return future;
   }
 
   public Channel getChannel() {
@@ -16,16 +16,24 @@
 
 package org.ros.internal.transport.tcp;
 
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Lists;
 
 import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.group.ChannelGroup;
 import org.jboss.netty.channel.group.DefaultChannelGroup;
+import org.ros.concurrent.Subsystem;
+import org.ros.internal.transport.ConnectionClosedListener;
 
 import java.net.SocketAddress;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author damonkohler@google.com (Damon Kohler)
@@ -35,13 +43,77 @@ public class TcpClientManager {
   private final ChannelGroup channelGroup;
   private final Collection<TcpClient> tcpClients;
   private final List<NamedChannelHandler> namedChannelHandlers;
-  private final Executor executor;
+  private final List<ConnectionClosedListener> connectionClosedListeners;
+  private final ChannelFactory channelFactory;
+  private final boolean ownsChannelFactory;
 
+  private volatile long connectionTimeoutNanos;
+  private volatile boolean directBuffers;
+  private volatile int maxFrameSize;
+
+  /**
+   * Creates a {@link TcpClientManager} with its own {@link ChannelFactory}
+   * which is released on {@link #shutdown()}.
+   * 
+   * @param executor
+   *          the {@link Executor} to run the connections' I/O on
+   */
   public TcpClientManager(Executor executor) {
-    this.executor = executor;
+    this(ClientChannelFactories.newDefault(Subsystem.TRANSPORT.getExecutor(executor)), true);
+  }
+
+  /**
+   * @param channelFactory
+   *          the node's shared {@link ChannelFactory}, it is not released by
+   *          this {@link TcpClientManager}
+   */
+  public TcpClientManager(ChannelFactory channelFactory) {
+    this(channelFactory, false);
+  }
+
+  private TcpClientManager(ChannelFactory channelFactory, boolean ownsChannelFactory) {
+    this.channelFactory = channelFactory;
+    this.ownsChannelFactory = ownsChannelFactory;
     channelGroup = new DefaultChannelGroup();
-    tcpClients = Lists.newArrayList();
+    tcpClients = new CopyOnWriteArrayList<TcpClient>();
     namedChannelHandlers = Lists.newArrayList();
+    connectionClosedListeners = new CopyOnWriteArrayList<ConnectionClosedListener>();
+    connectionTimeoutNanos = 0;
+    directBuffers = false;
+    maxFrameSize = BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE;
+  }
+
+  /**
+   * Only affects connections that are started afterwards.
+   * 
+   * @param timeout
+   *          how long to wait for a TCP connection to be established
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   */
+  public void setConnectionTimeout(long timeout, TimeUnit unit) {
+    connectionTimeoutNanos = unit.toNanos(timeout);
+  }
+
+  /**
+   * Only affects connections that are made afterwards.
+   * 
+   * @param directBuffers
+   *          {@code true} to read into direct (off-heap) buffers
+   */
+  public void setDirectBuffers(boolean directBuffers) {
+    this.directBuffers = directBuffers;
+  }
+
+  /**
+   * Only affects connections that are made afterwards.
+   * 
+   * @param maxFrameSize
+   *          connections that receive a larger frame are closed
+   */
+  public void setMaxFrameSize(int maxFrameSize) {
+    Preconditions.checkArgument(maxFrameSize >= 0);
+    this.maxFrameSize = maxFrameSize;
   }
 
   public void addNamedChannelHandler(NamedChannelHandler namedChannelHandler) {
@@ -52,6 +124,17 @@ public class TcpClientManager {
     this.namedChannelHandlers.addAll(namedChannelHandlers);
   }
 
+  /**
+   * Only affects connections that are started afterwards.
+   * 
+   * @param listener
+   *          the {@link ConnectionClosedListener} to notify whenever one of
+   *          the connections is closed
+   */
+  public void addConnectionClosedListener(ConnectionClosedListener listener) {
+    connectionClosedListeners.add(listener);
+  }
+
   /**
    * Connects to a server.
    * <p>
@@ -64,13 +147,90 @@ public class TcpClientManager {
    * @return a new {@link TcpClient}
    */
   public TcpClient connect(String connectionName, SocketAddress socketAddress) {
-    TcpClient tcpClient = new TcpClient(channelGroup, executor);
-    tcpClient.addAllNamedChannelHandlers(namedChannelHandlers);
+    return connect(connectionName, socketAddress, namedChannelHandlers);
+  }
+
+  /**
+   * Connects to a server using a specific set of {@link NamedChannelHandler}s
+   * instead of the ones added to this {@link TcpClientManager}.
+   * <p>
+   * This call blocks until the connection is established or fails.
+   * 
+   * @param connectionName
+   *          the name of the new connection
+   * @param socketAddress
+   *          the {@link SocketAddress} to connect to
+   * @param namedChannelHandlers
+   *          the {@link NamedChannelHandler}s to add to the new connection's
+   *          pipeline
+   * @return a new {@link TcpClient}
+   */
+  public TcpClient connect(String connectionName, SocketAddress socketAddress,
+      List<NamedChannelHandler> namedChannelHandlers) {
+    TcpClient tcpClient = newTcpClient(namedChannelHandlers);
     tcpClient.connect(connectionName, socketAddress);
     tcpClients.add(tcpClient);
     return tcpClient;
   }
 
+  /**
+   * Starts connecting to a server and returns immediately.
+   * 
+   * @param connectionName
+   *          the name of the new connection
+   * @param socketAddress
+   *          the {@link SocketAddress} to connect to
+   * @return a {@link ChannelFuture} that completes once the connection is
+   *         established or has failed
+   */
+  public ChannelFuture connectAsync(String connectionName, SocketAddress socketAddress) {
+    return connectAsync(connectionName, socketAddress, namedChannelHandlers);
+  }
+
+  /**
+   * Starts connecting to a server using a specific set of
+   * {@link NamedChannelHandler}s instead of the ones added to this
+   * {@link TcpClientManager} and returns immediately.
+   * 
+   * @param connectionName
+   *          the name of the new connection
+   * @param socketAddress
+   *          the {@link SocketAddress} to connect to
+   * @param namedChannelHandlers
+   *          the {@link NamedChannelHandler}s to add to the new connection's
+   *          pipeline
+   * @return a {@link ChannelFuture} that completes once the connection is
+   *         established or has failed
+   */
+  public ChannelFuture connectAsync(String connectionName, SocketAddress socketAddress,
+      List<NamedChannelHandler> namedChannelHandlers) {
+    final TcpClient tcpClient = newTcpClient(namedChannelHandlers);
+    ChannelFuture future = tcpClient.connectAsync(connectionName, socketAddress);
+    tcpClients.add(tcpClient);
+    future.getChannel().getCloseFuture().addListener(new ChannelFutureListener() {
+      @Override
+      public void operationComplete(ChannelFuture future) {
+        tcpClients.remove(tcpClient);
+      }
+    });
+    return future;
+  }
+
+  private TcpClient newTcpClient(List<NamedChannelHandler> namedChannelHandlers) {
+    TcpClient tcpClient = new TcpClient(channelGroup, channelFactory);
+    tcpClient.addAllNamedChannelHandlers(namedChannelHandlers);
+    for (ConnectionClosedListener listener : connectionClosedListeners) {
+      tcpClient.addConnectionClosedListener(listener);
+    }
+    long connectionTimeoutNanos = this.connectionTimeoutNanos;
+    if (connectionTimeoutNanos > 0) {
+      tcpClient.setConnectionTimeout(connectionTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+    tcpClient.setDirectBuffers(directBuffers);
+    tcpClient.setMaxFrameSize(maxFrameSize);
+    return tcpClient;
+  }
+
   /**
    * Sets all {@link TcpClientConnection}s as non-persistent and closes all open
    * {@link Channel}s.
@@ -78,9 +238,11 @@ public class TcpClientManager {
   public void shutdown() {
     channelGroup.close().awaitUninterruptibly();
     tcpClients.clear();
-    // We don't call channelFactory.releaseExternalResources() or
-    // bootstrap.releaseExternalResources() since the only external resource is
-    // the ExecutorService which must remain in the control of the overall
-    // application.
+    // A shared channel factory is released by the node that created it. The
+    // executor itself remains in the control of the overall application
+    // either way.
+    if (ownsChannelFactory) {
+      channelFactory.releaseExternalResources();
+    }
   }
 }
@@ -18,7 +18,6 @@ package org.ros.internal.transport.tcp;
 
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.handler.codec.frame.LengthFieldBasedFrameDecoder;
 import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
 
 /**
@@ -29,16 +28,26 @@ public class TcpClientPipelineFactory extends ConnectionTrackingChannelPipelineF
   public static final String LENGTH_FIELD_BASED_FRAME_DECODER = "LengthFieldBasedFrameDecoder";
   public static final String LENGTH_FIELD_PREPENDER = "LengthFieldPrepender";
 
+  private final int maxFrameSize;
+
   public TcpClientPipelineFactory(ChannelGroup channelGroup) {
+    this(channelGroup, BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE);
+  }
+
+  /**
+   * @param maxFrameSize
+   *          connections that receive a larger frame are closed
+   */
+  public TcpClientPipelineFactory(ChannelGroup channelGroup, int maxFrameSize) {
     super(channelGroup);
+    this.maxFrameSize = maxFrameSize;
   }
 
   @Override
   public ChannelPipeline getPipeline() {
     ChannelPipeline pipeline = super.getPipeline();
     pipeline.addLast(LENGTH_FIELD_PREPENDER, new LengthFieldPrepender(4));
-    pipeline.addLast(LENGTH_FIELD_BASED_FRAME_DECODER, new LengthFieldBasedFrameDecoder(
-        Integer.MAX_VALUE, 0, 4, 0, 4));
+    pipeline.addLast(LENGTH_FIELD_BASED_FRAME_DECODER, new BoundedFrameDecoder(maxFrameSize));
     return pipeline;
   }
 }
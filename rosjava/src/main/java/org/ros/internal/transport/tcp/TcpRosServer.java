@@ -21,7 +21,6 @@ import com.google.common.base.Preconditions;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.bootstrap.ServerBootstrap;
-import org.jboss.netty.buffer.HeapChannelBufferFactory;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFactory;
 import org.jboss.netty.channel.group.ChannelGroup;
@@ -29,12 +28,13 @@ import org.jboss.netty.channel.group.DefaultChannelGroup;
 import org.jboss.netty.channel.socket.nio.NioServerSocketChannelFactory;
 import org.ros.address.AdvertiseAddress;
 import org.ros.address.BindAddress;
+import org.ros.concurrent.Subsystem;
 import org.ros.internal.node.service.ServiceManager;
 import org.ros.internal.node.topic.TopicParticipantManager;
 
 import java.net.InetSocketAddress;
-import java.nio.ByteOrder;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
 /**
@@ -58,6 +58,8 @@ public class TcpRosServer {
   private final ServiceManager serviceManager;
   private final ScheduledExecutorService executorService;
 
+  private boolean directBuffers;
+  private int maxFrameSize;
   private ChannelFactory channelFactory;
   private ServerBootstrap bootstrap;
   private Channel outgoingChannel;
@@ -71,18 +73,43 @@ public class TcpRosServer {
     this.topicParticipantManager = topicParticipantManager;
     this.serviceManager = serviceManager;
     this.executorService = executorService;
+    maxFrameSize = BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE;
+  }
+
+  /**
+   * Must be called before {@link #start()}.
+   * 
+   * @param directBuffers
+   *          {@code true} to read incoming connections into direct (off-heap)
+   *          buffers
+   */
+  public void setDirectBuffers(boolean directBuffers) {
+    Preconditions.checkState(outgoingChannel == null);
+    this.directBuffers = directBuffers;
+  }
+
+  /**
+   * Must be called before {@link #start()}.
+   * 
+   * @param maxFrameSize
+   *          incoming connections that send a larger frame are closed
+   */
+  public void setMaxFrameSize(int maxFrameSize) {
+    Preconditions.checkState(outgoingChannel == null);
+    Preconditions.checkArgument(maxFrameSize >= 0);
+    this.maxFrameSize = maxFrameSize;
   }
 
   public void start() {
     Preconditions.checkState(outgoingChannel == null);
-    channelFactory = new NioServerSocketChannelFactory(executorService, executorService);
+    Executor executor = Subsystem.TRANSPORT.getExecutor(executorService);
+    channelFactory = new NioServerSocketChannelFactory(executor, executor);
     bootstrap = new ServerBootstrap(channelFactory);
-    bootstrap.setOption("child.bufferFactory",
-        new HeapChannelBufferFactory(ByteOrder.LITTLE_ENDIAN));
+    bootstrap.setOption("child.bufferFactory", ChannelBufferFactories.get(directBuffers));
     bootstrap.setOption("child.keepAlive", true);
     incomingChannelGroup = new DefaultChannelGroup();
     bootstrap.setPipelineFactory(new TcpServerPipelineFactory(incomingChannelGroup,
-        topicParticipantManager, serviceManager));
+        topicParticipantManager, serviceManager, maxFrameSize));
 
     outgoingChannel = bootstrap.bind(bindAddress.toInetSocketAddress());
     advertiseAddress.setPortCallable(new Callable<Integer>() {
@@ -105,8 +105,15 @@ public class TcpServerHandshakeHandler extends SimpleChannelHandler {
       throw new RosRuntimeException(future.getCause());
     }
     String nodeName = incomingConnectionHeader.getField(ConnectionHeaderFields.CALLER_ID);
-    publisher.addSubscriber(new SubscriberIdentifier(NodeIdentifier.forName(nodeName),
-        new TopicIdentifier(topicName)), channel);
+    SubscriberIdentifier subscriberIdentifier =
+        new SubscriberIdentifier(NodeIdentifier.forName(nodeName), new TopicIdentifier(topicName));
+    String ringId = incomingConnectionHeader.getField(ConnectionHeaderFields.SHM_RING);
+    if (ringId != null && publisher.hasSharedMemoryRing(ringId)) {
+      publisher.addSharedMemorySubscriber(subscriberIdentifier, channel);
+    } else {
+      publisher.addSubscriber(subscriberIdentifier, channel,
+          publisher.negotiatesCompression(incomingConnectionHeader));
+    }
 
     // Once the handshake is complete, there will be nothing incoming on the
     // channel. So, we replace the handshake handler with a handler which will
@@ -18,7 +18,6 @@ package org.ros.internal.transport.tcp;
 
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.group.ChannelGroup;
-import org.jboss.netty.handler.codec.frame.LengthFieldBasedFrameDecoder;
 import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
 import org.ros.internal.node.service.ServiceManager;
 import org.ros.internal.node.topic.TopicParticipantManager;
@@ -34,20 +33,32 @@ public class TcpServerPipelineFactory extends ConnectionTrackingChannelPipelineF
 
   private final TopicParticipantManager topicParticipantManager;
   private final ServiceManager serviceManager;
+  private final int maxFrameSize;
 
   public TcpServerPipelineFactory(ChannelGroup channelGroup,
       TopicParticipantManager topicParticipantManager, ServiceManager serviceManager) {
+    this(channelGroup, topicParticipantManager, serviceManager,
+        BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE);
+  }
+
+  /**
+   * @param maxFrameSize
+   *          incoming connections that send a larger frame are closed
+   */
+  public TcpServerPipelineFactory(ChannelGroup channelGroup,
+      TopicParticipantManager topicParticipantManager, ServiceManager serviceManager,
+      int maxFrameSize) {
     super(channelGroup);
     this.topicParticipantManager = topicParticipantManager;
     this.serviceManager = serviceManager;
+    this.maxFrameSize = maxFrameSize;
   }
 
   @Override
   public ChannelPipeline getPipeline() {
     ChannelPipeline pipeline = super.getPipeline();
     pipeline.addLast(LENGTH_FIELD_PREPENDER, new LengthFieldPrepender(4));
-    pipeline.addLast(LENGTH_FIELD_BASED_FRAME_DECODER, new LengthFieldBasedFrameDecoder(
-        Integer.MAX_VALUE, 0, 4, 0, 4));
+    pipeline.addLast(LENGTH_FIELD_BASED_FRAME_DECODER, new BoundedFrameDecoder(maxFrameSize));
     pipeline.addLast(HANDSHAKE_HANDLER, new TcpServerHandshakeHandler(topicParticipantManager,
         serviceManager));
     return pipeline;
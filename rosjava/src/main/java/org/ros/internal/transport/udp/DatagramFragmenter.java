@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Splits serialized messages into UDPROS datagrams.
+ * <p>
+ * Like TCPROS, the message is prefixed with its 4 byte length. The result is
+ * cut into blocks that fit into the maximum datagram size after adding a
+ * {@link DatagramHeader} to each of them. roscpp also reads the length before
+ * the message body on UDPROS connections, so the prefix is required for
+ * interoperability.
+ */
+public class DatagramFragmenter {
+
+  private static final int LENGTH_FIELD_LENGTH = 4;
+
+  private DatagramFragmenter() {
+    // Utility class.
+  }
+
+  /**
+   * @param maxDatagramSize
+   *          the maximum size of a datagram in bytes
+   * @return {@code true} if a datagram of the given size can carry at least
+   *         one byte of payload
+   */
+  public static boolean isValidMaxDatagramSize(int maxDatagramSize) {
+    return maxDatagramSize > DatagramHeader.LENGTH + LENGTH_FIELD_LENGTH;
+  }
+
+  /**
+   * @param connectionId
+   *          the ID of the connection the datagrams are sent over
+   * @param messageId
+   *          the ID of the message, only the least significant byte is used
+   * @param message
+   *          the serialized message, its reader index is not modified
+   * @param maxDatagramSize
+   *          the maximum size of each datagram including its header
+   * @return the datagrams to send in order, or an empty {@link List} if the
+   *         message is too large to be sent
+   */
+  public static List<ChannelBuffer> fragment(int connectionId, int messageId,
+      ChannelBuffer message, int maxDatagramSize) {
+    Preconditions.checkArgument(isValidMaxDatagramSize(maxDatagramSize),
+        "Invalid maximum datagram size: " + maxDatagramSize);
+    int messageLength = message.readableBytes();
+    int payloadLength = messageLength + LENGTH_FIELD_LENGTH;
+    int blockSize = maxDatagramSize - DatagramHeader.LENGTH;
+    int numberOfBlocks = (payloadLength + blockSize - 1) / blockSize;
+    List<ChannelBuffer> datagrams = Lists.newArrayListWithCapacity(numberOfBlocks);
+    if (numberOfBlocks > DatagramHeader.MAX_BLOCKS) {
+      return datagrams;
+    }
+    int readerIndex = message.readerIndex();
+    for (int block = 0; block < numberOfBlocks; block++) {
+      int blockStart = block * blockSize;
+      int blockLength = Math.min(blockSize, payloadLength - blockStart);
+      ChannelBuffer datagram =
+          ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, DatagramHeader.LENGTH + blockLength);
+      if (block == 0) {
+        new DatagramHeader(connectionId, DatagramHeader.OP_DATA0, messageId & 0xff,
+            numberOfBlocks).encode(datagram);
+        datagram.writeInt(messageLength);
+        datagram.writeBytes(message, readerIndex, blockLength - LENGTH_FIELD_LENGTH);
+      } else {
+        new DatagramHeader(connectionId, DatagramHeader.OP_DATAN, messageId & 0xff, block)
+            .encode(datagram);
+        datagram.writeBytes(message, readerIndex + blockStart - LENGTH_FIELD_LENGTH, blockLength);
+      }
+      datagrams.add(datagram);
+    }
+    return datagrams;
+  }
+}
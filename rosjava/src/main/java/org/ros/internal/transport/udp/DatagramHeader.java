@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+/**
+ * The header which prefixes every UDPROS datagram.
+ * <p>
+ * The header consists of a 4 byte connection ID, a 1 byte op code, a 1 byte
+ * message ID and a 2 byte block number. The first datagram of a message
+ * ({@link #OP_DATA0}) carries the total number of blocks in its block field,
+ * all following datagrams ({@link #OP_DATAN}) carry their block index.
+ */
+public class DatagramHeader {
+
+  /**
+   * The length of the header in bytes.
+   */
+  public static final int LENGTH = 8;
+
+  /**
+   * The maximum number of blocks (i.e. datagrams) a single message can be
+   * split into.
+   */
+  public static final int MAX_BLOCKS = 0xffff;
+
+  public static final int OP_DATA0 = 0;
+  public static final int OP_DATAN = 1;
+
+  /**
+   * Sent by a subscriber to tell the publisher to stop sending on the
+   * connection.
+   */
+  public static final int OP_ERR = 3;
+
+  private final int connectionId;
+  private final int opCode;
+  private final int messageId;
+  private final int block;
+
+  /**
+   * Reads a {@link DatagramHeader} from the beginning of a datagram.
+   * 
+   * @param buffer
+   *          the little endian datagram {@link ChannelBuffer}, its reader index
+   *          is advanced past the header
+   * @return the decoded {@link DatagramHeader}
+   */
+  public static DatagramHeader decode(ChannelBuffer buffer) {
+    int connectionId = buffer.readInt();
+    int opCode = buffer.readUnsignedByte();
+    int messageId = buffer.readUnsignedByte();
+    int block = buffer.readUnsignedShort();
+    return new DatagramHeader(connectionId, opCode, messageId, block);
+  }
+
+  public DatagramHeader(int connectionId, int opCode, int messageId, int block) {
+    this.connectionId = connectionId;
+    this.opCode = opCode;
+    this.messageId = messageId;
+    this.block = block;
+  }
+
+  /**
+   * @param buffer
+   *          the little endian {@link ChannelBuffer} to write the header to
+   */
+  public void encode(ChannelBuffer buffer) {
+    buffer.writeInt(connectionId);
+    buffer.writeByte(opCode);
+    buffer.writeByte(messageId);
+    buffer.writeShort(block);
+  }
+
+  public int getConnectionId() {
+    return connectionId;
+  }
+
+  public int getOpCode() {
+    return opCode;
+  }
+
+  public int getMessageId() {
+    return messageId;
+  }
+
+  public int getBlock() {
+    return block;
+  }
+
+  @Override
+  public String toString() {
+    return "DatagramHeader<" + connectionId + ", " + opCode + ", " + messageId + ", " + block + ">";
+  }
+}
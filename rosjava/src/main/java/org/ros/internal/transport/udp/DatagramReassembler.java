@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+
+import java.net.SocketAddress;
+import java.nio.ByteOrder;
+
+/**
+ * Reassembles UDPROS datagrams into complete messages.
+ * <p>
+ * Complete messages are passed upstream without their length prefix, exactly
+ * like the frames produced by the TCPROS pipeline. Datagrams are attributed to
+ * a connection by their sender address and connection ID. Note that a
+ * publisher may start sending before the subscriber has received the
+ * connection ID (e.g. latched messages), so datagrams for unknown connections
+ * are accepted as well.
+ * <p>
+ * Blocks are expected to arrive in order. If a block is lost or reordered, the
+ * partially received message is dropped. All state is only accessed by the
+ * I/O thread of the datagram channel.
+ */
+public class DatagramReassembler extends SimpleChannelUpstreamHandler {
+
+  private static final boolean DEBUG = false;
+  private static final Log log = LogFactory.getLog(DatagramReassembler.class);
+
+  private static final class PartialMessage {
+
+    private final int messageId;
+    private final int numberOfBlocks;
+    private final ChannelBuffer buffer;
+
+    private int nextBlock;
+
+    public PartialMessage(int messageId, int numberOfBlocks, ChannelBuffer firstBlock) {
+      this.messageId = messageId;
+      this.numberOfBlocks = numberOfBlocks;
+      // All blocks but the last one are the same size as the first block.
+      buffer =
+          ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN,
+              numberOfBlocks * firstBlock.readableBytes());
+      buffer.writeBytes(firstBlock);
+      nextBlock = 1;
+    }
+  }
+
+  private final Table<SocketAddress, Integer, PartialMessage> partialMessages;
+
+  public DatagramReassembler() {
+    partialMessages = HashBasedTable.create();
+  }
+
+  @Override
+  public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) throws Exception {
+    ChannelBuffer datagram = (ChannelBuffer) e.getMessage();
+    SocketAddress remoteAddress = e.getRemoteAddress();
+    if (datagram.readableBytes() < DatagramHeader.LENGTH) {
+      if (DEBUG) {
+        log.info("Ignoring truncated datagram from: " + remoteAddress);
+      }
+      return;
+    }
+    DatagramHeader header = DatagramHeader.decode(datagram);
+    int connectionId = header.getConnectionId();
+    if (header.getOpCode() == DatagramHeader.OP_DATA0) {
+      // A new message always supersedes any partially received one.
+      partialMessages.remove(remoteAddress, connectionId);
+      if (header.getBlock() <= 1) {
+        fireMessageReceived(ctx, datagram, remoteAddress);
+      } else {
+        partialMessages.put(remoteAddress, connectionId,
+            new PartialMessage(header.getMessageId(), header.getBlock(), datagram));
+      }
+    } else if (header.getOpCode() == DatagramHeader.OP_DATAN) {
+      PartialMessage partialMessage = partialMessages.get(remoteAddress, connectionId);
+      if (partialMessage == null) {
+        return;
+      }
+      if (partialMessage.messageId != header.getMessageId()
+          || partialMessage.nextBlock != header.getBlock()
+          || partialMessage.buffer.writableBytes() < datagram.readableBytes()) {
+        if (DEBUG) {
+          log.info("Dropping incomplete message after unexpected datagram: " + header);
+        }
+        partialMessages.remove(remoteAddress, connectionId);
+        return;
+      }
+      partialMessage.buffer.writeBytes(datagram);
+      partialMessage.nextBlock++;
+      if (partialMessage.nextBlock == partialMessage.numberOfBlocks) {
+        partialMessages.remove(remoteAddress, connectionId);
+        fireMessageReceived(ctx, partialMessage.buffer, remoteAddress);
+      }
+    } else if (DEBUG) {
+      log.info("Ignoring datagram with unknown op code: " + header);
+    }
+  }
+
+  private void fireMessageReceived(ChannelHandlerContext ctx, ChannelBuffer payload,
+      SocketAddress remoteAddress) {
+    if (payload.readableBytes() < 4) {
+      return;
+    }
+    int length = payload.readInt();
+    if (length < 0 || length > payload.readableBytes()) {
+      if (DEBUG) {
+        log.info("Dropping message with invalid length: " + length);
+      }
+      return;
+    }
+    Channels.fireMessageReceived(ctx, payload.readSlice(length), remoteAddress);
+  }
+}
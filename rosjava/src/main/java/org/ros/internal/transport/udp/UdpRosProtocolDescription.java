@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import com.google.common.collect.Lists;
+
+import org.ros.address.AdvertiseAddress;
+import org.ros.internal.transport.ProtocolDescription;
+import org.ros.internal.transport.ProtocolNames;
+
+import java.util.List;
+
+/**
+ * Describes a UDPROS connection selected by a publisher.
+ * <p>
+ * The list form is {@code [UDPROS, host, port, connection ID, maximum datagram
+ * size, connection header]} where the connection header is the publisher's
+ * encoded handshake header.
+ */
+public class UdpRosProtocolDescription extends ProtocolDescription {
+
+  private final int connectionId;
+  private final int maxDatagramSize;
+  private final byte[] connectionHeader;
+
+  public UdpRosProtocolDescription(AdvertiseAddress address, int connectionId,
+      int maxDatagramSize, byte[] connectionHeader) {
+    super(ProtocolNames.UDPROS, address);
+    this.connectionId = connectionId;
+    this.maxDatagramSize = maxDatagramSize;
+    this.connectionHeader = connectionHeader;
+  }
+
+  /**
+   * @return the ID the publisher will put in the header of every datagram
+   *         sent over this connection
+   */
+  public int getConnectionId() {
+    return connectionId;
+  }
+
+  /**
+   * @return the maximum size of datagrams sent over this connection
+   */
+  public int getMaxDatagramSize() {
+    return maxDatagramSize;
+  }
+
+  /**
+   * @return the encoded connection header of the publisher
+   */
+  public byte[] getConnectionHeader() {
+    return connectionHeader;
+  }
+
+  @Override
+  public List<Object> toList() {
+    List<Object> list = Lists.newArrayList(super.toList());
+    list.add(connectionId);
+    list.add(maxDatagramSize);
+    list.add(connectionHeader);
+    return list;
+  }
+
+  @Override
+  public String toString() {
+    return "Protocol<" + getName() + ", " + getAdverstiseAddress() + ", " + connectionId + ">";
+  }
+}
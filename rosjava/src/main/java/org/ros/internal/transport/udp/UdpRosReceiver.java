@@ -0,0 +1,193 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Table;
+
+import org.jboss.netty.bootstrap.ConnectionlessBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.buffer.HeapChannelBufferFactory;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.FixedReceiveBufferSizePredictorFactory;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.socket.nio.NioDatagramChannelFactory;
+import org.ros.concurrent.Subsystem;
+import org.ros.internal.transport.UnownedExecutor;
+import org.ros.internal.transport.tcp.NamedChannelHandler;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Receives messages from UDPROS publishers.
+ * <p>
+ * A single socket is shared by all publishers of a subscriber. Reassembled
+ * messages are passed on to the supplied {@link NamedChannelHandler} just
+ * like frames received over TCPROS.
+ * <p>
+ * Publishers keep sending until they are told otherwise. So, closing a
+ * connection sends an {@link DatagramHeader#OP_ERR} datagram back to the
+ * publisher. Connection IDs are only unique per publisher. So, like the
+ * {@link DatagramReassembler}, connections are told apart by the publisher's
+ * address as well.
+ */
+public class UdpRosReceiver {
+
+  /**
+   * The size of the socket receive buffer. Fragmented messages arrive in
+   * bursts, so this is considerably larger than a single datagram.
+   */
+  private static final int RECEIVE_BUFFER_SIZE = 1024 * 1024;
+
+  private final ChannelFactory channelFactory;
+  private final Channel channel;
+
+  /**
+   * The address each connection's datagrams were last received from, by
+   * connection ID and publisher host.
+   */
+  private final Table<Integer, InetAddress, InetSocketAddress> publisherAddresses;
+  private final Object mutex;
+
+  /**
+   * @param messageReceiver
+   *          receives reassembled messages
+   * @param maxDatagramSize
+   *          the maximum size of datagrams that will be received
+   * @param executorService
+   *          the {@link ExecutorService} for the I/O thread
+   */
+  public UdpRosReceiver(final NamedChannelHandler messageReceiver, int maxDatagramSize,
+      ExecutorService executorService) {
+    Preconditions.checkArgument(DatagramFragmenter.isValidMaxDatagramSize(maxDatagramSize),
+        "Invalid maximum datagram size: " + maxDatagramSize);
+    final DatagramReassembler datagramReassembler = new DatagramReassembler();
+    publisherAddresses = HashBasedTable.create();
+    mutex = new Object();
+    channelFactory =
+        new NioDatagramChannelFactory(new UnownedExecutor(
+            Subsystem.TRANSPORT.getExecutor(executorService)), 1);
+    ConnectionlessBootstrap bootstrap = new ConnectionlessBootstrap(channelFactory);
+    bootstrap.setOption("bufferFactory", new HeapChannelBufferFactory(ByteOrder.LITTLE_ENDIAN));
+    bootstrap.setOption("receiveBufferSize", RECEIVE_BUFFER_SIZE);
+    bootstrap.setOption("receiveBufferSizePredictorFactory",
+        new FixedReceiveBufferSizePredictorFactory(maxDatagramSize));
+    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+      @Override
+      public ChannelPipeline getPipeline() throws Exception {
+        ChannelPipeline pipeline = Channels.pipeline();
+        pipeline.addLast("PublisherAddressTracker", new SimpleChannelUpstreamHandler() {
+          @Override
+          public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+            ChannelBuffer datagram = (ChannelBuffer) e.getMessage();
+            if (datagram.readableBytes() >= DatagramHeader.LENGTH) {
+              InetSocketAddress remoteAddress = (InetSocketAddress) e.getRemoteAddress();
+              synchronized (mutex) {
+                publisherAddresses.put(datagram.getInt(datagram.readerIndex()),
+                    remoteAddress.getAddress(), remoteAddress);
+              }
+            }
+            ctx.sendUpstream(e);
+          }
+        });
+        pipeline.addLast("DatagramReassembler", datagramReassembler);
+        pipeline.addLast(messageReceiver.getName(), messageReceiver);
+        return pipeline;
+      }
+    });
+    channel = bootstrap.bind(new InetSocketAddress(0));
+  }
+
+  /**
+   * @return the port datagrams are received on
+   */
+  public int getPort() {
+    return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+  }
+
+  /**
+   * Tells the publisher of a connection to stop sending. Datagrams that are
+   * already in flight are still received.
+   * <p>
+   * A publisher may send from a different address than the one it advertises
+   * (e.g. a loopback address). If no datagrams were received from the
+   * advertised address, the connection is only closed if a single publisher
+   * uses the connection ID.
+   * 
+   * @param connectionId
+   *          the ID of the connection to close
+   * @param publisherAddress
+   *          the address the publisher advertised for the connection
+   * @return the {@link ChannelFuture} of the sent datagram, or {@code null} if
+   *         nothing has been received on the connection yet
+   */
+  public ChannelFuture closeConnection(int connectionId, InetAddress publisherAddress) {
+    InetSocketAddress remoteAddress;
+    synchronized (mutex) {
+      remoteAddress = publisherAddresses.remove(connectionId, publisherAddress);
+      if (remoteAddress == null) {
+        Map<InetAddress, InetSocketAddress> addresses = publisherAddresses.row(connectionId);
+        if (addresses.size() == 1) {
+          remoteAddress = addresses.values().iterator().next();
+          addresses.clear();
+        }
+      }
+    }
+    if (remoteAddress == null) {
+      return null;
+    }
+    return sendError(connectionId, remoteAddress);
+  }
+
+  private ChannelFuture sendError(int connectionId, InetSocketAddress remoteAddress) {
+    ChannelBuffer datagram =
+        ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, DatagramHeader.LENGTH);
+    new DatagramHeader(connectionId, DatagramHeader.OP_ERR, 0, 0).encode(datagram);
+    return channel.write(datagram, remoteAddress);
+  }
+
+  /**
+   * Close all connections, the socket and release its I/O thread.
+   */
+  public void shutdown() {
+    List<Table.Cell<Integer, InetAddress, InetSocketAddress>> connections;
+    synchronized (mutex) {
+      connections = Lists.newArrayList(publisherAddresses.cellSet());
+      publisherAddresses.clear();
+    }
+    for (Table.Cell<Integer, InetAddress, InetSocketAddress> connection : connections) {
+      sendError(connection.getRowKey(), connection.getValue()).awaitUninterruptibly();
+    }
+    channel.close().awaitUninterruptibly();
+    channelFactory.releaseExternalResources();
+  }
+}
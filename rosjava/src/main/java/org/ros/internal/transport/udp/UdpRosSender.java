@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Maps;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jboss.netty.bootstrap.ConnectionlessBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.HeapChannelBufferFactory;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFactory;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.ChannelPipelineFactory;
+import org.jboss.netty.channel.Channels;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
+import org.jboss.netty.channel.socket.nio.NioDatagramChannelFactory;
+import org.ros.concurrent.Subsystem;
+import org.ros.internal.transport.UnownedExecutor;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends messages to UDPROS subscribers.
+ * <p>
+ * UDPROS is connectionless. A subscriber is removed when it sends an
+ * {@link DatagramHeader#OP_ERR} datagram for its connection (e.g. because it
+ * shut down), when its connection is replaced, or when the
+ * {@link UdpRosSender} is shut down.
+ */
+public class UdpRosSender {
+
+  private static final boolean DEBUG = false;
+  private static final Log log = LogFactory.getLog(UdpRosSender.class);
+
+  /**
+   * The largest UDP payload that can be sent over IPv4.
+   */
+  public static final int MAX_DATAGRAM_SIZE = 65507;
+
+  private static final class Connection {
+
+    private final InetSocketAddress address;
+    private final int maxDatagramSize;
+    private final AtomicInteger messageId;
+
+    public Connection(InetSocketAddress address, int maxDatagramSize) {
+      this.address = address;
+      this.maxDatagramSize = maxDatagramSize;
+      messageId = new AtomicInteger();
+    }
+  }
+
+  private final ChannelFactory channelFactory;
+  private final Channel channel;
+  private final Map<Integer, Connection> connections;
+
+  public UdpRosSender(ExecutorService executorService) {
+    connections = Maps.newConcurrentMap();
+    channelFactory = new NioDatagramChannelFactory(new UnownedExecutor(
+        Subsystem.TRANSPORT.getExecutor(executorService)), 1);
+    ConnectionlessBootstrap bootstrap = new ConnectionlessBootstrap(channelFactory);
+    bootstrap.setOption("bufferFactory", new HeapChannelBufferFactory(ByteOrder.LITTLE_ENDIAN));
+    bootstrap.setPipelineFactory(new ChannelPipelineFactory() {
+      @Override
+      public ChannelPipeline getPipeline() throws Exception {
+        return Channels.pipeline(new SimpleChannelUpstreamHandler() {
+          @Override
+          public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
+            onDatagramReceived((ChannelBuffer) e.getMessage(), e.getRemoteAddress());
+          }
+        });
+      }
+    });
+    channel = bootstrap.bind(new InetSocketAddress(0));
+  }
+
+  private void onDatagramReceived(ChannelBuffer datagram, SocketAddress remoteAddress) {
+    if (datagram.readableBytes() < DatagramHeader.LENGTH) {
+      return;
+    }
+    DatagramHeader header = DatagramHeader.decode(datagram);
+    if (header.getOpCode() != DatagramHeader.OP_ERR) {
+      return;
+    }
+    Connection connection = connections.get(header.getConnectionId());
+    // Only the subscriber itself may close its connection.
+    if (connection != null && isSameAddress(connection.address, remoteAddress)) {
+      if (DEBUG) {
+        log.info("Subscriber closed UDPROS connection: " + connection.address);
+      }
+      connections.remove(header.getConnectionId(), connection);
+    }
+  }
+
+  private static boolean isSameAddress(InetSocketAddress address, SocketAddress remoteAddress) {
+    if (!(remoteAddress instanceof InetSocketAddress)) {
+      return false;
+    }
+    InetSocketAddress inetRemoteAddress = (InetSocketAddress) remoteAddress;
+    return address.getPort() == inetRemoteAddress.getPort()
+        && address.getAddress() != null
+        && address.getAddress().equals(inetRemoteAddress.getAddress());
+  }
+
+  /**
+   * @param connectionId
+   *          the ID to put in the header of every datagram sent to the
+   *          subscriber
+   * @param address
+   *          the address the subscriber receives datagrams on
+   * @param maxDatagramSize
+   *          the maximum size of datagrams accepted by the subscriber
+   */
+  public void addConnection(int connectionId, InetSocketAddress address, int maxDatagramSize) {
+    Preconditions.checkArgument(DatagramFragmenter.isValidMaxDatagramSize(maxDatagramSize),
+        "Invalid maximum datagram size: " + maxDatagramSize);
+    connections.put(connectionId, new Connection(address, maxDatagramSize));
+  }
+
+  /**
+   * @param connectionId
+   *          the ID of the connection to stop sending messages to
+   */
+  public void removeConnection(int connectionId) {
+    connections.remove(connectionId);
+  }
+
+  /**
+   * Sends a serialized message to all subscribers.
+   * <p>
+   * The message is copied into the datagrams before this method returns. So,
+   * the caller may reuse the buffer immediately.
+   * 
+   * @param message
+   *          the serialized message
+   */
+  public void write(ChannelBuffer message) {
+    for (Map.Entry<Integer, Connection> entry : connections.entrySet()) {
+      write(entry.getKey(), entry.getValue(), message);
+    }
+  }
+
+  /**
+   * Sends a serialized message to a single subscriber.
+   * 
+   * @param connectionId
+   *          the ID of the subscriber's connection
+   * @param message
+   *          the serialized message
+   * @see #write(ChannelBuffer)
+   */
+  public void write(int connectionId, ChannelBuffer message) {
+    Connection connection = connections.get(connectionId);
+    if (connection != null) {
+      write(connectionId, connection, message);
+    }
+  }
+
+  private void write(int connectionId, Connection connection, ChannelBuffer message) {
+    List<ChannelBuffer> datagrams =
+        DatagramFragmenter.fragment(connectionId, connection.messageId.getAndIncrement(), message,
+            connection.maxDatagramSize);
+    if (datagrams.isEmpty()) {
+      log.error(String.format("Message of %d bytes is too large to be sent to %s.",
+          message.readableBytes(), connection.address));
+      return;
+    }
+    if (DEBUG) {
+      log.info(String.format("Writing %d bytes in %d datagrams to %s.", message.readableBytes(),
+          datagrams.size(), connection.address));
+    }
+    for (ChannelBuffer datagram : datagrams) {
+      channel.write(datagram, connection.address);
+    }
+  }
+
+  /**
+   * @return the number of subscribers messages are sent to
+   */
+  public int getNumberOfConnections() {
+    return connections.size();
+  }
+
+  /**
+   * Stop sending messages, close the socket and release its I/O thread.
+   */
+  public void shutdown() {
+    connections.clear();
+    channel.close().awaitUninterruptibly();
+    channelFactory.releaseExternalResources();
+  }
+}
@@ -24,11 +24,16 @@ import org.ros.node.parameter.ParameterTree;
 import org.ros.node.service.ServiceClient;
 import org.ros.node.service.ServiceResponseBuilder;
 import org.ros.node.service.ServiceServer;
+import org.ros.node.service.ServiceServerOptions;
 import org.ros.node.topic.Publisher;
+import org.ros.node.topic.PublisherOptions;
+import org.ros.node.topic.SerializedMessage;
 import org.ros.node.topic.Subscriber;
+import org.ros.node.topic.SubscriberOptions;
 import org.ros.node.topic.TransportHints;
 
 import java.net.URI;
+import java.util.Collection;
 
 /**
  * A node in the ROS graph that has successfully contacted the master.
@@ -72,6 +77,27 @@ public interface ConnectedNode extends Node {
    */
   <T> Publisher<T> newPublisher(String topicName, String messageType);
 
+  /**
+   * @param <T>
+   *          the message type to create the publisher for
+   * @param topicName
+   *          the topic name, will be pushed down under this namespace unless
+   *          '/' is prepended.
+   * @param messageType
+   *          the message data type (e.g. "std_msgs/String")
+   * @param publisherOptions
+   *          the options used if the {@link Publisher} does not exist yet
+   * @return a {@link Publisher} for the specified topic
+   */
+  <T> Publisher<T> newPublisher(GraphName topicName, String messageType,
+      PublisherOptions publisherOptions);
+
+  /**
+   * @see #newPublisher(GraphName, String, PublisherOptions)
+   */
+  <T> Publisher<T> newPublisher(String topicName, String messageType,
+      PublisherOptions publisherOptions);
+
   /**
    * @param <T>
    *          the message type to create the {@link Subscriber} for
@@ -96,6 +122,22 @@ public interface ConnectedNode extends Node {
    */
   <T> Subscriber<T> newSubscriber(GraphName topicName, String messageType, TransportHints transportHints);
 
+  /**
+   * @param <T>
+   *          the message type to create the {@link Subscriber} for
+   * @param topicName
+   *          the topic name to be subscribed to, this will be auto resolved
+   * @param messageType
+   *          the message data type (e.g. "std_msgs/String")
+   * @param transportHints
+   *          the transport hints, may be {@code null}
+   * @param subscriberOptions
+   *          the options used if the {@link Subscriber} does not exist yet
+   * @return a {@link Subscriber} for the specified topic
+   */
+  <T> Subscriber<T> newSubscriber(GraphName topicName, String messageType,
+      TransportHints transportHints, SubscriberOptions subscriberOptions);
+
   /**
    * @see #newSubscriber(GraphName, String)
    */
@@ -107,7 +149,82 @@ public interface ConnectedNode extends Node {
   <T> Subscriber<T> newSubscriber(String topicName, String messageType, TransportHints transportHints);
 
   /**
-   * Create a new {@link ServiceServer}.
+   * @see #newSubscriber(GraphName, String, TransportHints, SubscriberOptions)
+   */
+  <T> Subscriber<T> newSubscriber(String topicName, String messageType,
+      TransportHints transportHints, SubscriberOptions subscriberOptions);
+
+  /**
+   * Creates a {@link Publisher} for messages that have already been
+   * serialized (e.g. by a {@link #newRawSubscriber(GraphName)}). Messages are
+   * written to subscribers as is.
+   * 
+   * @param topicName
+   *          the topic name, will be pushed down under this namespace unless
+   *          '/' is prepended.
+   * @param messageType
+   *          the message data type (e.g. "std_msgs/String")
+   * @param md5Checksum
+   *          the MD5 checksum of the message type
+   * @param messageDefinition
+   *          the full message definition
+   * @param publisherOptions
+   *          the options used if the {@link Publisher} does not exist yet
+   * @return a raw {@link Publisher} for the specified topic
+   */
+  Publisher<SerializedMessage> newRawPublisher(GraphName topicName, String messageType,
+      String md5Checksum, String messageDefinition, PublisherOptions publisherOptions);
+
+  /**
+   * @see #newRawPublisher(GraphName, String, String, String, PublisherOptions)
+   */
+  Publisher<SerializedMessage> newRawPublisher(String topicName, String messageType,
+      String md5Checksum, String messageDefinition, PublisherOptions publisherOptions);
+
+  /**
+   * @see #newRawPublisher(GraphName, String, String, String, PublisherOptions)
+   */
+  Publisher<SerializedMessage> newRawPublisher(GraphName topicName, String messageType,
+      String md5Checksum, String messageDefinition);
+
+  /**
+   * @see #newRawPublisher(GraphName, String, String, String, PublisherOptions)
+   */
+  Publisher<SerializedMessage> newRawPublisher(String topicName, String messageType,
+      String md5Checksum, String messageDefinition);
+
+  /**
+   * Creates a {@link Subscriber} that accepts any message type and delivers
+   * messages without deserializing them. Each {@link SerializedMessage}
+   * carries the connection header of the {@link Publisher} it was received
+   * from.
+   * 
+   * @param topicName
+   *          the topic name to be subscribed to, this will be auto resolved
+   * @param transportHints
+   *          the transport hints, may be {@code null}
+   * @param subscriberOptions
+   *          the options used if the {@link Subscriber} does not exist yet
+   * @return a raw {@link Subscriber} for the specified topic
+   */
+  Subscriber<SerializedMessage> newRawSubscriber(GraphName topicName,
+      TransportHints transportHints, SubscriberOptions subscriberOptions);
+
+  /**
+   * @see #newRawSubscriber(GraphName, TransportHints, SubscriberOptions)
+   */
+  Subscriber<SerializedMessage> newRawSubscriber(GraphName topicName);
+
+  /**
+   * @see #newRawSubscriber(GraphName, TransportHints, SubscriberOptions)
+   */
+  Subscriber<SerializedMessage> newRawSubscriber(String topicName);
+
+  /**
+   * Create a new {@link ServiceServer} with the default
+   * {@link ServiceServerOptions}. At most
+   * {@link ServiceServerOptions#DEFAULT_MAX_CONCURRENT_REQUESTS} requests are
+   * handled at the same time.
    * 
    * @param serviceName
    *          the name of the service
@@ -127,6 +244,32 @@ public interface ConnectedNode extends Node {
   <T, S> ServiceServer<T, S> newServiceServer(String serviceName, String serviceType,
       ServiceResponseBuilder<T, S> serviceResponseBuilder);
 
+  /**
+   * Create a new {@link ServiceServer} with limits on how many requests are
+   * handled at the same time and how many may wait.
+   * 
+   * @param serviceName
+   *          the name of the service
+   * @param serviceType
+   *          the type of the service (e.g. "rosjava_test_msgs/AddTwoInts")
+   * @param serviceResponseBuilder
+   *          called for every request to build a response
+   * @param serviceServerOptions
+   *          the {@link ServiceServerOptions} to use
+   * @return a {@link ServiceServer}
+   */
+  <T, S> ServiceServer<T, S> newServiceServer(GraphName serviceName, String serviceType,
+      ServiceResponseBuilder<T, S> serviceResponseBuilder,
+      ServiceServerOptions serviceServerOptions);
+
+  /**
+   * @see ConnectedNode#newServiceServer(GraphName, String,
+   *      ServiceResponseBuilder, ServiceServerOptions)
+   */
+  <T, S> ServiceServer<T, S> newServiceServer(String serviceName, String serviceType,
+      ServiceResponseBuilder<T, S> serviceResponseBuilder,
+      ServiceServerOptions serviceServerOptions);
+
   /**
    * @param serviceName
    *          the {@link GraphName} of the {@link ServiceServer}
@@ -172,6 +315,70 @@ public interface ConnectedNode extends Node {
   <T, S> ServiceClient<T, S> newServiceClient(String serviceName, String serviceType)
       throws ServiceNotFoundException;
 
+  /**
+   * Create a {@link ServiceClient} that either keeps a persistent connection
+   * to the service or, if {@code persistent} is {@code false}, connects for
+   * each call.
+   * <p>
+   * Non-persistent {@link ServiceClient}s return their connections to a
+   * node-wide cache after each call. Later calls to the same service reuse
+   * idle connections from the cache and skip connection setup.
+   * 
+   * @param serviceName
+   *          the name of the service
+   * @param serviceType
+   *          the type of the service (e.g. "rosjava_test_msgs/AddTwoInts")
+   * @param persistent
+   *          {@code true} to keep a persistent connection open
+   * @return a {@link ServiceClient}
+   * @throws ServiceNotFoundException
+   *           thrown if no matching service could be found
+   * @see NodeConfiguration#setServiceConnectionIdleTimeout(long,
+   *      java.util.concurrent.TimeUnit)
+   */
+  <T, S> ServiceClient<T, S> newServiceClient(GraphName serviceName, String serviceType,
+      boolean persistent) throws ServiceNotFoundException;
+
+  /**
+   * @see #newServiceClient(GraphName, String, boolean)
+   */
+  <T, S> ServiceClient<T, S> newServiceClient(String serviceName, String serviceType,
+      boolean persistent) throws ServiceNotFoundException;
+
+  /**
+   * Create a {@link ServiceClient} that keeps several persistent connections
+   * to each of the specified services and sends each call on the connection
+   * with the fewest outstanding requests.
+   * <p>
+   * Unlike {@link #newServiceClient(GraphName, String)}, every call creates a
+   * new {@link ServiceClient} that should be shut down once it is no longer
+   * needed.
+   * 
+   * @param serviceNames
+   *          the names of the services, all of the same type
+   * @param serviceType
+   *          the type of the services (e.g. "rosjava_test_msgs/AddTwoInts")
+   * @param connectionsPerService
+   *          the number of connections to open to each service
+   * @return a {@link ServiceClient}
+   * @throws ServiceNotFoundException
+   *           thrown if any of the services could not be found
+   */
+  <T, S> ServiceClient<T, S> newPooledServiceClient(Collection<GraphName> serviceNames,
+      String serviceType, int connectionsPerService) throws ServiceNotFoundException;
+
+  /**
+   * @see #newPooledServiceClient(Collection, String, int)
+   */
+  <T, S> ServiceClient<T, S> newPooledServiceClient(GraphName serviceName, String serviceType,
+      int connectionsPerService) throws ServiceNotFoundException;
+
+  /**
+   * @see #newPooledServiceClient(Collection, String, int)
+   */
+  <T, S> ServiceClient<T, S> newPooledServiceClient(String serviceName, String serviceType,
+      int connectionsPerService) throws ServiceNotFoundException;
+
   /**
    * Create a {@link ParameterTree} to query and set parameters on the ROS
    * parameter server.
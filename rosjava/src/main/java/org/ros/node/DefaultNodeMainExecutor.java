@@ -28,6 +28,7 @@ import com.google.common.collect.Multimaps;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.ros.concurrent.DefaultScheduledExecutorService;
+import org.ros.concurrent.VirtualThreadScheduledExecutorService;
 import org.ros.namespace.GraphName;
 
 import java.util.Collection;
@@ -81,6 +82,16 @@ public class DefaultNodeMainExecutor implements NodeMainExecutor {
     return newDefault(new DefaultScheduledExecutorService());
   }
 
+  /**
+   * @return an instance of {@link DefaultNodeMainExecutor} that runs blocking
+   *         tasks (e.g. message dispatching) on virtual threads when the JVM
+   *         supports them
+   * @see VirtualThreadScheduledExecutorService
+   */
+  public static NodeMainExecutor newVirtualThreaded() {
+    return newDefault(new VirtualThreadScheduledExecutorService());
+  }
+
   /**
    * @return an instance of {@link DefaultNodeMainExecutor} that uses the
    *         supplied {@link ExecutorService}
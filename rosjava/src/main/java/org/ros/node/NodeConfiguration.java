@@ -16,6 +16,8 @@
 
 package org.ros.node;
 
+import com.google.common.base.Preconditions;
+
 import org.ros.internal.message.definition.MessageDefinitionReflectionProvider;
 
 import org.ros.address.AdvertiseAddress;
@@ -30,6 +32,9 @@ import org.ros.internal.message.service.ServiceDescriptionFactory;
 import org.ros.internal.message.service.ServiceRequestMessageFactory;
 import org.ros.internal.message.service.ServiceResponseMessageFactory;
 import org.ros.internal.message.topic.TopicDescriptionFactory;
+import org.ros.internal.node.service.ServiceConnectionCache;
+import org.ros.internal.transport.compression.Compressors;
+import org.ros.internal.transport.tcp.BoundedFrameDecoder;
 import org.ros.message.MessageDefinitionProvider;
 import org.ros.message.MessageFactory;
 import org.ros.message.MessageSerializationFactory;
@@ -43,6 +48,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Stores configuration information (e.g. ROS master URI) for {@link Node}s.
@@ -86,6 +92,10 @@ public class NodeConfiguration {
   private AdvertiseAddressFactory xmlRpcAdvertiseAddressFactory;
   private ScheduledExecutorService scheduledExecutorService;
   private TimeProvider timeProvider;
+  private boolean directBuffers;
+  private int maxFrameSize;
+  private long serviceConnectionIdleTimeoutNanos;
+  private Compressors compressors;
 
   /**
    * @param nodeConfiguration
@@ -111,6 +121,10 @@ public class NodeConfiguration {
     copy.xmlRpcAdvertiseAddressFactory = nodeConfiguration.xmlRpcAdvertiseAddressFactory;
     copy.scheduledExecutorService = nodeConfiguration.scheduledExecutorService;
     copy.timeProvider = nodeConfiguration.timeProvider;
+    copy.directBuffers = nodeConfiguration.directBuffers;
+    copy.maxFrameSize = nodeConfiguration.maxFrameSize;
+    copy.serviceConnectionIdleTimeoutNanos = nodeConfiguration.serviceConnectionIdleTimeoutNanos;
+    copy.compressors = nodeConfiguration.compressors;
     return copy;
   }
 
@@ -188,6 +202,10 @@ public class NodeConfiguration {
     setMessageSerializationFactory(new DefaultMessageSerializationFactory(messageDefinitionProvider));
     setParentResolver(NameResolver.newRoot());
     setTimeProvider(new WallTimeProvider());
+    setMaxFrameSize(BoundedFrameDecoder.DEFAULT_MAX_FRAME_SIZE);
+    setServiceConnectionIdleTimeout(ServiceConnectionCache.DEFAULT_IDLE_TIMEOUT_NANOS,
+        TimeUnit.NANOSECONDS);
+    setCompressors(Compressors.newDefault());
   }
 
   /**
@@ -559,4 +577,101 @@ public class NodeConfiguration {
     this.timeProvider = timeProvider;
     return this;
   }
+
+  /**
+   * @return {@code true} if TCPROS connections use direct (off-heap) buffers
+   */
+  public boolean getDirectBuffers() {
+    return directBuffers;
+  }
+
+  /**
+   * Sets whether TCPROS connections read into and write from pooled direct
+   * (off-heap) buffers instead of heap buffers. Direct buffers avoid copying
+   * messages between the Java heap and the socket and reduce garbage
+   * collection pressure for large or high rate messages. By default, heap
+   * buffers are used.
+   * 
+   * @param directBuffers
+   *          {@code true} to use direct buffers
+   * @return this {@link NodeConfiguration}
+   */
+  public NodeConfiguration setDirectBuffers(boolean directBuffers) {
+    this.directBuffers = directBuffers;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of bytes in a single TCPROS frame
+   */
+  public int getMaxFrameSize() {
+    return maxFrameSize;
+  }
+
+  /**
+   * Sets the maximum size of a single message or header frame that is
+   * accepted on TCPROS connections. A connection that sends a larger frame is
+   * closed and an error is logged instead of buffering the frame. By default,
+   * frames of up to {@link BoundedFrameDecoder#DEFAULT_MAX_FRAME_SIZE} bytes
+   * are accepted.
+   * 
+   * @param maxFrameSize
+   *          the maximum number of bytes in a single frame
+   * @return this {@link NodeConfiguration}
+   */
+  public NodeConfiguration setMaxFrameSize(int maxFrameSize) {
+    Preconditions.checkArgument(maxFrameSize >= 0, "Maximum frame size must be non-negative.");
+    this.maxFrameSize = maxFrameSize;
+    return this;
+  }
+
+  /**
+   * @return how long idle connections of non-persistent service clients are
+   *         kept open in nanoseconds
+   */
+  public long getServiceConnectionIdleTimeoutNanos() {
+    return serviceConnectionIdleTimeoutNanos;
+  }
+
+  /**
+   * Sets how long connections of non-persistent service clients are kept open
+   * after their last call so that later calls to the same service can reuse
+   * them. By default, idle connections are closed after
+   * {@link ServiceConnectionCache#DEFAULT_IDLE_TIMEOUT_NANOS} nanoseconds.
+   * 
+   * @param timeout
+   *          the idle timeout, zero closes connections after each call
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   * @return this {@link NodeConfiguration}
+   */
+  public NodeConfiguration setServiceConnectionIdleTimeout(long timeout, TimeUnit unit) {
+    Preconditions.checkArgument(timeout >= 0, "Idle timeout must be non-negative.");
+    serviceConnectionIdleTimeoutNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /**
+   * @return the {@link Compressors} that the {@link Node}'s subscribers accept
+   *         compressed messages from
+   */
+  public Compressors getCompressors() {
+    return compressors;
+  }
+
+  /**
+   * Sets the {@link Compressors} that the {@link Node}'s subscribers advertise
+   * to publishers. By default, only the
+   * {@link org.ros.internal.transport.compression.DeflateCompressor} is
+   * accepted.
+   * 
+   * @param compressors
+   *          the {@link Compressors} to accept compressed messages from
+   * @return this {@link NodeConfiguration}
+   */
+  public NodeConfiguration setCompressors(Compressors compressors) {
+    Preconditions.checkNotNull(compressors);
+    this.compressors = compressors;
+    return this;
+  }
 }
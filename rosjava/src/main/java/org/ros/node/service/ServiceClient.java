@@ -16,9 +16,14 @@
 
 package org.ros.node.service;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
+import org.ros.exception.RemoteException;
 import org.ros.namespace.GraphName;
 
 import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Provides a connection to a ROS service.
@@ -47,6 +52,11 @@ public interface ServiceClient<T, S> {
 
   /**
    * Calls a method on the {@link ServiceServer}.
+   * <p>
+   * This method does not wait for the request to be sent and may be called
+   * concurrently. Multiple requests can be outstanding at the same time. If
+   * the connection is closed before the response arrives,
+   * {@link ServiceResponseListener#onFailure(RemoteException)} is called.
    * 
    * @param request
    *          the request message
@@ -56,6 +66,36 @@ public interface ServiceClient<T, S> {
    */
   void call(T request, ServiceResponseListener<S> listener);
 
+  /**
+   * Calls a method on the {@link ServiceServer} and returns a
+   * {@link ListenableFuture} for the response.
+   * <p>
+   * The returned future fails with a {@link RemoteException} if the
+   * {@link ServiceServer} returned an error or the connection was closed
+   * before the response arrived. Cancelling the future does not withdraw the
+   * request from the {@link ServiceServer}. Its response is discarded.
+   * 
+   * @param request
+   *          the request message
+   * @return a {@link ListenableFuture} for the response
+   * @see #call(Object, ServiceResponseListener)
+   */
+  ListenableFuture<S> call(T request);
+
+  /**
+   * Like {@link #call(Object)}, but the returned future fails with a
+   * {@link TimeoutException} if no response arrived within the timeout.
+   * 
+   * @param request
+   *          the request message
+   * @param timeout
+   *          the maximum time to wait for the response
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   * @return a {@link ListenableFuture} for the response
+   */
+  ListenableFuture<S> call(T request, long timeout, TimeUnit unit);
+
   /**
    * @return the name of the service this {@link ServiceClient} is connected to
    */
@@ -63,6 +103,7 @@ public interface ServiceClient<T, S> {
 
   /**
    * Stops the client (e.g. disconnect a persistent service connection).
+   * Outstanding calls fail with a {@link RemoteException}.
    */
   void shutdown();
 
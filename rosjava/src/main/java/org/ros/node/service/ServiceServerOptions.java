@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.node.service;
+
+import com.google.common.base.Preconditions;
+
+import org.ros.node.ConnectedNode;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Provides a way of specifying options to
+ * {@link ConnectedNode#newServiceServer(org.ros.namespace.GraphName, String, ServiceResponseBuilder, ServiceServerOptions)}
+ * and
+ * {@link ConnectedNode#newServiceServer(String, String, ServiceResponseBuilder, ServiceServerOptions)}.
+ * <p>
+ * Requests from a single connection are always handled one at a time and in
+ * order. These options limit how many connections to the same
+ * {@link ServiceServer} are served at the same time.
+ */
+public class ServiceServerOptions {
+
+  /**
+   * Unlike earlier releases, which handled every connection as soon as a
+   * request arrived, at most this many connections are served at the same time
+   * by default. Servers that rely on more concurrent requests, e.g. because
+   * their {@link ServiceResponseBuilder} blocks on other requests, must raise
+   * the limit with {@link #maxConcurrentRequests(int)}.
+   */
+  public static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 8;
+  public static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+  private int maxConcurrentRequests;
+  private int queueCapacity;
+  private ExecutorService executorService;
+
+  public ServiceServerOptions() {
+    maxConcurrentRequests = DEFAULT_MAX_CONCURRENT_REQUESTS;
+    queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    executorService = null;
+  }
+
+  /**
+   * @param maxConcurrentRequests
+   *          the maximum number of requests to the {@link ServiceServer} that
+   *          are handled at the same time
+   * @return this {@link ServiceServerOptions} instance
+   */
+  public ServiceServerOptions maxConcurrentRequests(int maxConcurrentRequests) {
+    Preconditions.checkArgument(maxConcurrentRequests > 0,
+        "Max concurrent requests must be positive.");
+    this.maxConcurrentRequests = maxConcurrentRequests;
+    return this;
+  }
+
+  public int getMaxConcurrentRequests() {
+    return maxConcurrentRequests;
+  }
+
+  /**
+   * Requests that arrive while the queue is full are rejected immediately.
+   * The caller receives an error response instead of waiting.
+   * 
+   * @param capacity
+   *          the maximum number of requests waiting to be handled
+   * @return this {@link ServiceServerOptions} instance
+   */
+  public ServiceServerOptions queueCapacity(int capacity) {
+    Preconditions.checkArgument(capacity >= 0, "Queue capacity must be non-negative.");
+    queueCapacity = capacity;
+    return this;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  /**
+   * By default, requests are handled on the node's
+   * {@link java.util.concurrent.ScheduledExecutorService}. A dedicated
+   * {@link ExecutorService} isolates slow {@link ServiceServer}s from the rest
+   * of the node. The caller remains responsible for shutting it down.
+   * 
+   * @param executorService
+   *          the {@link ExecutorService} to handle requests on
+   * @return this {@link ServiceServerOptions} instance
+   */
+  public ServiceServerOptions executorService(ExecutorService executorService) {
+    Preconditions.checkNotNull(executorService);
+    this.executorService = executorService;
+    return this;
+  }
+
+  /**
+   * @return the dedicated {@link ExecutorService} or {@code null} if requests
+   *         are handled on the node's executor
+   */
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.node.topic;
+
+import org.ros.message.Time;
+
+/**
+ * The leading {@code std_msgs/Header} of a received message, decoded without
+ * deserializing the rest of the message.
+ * 
+ * @see MessageHeaderFilter
+ */
+public class MessageHeader {
+
+  private final int seq;
+  private final Time stamp;
+  private final String frameId;
+
+  public MessageHeader(int seq, Time stamp, String frameId) {
+    this.seq = seq;
+    this.stamp = stamp;
+    this.frameId = frameId;
+  }
+
+  /**
+   * @return the sequence number, an unsigned 32-bit integer
+   */
+  public int getSeq() {
+    return seq;
+  }
+
+  public Time getStamp() {
+    return stamp;
+  }
+
+  public String getFrameId() {
+    return frameId;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("MessageHeader<%d, %s, %s>", seq, stamp, frameId);
+  }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.node.topic;
+
+/**
+ * Decides which received messages are dispatched to the
+ * {@link org.ros.message.MessageListener}s of a {@link Subscriber} by looking
+ * only at their {@link MessageHeader}. Rejected messages are never
+ * deserialized.
+ * <p>
+ * Filters only work for message types whose first field is a
+ * {@code std_msgs/Header}. Messages that are delivered without being
+ * serialized (i.e. from an intra-process {@link Publisher}) have no
+ * {@link MessageHeader} to decode and are always accepted.
+ * 
+ * @see Subscriber#setMessageHeaderFilter(MessageHeaderFilter)
+ */
+public interface MessageHeaderFilter {
+
+  /**
+   * Called from the {@link Subscriber}'s dispatch thread for every received
+   * message. Implementations should return quickly.
+   * 
+   * @param header
+   *          the {@link MessageHeader} of the received message
+   * @return {@code true} if the message should be dispatched, {@code false}
+   *         to drop it
+   */
+  boolean accept(MessageHeader header);
+}
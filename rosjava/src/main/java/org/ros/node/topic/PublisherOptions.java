@@ -0,0 +1,291 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.node.topic;
+
+import com.google.common.base.Preconditions;
+
+import org.ros.concurrent.OverflowPolicy;
+import org.ros.internal.transport.compression.Compressor;
+import org.ros.internal.transport.compression.Compressors;
+import org.ros.node.ConnectedNode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a way of specifying options to
+ * {@link ConnectedNode#newPublisher(org.ros.namespace.GraphName, String, PublisherOptions)}
+ * and {@link ConnectedNode#newPublisher(String, String, PublisherOptions)}.
+ * <p>
+ * {@link Publisher}s are shared per topic. The options only take effect when
+ * the {@link Publisher} is created.
+ */
+public class PublisherOptions {
+
+  public static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 4 * 1024 * 1024;
+  public static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 2 * 1024 * 1024;
+  public static final SlowSubscriberPolicy DEFAULT_SLOW_SUBSCRIBER_POLICY =
+      SlowSubscriberPolicy.DROP_OLDEST;
+  public static final int DEFAULT_QUEUE_CAPACITY = 16;
+  public static final OverflowPolicy DEFAULT_QUEUE_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+  public static final long DEFAULT_QUEUE_BLOCK_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+  public static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+  public static final int DEFAULT_SHARED_MEMORY_CAPACITY = 32 * 1024 * 1024;
+
+  private int writeBufferHighWaterMark;
+  private int writeBufferLowWaterMark;
+  private SlowSubscriberPolicy slowSubscriberPolicy;
+  private int maxBatchSize;
+  private long batchFlushIntervalNanos;
+  private int queueCapacity;
+  private OverflowPolicy queueOverflowPolicy;
+  private long queueBlockTimeoutNanos;
+  private Compressor compressor;
+  private int compressionThreshold;
+  private boolean immutableMessages;
+  private int sharedMemoryCapacity;
+
+  public PublisherOptions() {
+    writeBufferHighWaterMark = DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK;
+    writeBufferLowWaterMark = DEFAULT_WRITE_BUFFER_LOW_WATER_MARK;
+    slowSubscriberPolicy = DEFAULT_SLOW_SUBSCRIBER_POLICY;
+    maxBatchSize = 0;
+    batchFlushIntervalNanos = 0;
+    queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    queueOverflowPolicy = DEFAULT_QUEUE_OVERFLOW_POLICY;
+    queueBlockTimeoutNanos = DEFAULT_QUEUE_BLOCK_TIMEOUT_NANOS;
+    compressor = null;
+    compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+    immutableMessages = false;
+    sharedMemoryCapacity = DEFAULT_SHARED_MEMORY_CAPACITY;
+  }
+
+  /**
+   * Configures the queue of messages that have been published but not yet
+   * written to remote {@link Subscriber}s.
+   * 
+   * @param capacity
+   *          the maximum number of queued messages
+   * @param overflowPolicy
+   *          what {@link Publisher#publish(Object)} does when the queue is full
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions queue(int capacity, OverflowPolicy overflowPolicy) {
+    Preconditions.checkArgument(capacity > 0, "Queue capacity must be positive.");
+    Preconditions.checkNotNull(overflowPolicy);
+    queueCapacity = capacity;
+    queueOverflowPolicy = overflowPolicy;
+    return this;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public OverflowPolicy getQueueOverflowPolicy() {
+    return queueOverflowPolicy;
+  }
+
+  /**
+   * @param timeout
+   *          how long {@link Publisher#publish(Object)} blocks on a full queue
+   *          with {@link OverflowPolicy#BLOCK} before the message is dropped
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions queueBlockTimeout(long timeout, TimeUnit unit) {
+    Preconditions.checkArgument(timeout >= 0, "Timeout must be non-negative.");
+    queueBlockTimeoutNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /**
+   * @return the queue block timeout in nanoseconds
+   */
+  public long getQueueBlockTimeoutNanos() {
+    return queueBlockTimeoutNanos;
+  }
+
+  /**
+   * Limits the number of bytes that may be buffered for each
+   * {@link Subscriber} connection.
+   * 
+   * @param low
+   *          once a slow {@link Subscriber} has fewer than this many bytes
+   *          buffered, it receives messages again
+   * @param high
+   *          once a {@link Subscriber} has more than this many bytes buffered,
+   *          the {@link SlowSubscriberPolicy} is applied to new messages
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions writeBufferWaterMarks(int low, int high) {
+    Preconditions.checkArgument(low >= 0, "Low water mark must be non-negative.");
+    Preconditions.checkArgument(low <= high,
+        "Low water mark must not be greater than high water mark.");
+    writeBufferLowWaterMark = low;
+    writeBufferHighWaterMark = high;
+    return this;
+  }
+
+  public int getWriteBufferHighWaterMark() {
+    return writeBufferHighWaterMark;
+  }
+
+  public int getWriteBufferLowWaterMark() {
+    return writeBufferLowWaterMark;
+  }
+
+  /**
+   * @param slowSubscriberPolicy
+   *          what to do with messages for {@link Subscriber}s that exceed the
+   *          write buffer high water mark
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions slowSubscriberPolicy(SlowSubscriberPolicy slowSubscriberPolicy) {
+    Preconditions.checkNotNull(slowSubscriberPolicy);
+    this.slowSubscriberPolicy = slowSubscriberPolicy;
+    return this;
+  }
+
+  public SlowSubscriberPolicy getSlowSubscriberPolicy() {
+    return slowSubscriberPolicy;
+  }
+
+  /**
+   * Writes all messages that are queued at the same time to each TCPROS
+   * {@link Subscriber} at once instead of one at a time. This reduces the
+   * number of system calls for small messages published at high rates.
+   * 
+   * @param maxBatchSize
+   *          once a batch contains at least this many bytes, it is written
+   *          even if more messages are queued, 0 disables batching
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions maxBatchSize(int maxBatchSize) {
+    Preconditions.checkArgument(maxBatchSize >= 0, "Batch size must be non-negative.");
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Only applies if batching is enabled.
+   * 
+   * @param interval
+   *          how long to wait for further messages before writing a batch that
+   *          is smaller than the maximum batch size, 0 writes batches as soon
+   *          as the queue is empty
+   * @param unit
+   *          the {@link TimeUnit} of the interval
+   * @return this {@link PublisherOptions} instance
+   * @see #maxBatchSize(int)
+   */
+  public PublisherOptions batchFlushInterval(long interval, TimeUnit unit) {
+    Preconditions.checkArgument(interval >= 0, "Flush interval must be non-negative.");
+    batchFlushIntervalNanos = unit.toNanos(interval);
+    return this;
+  }
+
+  /**
+   * @return the batch flush interval in nanoseconds
+   */
+  public long getBatchFlushIntervalNanos() {
+    return batchFlushIntervalNanos;
+  }
+
+  /**
+   * Compresses messages sent over TCPROS to {@link Subscriber}s that accept
+   * the {@link Compressor}. Other {@link Subscriber}s, including those of
+   * other ROS client libraries, receive uncompressed messages.
+   * 
+   * @param compressor
+   *          the {@link Compressor} to use, or {@code null} to disable
+   *          compression, {@link Subscriber}s only accept {@link Compressor}s
+   *          registered with their node's {@link Compressors}, see
+   *          {@link org.ros.node.NodeConfiguration#setCompressors(Compressors)}
+   * @param threshold
+   *          messages with fewer bytes are sent uncompressed
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions compression(Compressor compressor, int threshold) {
+    Preconditions.checkArgument(threshold >= 0, "Compression threshold must be non-negative.");
+    this.compressor = compressor;
+    compressionThreshold = threshold;
+    return this;
+  }
+
+  /**
+   * @return the {@link Compressor} or {@code null} if compression is disabled
+   */
+  public Compressor getCompressor() {
+    return compressor;
+  }
+
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Promises that messages are never modified once they have been passed to
+   * {@link Publisher#publish(Object)}. Only then are messages delivered to
+   * {@link Subscriber}s in the same JVM that prefer
+   * {@link TransportHints#intraProcess(boolean)} without being serialized.
+   * <p>
+   * Those {@link Subscriber}s receive the published instances themselves,
+   * possibly after {@link Publisher#publish(Object)} has returned. So, the
+   * caller gives up ownership of every published message and must create a
+   * new message for each call instead of reusing one. Without this promise,
+   * every {@link Subscriber} receives its own copy.
+   * 
+   * @param immutableMessages
+   *          {@code true} if published messages are never modified
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions immutableMessages(boolean immutableMessages) {
+    this.immutableMessages = immutableMessages;
+    return this;
+  }
+
+  public boolean getImmutableMessages() {
+    return immutableMessages;
+  }
+
+  /**
+   * Messages for {@link Subscriber}s that prefer
+   * {@link TransportHints#sharedMemory(boolean)} are written to a ring in
+   * shared memory. A message is dropped if it is overwritten before a
+   * {@link Subscriber} has read it. So, the ring should hold the messages
+   * published during the longest delay expected of a {@link Subscriber}.
+   * 
+   * @param capacity
+   *          the capacity of the ring in bytes, it is allocated in full once
+   *          the first shared memory {@link Subscriber} connects
+   * @return this {@link PublisherOptions} instance
+   */
+  public PublisherOptions sharedMemoryCapacity(int capacity) {
+    Preconditions.checkArgument(capacity > 0, "Shared memory capacity must be positive.");
+    sharedMemoryCapacity = capacity;
+    return this;
+  }
+
+  public int getSharedMemoryCapacity() {
+    return sharedMemoryCapacity;
+  }
+}
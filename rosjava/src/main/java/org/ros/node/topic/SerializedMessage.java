@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.node.topic;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.ros.node.ConnectedNode;
+
+import java.util.Map;
+
+/**
+ * A message in its serialized form as received by or sent with a raw
+ * {@link Subscriber} or {@link Publisher}.
+ * <p>
+ * Raw {@link Subscriber}s and {@link Publisher}s forward messages without
+ * deserializing or serializing them. This is useful for relays, recorders and
+ * multiplexers that only move bytes.
+ * 
+ * @see ConnectedNode#newRawSubscriber(org.ros.namespace.GraphName)
+ * @see ConnectedNode#newRawPublisher(org.ros.namespace.GraphName, String,
+ *      String, String)
+ */
+public class SerializedMessage {
+
+  private final ChannelBuffer buffer;
+  private final String type;
+  private final String md5Checksum;
+  private final String definition;
+  private final Map<String, String> connectionHeader;
+
+  /**
+   * @param buffer
+   *          the serialized message, it must not be modified afterwards
+   */
+  public SerializedMessage(ChannelBuffer buffer) {
+    this(buffer, null, null, null, ImmutableMap.<String, String>of());
+  }
+
+  /**
+   * @param buffer
+   *          the serialized message, it must not be modified afterwards
+   * @param type
+   *          the message type (e.g. "std_msgs/String"), or {@code null} if
+   *          unknown
+   * @param md5Checksum
+   *          the MD5 checksum of the message type, or {@code null} if unknown
+   * @param definition
+   *          the full message definition, or {@code null} if unknown
+   * @param connectionHeader
+   *          the header of the connection the message was received on
+   */
+  public SerializedMessage(ChannelBuffer buffer, String type, String md5Checksum,
+      String definition, Map<String, String> connectionHeader) {
+    Preconditions.checkNotNull(buffer);
+    Preconditions.checkNotNull(connectionHeader);
+    this.buffer = buffer;
+    this.type = type;
+    this.md5Checksum = md5Checksum;
+    this.definition = definition;
+    this.connectionHeader = connectionHeader;
+  }
+
+  /**
+   * @return the serialized message, without the TCPROS length prefix, that
+   *         must not be modified
+   */
+  public ChannelBuffer getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * Messages received over UDPROS do not have a connection header.
+   * 
+   * @return the header fields sent by the {@link Publisher} of this message
+   *         during the handshake, or an empty {@link Map}
+   */
+  public Map<String, String> getConnectionHeader() {
+    return connectionHeader;
+  }
+
+  /**
+   * @return the message type (e.g. "std_msgs/String"), or {@code null} if
+   *         unknown
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * @return the MD5 checksum of the message type, or {@code null} if unknown
+   */
+  public String getMd5Checksum() {
+    return md5Checksum;
+  }
+
+  /**
+   * @return the full message definition, or {@code null} if unknown
+   */
+  public String getDefinition() {
+    return definition;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("SerializedMessage<%s, %d bytes>", getType(), buffer.readableBytes());
+  }
+}
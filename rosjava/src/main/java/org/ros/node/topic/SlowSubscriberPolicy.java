@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.node.topic;
+
+/**
+ * Determines what a {@link Publisher} does when a {@link Subscriber} cannot
+ * keep up with the rate at which messages are published.
+ * <p>
+ * A {@link Subscriber} is considered slow once the number of bytes waiting to
+ * be written to its connection exceeds the write buffer high water mark. It is
+ * considered caught up again once that number drops below the low water mark.
+ * Slow {@link Subscriber}s never hold back other {@link Subscriber}s of the
+ * same {@link Publisher}.
+ * 
+ * @see PublisherOptions
+ */
+public enum SlowSubscriberPolicy {
+
+  /**
+   * Keep a bounded number of the most recent messages for the slow
+   * {@link Subscriber} and discard older ones.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Discard new messages until the slow {@link Subscriber} has caught up.
+   */
+  DROP_NEWEST,
+
+  /**
+   * Close the connection to the slow {@link Subscriber}.
+   */
+  DISCONNECT
+}
@@ -73,6 +73,21 @@ public interface Subscriber<T> extends TopicParticipant {
    */
   void removeAllMessageListeners();
 
+  /**
+   * Sets a {@link MessageHeaderFilter} that is consulted for each received
+   * message before it is deserialized and dispatched to the
+   * {@link MessageListener}s. Rejected messages are dropped, including for
+   * {@link MessageListener}s added later in latch mode.
+   * 
+   * @param messageHeaderFilter
+   *          the {@link MessageHeaderFilter} to use, or {@code null} to
+   *          dispatch all messages
+   * @throws IllegalArgumentException
+   *           if the messages of this {@link Subscriber} do not start with a
+   *           {@code std_msgs/Header}
+   */
+  void setMessageHeaderFilter(MessageHeaderFilter messageHeaderFilter);
+
   /**
    * Shuts down and unregisters the {@link Subscriber}. using the default
    * timeout Shutdown is delayed by at most the specified timeout to allow
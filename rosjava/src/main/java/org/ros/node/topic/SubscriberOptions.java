@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.node.topic;
+
+import com.google.common.base.Preconditions;
+
+import org.ros.concurrent.OverflowPolicy;
+import org.ros.node.ConnectedNode;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Provides a way of specifying options to
+ * {@link ConnectedNode#newSubscriber(org.ros.namespace.GraphName, String, TransportHints, SubscriberOptions)}
+ * and {@link ConnectedNode#newSubscriber(String, String, TransportHints, SubscriberOptions)}.
+ * <p>
+ * {@link Subscriber}s are shared per topic. The options only take effect when
+ * the {@link Subscriber} is created.
+ */
+public class SubscriberOptions {
+
+  public static final int DEFAULT_QUEUE_CAPACITY = 16;
+  public static final OverflowPolicy DEFAULT_QUEUE_OVERFLOW_POLICY = OverflowPolicy.DROP_OLDEST;
+  public static final long DEFAULT_CONNECTION_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+  public static final long DEFAULT_INITIAL_RECONNECT_DELAY_NANOS = TimeUnit.MILLISECONDS
+      .toNanos(500);
+  public static final long DEFAULT_MAX_RECONNECT_DELAY_NANOS = TimeUnit.SECONDS.toNanos(30);
+  public static final int DEFAULT_MAX_RECONNECT_ATTEMPTS = 10;
+
+  private int queueCapacity;
+  private OverflowPolicy queueOverflowPolicy;
+  private long connectionTimeoutNanos;
+  private long initialReconnectDelayNanos;
+  private long maxReconnectDelayNanos;
+  private int maxReconnectAttempts;
+
+  public SubscriberOptions() {
+    queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    queueOverflowPolicy = DEFAULT_QUEUE_OVERFLOW_POLICY;
+    connectionTimeoutNanos = DEFAULT_CONNECTION_TIMEOUT_NANOS;
+    initialReconnectDelayNanos = DEFAULT_INITIAL_RECONNECT_DELAY_NANOS;
+    maxReconnectDelayNanos = DEFAULT_MAX_RECONNECT_DELAY_NANOS;
+    maxReconnectAttempts = DEFAULT_MAX_RECONNECT_ATTEMPTS;
+  }
+
+  /**
+   * Configures the queue of incoming messages that have not yet been
+   * dispatched to {@link org.ros.message.MessageListener}s.
+   * <p>
+   * This queue is independent of the queue capacities specified by
+   * {@link Subscriber#addMessageListener(org.ros.message.MessageListener, int)}.
+   * <p>
+   * Incoming messages are queued by network I/O threads and by the
+   * {@link Publisher}s of intra-process connections, neither of which may wait
+   * for a slow {@link Subscriber}. So, {@link OverflowPolicy#BLOCK} is not
+   * supported here. Use a larger capacity to ride out bursts instead.
+   * 
+   * @param capacity
+   *          the maximum number of queued messages
+   * @param overflowPolicy
+   *          what to do with incoming messages when the queue is full, either
+   *          {@link OverflowPolicy#DROP_OLDEST} or
+   *          {@link OverflowPolicy#DROP_NEWEST}
+   * @return this {@link SubscriberOptions} instance
+   */
+  public SubscriberOptions queue(int capacity, OverflowPolicy overflowPolicy) {
+    Preconditions.checkArgument(capacity > 0, "Queue capacity must be positive.");
+    Preconditions.checkNotNull(overflowPolicy);
+    Preconditions.checkArgument(overflowPolicy != OverflowPolicy.BLOCK,
+        "Subscriber queues cannot block.");
+    queueCapacity = capacity;
+    queueOverflowPolicy = overflowPolicy;
+    return this;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public OverflowPolicy getQueueOverflowPolicy() {
+    return queueOverflowPolicy;
+  }
+
+  /**
+   * Limits each attempt to connect to a {@link Publisher}. The TCP connection
+   * and the handshake that follows it are each given this long to complete
+   * before the attempt is abandoned.
+   * 
+   * @param timeout
+   *          the connection timeout
+   * @param unit
+   *          the {@link TimeUnit} of the timeout
+   * @return this {@link SubscriberOptions} instance
+   */
+  public SubscriberOptions connectionTimeout(long timeout, TimeUnit unit) {
+    Preconditions.checkArgument(timeout > 0, "Timeout must be positive.");
+    connectionTimeoutNanos = unit.toNanos(timeout);
+    return this;
+  }
+
+  /**
+   * @return the connection timeout in nanoseconds
+   */
+  public long getConnectionTimeoutNanos() {
+    return connectionTimeoutNanos;
+  }
+
+  /**
+   * Configures how a dropped connection to a {@link Publisher} is retried. The
+   * delay doubles after each failed attempt up to the maximum delay. Each
+   * delay is randomly shortened by up to half so that {@link Subscriber}s do
+   * not reconnect in lockstep.
+   * 
+   * @param initialDelay
+   *          the delay before the first reconnect attempt
+   * @param maxDelay
+   *          the maximum delay between reconnect attempts
+   * @param unit
+   *          the {@link TimeUnit} of the delays
+   * @return this {@link SubscriberOptions} instance
+   */
+  public SubscriberOptions reconnectBackoff(long initialDelay, long maxDelay, TimeUnit unit) {
+    Preconditions.checkArgument(initialDelay > 0 && maxDelay >= initialDelay,
+        "Delays must be positive and the max delay at least the initial delay.");
+    initialReconnectDelayNanos = unit.toNanos(initialDelay);
+    maxReconnectDelayNanos = unit.toNanos(maxDelay);
+    return this;
+  }
+
+  /**
+   * @return the initial reconnect delay in nanoseconds
+   */
+  public long getInitialReconnectDelayNanos() {
+    return initialReconnectDelayNanos;
+  }
+
+  /**
+   * @return the maximum reconnect delay in nanoseconds
+   */
+  public long getMaxReconnectDelayNanos() {
+    return maxReconnectDelayNanos;
+  }
+
+  /**
+   * Once all attempts have failed, a warning is logged and the
+   * {@link Subscriber} gives up on the {@link Publisher} for good. It only
+   * connects to it again if the master announces the {@link Publisher} anew,
+   * e.g. because it was restarted and registered again. A {@link Publisher}
+   * that was merely unreachable for longer than the attempts took is not
+   * reconnected.
+   * 
+   * @param attempts
+   *          the number of times to try reconnecting to a {@link Publisher}
+   *          before giving up on it, 0 disables reconnecting
+   * @return this {@link SubscriberOptions} instance
+   */
+  public SubscriberOptions maxReconnectAttempts(int attempts) {
+    Preconditions.checkArgument(attempts >= 0, "Attempts must be non-negative.");
+    maxReconnectAttempts = attempts;
+    return this;
+  }
+
+  public int getMaxReconnectAttempts() {
+    return maxReconnectAttempts;
+  }
+}
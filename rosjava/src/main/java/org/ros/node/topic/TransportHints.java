@@ -12,7 +12,17 @@ import org.ros.node.ConnectedNode;
  */
 public class TransportHints {
 
+  /**
+   * The default maximum size of a UDPROS datagram (including its header) which
+   * fits into a single Ethernet frame.
+   */
+  public static final int DEFAULT_MAX_DATAGRAM_SIZE = 1472;
+
   private boolean tcpNoDelay;
+  private boolean intraProcess;
+  private boolean udp;
+  private boolean sharedMemory;
+  private int maxDatagramSize;
 
   public TransportHints() {
     this(false);
@@ -20,6 +30,7 @@ public class TransportHints {
 
   public TransportHints(boolean tcpNoDelay) {
     this.tcpNoDelay = tcpNoDelay;
+    maxDatagramSize = DEFAULT_MAX_DATAGRAM_SIZE;
   }
 
   public TransportHints tcpNoDelay(boolean tcpNoDelay) {
@@ -30,4 +41,89 @@ public class TransportHints {
   public boolean getTcpNoDelay() {
     return tcpNoDelay;
   }
+
+  /**
+   * Allows messages from {@link Publisher}s in the same JVM to be delivered
+   * without serialization.
+   * <p>
+   * Only {@link Publisher}s that promise not to modify published messages
+   * (see {@link PublisherOptions#immutableMessages(boolean)}) deliver this
+   * way. The {@link Subscriber} then receives the same message instances that
+   * were passed to {@link Publisher#publish(Object)}. Those messages are
+   * shared with all other intra-process {@link Subscriber}s and must be
+   * treated as read-only. Other {@link Publisher}s fall back to a transport
+   * that delivers a copy of each message.
+   *
+   * @param intraProcess
+   *          {@code true} to prefer intra-process delivery when possible
+   * @return this {@link TransportHints} instance
+   */
+  public TransportHints intraProcess(boolean intraProcess) {
+    this.intraProcess = intraProcess;
+    return this;
+  }
+
+  public boolean getIntraProcess() {
+    return intraProcess;
+  }
+
+  /**
+   * Prefers exchanging messages through shared memory with {@link Publisher}s
+   * in other processes on the same host.
+   * <p>
+   * The TCPROS connection to the {@link Publisher} is still established but
+   * only carries small notifications. If the {@link Publisher} is on a
+   * different host or runs as a different user, plain TCPROS is used instead.
+   *
+   * @param sharedMemory
+   *          {@code true} to prefer shared memory
+   * @return this {@link TransportHints} instance
+   */
+  public TransportHints sharedMemory(boolean sharedMemory) {
+    this.sharedMemory = sharedMemory;
+    return this;
+  }
+
+  public boolean getSharedMemory() {
+    return sharedMemory;
+  }
+
+  /**
+   * Prefers UDPROS over TCPROS for connections to {@link Publisher}s that
+   * support it.
+   * <p>
+   * UDPROS is unreliable: messages that lose a datagram on the way are dropped
+   * and latched messages are not guaranteed to arrive. It is best suited for
+   * high rate streams where only the latest message matters.
+   *
+   * @param udp
+   *          {@code true} to prefer UDPROS
+   * @return this {@link TransportHints} instance
+   */
+  public TransportHints udp(boolean udp) {
+    this.udp = udp;
+    return this;
+  }
+
+  public boolean getUdp() {
+    return udp;
+  }
+
+  /**
+   * @param maxDatagramSize
+   *          the maximum size in bytes of UDPROS datagrams sent to this
+   *          {@link Subscriber}, larger messages are fragmented. Each datagram
+   *          needs room for 12 bytes of framing and at least one byte of the
+   *          message, smaller sizes are rejected when the {@link Subscriber}
+   *          is created.
+   * @return this {@link TransportHints} instance
+   */
+  public TransportHints maxDatagramSize(int maxDatagramSize) {
+    this.maxDatagramSize = maxDatagramSize;
+    return this;
+  }
+
+  public int getMaxDatagramSize() {
+    return maxDatagramSize;
+  }
 }
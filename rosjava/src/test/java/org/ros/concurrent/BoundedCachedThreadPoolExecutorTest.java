@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class BoundedCachedThreadPoolExecutorTest {
+
+  private static final int MAX_POOL_SIZE = 4;
+
+  private BoundedCachedThreadPoolExecutor executor;
+
+  @Before
+  public void before() {
+    executor =
+        new BoundedCachedThreadPoolExecutor(0, MAX_POOL_SIZE, 60, TimeUnit.SECONDS,
+            new ThreadFactoryBuilder().build());
+  }
+
+  @After
+  public void after() throws InterruptedException {
+    executor.shutdownNow();
+    assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+  }
+
+  private Runnable newBlockingTask(final CountDownLatch started, final CountDownLatch release,
+      final CountDownLatch finished) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        started.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        finished.countDown();
+      }
+    };
+  }
+
+  @Test
+  public void testGrowsToMaxPoolSizeThenQueues() throws InterruptedException {
+    int numberOfTasks = MAX_POOL_SIZE + 2;
+    CountDownLatch started = new CountDownLatch(MAX_POOL_SIZE);
+    CountDownLatch release = new CountDownLatch(1);
+    CountDownLatch finished = new CountDownLatch(numberOfTasks);
+    for (int i = 0; i < numberOfTasks; i++) {
+      executor.execute(newBlockingTask(started, release, finished));
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    assertEquals(MAX_POOL_SIZE, executor.getPoolSize());
+    assertEquals(2, executor.getQueue().size());
+    release.countDown();
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+    assertEquals(MAX_POOL_SIZE, executor.getLargestPoolSize());
+  }
+
+  @Test
+  public void testReusesIdleThreads() throws InterruptedException {
+    for (int i = 0; i < 10; i++) {
+      CountDownLatch finished = new CountDownLatch(1);
+      CountDownLatch release = new CountDownLatch(0);
+      executor.execute(newBlockingTask(new CountDownLatch(1), release, finished));
+      assertTrue(finished.await(5, TimeUnit.SECONDS));
+      // Wait for the task to be accounted as completed.
+      while (executor.getCompletedTaskCount() < i + 1) {
+        Thread.sleep(1);
+      }
+    }
+    assertEquals(1, executor.getLargestPoolSize());
+    assertEquals(10, executor.getMetrics().getNumberOfCompletedTasks());
+    assertEquals(0, executor.getMetrics().getNumberOfActiveTasks());
+  }
+}
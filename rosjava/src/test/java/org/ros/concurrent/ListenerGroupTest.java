@@ -16,6 +16,7 @@
 
 package org.ros.concurrent;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import org.junit.Before;
@@ -131,4 +132,95 @@ public class ListenerGroupTest {
 
     assertTrue(latch.await(1, TimeUnit.SECONDS));
   }
+
+  @Test
+  public void testDispatcherPoolPreservesOrderPerListener() throws InterruptedException {
+    DefaultScheduledExecutorService scheduledExecutorService =
+        new DefaultScheduledExecutorService();
+    ListenerGroup<AtomicInteger> listenerGroup =
+        new ListenerGroup<AtomicInteger>(scheduledExecutorService);
+    int numberOfListeners = 100;
+    final int numberOfSignals = 100;
+    final CountDownLatch latch = new CountDownLatch(numberOfListeners);
+    final AtomicInteger outOfOrder = new AtomicInteger();
+    for (int i = 0; i < numberOfListeners; i++) {
+      listenerGroup.add(new AtomicInteger(), numberOfSignals);
+    }
+    for (int i = 0; i < numberOfSignals; i++) {
+      final int expected = i;
+      listenerGroup.signal(new SignalRunnable<AtomicInteger>() {
+        @Override
+        public void run(AtomicInteger listener) {
+          if (listener.getAndIncrement() != expected) {
+            outOfOrder.incrementAndGet();
+          }
+          if (expected == numberOfSignals - 1) {
+            latch.countDown();
+          }
+        }
+      });
+    }
+    try {
+      assertTrue(latch.await(1, TimeUnit.SECONDS));
+      assertEquals(0, outOfOrder.get());
+    } finally {
+      scheduledExecutorService.shutdown();
+    }
+  }
+
+  @Test
+  public void testDisabledDispatcherPoolIsNotStarvedByBlockingListeners()
+      throws InterruptedException {
+    DefaultScheduledExecutorService scheduledExecutorService =
+        new DefaultScheduledExecutorService(new ExecutorOptions().dispatcherPoolSize(1));
+    ListenerGroup<Runnable> listenerGroup = new ListenerGroup<Runnable>(scheduledExecutorService);
+    DefaultScheduledExecutorService unpooledExecutorService =
+        new DefaultScheduledExecutorService(new ExecutorOptions().dispatcherPoolSize(0));
+    ListenerGroup<Runnable> unpooledListenerGroup =
+        new ListenerGroup<Runnable>(unpooledExecutorService);
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch pooledLatch = new CountDownLatch(1);
+    final CountDownLatch unpooledLatch = new CountDownLatch(1);
+    Runnable blockingListener = new Runnable() {
+      @Override
+      public void run() {
+        try {
+          blocked.await();
+        } catch (InterruptedException e) {
+        }
+      }
+    };
+    listenerGroup.add(blockingListener);
+    listenerGroup.add(new Runnable() {
+      @Override
+      public void run() {
+        pooledLatch.countDown();
+      }
+    });
+    unpooledListenerGroup.add(blockingListener);
+    unpooledListenerGroup.add(new Runnable() {
+      @Override
+      public void run() {
+        unpooledLatch.countDown();
+      }
+    });
+    SignalRunnable<Runnable> signalRunnable = new SignalRunnable<Runnable>() {
+      @Override
+      public void run(Runnable listener) {
+        listener.run();
+      }
+    };
+    try {
+      listenerGroup.signal(signalRunnable);
+      unpooledListenerGroup.signal(signalRunnable);
+      assertTrue(unpooledLatch.await(1, TimeUnit.SECONDS));
+      // The only pool thread may be held by the blocking listener.
+      blocked.countDown();
+      assertTrue(pooledLatch.await(1, TimeUnit.SECONDS));
+    } finally {
+      blocked.countDown();
+      scheduledExecutorService.shutdown();
+      unpooledExecutorService.shutdown();
+    }
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class RingBufferTest {
+
+  private ExecutorService executorService;
+
+  @Before
+  public void before() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void after() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void testAddAndTake() throws InterruptedException {
+    RingBuffer<String> ringBuffer = new RingBuffer<String>(10);
+    String expectedString1 = "Hello, world!";
+    String expectedString2 = "Goodbye, world!";
+    ringBuffer.addLast(expectedString1);
+    ringBuffer.addLast(expectedString2);
+    assertEquals(expectedString1, ringBuffer.takeFirst());
+    assertEquals(expectedString2, ringBuffer.takeFirst());
+    assertTrue(ringBuffer.isEmpty());
+    assertNull(ringBuffer.pollFirst());
+  }
+
+  @Test
+  public void testOverwriteOldest() {
+    RingBuffer<Integer> ringBuffer = new RingBuffer<Integer>(3);
+    for (int i = 0; i < 5; i++) {
+      assertTrue(ringBuffer.addLast(i));
+    }
+    assertEquals(2, (int) ringBuffer.pollFirst());
+    assertEquals(3, (int) ringBuffer.pollFirst());
+    assertEquals(4, (int) ringBuffer.pollFirst());
+    assertNull(ringBuffer.pollFirst());
+  }
+
+  @Test
+  public void testDropNewest() {
+    RingBuffer<Integer> ringBuffer =
+        new RingBuffer<Integer>(1, OverflowPolicy.DROP_NEWEST, 0, TimeUnit.SECONDS);
+    assertTrue(ringBuffer.addLast(1));
+    assertFalse(ringBuffer.addLast(2));
+    assertEquals(1, (int) ringBuffer.pollFirst());
+  }
+
+  @Test
+  public void testBlockTimeout() {
+    RingBuffer<Integer> ringBuffer =
+        new RingBuffer<Integer>(1, OverflowPolicy.BLOCK, 10, TimeUnit.MILLISECONDS);
+    assertTrue(ringBuffer.addLast(1));
+    assertFalse(ringBuffer.addLast(2));
+    assertEquals(1, (int) ringBuffer.pollFirst());
+  }
+
+  @Test
+  public void testBlockingTake() throws InterruptedException {
+    final RingBuffer<String> ringBuffer = new RingBuffer<String>(1);
+    final String expectedString = "Hello, world!";
+    final CountDownLatch latch = new CountDownLatch(1);
+    executorService.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          assertEquals(expectedString, ringBuffer.takeFirst());
+        } catch (InterruptedException e) {
+          fail();
+        }
+        latch.countDown();
+      }
+    });
+    // Sleep to ensure we're parked in takeFirst().
+    Thread.sleep(50);
+    ringBuffer.addLast(expectedString);
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testMultipleProducers() throws InterruptedException {
+    final RingBuffer<Integer> ringBuffer =
+        new RingBuffer<Integer>(16, OverflowPolicy.BLOCK, 10, TimeUnit.SECONDS);
+    final int numberOfProducers = 4;
+    final int numberOfEntries = 10000;
+    for (int i = 0; i < numberOfProducers; i++) {
+      executorService.execute(new Runnable() {
+        @Override
+        public void run() {
+          for (int j = 0; j < numberOfEntries; j++) {
+            assertTrue(ringBuffer.addLast(j));
+          }
+        }
+      });
+    }
+    long sum = 0;
+    for (int i = 0; i < numberOfProducers * numberOfEntries; i++) {
+      Integer entry = ringBuffer.pollFirst(1, TimeUnit.SECONDS);
+      assertTrue(entry != null);
+      sum += entry;
+    }
+    assertEquals((long) numberOfProducers * numberOfEntries * (numberOfEntries - 1) / 2, sum);
+    assertTrue(ringBuffer.isEmpty());
+  }
+}
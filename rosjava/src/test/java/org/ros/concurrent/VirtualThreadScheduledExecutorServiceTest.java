@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.concurrent;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class VirtualThreadScheduledExecutorServiceTest {
+
+  private VirtualThreadScheduledExecutorService executorService;
+
+  @Before
+  public void before() {
+    executorService = new VirtualThreadScheduledExecutorService();
+  }
+
+  @After
+  public void after() throws InterruptedException {
+    executorService.shutdownNow();
+    assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testBlockingTasksRunConcurrently() throws InterruptedException {
+    int numberOfTasks = 100;
+    final CountDownLatch started = new CountDownLatch(numberOfTasks);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CountDownLatch finished = new CountDownLatch(numberOfTasks);
+    for (int i = 0; i < numberOfTasks; i++) {
+      executorService.execute(new Runnable() {
+        @Override
+        public void run() {
+          started.countDown();
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          finished.countDown();
+        }
+      });
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    release.countDown();
+    assertTrue(finished.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSchedule() throws InterruptedException {
+    final CountDownLatch latch = new CountDownLatch(1);
+    executorService.schedule(new Runnable() {
+      @Override
+      public void run() {
+        latch.countDown();
+      }
+    }, 10, TimeUnit.MILLISECONDS);
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testEventDispatchersOnlyUseThePoolWithoutVirtualThreads() {
+    // With virtual threads, each EventDispatcher gets a thread of its own.
+    assertEquals(VirtualThreadScheduledExecutorService.isSupported(),
+        executorService.getDispatcherPool() == null);
+  }
+
+  @Test
+  public void testTasksRunOnVirtualThreadsIfSupported() throws Exception {
+    final Holder<Thread> threadHolder = Holder.newEmpty();
+    executorService.execute(new Runnable() {
+      @Override
+      public void run() {
+        threadHolder.set(Thread.currentThread());
+      }
+    });
+    assertTrue(threadHolder.await(5, TimeUnit.SECONDS));
+    Method isVirtual;
+    try {
+      isVirtual = Thread.class.getMethod("isVirtual");
+    } catch (NoSuchMethodException e) {
+      // Virtual threads were introduced together with Thread.isVirtual().
+      assertFalse(VirtualThreadScheduledExecutorService.isSupported());
+      return;
+    }
+    assertEquals(VirtualThreadScheduledExecutorService.isSupported(),
+        isVirtual.invoke(threadHolder.get()));
+  }
+}
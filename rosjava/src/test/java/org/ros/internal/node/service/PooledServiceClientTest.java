@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.internal.node.service;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.node.service.ServiceResponseListener;
+
+/**
+ * Tests for the {@link PooledServiceClient}.
+ */
+public class PooledServiceClientTest {
+
+  private DefaultServiceClient<Object, Object> first;
+  private DefaultServiceClient<Object, Object> second;
+  private DefaultServiceClient<Object, Object> third;
+  private PooledServiceClient<Object, Object> pooledServiceClient;
+  private ServiceResponseListener<Object> listener;
+
+  @SuppressWarnings("unchecked")
+  private DefaultServiceClient<Object, Object> newServiceClient(boolean connected,
+      int numberOfPendingCalls) {
+    DefaultServiceClient<Object, Object> serviceClient = mock(DefaultServiceClient.class);
+    when(serviceClient.isConnected()).thenReturn(connected);
+    when(serviceClient.getNumberOfPendingCalls()).thenReturn(numberOfPendingCalls);
+    return serviceClient;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void before() {
+    listener = mock(ServiceResponseListener.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testLeastPendingCalls() {
+    first = newServiceClient(true, 3);
+    second = newServiceClient(true, 1);
+    third = newServiceClient(true, 2);
+    pooledServiceClient =
+        new PooledServiceClient<Object, Object>(Lists.newArrayList(first, second, third),
+            new ServiceManager());
+    Object request = new Object();
+    pooledServiceClient.call(request, listener);
+    verify(second).call(request, listener);
+    verify(first, never()).call(any(), any(ServiceResponseListener.class));
+    verify(third, never()).call(any(), any(ServiceResponseListener.class));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testSkipsDisconnected() {
+    first = newServiceClient(true, 3);
+    second = newServiceClient(false, 0);
+    third = newServiceClient(true, 2);
+    pooledServiceClient =
+        new PooledServiceClient<Object, Object>(Lists.newArrayList(first, second, third),
+            new ServiceManager());
+    assertTrue(pooledServiceClient.isConnected());
+    Object request = new Object();
+    pooledServiceClient.call(request, listener);
+    verify(third).call(request, listener);
+    verify(second, never()).call(any(), any(ServiceResponseListener.class));
+  }
+
+  @Test
+  public void testShutdown() {
+    first = newServiceClient(false, 0);
+    second = newServiceClient(false, 0);
+    ServiceManager serviceManager = new ServiceManager();
+    pooledServiceClient =
+        new PooledServiceClient<Object, Object>(Lists.newArrayList(first, second),
+            serviceManager);
+    serviceManager.addPooledClient(pooledServiceClient);
+    assertFalse(pooledServiceClient.isConnected());
+    pooledServiceClient.shutdown();
+    verify(first).shutdown();
+    verify(second).shutdown();
+    assertTrue(serviceManager.getPooledClients().isEmpty());
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.node.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for the {@link ServiceConnectionCache}.
+ */
+public class ServiceConnectionCacheTest {
+
+  private ScheduledExecutorService executorService;
+  private ServiceDeclaration serviceDeclaration;
+  private ServiceConnectionCache connectionCache;
+
+  @SuppressWarnings("unchecked")
+  private DefaultServiceClient<Object, Object> newServiceClient(boolean connected) {
+    DefaultServiceClient<Object, Object> serviceClient = mock(DefaultServiceClient.class);
+    when(serviceClient.isConnected()).thenReturn(connected);
+    return serviceClient;
+  }
+
+  @Before
+  public void before() {
+    executorService = Executors.newSingleThreadScheduledExecutor();
+    serviceDeclaration = mock(ServiceDeclaration.class);
+    connectionCache = new ServiceConnectionCache(executorService, 1, TimeUnit.HOURS);
+  }
+
+  @After
+  public void after() {
+    connectionCache.shutdown();
+    executorService.shutdown();
+  }
+
+  @Test
+  public void testReusesReleasedConnection() {
+    assertNull(connectionCache.acquire(serviceDeclaration));
+    DefaultServiceClient<Object, Object> serviceClient = newServiceClient(true);
+    connectionCache.release(serviceDeclaration, serviceClient);
+    assertEquals(1, connectionCache.getNumberOfIdleConnections());
+    assertSame(serviceClient, connectionCache.acquire(serviceDeclaration));
+    assertEquals(0, connectionCache.getNumberOfIdleConnections());
+    assertNull(connectionCache.acquire(serviceDeclaration));
+    assertNull(connectionCache.acquire(mock(ServiceDeclaration.class)));
+    verify(serviceClient, never()).shutdown();
+  }
+
+  @Test
+  public void testDiscardsClosedConnections() {
+    DefaultServiceClient<Object, Object> closed = newServiceClient(false);
+    connectionCache.release(serviceDeclaration, closed);
+    verify(closed).shutdown();
+    assertEquals(0, connectionCache.getNumberOfIdleConnections());
+
+    DefaultServiceClient<Object, Object> serviceClient = newServiceClient(true);
+    connectionCache.release(serviceDeclaration, serviceClient);
+    // The server closed the connection while it was idle.
+    when(serviceClient.isConnected()).thenReturn(false);
+    assertNull(connectionCache.acquire(serviceDeclaration));
+    verify(serviceClient).shutdown();
+  }
+
+  @Test
+  public void testEvictsIdleConnections() {
+    DefaultServiceClient<Object, Object> serviceClient = newServiceClient(true);
+    connectionCache.release(serviceDeclaration, serviceClient);
+    connectionCache.evictIdleConnections(System.nanoTime());
+    assertEquals(1, connectionCache.getNumberOfIdleConnections());
+    connectionCache.evictIdleConnections(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+    assertEquals(0, connectionCache.getNumberOfIdleConnections());
+    verify(serviceClient).shutdown();
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  @Test
+  public void testCancelsEvictionWhenEmpty() {
+    ScheduledExecutorService mockExecutorService = mock(ScheduledExecutorService.class);
+    ScheduledFuture evictionFuture = mock(ScheduledFuture.class);
+    when(
+        mockExecutorService.scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(),
+            any(TimeUnit.class))).thenReturn(evictionFuture);
+    connectionCache = new ServiceConnectionCache(mockExecutorService, 1, TimeUnit.HOURS);
+    connectionCache.release(serviceDeclaration, newServiceClient(true));
+    connectionCache.acquire(serviceDeclaration);
+    verify(evictionFuture).cancel(false);
+
+    // Releasing a connection again schedules a new eviction task.
+    connectionCache.release(serviceDeclaration, newServiceClient(true));
+    connectionCache.evictIdleConnections(System.nanoTime() + TimeUnit.HOURS.toNanos(1));
+    verify(mockExecutorService, times(2)).scheduleWithFixedDelay(any(Runnable.class),
+        anyLong(), anyLong(), any(TimeUnit.class));
+    verify(evictionFuture, times(2)).cancel(false);
+  }
+
+  @Test
+  public void testShutdown() {
+    DefaultServiceClient<Object, Object> serviceClient = newServiceClient(true);
+    connectionCache.release(serviceDeclaration, serviceClient);
+    connectionCache.shutdown();
+    verify(serviceClient).shutdown();
+    assertEquals(0, connectionCache.getNumberOfIdleConnections());
+
+    DefaultServiceClient<Object, Object> released = newServiceClient(true);
+    connectionCache.release(serviceDeclaration, released);
+    verify(released).shutdown();
+  }
+
+  @Test
+  public void testZeroTimeoutDisablesCaching() {
+    connectionCache = new ServiceConnectionCache(executorService, 0, TimeUnit.SECONDS);
+    DefaultServiceClient<Object, Object> serviceClient = newServiceClient(true);
+    connectionCache.release(serviceDeclaration, serviceClient);
+    verify(serviceClient).shutdown();
+    assertNull(connectionCache.acquire(serviceDeclaration));
+  }
+}
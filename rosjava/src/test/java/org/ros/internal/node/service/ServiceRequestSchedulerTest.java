@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.node.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.Lists;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Tests for the {@link ServiceRequestScheduler}.
+ */
+public class ServiceRequestSchedulerTest {
+
+  private List<Runnable> workers;
+  private List<Integer> ran;
+  private ServiceRequestScheduler scheduler;
+  private boolean rejecting;
+
+  private Runnable newTask(final int id) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        ran.add(id);
+      }
+    };
+  }
+
+  @Before
+  public void before() {
+    workers = Lists.newArrayList();
+    ran = Lists.newArrayList();
+    rejecting = false;
+    // Collects workers instead of running them so that the test controls
+    // when they run.
+    Executor executor = new Executor() {
+      @Override
+      public void execute(Runnable command) {
+        if (rejecting) {
+          throw new RejectedExecutionException();
+        }
+        workers.add(command);
+      }
+    };
+    scheduler = new ServiceRequestScheduler(executor, 2, 1);
+  }
+
+  @Test
+  public void testRejectsWhenQueueIsFull() {
+    assertTrue(scheduler.tryAcquire());
+    assertTrue(scheduler.tryAcquire());
+    assertTrue(scheduler.tryAcquire());
+    assertFalse(scheduler.tryAcquire());
+    assertEquals(3, scheduler.getNumberOfPendingRequests());
+    scheduler.release();
+    assertTrue(scheduler.tryAcquire());
+  }
+
+  @Test
+  public void testLimitsConcurrentTasks() {
+    scheduler.execute(newTask(1));
+    scheduler.execute(newTask(2));
+    scheduler.execute(newTask(3));
+    scheduler.execute(newTask(4));
+    assertEquals(2, workers.size());
+    workers.get(0).run();
+    // The first worker keeps running queued tasks in order.
+    assertEquals(Lists.newArrayList(1, 3, 4), ran);
+    workers.get(1).run();
+    assertEquals(Lists.newArrayList(1, 3, 4, 2), ran);
+    scheduler.execute(newTask(5));
+    assertEquals(3, workers.size());
+  }
+
+  @Test
+  public void testFailingTaskDoesNotStopWorker() {
+    scheduler.execute(new Runnable() {
+      @Override
+      public void run() {
+        throw new RuntimeException();
+      }
+    });
+    scheduler.execute(newTask(1));
+    scheduler.execute(newTask(2));
+    workers.get(0).run();
+    assertEquals(Lists.newArrayList(2), ran);
+    workers.get(1).run();
+    assertEquals(Lists.newArrayList(2, 1), ran);
+  }
+
+  @Test
+  public void testRejectedTaskFreesItsSlot() {
+    scheduler.execute(newTask(1));
+    rejecting = true;
+    try {
+      scheduler.execute(newTask(2));
+      fail();
+    } catch (RejectedExecutionException e) {
+      // Expected.
+    }
+    rejecting = false;
+    // The rejected task must not count against the concurrency limit.
+    scheduler.execute(newTask(3));
+    scheduler.execute(newTask(4));
+    assertEquals(2, workers.size());
+    workers.get(1).run();
+    assertEquals(Lists.newArrayList(3, 4), ran);
+  }
+}
@@ -21,6 +21,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.Map;
 
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -75,8 +76,8 @@ public class SlaveImplTest {
     TcpRosProtocolDescription protocol = new TcpRosProtocolDescription(address);
     when(
         mockSlave.requestTopic(Matchers.<String>any(),
-            Matchers.eq(Sets.newHashSet(ProtocolNames.TCPROS, ProtocolNames.UDPROS)))).thenReturn(
-        protocol);
+            Matchers.eq(Sets.newHashSet(ProtocolNames.TCPROS, ProtocolNames.UDPROS)),
+            Matchers.<Map<String, List<Object>>>any())).thenReturn(protocol);
     SlaveXmlRpcEndpointImpl slave = new SlaveXmlRpcEndpointImpl(mockSlave);
     Object[][] protocols = new Object[][] { {ProtocolNames.TCPROS}, {ProtocolNames.UDPROS}};
     List<Object> response = slave.requestTopic("/foo", "/bar", protocols);
@@ -22,8 +22,10 @@ import static org.junit.Assert.assertTrue;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.bootstrap.ServerBootstrap;
+import org.jboss.netty.buffer.ChannelBuffer;
 import org.jboss.netty.buffer.HeapChannelBufferFactory;
 import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelStateEvent;
@@ -43,9 +45,13 @@ import org.ros.internal.message.definition.MessageDefinitionReflectionProvider;
 import org.ros.internal.message.topic.TopicMessageFactory;
 import org.ros.internal.node.service.ServiceManager;
 import org.ros.internal.node.topic.TopicParticipantManager;
+import org.ros.internal.transport.compression.CompressionDecoder;
+import org.ros.internal.transport.compression.Compressor;
+import org.ros.internal.transport.compression.DeflateCompressor;
 import org.ros.internal.transport.queue.IncomingMessageQueue;
 import org.ros.internal.transport.queue.OutgoingMessageQueue;
 import org.ros.internal.transport.tcp.TcpClient;
+import org.ros.internal.transport.tcp.NamedChannelHandler;
 import org.ros.internal.transport.tcp.TcpClientManager;
 import org.ros.internal.transport.tcp.TcpServerPipelineFactory;
 import org.ros.message.MessageDefinitionProvider;
@@ -58,6 +64,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * @author damonkohler@google.com (Damon Kohler)
@@ -76,6 +83,7 @@ public class MessageQueueIntegrationTest {
   private IncomingMessageQueue<std_msgs.String> firstIncomingMessageQueue;
   private IncomingMessageQueue<std_msgs.String> secondIncomingMessageQueue;
   private std_msgs.String expectedMessage;
+  private boolean compressed;
 
   private class ServerHandler extends SimpleChannelHandler {
     @Override
@@ -84,7 +92,7 @@ public class MessageQueueIntegrationTest {
         log.info("Channel connected: " + e.getChannel().toString());
       }
       Channel channel = e.getChannel();
-      outgoingMessageQueue.addChannel(channel);
+      outgoingMessageQueue.addChannel(channel, compressed);
       super.channelConnected(ctx, e);
     }
 
@@ -107,6 +115,24 @@ public class MessageQueueIntegrationTest {
     }
   }
 
+  private static final class NamedCompressionDecoder extends CompressionDecoder implements
+      NamedChannelHandler {
+
+    NamedCompressionDecoder(Compressor compressor) {
+      super(compressor, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public String getName() {
+      return CompressionDecoder.NAME;
+    }
+
+    @Override
+    public void handleDownstream(ChannelHandlerContext ctx, ChannelEvent e) throws Exception {
+      ctx.sendDownstream(e);
+    }
+  }
+
   @Before
   public void setup() {
     executorService = Executors.newCachedThreadPool();
@@ -126,6 +152,7 @@ public class MessageQueueIntegrationTest {
     firstTcpClientManager.addNamedChannelHandler(firstIncomingMessageQueue.getMessageReceiver());
     secondTcpClientManager = new TcpClientManager(executorService);
     secondTcpClientManager.addNamedChannelHandler(secondIncomingMessageQueue.getMessageReceiver());
+    compressed = false;
   }
 
   @After
@@ -205,6 +232,16 @@ public class MessageQueueIntegrationTest {
     expectMessages();
   }
 
+  @Test
+  public void testSendAndReceiveBatchedMessages() throws InterruptedException {
+    outgoingMessageQueue.setBatching(1024, TimeUnit.MILLISECONDS.toNanos(10));
+    startRepeatingPublisher();
+    Channel serverChannel = buildServerChannel();
+    connect(firstTcpClientManager, serverChannel);
+    connect(secondTcpClientManager, serverChannel);
+    expectMessages();
+  }
+
   @Test
   public void testSendAndReceiveLatchedMessage() throws InterruptedException {
     // Setting latched mode and writing a message should cause any
@@ -226,6 +263,61 @@ public class MessageQueueIntegrationTest {
     expectMessages();
   }
 
+  @Test
+  public void testSendAndReceiveModifiedLatchedMessage() throws InterruptedException {
+    outgoingMessageQueue.setLatchMode(true);
+    outgoingMessageQueue.add(expectedMessage);
+    Channel serverChannel = buildServerChannel();
+    connect(firstTcpClientManager, serverChannel);
+    assertTrue(expectMessage(firstIncomingMessageQueue).await(3, TimeUnit.SECONDS));
+    // Publishing the same instance again must not latch the serialized form of
+    // its previous contents.
+    expectedMessage.setData("How about a nice game of chess?");
+    CountDownLatch firstLatch = expectMessage(firstIncomingMessageQueue);
+    outgoingMessageQueue.add(expectedMessage);
+    assertTrue(firstLatch.await(3, TimeUnit.SECONDS));
+    CountDownLatch secondLatch = expectMessage(secondIncomingMessageQueue);
+    connect(secondTcpClientManager, serverChannel);
+    assertTrue(secondLatch.await(3, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testCompressOncePerMessage() throws InterruptedException {
+    final AtomicInteger numberOfCompressions = new AtomicInteger();
+    Compressor compressor = new DeflateCompressor() {
+      @Override
+      public ChannelBuffer compress(ChannelBuffer buffer) {
+        numberOfCompressions.incrementAndGet();
+        return super.compress(buffer);
+      }
+    };
+    outgoingMessageQueue.setCompression(compressor, 0);
+    compressed = true;
+    Channel serverChannel = buildServerChannel();
+    TcpClientManager firstCompressedTcpClientManager = new TcpClientManager(executorService);
+    firstCompressedTcpClientManager.addNamedChannelHandler(new NamedCompressionDecoder(compressor));
+    firstCompressedTcpClientManager.addNamedChannelHandler(firstIncomingMessageQueue
+        .getMessageReceiver());
+    TcpClientManager secondCompressedTcpClientManager = new TcpClientManager(executorService);
+    secondCompressedTcpClientManager
+        .addNamedChannelHandler(new NamedCompressionDecoder(compressor));
+    secondCompressedTcpClientManager.addNamedChannelHandler(secondIncomingMessageQueue
+        .getMessageReceiver());
+    connect(firstCompressedTcpClientManager, serverChannel);
+    connect(secondCompressedTcpClientManager, serverChannel);
+    while (outgoingMessageQueue.getNumberOfChannels() < 2) {
+      Thread.sleep(10);
+    }
+    CountDownLatch firstLatch = expectMessage(firstIncomingMessageQueue);
+    CountDownLatch secondLatch = expectMessage(secondIncomingMessageQueue);
+    outgoingMessageQueue.add(expectedMessage);
+    assertTrue(firstLatch.await(3, TimeUnit.SECONDS));
+    assertTrue(secondLatch.await(3, TimeUnit.SECONDS));
+    assertEquals(1, numberOfCompressions.get());
+    firstCompressedTcpClientManager.shutdown();
+    secondCompressedTcpClientManager.shutdown();
+  }
+
   @Test
   public void testSendAfterIncomingQueueShutdown() throws InterruptedException {
     startRepeatingPublisher();
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.compression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+import org.ros.exception.RosRuntimeException;
+import org.ros.internal.transport.queue.MessageBatch;
+
+import java.nio.ByteOrder;
+import java.util.Random;
+
+public class CompressedFramesTest {
+
+  private final Compressor compressor = new DeflateCompressor();
+
+  private ChannelBuffer newMessage(int length, boolean compressible) {
+    ChannelBuffer message = ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, length);
+    Random random = new Random(42);
+    for (int i = 0; i < length; i++) {
+      message.writeByte(compressible ? i % 10 : random.nextInt());
+    }
+    return message;
+  }
+
+  @Test
+  public void testCompressedRoundTrip() {
+    ChannelBuffer message = newMessage(4096, true);
+    ChannelBuffer frame = CompressedFrames.encode(message, compressor, 1024);
+    assertEquals(CompressedFrames.COMPRESSED, frame.getByte(frame.readerIndex()));
+    assertTrue(frame.readableBytes() < message.readableBytes());
+    // The message itself is not consumed.
+    assertEquals(4096, message.readableBytes());
+    assertEquals(message, CompressedFrames.decode(frame, compressor, 4096));
+  }
+
+  @Test
+  public void testSmallMessageIsNotCompressed() {
+    ChannelBuffer message = newMessage(512, true);
+    ChannelBuffer frame = CompressedFrames.encode(message, compressor, 1024);
+    assertEquals(CompressedFrames.UNCOMPRESSED, frame.getByte(frame.readerIndex()));
+    assertEquals(message, CompressedFrames.decode(frame, compressor, 1024));
+  }
+
+  @Test
+  public void testIncompressibleMessageIsNotCompressed() {
+    ChannelBuffer message = newMessage(4096, false);
+    ChannelBuffer frame = CompressedFrames.encode(message, compressor, 0);
+    assertEquals(CompressedFrames.UNCOMPRESSED, frame.getByte(frame.readerIndex()));
+    assertEquals(message, CompressedFrames.decode(frame, compressor, 4096));
+  }
+
+  @Test
+  public void testDecompressedMessageTooLong() {
+    ChannelBuffer frame = CompressedFrames.encode(newMessage(4096, true), compressor, 0);
+    try {
+      CompressedFrames.decode(frame, compressor, 1024);
+      fail();
+    } catch (RosRuntimeException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testDeclaredLengthTooLong() {
+    ChannelBuffer frame = CompressedFrames.encode(newMessage(4096, true), compressor, 0);
+    // The length follows the type byte.
+    frame.setInt(frame.readerIndex() + 1, 1 << 29);
+    try {
+      CompressedFrames.decode(frame, compressor, 1 << 30);
+      fail();
+    } catch (RosRuntimeException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testCorruptFrame() {
+    ChannelBuffer frame = CompressedFrames.encode(newMessage(4096, true), compressor, 0);
+    frame.writerIndex(frame.writerIndex() - 8);
+    try {
+      CompressedFrames.decode(frame, compressor, 4096);
+      fail();
+    } catch (RosRuntimeException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testEncodeBatch() throws Exception {
+    ChannelBuffer first = newMessage(4096, true);
+    ChannelBuffer second = newMessage(16, true);
+    ChannelBuffer buffer = ChannelBuffers.dynamicBuffer(ByteOrder.LITTLE_ENDIAN, 256);
+    buffer.writeInt(first.readableBytes());
+    buffer.writeBytes(first, first.readerIndex(), first.readableBytes());
+    buffer.writeInt(second.readableBytes());
+    buffer.writeBytes(second, second.readerIndex(), second.readableBytes());
+    MessageBatch batch = CompressedFrames.encode(new MessageBatch(buffer, 2), compressor, 1024);
+    assertEquals(2, batch.getNumberOfMessages());
+    ChannelBuffer encoded = batch.getBuffer();
+    ChannelBuffer frame = encoded.readSlice(encoded.readInt());
+    assertEquals(first, CompressedFrames.decode(frame, compressor, 4096));
+    frame = encoded.readSlice(encoded.readInt());
+    assertEquals(second, CompressedFrames.decode(frame, compressor, 4096));
+    assertTrue(!encoded.readable());
+  }
+}
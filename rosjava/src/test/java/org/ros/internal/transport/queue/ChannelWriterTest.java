@@ -0,0 +1,120 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.ros.node.topic.SlowSubscriberPolicy;
+
+public class ChannelWriterTest {
+
+  private Channel channel;
+
+  @Before
+  public void setup() {
+    channel = mock(Channel.class);
+    when(channel.isOpen()).thenReturn(true);
+    when(channel.write(any())).thenReturn(mock(ChannelFuture.class));
+  }
+
+  private ChannelBuffer newMessage(int value) {
+    ChannelBuffer buffer = ChannelBuffers.buffer(4);
+    buffer.writeInt(value);
+    return buffer;
+  }
+
+  @Test
+  public void testWritableChannel() {
+    when(channel.isWritable()).thenReturn(true);
+    ChannelWriter writer = new ChannelWriter(channel, SlowSubscriberPolicy.DROP_NEWEST, 2);
+    assertNotNull(writer.write(newMessage(1)));
+    verify(channel).write(any());
+    assertEquals(0, writer.getNumberOfDroppedMessages());
+  }
+
+  @Test
+  public void testDropNewest() {
+    when(channel.isWritable()).thenReturn(false);
+    ChannelWriter writer = new ChannelWriter(channel, SlowSubscriberPolicy.DROP_NEWEST, 2);
+    assertNull(writer.write(newMessage(1)));
+    assertNull(writer.write(newMessage(2)));
+    verify(channel, never()).write(any());
+    assertEquals(2, writer.getNumberOfDroppedMessages());
+  }
+
+  @Test
+  public void testDisconnect() {
+    when(channel.isWritable()).thenReturn(false);
+    ChannelWriter writer = new ChannelWriter(channel, SlowSubscriberPolicy.DISCONNECT, 2);
+    assertNull(writer.write(newMessage(1)));
+    verify(channel).close();
+    verify(channel, never()).write(any());
+    assertEquals(1, writer.getNumberOfDroppedMessages());
+  }
+
+  @Test
+  public void testDropNewestBatch() {
+    when(channel.isWritable()).thenReturn(false);
+    ChannelWriter writer = new ChannelWriter(channel, SlowSubscriberPolicy.DROP_NEWEST, 2);
+    assertNull(writer.write(new MessageBatch(newMessage(1), 3)));
+    assertEquals(3, writer.getNumberOfDroppedMessages());
+  }
+
+  @Test
+  public void testDropOldest() throws Exception {
+    when(channel.isWritable()).thenReturn(false);
+    ChannelWriter writer = new ChannelWriter(channel, SlowSubscriberPolicy.DROP_OLDEST, 2);
+    ChannelBuffer message = newMessage(1);
+    assertNull(writer.write(message));
+    // Held back messages must not depend on the caller's buffer.
+    message.setInt(0, 42);
+    assertNull(writer.write(newMessage(2)));
+    assertNull(writer.write(newMessage(3)));
+    verify(channel, never()).write(any());
+    assertEquals(1, writer.getNumberOfDroppedMessages());
+
+    // New messages are queued behind held back messages to preserve order.
+    when(channel.isWritable()).thenReturn(true);
+    assertNull(writer.write(newMessage(4)));
+    assertEquals(2, writer.getNumberOfDroppedMessages());
+
+    writer.channelInterestChanged(mock(ChannelHandlerContext.class),
+        mock(ChannelStateEvent.class));
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(channel, times(2)).write(captor.capture());
+    assertEquals(3, ((ChannelBuffer) captor.getAllValues().get(0)).getInt(0));
+    assertEquals(4, ((ChannelBuffer) captor.getAllValues().get(1)).getInt(0));
+    assertNotNull(writer.write(newMessage(5)));
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.junit.Test;
+
+import java.nio.ByteOrder;
+
+public class DirectMessageBufferPoolTest {
+
+  @Test
+  public void testAcquireDirectBuffer() {
+    DirectMessageBufferPool pool = new DirectMessageBufferPool();
+    ChannelBuffer buffer = pool.acquire();
+    assertTrue(buffer.isDirect());
+    assertEquals(ByteOrder.LITTLE_ENDIAN, buffer.order());
+    // Buffers grow to fit large messages.
+    buffer.writeBytes(new byte[64 * 1024]);
+    assertEquals(64 * 1024, buffer.readableBytes());
+  }
+
+  @Test
+  public void testReleasedBufferIsReused() {
+    DirectMessageBufferPool pool = new DirectMessageBufferPool();
+    ChannelBuffer buffer = pool.acquire();
+    buffer.writeInt(42);
+    pool.release(buffer);
+    assertEquals(1, pool.getSize());
+    ChannelBuffer reused = pool.acquire();
+    assertSame(buffer, reused);
+    assertEquals(0, reused.readableBytes());
+    assertEquals(0, pool.getSize());
+  }
+
+  @Test
+  public void testCapacity() {
+    DirectMessageBufferPool pool = new DirectMessageBufferPool(1);
+    ChannelBuffer first = pool.acquire();
+    ChannelBuffer second = pool.acquire();
+    assertNotSame(first, second);
+    pool.release(first);
+    pool.release(second);
+    assertEquals(1, pool.getSize());
+    assertSame(first, pool.acquire());
+    assertEquals(0, pool.getSize());
+  }
+}
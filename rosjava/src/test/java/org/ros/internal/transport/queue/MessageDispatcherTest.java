@@ -16,18 +16,25 @@
 
 package org.ros.internal.transport.queue;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
 import org.junit.Before;
 import org.junit.Test;
-import org.ros.concurrent.CircularBlockingDeque;
+import org.ros.concurrent.RingBuffer;
 import org.ros.internal.message.DefaultMessageFactory;
 import org.ros.internal.message.definition.MessageDefinitionReflectionProvider;
+import org.ros.message.MessageDeserializer;
 import org.ros.message.MessageFactory;
 import org.ros.message.MessageListener;
+import org.ros.node.topic.MessageHeader;
+import org.ros.node.topic.MessageHeaderFilter;
 import std_msgs.Int32;
 
+import java.nio.ByteOrder;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -42,13 +49,13 @@ public class MessageDispatcherTest {
   private static final int QUEUE_CAPACITY = 128;
 
   private ExecutorService executorService;
-  private CircularBlockingDeque<LazyMessage<std_msgs.Int32>> lazyMessages;
+  private RingBuffer<LazyMessage<std_msgs.Int32>> lazyMessages;
   private MessageFactory messageFactory;
 
   @Before
   public void before() {
     executorService = Executors.newCachedThreadPool();
-    lazyMessages = new CircularBlockingDeque<LazyMessage<std_msgs.Int32>>(128);
+    lazyMessages = new RingBuffer<LazyMessage<std_msgs.Int32>>(128);
     messageFactory = new DefaultMessageFactory(new MessageDefinitionReflectionProvider());
   }
 
@@ -89,4 +96,54 @@ public class MessageDispatcherTest {
 
     assertTrue(latch.await(1, TimeUnit.SECONDS));
   }
+
+  @Test
+  public void testMessageHeaderFilter() throws InterruptedException {
+    // The last message is accepted. So, all rejected messages have been
+    // dispatched once the latch opens.
+    int numberOfMessages = 11;
+    final CountDownLatch latch = new CountDownLatch(numberOfMessages / 2 + 1);
+    final AtomicInteger rejectedDeliveries = new AtomicInteger();
+    RingBuffer<LazyMessage<Integer>> buffers = new RingBuffer<LazyMessage<Integer>>(128);
+    MessageDeserializer<Integer> deserializer = new MessageDeserializer<Integer>() {
+      @Override
+      public Integer deserialize(ChannelBuffer buffer) {
+        return buffer.getInt(buffer.readerIndex());
+      }
+    };
+
+    MessageDispatcher<Integer> messageDispatcher =
+        new MessageDispatcher<Integer>(buffers, executorService);
+    messageDispatcher.setMessageHeaderFilter(new MessageHeaderFilter() {
+      @Override
+      public boolean accept(MessageHeader header) {
+        return header.getFrameId().equals("odom");
+      }
+    });
+    messageDispatcher.addListener(new MessageListener<Integer>() {
+      @Override
+      public void onNewMessage(Integer seq) {
+        if (seq % 2 == 0) {
+          latch.countDown();
+        } else {
+          rejectedDeliveries.incrementAndGet();
+        }
+      }
+    }, QUEUE_CAPACITY);
+    executorService.execute(messageDispatcher);
+
+    for (int i = 0; i < numberOfMessages; i++) {
+      String frameId = i % 2 == 0 ? "odom" : "map";
+      ChannelBuffer buffer = ChannelBuffers.dynamicBuffer(ByteOrder.LITTLE_ENDIAN, 32);
+      buffer.writeInt(i);
+      buffer.writeInt(0);
+      buffer.writeInt(0);
+      buffer.writeInt(frameId.length());
+      buffer.writeBytes(frameId.getBytes());
+      buffers.addLast(new LazyMessage<Integer>(buffer, deserializer));
+    }
+
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+    assertEquals(0, rejectedDeliveries.get());
+  }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.ros.internal.transport.queue;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Before;
+import org.junit.Test;
+import org.ros.internal.message.DefaultMessageFactory;
+import org.ros.internal.message.DefaultMessageSerializer;
+import org.ros.internal.message.MessageBuffers;
+import org.ros.internal.message.definition.MessageDefinitionReflectionProvider;
+import org.ros.message.MessageFactory;
+import org.ros.message.Time;
+import org.ros.node.topic.MessageHeader;
+
+import java.nio.ByteOrder;
+
+public class MessageHeaderDecoderTest {
+
+  private MessageFactory messageFactory;
+  private DefaultMessageSerializer serializer;
+
+  @Before
+  public void before() {
+    messageFactory = new DefaultMessageFactory(new MessageDefinitionReflectionProvider());
+    serializer = new DefaultMessageSerializer();
+  }
+
+  private ChannelBuffer newSerializedMessage(int seq, Time stamp, String frameId) {
+    rosjava_test_msgs.TestHeader message =
+        messageFactory.newFromType(rosjava_test_msgs.TestHeader._TYPE);
+    message.getHeader().setSeq(seq);
+    message.getHeader().setStamp(stamp);
+    message.getHeader().setFrameId(frameId);
+    ChannelBuffer buffer = MessageBuffers.dynamicBuffer();
+    serializer.serialize(message, buffer);
+    return buffer;
+  }
+
+  @Test
+  public void testDecode() {
+    ChannelBuffer buffer = newSerializedMessage(42, new Time(1234, 5678), "base_link");
+    int readerIndex = buffer.readerIndex();
+    MessageHeader header = MessageHeaderDecoder.decode(buffer);
+    assertEquals(42, header.getSeq());
+    assertEquals(new Time(1234, 5678), header.getStamp());
+    assertEquals("base_link", header.getFrameId());
+    assertEquals(readerIndex, buffer.readerIndex());
+  }
+
+  @Test
+  public void testDecodeAfterReaderIndex() {
+    ChannelBuffer message = newSerializedMessage(-1, new Time(1, 2), "");
+    ChannelBuffer buffer = ChannelBuffers.dynamicBuffer(ByteOrder.LITTLE_ENDIAN, 64);
+    buffer.writeInt(0xdeadbeef);
+    buffer.writeBytes(message);
+    buffer.skipBytes(4);
+    MessageHeader header = MessageHeaderDecoder.decode(buffer);
+    assertEquals(-1, header.getSeq());
+    assertEquals(new Time(1, 2), header.getStamp());
+    assertEquals("", header.getFrameId());
+  }
+
+  @Test
+  public void testDecodeTruncated() {
+    ChannelBuffer buffer = newSerializedMessage(1, new Time(), "map");
+    assertNull(MessageHeaderDecoder.decode(buffer.slice(0, 15)));
+    assertNull(MessageHeaderDecoder.decode(buffer.slice(0, 18)));
+  }
+
+  @Test
+  public void testStartsWithHeader() {
+    assertTrue(MessageHeaderDecoder.startsWithHeader("Header header\nint32 data\n"));
+    assertTrue(MessageHeaderDecoder.startsWithHeader("# Comment\n\nstd_msgs/Header header\n"));
+    assertFalse(MessageHeaderDecoder.startsWithHeader("int32 data\nHeader header\n"));
+    assertFalse(MessageHeaderDecoder.startsWithHeader("string data\n"));
+    assertFalse(MessageHeaderDecoder.startsWithHeader("*"));
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.shm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.MessageEvent;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+
+public class SharedMemoryRingTest {
+
+  private static final int CAPACITY = 16;
+
+  private SharedMemoryRing writer;
+  private SharedMemoryRing reader;
+
+  @Before
+  public void before() throws IOException {
+    writer =
+        SharedMemoryRing.create(new File(System.getProperty("java.io.tmpdir")), CAPACITY);
+    reader = SharedMemoryRing.open(writer.getFile(), writer.getId());
+  }
+
+  @After
+  public void after() {
+    writer.delete();
+  }
+
+  private ChannelBuffer newMessage(int length, int value) {
+    ChannelBuffer buffer = ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, length);
+    for (int i = 0; i < length; i++) {
+      buffer.writeByte(value + i);
+    }
+    return buffer;
+  }
+
+  @Test
+  public void testWriteAndRead() {
+    ChannelBuffer message = newMessage(10, 0);
+    long position = writer.write(message);
+    assertEquals(0, position);
+    assertEquals(message, reader.read(position, 10));
+  }
+
+  @Test
+  public void testWrapAround() {
+    writer.write(newMessage(10, 0));
+    ChannelBuffer message = newMessage(10, 42);
+    long position = writer.write(message);
+    assertEquals(10, position);
+    assertEquals(message, reader.read(position, 10));
+  }
+
+  @Test
+  public void testOverwrittenMessageIsDropped() {
+    long position = writer.write(newMessage(10, 0));
+    writer.write(newMessage(10, 1));
+    assertNull(reader.read(position, 10));
+  }
+
+  @Test
+  public void testReadAfterClose() {
+    long position = writer.write(newMessage(10, 0));
+    reader.close();
+    assertNull(reader.read(position, 10));
+  }
+
+  @Test
+  public void testOpenWithUnexpectedId() {
+    try {
+      SharedMemoryRing.open(writer.getFile(), "foo");
+      fail();
+    } catch (IOException e) {
+      // Expected.
+    }
+  }
+
+  @Test
+  public void testFileIsOnlyAccessibleByOwner() throws IOException {
+    PosixFileAttributeView view =
+        Files.getFileAttributeView(writer.getFile().toPath(), PosixFileAttributeView.class);
+    Assume.assumeTrue(view != null);
+    assertEquals(EnumSet.of(PosixFilePermission.OWNER_READ, PosixFilePermission.OWNER_WRITE),
+        view.readAttributes().permissions());
+  }
+
+  @Test
+  public void testDecoderCountsDroppedMessages() throws Exception {
+    long position = writer.write(newMessage(10, 0));
+    writer.write(newMessage(10, 1));
+    SharedMemoryFrameDecoder decoder = new SharedMemoryFrameDecoder(reader);
+    ChannelHandlerContext context = mock(ChannelHandlerContext.class);
+    for (int i = 0; i < 3; i++) {
+      MessageEvent event = mock(MessageEvent.class);
+      when(event.getMessage()).thenReturn(SharedMemoryFrames.newSignal(position, 10));
+      decoder.messageReceived(context, event);
+    }
+    verify(context, never()).sendUpstream(any(ChannelEvent.class));
+    assertEquals(3, decoder.getNumberOfDroppedMessages());
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.tcp;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.buffer.HeapChannelBufferFactory;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelConfig;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelPipeline;
+import org.jboss.netty.channel.MessageEvent;
+import org.jboss.netty.channel.UpstreamMessageEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+public class BoundedFrameDecoderTest {
+
+  private Channel channel;
+  private ChannelHandlerContext context;
+  private BoundedFrameDecoder decoder;
+
+  @Before
+  public void setup() {
+    decoder = new BoundedFrameDecoder(16);
+    channel = mock(Channel.class);
+    ChannelConfig config = mock(ChannelConfig.class);
+    when(config.getBufferFactory()).thenReturn(
+        HeapChannelBufferFactory.getInstance(ByteOrder.LITTLE_ENDIAN));
+    when(channel.getConfig()).thenReturn(config);
+    context = mock(ChannelHandlerContext.class);
+    when(context.getChannel()).thenReturn(channel);
+    ChannelPipeline pipeline = mock(ChannelPipeline.class);
+    when(pipeline.getContext(decoder)).thenReturn(context);
+    when(context.getPipeline()).thenReturn(pipeline);
+  }
+
+  private ChannelBuffer newFrame(String data) {
+    ChannelBuffer buffer = ChannelBuffers.dynamicBuffer(ByteOrder.LITTLE_ENDIAN, 16);
+    buffer.writeInt(data.length());
+    buffer.writeBytes(data.getBytes());
+    return buffer;
+  }
+
+  private void receive(ChannelBuffer buffer) throws Exception {
+    decoder.messageReceived(context, new UpstreamMessageEvent(channel, buffer, null));
+  }
+
+  private List<ChannelEvent> captureFrames(int numberOfFrames) {
+    ArgumentCaptor<ChannelEvent> captor = ArgumentCaptor.forClass(ChannelEvent.class);
+    verify(context, times(numberOfFrames)).sendUpstream(captor.capture());
+    return captor.getAllValues();
+  }
+
+  private String toString(ChannelEvent event) {
+    ChannelBuffer frame = (ChannelBuffer) ((MessageEvent) event).getMessage();
+    byte[] data = new byte[frame.readableBytes()];
+    frame.readBytes(data);
+    return new String(data);
+  }
+
+  @Test
+  public void testMultipleFramesInOneRead() throws Exception {
+    receive(ChannelBuffers.wrappedBuffer(newFrame("foo"), newFrame(""), newFrame("bar")));
+    List<ChannelEvent> frames = captureFrames(3);
+    assertEquals("foo", toString(frames.get(0)));
+    assertEquals("", toString(frames.get(1)));
+    assertEquals("bar", toString(frames.get(2)));
+  }
+
+  @Test
+  public void testFrameSplitAcrossReads() throws Exception {
+    ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(newFrame("foobar"), newFrame("baz"));
+    // Split inside the first length field, the first frame and the second
+    // length field.
+    receive(buffer.readSlice(2));
+    receive(buffer.readSlice(5));
+    receive(buffer.readSlice(2));
+    verify(context, never()).sendUpstream(any(ChannelEvent.class));
+    receive(buffer.readSlice(4));
+    receive(buffer.readSlice(buffer.readableBytes()));
+    List<ChannelEvent> frames = captureFrames(2);
+    assertEquals("foobar", toString(frames.get(0)));
+    assertEquals("baz", toString(frames.get(1)));
+  }
+
+  @Test
+  public void testFrameLargerThanInitialCapacity() throws Exception {
+    decoder = new BoundedFrameDecoder(16, 2);
+    when(context.getPipeline().getContext(decoder)).thenReturn(context);
+    ChannelBuffer buffer = ChannelBuffers.wrappedBuffer(newFrame("0123456789"), newFrame("foo"));
+    receive(buffer.readSlice(7));
+    receive(buffer.readSlice(buffer.readableBytes()));
+    List<ChannelEvent> frames = captureFrames(2);
+    assertEquals("0123456789", toString(frames.get(0)));
+    assertEquals("foo", toString(frames.get(1)));
+  }
+
+  @Test
+  public void testTooLongFrameClosesChannel() throws Exception {
+    receive(newFrame("0123456789abcdefg"));
+    verify(channel).close();
+    // Everything after the bad frame is discarded.
+    receive(newFrame("foo"));
+    verify(context, never()).sendUpstream(any(ChannelEvent.class));
+  }
+
+  @Test
+  public void testNegativeLengthClosesChannel() throws Exception {
+    ChannelBuffer buffer = ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, 4);
+    buffer.writeInt(-1);
+    receive(buffer);
+    verify(channel).close();
+    verify(context, never()).sendUpstream(any(ChannelEvent.class));
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.tcp;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.netty.channel.ChannelFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class ClientChannelFactoriesTest {
+
+  private ExecutorService executorService;
+
+  @Before
+  public void setup() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void testReleaseLeavesExecutorRunning() throws InterruptedException {
+    ChannelFactory channelFactory = ClientChannelFactories.newDefault(executorService);
+    channelFactory.releaseExternalResources();
+    assertFalse(executorService.isShutdown());
+    final CountDownLatch latch = new CountDownLatch(1);
+    executorService.execute(new Runnable() {
+      @Override
+      public void run() {
+        latch.countDown();
+      }
+    });
+    assertTrue(latch.await(1, TimeUnit.SECONDS));
+  }
+}
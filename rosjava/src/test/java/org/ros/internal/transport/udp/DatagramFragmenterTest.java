@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.junit.Test;
+
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Tests for the {@link DatagramFragmenter}.
+ */
+public class DatagramFragmenterTest {
+
+  private static ChannelBuffer newMessage(int length) {
+    ChannelBuffer message = ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, length);
+    for (int i = 0; i < length; i++) {
+      message.writeByte(i);
+    }
+    return message;
+  }
+
+  @Test
+  public void testIsValidMaxDatagramSize() {
+    assertFalse(DatagramFragmenter.isValidMaxDatagramSize(0));
+    assertFalse(DatagramFragmenter.isValidMaxDatagramSize(DatagramHeader.LENGTH + 4));
+    assertTrue(DatagramFragmenter.isValidMaxDatagramSize(DatagramHeader.LENGTH + 5));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidMaxDatagramSize() {
+    DatagramFragmenter.fragment(1, 0, newMessage(1), DatagramHeader.LENGTH + 4);
+  }
+
+  @Test
+  public void testSingleDatagram() {
+    ChannelBuffer message = newMessage(10);
+    List<ChannelBuffer> datagrams = DatagramFragmenter.fragment(42, 7, message, 128);
+    assertEquals(1, datagrams.size());
+    ChannelBuffer datagram = datagrams.get(0);
+    DatagramHeader header = DatagramHeader.decode(datagram);
+    assertEquals(42, header.getConnectionId());
+    assertEquals(DatagramHeader.OP_DATA0, header.getOpCode());
+    assertEquals(7, header.getMessageId());
+    assertEquals(1, header.getBlock());
+    assertEquals(10, datagram.readInt());
+    assertEquals(message, datagram);
+    assertEquals(0, message.readerIndex());
+  }
+
+  @Test
+  public void testMultipleDatagrams() {
+    ChannelBuffer message = newMessage(100);
+    // Each datagram carries 32 bytes of the length prefix and message.
+    List<ChannelBuffer> datagrams =
+        DatagramFragmenter.fragment(1, 300, message, DatagramHeader.LENGTH + 32);
+    assertEquals(4, datagrams.size());
+    ChannelBuffer payload = ChannelBuffers.dynamicBuffer(ByteOrder.LITTLE_ENDIAN, 104);
+    for (int block = 0; block < datagrams.size(); block++) {
+      ChannelBuffer datagram = datagrams.get(block);
+      DatagramHeader header = DatagramHeader.decode(datagram);
+      // Only the least significant byte of the message ID is sent.
+      assertEquals(300 & 0xff, header.getMessageId());
+      if (block == 0) {
+        assertEquals(DatagramHeader.OP_DATA0, header.getOpCode());
+        assertEquals(4, header.getBlock());
+      } else {
+        assertEquals(DatagramHeader.OP_DATAN, header.getOpCode());
+        assertEquals(block, header.getBlock());
+      }
+      payload.writeBytes(datagram);
+    }
+    assertEquals(8, datagrams.get(3).capacity() - DatagramHeader.LENGTH);
+    assertEquals(100, payload.readInt());
+    assertEquals(message, payload);
+  }
+
+  @Test
+  public void testMessageTooLarge() {
+    // The length prefix pushes the message into one more block than allowed.
+    ChannelBuffer message = newMessage(DatagramHeader.MAX_BLOCKS * 5);
+    assertTrue(DatagramFragmenter.fragment(1, 0, message, DatagramHeader.LENGTH + 5).isEmpty());
+  }
+}
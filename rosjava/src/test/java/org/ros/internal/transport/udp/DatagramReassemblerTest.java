@@ -0,0 +1,210 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.internal.transport.udp;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.Lists;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.MessageEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Tests for the {@link DatagramReassembler}.
+ */
+public class DatagramReassemblerTest {
+
+  private static final int CONNECTION_ID = 1;
+
+  /**
+   * Small enough that the test messages are split into several blocks.
+   */
+  private static final int MAX_DATAGRAM_SIZE = DatagramHeader.LENGTH + 16;
+
+  private SocketAddress publisherAddress;
+  private DatagramReassembler reassembler;
+  private ChannelHandlerContext context;
+  private List<ChannelBuffer> messages;
+
+  @Before
+  public void before() {
+    publisherAddress = new InetSocketAddress("127.0.0.1", 1234);
+    reassembler = new DatagramReassembler();
+    messages = Lists.newArrayList();
+    context = mock(ChannelHandlerContext.class);
+    when(context.getChannel()).thenReturn(mock(Channel.class));
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        MessageEvent event = (MessageEvent) invocation.getArguments()[0];
+        messages.add((ChannelBuffer) event.getMessage());
+        return null;
+      }
+    }).when(context).sendUpstream(any(ChannelEvent.class));
+  }
+
+  private static ChannelBuffer newMessage(int value, int length) {
+    ChannelBuffer message = ChannelBuffers.buffer(ByteOrder.LITTLE_ENDIAN, length);
+    while (message.writableBytes() >= 4) {
+      message.writeInt(value);
+    }
+    return message;
+  }
+
+  private List<ChannelBuffer> fragment(int messageId, ChannelBuffer message) {
+    return DatagramFragmenter.fragment(CONNECTION_ID, messageId, message, MAX_DATAGRAM_SIZE);
+  }
+
+  private void receive(ChannelBuffer datagram, SocketAddress remoteAddress) throws Exception {
+    MessageEvent event = mock(MessageEvent.class);
+    when(event.getMessage()).thenReturn(datagram);
+    when(event.getRemoteAddress()).thenReturn(remoteAddress);
+    reassembler.messageReceived(context, event);
+  }
+
+  private void receiveAll(List<ChannelBuffer> datagrams) throws Exception {
+    for (ChannelBuffer datagram : datagrams) {
+      receive(datagram, publisherAddress);
+    }
+  }
+
+  @Test
+  public void testSingleDatagram() throws Exception {
+    ChannelBuffer message = newMessage(42, 8);
+    receiveAll(fragment(0, message));
+    assertEquals(1, messages.size());
+    assertEquals(message, messages.get(0));
+  }
+
+  @Test
+  public void testFragmentedMessage() throws Exception {
+    ChannelBuffer message = newMessage(42, 100);
+    List<ChannelBuffer> datagrams = fragment(0, message);
+    assertTrue(datagrams.size() > 2);
+    receiveAll(datagrams);
+    assertEquals(1, messages.size());
+    assertEquals(message, messages.get(0));
+  }
+
+  @Test
+  public void testOutOfOrderFragments() throws Exception {
+    List<ChannelBuffer> datagrams = fragment(0, newMessage(1, 64));
+    receive(datagrams.get(0), publisherAddress);
+    receive(datagrams.get(2), publisherAddress);
+    receive(datagrams.get(1), publisherAddress);
+    for (ChannelBuffer datagram : datagrams.subList(3, datagrams.size())) {
+      receive(datagram, publisherAddress);
+    }
+    // Reordered messages are dropped but do not affect the next message.
+    assertTrue(messages.isEmpty());
+    ChannelBuffer message = newMessage(2, 64);
+    receiveAll(fragment(1, message));
+    assertEquals(1, messages.size());
+    assertEquals(message, messages.get(0));
+  }
+
+  @Test
+  public void testLostFragment() throws Exception {
+    List<ChannelBuffer> datagrams = fragment(0, newMessage(1, 64));
+    datagrams.remove(datagrams.size() - 1);
+    receiveAll(datagrams);
+    assertTrue(messages.isEmpty());
+    // The next message supersedes the incomplete one.
+    ChannelBuffer message = newMessage(2, 64);
+    receiveAll(fragment(1, message));
+    assertEquals(1, messages.size());
+    assertEquals(message, messages.get(0));
+
+    // A lost first block drops the rest of the message.
+    datagrams = fragment(2, newMessage(3, 64));
+    receiveAll(datagrams.subList(1, datagrams.size()));
+    assertEquals(1, messages.size());
+  }
+
+  @Test
+  public void testInterleavedMessagesFromDifferentPublishers() throws Exception {
+    // Both publishers use the same connection ID.
+    SocketAddress otherPublisherAddress = new InetSocketAddress("127.0.0.1", 5678);
+    ChannelBuffer message = newMessage(1, 64);
+    ChannelBuffer otherMessage = newMessage(2, 64);
+    List<ChannelBuffer> datagrams = fragment(0, message);
+    List<ChannelBuffer> otherDatagrams = fragment(0, otherMessage);
+    assertEquals(datagrams.size(), otherDatagrams.size());
+    for (int i = 0; i < datagrams.size(); i++) {
+      receive(datagrams.get(i), publisherAddress);
+      receive(otherDatagrams.get(i), otherPublisherAddress);
+    }
+    assertEquals(2, messages.size());
+    assertEquals(message, messages.get(0));
+    assertEquals(otherMessage, messages.get(1));
+  }
+
+  @Test
+  public void testInterleavedMessagesOnOneConnection() throws Exception {
+    List<ChannelBuffer> datagrams = fragment(0, newMessage(1, 64));
+    ChannelBuffer message = newMessage(2, 64);
+    List<ChannelBuffer> nextDatagrams = fragment(1, message);
+    receive(datagrams.get(0), publisherAddress);
+    receive(nextDatagrams.get(0), publisherAddress);
+    // Blocks of the superseded message must not end up in the next one.
+    receive(datagrams.get(1), publisherAddress);
+    receiveAll(nextDatagrams.subList(1, nextDatagrams.size()));
+    assertTrue(messages.isEmpty());
+
+    receiveAll(fragment(1, message));
+    assertEquals(1, messages.size());
+    assertEquals(message, messages.get(0));
+  }
+
+  @Test
+  public void testMessageIdWrap() throws Exception {
+    List<ChannelBuffer> expectedMessages = Lists.newArrayList();
+    for (int messageId = 254; messageId < 258; messageId++) {
+      ChannelBuffer message = newMessage(messageId, 64);
+      expectedMessages.add(message);
+      receiveAll(fragment(messageId, message));
+    }
+    assertEquals(expectedMessages, messages);
+
+    // A late block of message 255 must not be mistaken for a block of message
+    // 0 (i.e. 256).
+    List<ChannelBuffer> lateDatagrams = fragment(255, newMessage(1, 64));
+    List<ChannelBuffer> datagrams = fragment(256, newMessage(2, 64));
+    receive(datagrams.get(0), publisherAddress);
+    receive(lateDatagrams.get(1), publisherAddress);
+    receiveAll(datagrams.subList(1, datagrams.size()));
+    assertEquals(expectedMessages.size(), messages.size());
+  }
+}
@@ -20,8 +20,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import com.google.common.util.concurrent.ListenableFuture;
+
 import org.junit.Test;
 import org.ros.RosTest;
+import org.ros.concurrent.Holder;
 import org.ros.exception.DuplicateServiceException;
 import org.ros.exception.RemoteException;
 import org.ros.exception.RosRuntimeException;
@@ -32,7 +35,9 @@ import org.ros.node.AbstractNodeMain;
 import org.ros.node.ConnectedNode;
 
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author damonkohler@google.com (Damon Kohler)
@@ -198,4 +203,175 @@ public class ServiceIntegrationTest extends RosTest {
 
     assertTrue(latch.await(1, TimeUnit.SECONDS));
   }
+
+  @Test
+  public void testConcurrentCalls() throws Exception {
+    final CountDownServiceServerListener<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse> countDownServiceServerListener =
+        CountDownServiceServerListener.newDefault();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("server");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        ServiceServer<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse> serviceServer =
+            connectedNode
+                .newServiceServer(
+                    SERVICE_NAME,
+                    rosjava_test_msgs.AddTwoInts._TYPE,
+                    new ServiceResponseBuilder<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse>() {
+                      @Override
+                      public void build(rosjava_test_msgs.AddTwoIntsRequest request,
+                          rosjava_test_msgs.AddTwoIntsResponse response) {
+                        response.setSum(request.getA() + request.getB());
+                      }
+                    });
+        serviceServer.addListener(countDownServiceServerListener);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(countDownServiceServerListener.awaitMasterRegistrationSuccess(1, TimeUnit.SECONDS));
+
+    final int numberOfThreads = 4;
+    final int callsPerThread = 100;
+    final CountDownLatch latch = new CountDownLatch(numberOfThreads * callsPerThread);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("client");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        final ServiceClient<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse> serviceClient;
+        try {
+          serviceClient = connectedNode.newServiceClient(SERVICE_NAME, rosjava_test_msgs.AddTwoInts._TYPE);
+        } catch (ServiceNotFoundException e) {
+          throw new RosRuntimeException(e);
+        }
+        for (int i = 0; i < numberOfThreads; i++) {
+          final int thread = i;
+          connectedNode.getScheduledExecutorService().execute(new Runnable() {
+            @Override
+            public void run() {
+              rosjava_test_msgs.AddTwoIntsRequest request = serviceClient.newMessage();
+              for (int j = 0; j < callsPerThread; j++) {
+                final long expectedSum = thread * callsPerThread + 2 * j;
+                request.setA(thread * callsPerThread + j);
+                request.setB(j);
+                serviceClient.call(request,
+                    new ServiceResponseListener<rosjava_test_msgs.AddTwoIntsResponse>() {
+                      @Override
+                      public void onSuccess(rosjava_test_msgs.AddTwoIntsResponse response) {
+                        if (response.getSum() == expectedSum) {
+                          latch.countDown();
+                        }
+                      }
+
+                      @Override
+                      public void onFailure(RemoteException e) {
+                        throw new RuntimeException(e);
+                      }
+                    });
+              }
+            }
+          });
+        }
+      }
+    }, nodeConfiguration);
+
+    assertTrue(latch.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testFutureCalls() throws Exception {
+    final CountDownServiceServerListener<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse> countDownServiceServerListener =
+        CountDownServiceServerListener.newDefault();
+    final CountDownLatch releaseServer = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("server");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        ServiceServer<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse> serviceServer =
+            connectedNode
+                .newServiceServer(
+                    SERVICE_NAME,
+                    rosjava_test_msgs.AddTwoInts._TYPE,
+                    new ServiceResponseBuilder<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse>() {
+                      @Override
+                      public void build(rosjava_test_msgs.AddTwoIntsRequest request,
+                          rosjava_test_msgs.AddTwoIntsResponse response) {
+                        // Negative requests are held until the end of the test.
+                        if (request.getA() < 0) {
+                          try {
+                            releaseServer.await();
+                          } catch (InterruptedException e) {
+                            throw new RosRuntimeException(e);
+                          }
+                        }
+                        response.setSum(request.getA() + request.getB());
+                      }
+                    });
+        serviceServer.addListener(countDownServiceServerListener);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(countDownServiceServerListener.awaitMasterRegistrationSuccess(1, TimeUnit.SECONDS));
+
+    final Holder<ServiceClient<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse>> holder =
+        Holder.newEmpty();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("client");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        try {
+          holder.set(connectedNode.<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse>newServiceClient(
+              SERVICE_NAME, rosjava_test_msgs.AddTwoInts._TYPE));
+        } catch (ServiceNotFoundException e) {
+          throw new RosRuntimeException(e);
+        }
+      }
+    }, nodeConfiguration);
+
+    assertTrue(holder.await(1, TimeUnit.SECONDS));
+    ServiceClient<rosjava_test_msgs.AddTwoIntsRequest, rosjava_test_msgs.AddTwoIntsResponse> serviceClient =
+        holder.get();
+    rosjava_test_msgs.AddTwoIntsRequest request = serviceClient.newMessage();
+    request.setA(2);
+    request.setB(3);
+    assertEquals(5, serviceClient.call(request, 1, TimeUnit.SECONDS).get().getSum());
+
+    try {
+      request.setA(-1);
+      ListenableFuture<rosjava_test_msgs.AddTwoIntsResponse> timedOut =
+          serviceClient.call(request, 10, TimeUnit.MILLISECONDS);
+      try {
+        timedOut.get(1, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof TimeoutException);
+      }
+
+      ListenableFuture<rosjava_test_msgs.AddTwoIntsResponse> pending = serviceClient.call(request);
+      serviceClient.shutdown();
+      try {
+        pending.get(1, TimeUnit.SECONDS);
+        fail();
+      } catch (ExecutionException e) {
+        assertTrue(e.getCause() instanceof RemoteException);
+      }
+    } finally {
+      releaseServer.countDown();
+    }
+  }
 }
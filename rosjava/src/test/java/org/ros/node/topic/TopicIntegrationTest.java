@@ -18,20 +18,29 @@ package org.ros.node.topic;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
-import static org.junit.Assert.fail;
 
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.junit.Test;
 import org.ros.RosTest;
 import org.ros.concurrent.CancellableLoop;
+import org.ros.concurrent.DefaultScheduledExecutorService;
+import org.ros.concurrent.ExecutorOptions;
+import org.ros.concurrent.Holder;
 import org.ros.internal.message.definition.MessageDefinitionReflectionProvider;
 import org.ros.internal.message.topic.TopicMessageFactory;
+import org.ros.internal.node.topic.DefaultPublisher;
 import org.ros.internal.node.topic.DefaultSubscriber;
 import org.ros.internal.node.topic.PublisherIdentifier;
+import org.ros.internal.transport.compression.DeflateCompressor;
 import org.ros.message.MessageDefinitionProvider;
 import org.ros.message.MessageListener;
 import org.ros.namespace.GraphName;
 import org.ros.node.AbstractNodeMain;
 import org.ros.node.ConnectedNode;
+import org.ros.node.DefaultNodeMainExecutor;
+import org.ros.node.NodeMainExecutor;
 
 import java.net.InetSocketAddress;
 import java.util.concurrent.CountDownLatch;
@@ -46,11 +55,12 @@ public class TopicIntegrationTest extends RosTest {
 
   private static final int QUEUE_CAPACITY = 128;
 
+  private final TopicMessageFactory topicMessageFactory;
   private final std_msgs.String expectedMessage;
 
   public TopicIntegrationTest() {
     MessageDefinitionProvider messageDefinitionProvider = new MessageDefinitionReflectionProvider();
-    TopicMessageFactory topicMessageFactory = new TopicMessageFactory(messageDefinitionProvider);
+    topicMessageFactory = new TopicMessageFactory(messageDefinitionProvider);
     expectedMessage = topicMessageFactory.newFromType(std_msgs.String._TYPE);
     expectedMessage.setData("Would you like to play a game?");
   }
@@ -96,6 +106,515 @@ public class TopicIntegrationTest extends RosTest {
     assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
   }
 
+  @Test
+  public void testSmallMaximumPoolSize() throws InterruptedException {
+    // The dispatchers, queue writers and network threads of both nodes exceed
+    // the maximum by far and must not take up any of its threads.
+    DefaultScheduledExecutorService executorService =
+        new DefaultScheduledExecutorService(new ExecutorOptions().poolSize(1, 2));
+    NodeMainExecutor smallNodeMainExecutor = DefaultNodeMainExecutor.newDefault(executorService);
+    try {
+      smallNodeMainExecutor.execute(new AbstractNodeMain() {
+        @Override
+        public GraphName getDefaultNodeName() {
+          return GraphName.of("publisher");
+        }
+
+        @Override
+        public void onStart(ConnectedNode connectedNode) {
+          Publisher<std_msgs.String> publisher =
+              connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+          publisher.setLatchMode(true);
+          publisher.publish(expectedMessage);
+        }
+      }, nodeConfiguration);
+
+      final CountDownLatch messageReceived = new CountDownLatch(1);
+      smallNodeMainExecutor.execute(new AbstractNodeMain() {
+        @Override
+        public GraphName getDefaultNodeName() {
+          return GraphName.of("subscriber");
+        }
+
+        @Override
+        public void onStart(ConnectedNode connectedNode) {
+          Subscriber<std_msgs.String> subscriber =
+              connectedNode.newSubscriber("foo", std_msgs.String._TYPE);
+          subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+            @Override
+            public void onNewMessage(std_msgs.String message) {
+              assertEquals(expectedMessage, message);
+              messageReceived.countDown();
+            }
+          }, QUEUE_CAPACITY);
+        }
+      }, nodeConfiguration);
+
+      assertTrue(messageReceived.await(5, TimeUnit.SECONDS));
+    } finally {
+      smallNodeMainExecutor.shutdown();
+      executorService.shutdown();
+    }
+  }
+
+  @Test
+  public void testIntraProcessPublisherToSubscriber() throws InterruptedException {
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE,
+                new PublisherOptions().immutableMessages(true));
+        publisher.setLatchMode(true);
+        publisher.publish(expectedMessage);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch messageReceived = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Subscriber<std_msgs.String> subscriber =
+            connectedNode.newSubscriber("foo", std_msgs.String._TYPE,
+                new TransportHints().intraProcess(true));
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            // Intra-process subscribers receive the published instance.
+            assertTrue(expectedMessage == message);
+            messageReceived.countDown();
+          }
+        }, QUEUE_CAPACITY);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testIntraProcessRequiresImmutableMessages() throws InterruptedException {
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+        publisher.setLatchMode(true);
+        publisher.publish(expectedMessage);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch messageReceived = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Subscriber<std_msgs.String> subscriber =
+            connectedNode.newSubscriber("foo", std_msgs.String._TYPE,
+                new TransportHints().intraProcess(true));
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            // The publisher may still modify the published instance.
+            assertTrue(expectedMessage != message);
+            assertEquals(expectedMessage, message);
+            messageReceived.countDown();
+          }
+        }, QUEUE_CAPACITY);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testIntraProcessSubscriberReconnectsAfterPublisherShutdown()
+      throws InterruptedException {
+    final Holder<ConnectedNode> publisherNode = Holder.newEmpty();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE,
+                new PublisherOptions().immutableMessages(true));
+        publisher.setLatchMode(true);
+        publisher.publish(expectedMessage);
+        publisherNode.set(connectedNode);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch firstMessageReceived = new CountDownLatch(1);
+    final CountDownLatch messageReceivedAfterReconnect = new CountDownLatch(1);
+    final Holder<DefaultSubscriber<std_msgs.String>> subscriberHolder = Holder.newEmpty();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        final DefaultSubscriber<std_msgs.String> subscriber =
+            (DefaultSubscriber<std_msgs.String>) connectedNode.<std_msgs.String>newSubscriber(
+                GraphName.of("foo"), std_msgs.String._TYPE,
+                new TransportHints().intraProcess(true),
+                new SubscriberOptions().reconnectBackoff(10, 100, TimeUnit.MILLISECONDS));
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            if (firstMessageReceived.getCount() > 0) {
+              firstMessageReceived.countDown();
+            } else if (subscriber.getNumberOfReconnects() > 0) {
+              messageReceivedAfterReconnect.countDown();
+            }
+          }
+        }, QUEUE_CAPACITY);
+        subscriberHolder.set(subscriber);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(publisherNode.await(1, TimeUnit.SECONDS));
+    assertTrue(subscriberHolder.await(1, TimeUnit.SECONDS));
+    assertTrue(firstMessageReceived.await(1, TimeUnit.SECONDS));
+    ConnectedNode connectedNode = publisherNode.get();
+    connectedNode.<std_msgs.String>newPublisher("foo", std_msgs.String._TYPE).shutdown();
+    assertEquals(1, subscriberHolder.get().getNumberOfDroppedConnections());
+    Publisher<std_msgs.String> publisher =
+        connectedNode.newPublisher("foo", std_msgs.String._TYPE,
+            new PublisherOptions().immutableMessages(true));
+    publisher.setLatchMode(true);
+    publisher.publish(expectedMessage);
+    assertTrue(messageReceivedAfterReconnect.await(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testSharedMemoryPublisherToSubscriber() throws InterruptedException {
+    final Holder<Publisher<std_msgs.String>> publisherHolder = Holder.newEmpty();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+        publisher.setLatchMode(true);
+        publisher.publish(expectedMessage);
+        publisherHolder.set(publisher);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch messageReceived = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Subscriber<std_msgs.String> subscriber =
+            connectedNode.newSubscriber("foo", std_msgs.String._TYPE,
+                new TransportHints().sharedMemory(true));
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            assertEquals(expectedMessage, message);
+            messageReceived.countDown();
+          }
+        }, QUEUE_CAPACITY);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
+    assertTrue(publisherHolder.await(1, TimeUnit.SECONDS));
+    assertEquals(1, ((DefaultPublisher<std_msgs.String>) publisherHolder.get())
+        .getNumberOfSharedMemorySubscribers());
+  }
+
+  @Test
+  public void testUdpPublisherToSubscriber() throws InterruptedException {
+    final std_msgs.String largeMessage = topicMessageFactory.newFromType(std_msgs.String._TYPE);
+    StringBuilder data = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      data.append(i % 10);
+    }
+    largeMessage.setData(data.toString());
+
+    final Holder<Publisher<std_msgs.String>> publisherHolder = Holder.newEmpty();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+        publisher.setLatchMode(true);
+        publisher.publish(largeMessage);
+        publisherHolder.set(publisher);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch messageReceived = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        // Use small datagrams to make sure the message is fragmented.
+        Subscriber<std_msgs.String> subscriber =
+            connectedNode.newSubscriber("foo", std_msgs.String._TYPE,
+                new TransportHints().udp(true).maxDatagramSize(128));
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            assertEquals(largeMessage, message);
+            messageReceived.countDown();
+          }
+        }, QUEUE_CAPACITY);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
+    // Make sure the message did not arrive over a TCPROS fallback.
+    assertTrue(publisherHolder.await(1, TimeUnit.SECONDS));
+    assertEquals(1,
+        ((DefaultPublisher<std_msgs.String>) publisherHolder.get()).getNumberOfUdpSubscribers());
+  }
+
+  @Test
+  public void testUdpSubscriberShutdownStopsPublisher() throws InterruptedException {
+    final Holder<Publisher<std_msgs.String>> publisherHolder = Holder.newEmpty();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        final Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+        connectedNode.executeCancellableLoop(new CancellableLoop() {
+          @Override
+          protected void loop() throws InterruptedException {
+            publisher.publish(expectedMessage);
+            Thread.sleep(10);
+          }
+        });
+        publisherHolder.set(publisher);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch messageReceived = new CountDownLatch(1);
+    final Holder<Subscriber<std_msgs.String>> subscriberHolder = Holder.newEmpty();
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Subscriber<std_msgs.String> subscriber =
+            connectedNode.newSubscriber("foo", std_msgs.String._TYPE,
+                new TransportHints().udp(true));
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            messageReceived.countDown();
+          }
+        }, QUEUE_CAPACITY);
+        subscriberHolder.set(subscriber);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(publisherHolder.await(1, TimeUnit.SECONDS));
+    assertTrue(subscriberHolder.await(1, TimeUnit.SECONDS));
+    assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
+    Publisher<std_msgs.String> publisher = publisherHolder.get();
+    assertEquals(1, publisher.getNumberOfSubscribers());
+    subscriberHolder.get().shutdown();
+    for (int i = 0; i < 100 && publisher.getNumberOfSubscribers() > 0; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(0, publisher.getNumberOfSubscribers());
+  }
+
+  @Test
+  public void testCompressedPublisherToSubscriber() throws InterruptedException {
+    final std_msgs.String largeMessage = topicMessageFactory.newFromType(std_msgs.String._TYPE);
+    StringBuilder data = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      data.append(i % 10);
+    }
+    largeMessage.setData(data.toString());
+
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE,
+                new PublisherOptions().compression(new DeflateCompressor(), 128));
+        publisher.setLatchMode(true);
+        publisher.publish(largeMessage);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch messageReceived = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Subscriber<std_msgs.String> subscriber =
+            connectedNode.newSubscriber("foo", std_msgs.String._TYPE);
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            assertEquals(largeMessage, message);
+            messageReceived.countDown();
+          }
+        }, QUEUE_CAPACITY);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testRawSubscriberToRawPublisher() throws InterruptedException {
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+        publisher.setLatchMode(true);
+        publisher.publish(expectedMessage);
+      }
+    }, nodeConfiguration);
+
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("relay");
+      }
+
+      @Override
+      public void onStart(final ConnectedNode connectedNode) {
+        Subscriber<SerializedMessage> subscriber = connectedNode.newRawSubscriber("foo");
+        subscriber.addMessageListener(new MessageListener<SerializedMessage>() {
+          @Override
+          public void onNewMessage(SerializedMessage message) {
+            assertEquals(std_msgs.String._TYPE, message.getType());
+            Publisher<SerializedMessage> publisher =
+                connectedNode.newRawPublisher("bar", message.getType(),
+                    message.getMd5Checksum(), message.getDefinition());
+            publisher.setLatchMode(true);
+            publisher.publish(message);
+          }
+        }, QUEUE_CAPACITY);
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch messageReceived = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        Subscriber<std_msgs.String> subscriber =
+            connectedNode.newSubscriber("bar", std_msgs.String._TYPE);
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            assertEquals(expectedMessage, message);
+            messageReceived.countDown();
+          }
+        }, QUEUE_CAPACITY);
+      }
+    }, nodeConfiguration);
+
+    assertTrue(messageReceived.await(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testRawAndTypedParticipantsDoNotShareTopics() throws InterruptedException {
+    final CountDownLatch rejected = new CountDownLatch(2);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("node");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        connectedNode.newRawPublisher("foo", std_msgs.String._TYPE,
+            "992ce8a1687cec8c8bd883ec73ca41d1", "string data\n");
+        try {
+          connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+        } catch (IllegalStateException e) {
+          rejected.countDown();
+        }
+        connectedNode.newRawSubscriber("bar");
+        try {
+          connectedNode.newSubscriber("bar", std_msgs.String._TYPE);
+        } catch (IllegalStateException e) {
+          rejected.countDown();
+        }
+      }
+    }, nodeConfiguration);
+
+    assertTrue(rejected.await(1, TimeUnit.SECONDS));
+  }
+
   /**
    * This is a regression test.
    * 
@@ -152,7 +671,8 @@ public class TopicIntegrationTest extends RosTest {
   }
 
   @Test
-  public void testAddDisconnectedPublisher() {
+  public void testAddDisconnectedPublisher() throws InterruptedException {
+    final CountDownLatch connectionFailed = new CountDownLatch(1);
     nodeMainExecutor.execute(new AbstractNodeMain() {
       @Override
       public GraphName getDefaultNodeName() {
@@ -164,15 +684,78 @@ public class TopicIntegrationTest extends RosTest {
         DefaultSubscriber<std_msgs.String> subscriber =
             (DefaultSubscriber<std_msgs.String>) connectedNode.<std_msgs.String>newSubscriber(
                 "foo", std_msgs.String._TYPE);
-        try {
-          subscriber.addPublisher(PublisherIdentifier.newFromStrings("foo", "http://foo", "foo"),
-              new InetSocketAddress(1234));
-          fail();
-        } catch (RuntimeException e) {
-          // Connecting to a disconnected publisher should fail.
-        }
+        ChannelFuture future =
+            subscriber.addPublisher(PublisherIdentifier.newFromStrings("foo", "http://foo", "foo"),
+                new InetSocketAddress(1234));
+        // Connecting to a disconnected publisher should fail.
+        future.addListener(new ChannelFutureListener() {
+          @Override
+          public void operationComplete(ChannelFuture future) {
+            if (!future.isSuccess()) {
+              connectionFailed.countDown();
+            }
+          }
+        });
+      }
+    }, nodeConfiguration);
+
+    assertTrue(connectionFailed.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testReconnectAfterDroppedConnection() throws InterruptedException {
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("publisher");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        final Publisher<std_msgs.String> publisher =
+            connectedNode.newPublisher("foo", std_msgs.String._TYPE);
+        connectedNode.executeCancellableLoop(new CancellableLoop() {
+          @Override
+          protected void loop() throws InterruptedException {
+            publisher.publish(expectedMessage);
+            Thread.sleep(10);
+          }
+        });
+      }
+    }, nodeConfiguration);
+
+    final CountDownLatch firstMessageReceived = new CountDownLatch(1);
+    final CountDownLatch messageReceivedAfterReconnect = new CountDownLatch(1);
+    nodeMainExecutor.execute(new AbstractNodeMain() {
+      @Override
+      public GraphName getDefaultNodeName() {
+        return GraphName.of("subscriber");
+      }
+
+      @Override
+      public void onStart(ConnectedNode connectedNode) {
+        final DefaultSubscriber<std_msgs.String> subscriber =
+            (DefaultSubscriber<std_msgs.String>) connectedNode.<std_msgs.String>newSubscriber(
+                GraphName.of("foo"), std_msgs.String._TYPE, new TransportHints(),
+                new SubscriberOptions().reconnectBackoff(10, 100, TimeUnit.MILLISECONDS));
+        subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+          @Override
+          public void onNewMessage(std_msgs.String message) {
+            if (firstMessageReceived.getCount() > 0) {
+              for (Channel channel : subscriber.getPublisherChannels()) {
+                channel.close();
+              }
+              firstMessageReceived.countDown();
+            } else if (subscriber.getNumberOfReconnects() > 0) {
+              messageReceivedAfterReconnect.countDown();
+            }
+          }
+        });
       }
     }, nodeConfiguration);
+
+    assertTrue(firstMessageReceived.await(1, TimeUnit.SECONDS));
+    assertTrue(messageReceivedAfterReconnect.await(5, TimeUnit.SECONDS));
   }
 
   private final class Listener implements MessageListener<rosjava_test_msgs.TestHeader> {
@@ -0,0 +1,171 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.rosjava_benchmarks;
+
+import com.google.common.base.Strings;
+
+import org.ros.concurrent.CancellableLoop;
+import org.ros.concurrent.OverflowPolicy;
+import org.ros.message.MessageListener;
+import org.ros.namespace.GraphName;
+import org.ros.node.AbstractNodeMain;
+import org.ros.node.ConnectedNode;
+import org.ros.node.DefaultNodeMainExecutor;
+import org.ros.node.Node;
+import org.ros.node.NodeConfiguration;
+import org.ros.node.NodeMainExecutor;
+import org.ros.node.topic.Publisher;
+import org.ros.node.topic.PublisherOptions;
+import org.ros.node.topic.Subscriber;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the throughput and garbage collection overhead of TCPROS with heap
+ * and direct (off-heap) buffers.
+ * <p>
+ * Alternately runs a node with heap buffers and a node with direct buffers
+ * that each publish large messages to themselves over TCPROS. Garbage
+ * collection statistics are for the whole JVM, so only one of the nodes runs
+ * at a time.
+ */
+public class BufferBenchmark extends AbstractNodeMain {
+
+  private static final int PAYLOAD_SIZE = 256 * 1024;
+  private static final long WARM_UP_MILLIS = TimeUnit.SECONDS.toMillis(2);
+  private static final long RUN_MILLIS = TimeUnit.SECONDS.toMillis(10);
+
+  private final AtomicLong messageCounter;
+  private final AtomicLong byteCounter;
+
+  private NodeMainExecutor nodeMainExecutor;
+
+  public BufferBenchmark() {
+    messageCounter = new AtomicLong();
+    byteCounter = new AtomicLong();
+  }
+
+  private final class PayloadNode extends AbstractNodeMain {
+
+    private final boolean directBuffers;
+
+    public PayloadNode(boolean directBuffers) {
+      this.directBuffers = directBuffers;
+    }
+
+    @Override
+    public GraphName getDefaultNodeName() {
+      return GraphName.of("buffer_benchmark/" + (directBuffers ? "direct" : "heap"));
+    }
+
+    @Override
+    public void onStart(ConnectedNode connectedNode) {
+      String topicName = getDefaultNodeName().join("payload").toString();
+      final Publisher<std_msgs.String> publisher =
+          connectedNode.newPublisher(topicName, std_msgs.String._TYPE,
+              new PublisherOptions().queue(PublisherOptions.DEFAULT_QUEUE_CAPACITY,
+                  OverflowPolicy.BLOCK));
+      Subscriber<std_msgs.String> subscriber =
+          connectedNode.newSubscriber(topicName, std_msgs.String._TYPE);
+      subscriber.addMessageListener(new MessageListener<std_msgs.String>() {
+        @Override
+        public void onNewMessage(std_msgs.String message) {
+          messageCounter.incrementAndGet();
+          byteCounter.addAndGet(message.getData().length());
+        }
+      });
+      final std_msgs.String payload = publisher.newMessage();
+      payload.setData(Strings.repeat("x", PAYLOAD_SIZE));
+      connectedNode.executeCancellableLoop(new CancellableLoop() {
+        @Override
+        protected void loop() throws InterruptedException {
+          publisher.publish(payload);
+        }
+      });
+    }
+  }
+
+  @Override
+  public GraphName getDefaultNodeName() {
+    return GraphName.of("buffer_benchmark");
+  }
+
+  @Override
+  public void onStart(final ConnectedNode connectedNode) {
+    nodeMainExecutor = DefaultNodeMainExecutor.newDefault();
+    final Publisher<std_msgs.String> statusPublisher =
+        connectedNode.newPublisher("status", std_msgs.String._TYPE);
+    final std_msgs.String status = statusPublisher.newMessage();
+    connectedNode.executeCancellableLoop(new CancellableLoop() {
+      private boolean directBuffers;
+
+      @Override
+      protected void loop() throws InterruptedException {
+        PayloadNode payloadNode = new PayloadNode(directBuffers);
+        NodeConfiguration nodeConfiguration =
+            NodeConfiguration.newPrivate(connectedNode.getMasterUri());
+        nodeConfiguration.setDirectBuffers(directBuffers);
+        nodeMainExecutor.execute(payloadNode, nodeConfiguration);
+        try {
+          Thread.sleep(WARM_UP_MILLIS);
+          messageCounter.set(0);
+          byteCounter.set(0);
+          long collections = getCollectionCount();
+          long collectionTime = getCollectionTime();
+          long start = System.nanoTime();
+          Thread.sleep(RUN_MILLIS);
+          double seconds = (System.nanoTime() - start) / 1e9;
+          status.setData(String.format(
+              "%s buffers: %.2f msg/s, %.2f MB/s, %d collections, %d ms collecting",
+              directBuffers ? "Direct" : "Heap", messageCounter.get() / seconds,
+              byteCounter.get() / seconds / (1024 * 1024), getCollectionCount() - collections,
+              getCollectionTime() - collectionTime));
+          statusPublisher.publish(status);
+        } finally {
+          nodeMainExecutor.shutdownNodeMain(payloadNode);
+        }
+        directBuffers = !directBuffers;
+      }
+    });
+  }
+
+  @Override
+  public void onShutdown(Node node) {
+    if (nodeMainExecutor != null) {
+      nodeMainExecutor.shutdown();
+    }
+  }
+
+  private static long getCollectionCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, bean.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long getCollectionTime() {
+    long time = 0;
+    for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      time += Math.max(0, bean.getCollectionTime());
+    }
+    return time;
+  }
+}
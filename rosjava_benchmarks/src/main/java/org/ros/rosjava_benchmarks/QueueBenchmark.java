@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2026 The rosjava Authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.ros.rosjava_benchmarks;
+
+import org.ros.concurrent.CancellableLoop;
+import org.ros.concurrent.CircularBlockingDeque;
+import org.ros.concurrent.RingBuffer;
+import org.ros.namespace.GraphName;
+import org.ros.node.AbstractNodeMain;
+import org.ros.node.ConnectedNode;
+import org.ros.node.topic.Publisher;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Compares the throughput of {@link RingBuffer} and
+ * {@link CircularBlockingDeque} with one producer and one consumer.
+ * <p>
+ * The queues are measured one after the other so that they do not compete for
+ * CPUs. A producer only adds an entry once the consumer has made room for it.
+ * So, neither queue drops entries and both move the same number of them.
+ */
+public class QueueBenchmark extends AbstractNodeMain {
+
+  private static final int CAPACITY = 16;
+  private static final int ENTRIES_PER_TRIAL = 1000000;
+
+  private interface BenchmarkQueue {
+    void addLast(Object entry);
+
+    Object takeFirst() throws InterruptedException;
+  }
+
+  @Override
+  public GraphName getDefaultNodeName() {
+    return GraphName.of("queue_benchmark");
+  }
+
+  @Override
+  public void onStart(final ConnectedNode connectedNode) {
+    final ExecutorService executorService = connectedNode.getScheduledExecutorService();
+    final Publisher<std_msgs.String> statusPublisher =
+        connectedNode.newPublisher("status", std_msgs.String._TYPE);
+    final std_msgs.String status = statusPublisher.newMessage();
+    connectedNode.executeCancellableLoop(new CancellableLoop() {
+      @Override
+      protected void loop() throws InterruptedException {
+        final RingBuffer<Object> ringBuffer = new RingBuffer<Object>(CAPACITY);
+        double ringBufferHz = measure(executorService, new BenchmarkQueue() {
+          @Override
+          public void addLast(Object entry) {
+            ringBuffer.addLast(entry);
+          }
+
+          @Override
+          public Object takeFirst() throws InterruptedException {
+            return ringBuffer.takeFirst();
+          }
+        });
+        final CircularBlockingDeque<Object> deque = new CircularBlockingDeque<Object>(CAPACITY);
+        double dequeHz = measure(executorService, new BenchmarkQueue() {
+          @Override
+          public void addLast(Object entry) {
+            deque.addLast(entry);
+          }
+
+          @Override
+          public Object takeFirst() throws InterruptedException {
+            return deque.takeFirst();
+          }
+        });
+        status.setData(String.format("RingBuffer: %.2f Hz, CircularBlockingDeque: %.2f Hz",
+            ringBufferHz, dequeHz));
+        statusPublisher.publish(status);
+      }
+    });
+  }
+
+  /**
+   * Moves {@link #ENTRIES_PER_TRIAL} entries from a producer thread to the
+   * calling thread.
+   * 
+   * @return the number of entries moved per second
+   */
+  private double measure(ExecutorService executorService, final BenchmarkQueue queue)
+      throws InterruptedException {
+    final Object entry = new Object();
+    final Semaphore space = new Semaphore(CAPACITY);
+    final CountDownLatch producerDone = new CountDownLatch(1);
+    long start = System.nanoTime();
+    executorService.execute(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          for (int i = 0; i < ENTRIES_PER_TRIAL; i++) {
+            space.acquire();
+            queue.addLast(entry);
+          }
+        } catch (InterruptedException e) {
+          // Cancelled along with the node.
+        } finally {
+          producerDone.countDown();
+        }
+      }
+    });
+    for (int i = 0; i < ENTRIES_PER_TRIAL; i++) {
+      queue.takeFirst();
+      space.release();
+    }
+    long delta = System.nanoTime() - start;
+    producerDone.await();
+    return ENTRIES_PER_TRIAL * 1e9 / delta;
+  }
+}